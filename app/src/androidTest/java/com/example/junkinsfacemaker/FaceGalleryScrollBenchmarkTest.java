@@ -0,0 +1,131 @@
+package com.example.junkinsfacemaker;
+
+import android.content.Intent;
+import android.os.Bundle;
+import android.os.SystemClock;
+import android.util.Log;
+import android.view.Choreographer;
+
+import androidx.recyclerview.widget.GridLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+import androidx.test.core.app.ActivityScenario;
+import androidx.test.core.app.ApplicationProvider;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.junkinsfacemaker.core.FrameStats;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Scroll-jank benchmark: a steady fling through the gallery, one scroll
+ * step per vsync, timed by the Choreographer's frame times
+ * a frame that comes more than half a refresh period late missed a
+ * vsync; the missed vsyncs are reported as dropped frames, together
+ * with the frame intervals, without asserting on either, since they
+ * depend on the device
+ * results go to logcat and to the instrumentation status, so they show
+ * up in the connectedAndroidTest output
+ */
+@RunWith(AndroidJUnit4.class)
+public class FaceGalleryScrollBenchmarkTest {
+    private static final int FACES = 10_000;
+    private static final int WARMUP_FRAMES = 30;
+    private static final int FRAMES = 600;
+    private static final int SCROLL_PER_FRAME = 120;
+    private static final long TIMEOUT_MILLIS = 30_000;
+
+    //drives the scroll and times each frame, all on the UI thread
+    private static final class Fling implements Choreographer.FrameCallback {
+        private final RecyclerView grid;
+        private final long periodNanos;
+        private final FrameStats stats = new FrameStats("gallery scroll");
+        private final CountDownLatch done = new CountDownLatch(1);
+        private long lastFrameNanos;
+        private int frame;
+        private long dropped;
+
+        Fling(RecyclerView grid, float refreshRate) {
+            this.grid = grid;
+            periodNanos = (long) (1_000_000_000L / refreshRate);
+        }
+
+        @Override
+        public void doFrame(long frameTimeNanos) {
+            if (frame > WARMUP_FRAMES) {
+                long interval = frameTimeNanos - lastFrameNanos;
+                stats.record(interval);
+                //vsyncs between this frame and the last that had none
+                dropped += Math.max(0,
+                        (interval + periodNanos / 2) / periodNanos - 1);
+            }
+            lastFrameNanos = frameTimeNanos;
+            if (frame++ == WARMUP_FRAMES + FRAMES) {
+                done.countDown();
+                return;
+            }
+            grid.scrollBy(0, SCROLL_PER_FRAME);
+            Choreographer.getInstance().postFrameCallback(this);
+        }
+    }
+
+    //waits for the faces to be made and the grid to fill
+    private static void awaitFaces(
+            ActivityScenario<FaceGalleryActivity> scenario) {
+        boolean[] ready = {false};
+        long deadline = SystemClock.uptimeMillis() + TIMEOUT_MILLIS;
+        while (!ready[0] && SystemClock.uptimeMillis() < deadline) {
+            scenario.onActivity(a -> ready[0] = a.getAdapter() != null
+                    && a.getGrid().getChildCount() > 0);
+            SystemClock.sleep(10);
+        }
+        assertTrue("no faces within " + TIMEOUT_MILLIS + " ms", ready[0]);
+    }
+
+    @Test
+    public void fling_reportsDroppedFrames() throws InterruptedException {
+        Intent intent = new Intent(ApplicationProvider.getApplicationContext(),
+                FaceGalleryActivity.class)
+                .putExtra(FaceGalleryActivity.EXTRA_COUNT, FACES)
+                .putExtra(FaceGalleryActivity.EXTRA_SEED, 14L);
+        try (ActivityScenario<FaceGalleryActivity> scenario =
+                     ActivityScenario.launch(intent)) {
+            awaitFaces(scenario);
+            Fling[] fling = {null};
+            scenario.onActivity(a -> {
+                fling[0] = new Fling(a.getGrid(), a.getWindowManager()
+                        .getDefaultDisplay().getRefreshRate());
+                Choreographer.getInstance().postFrameCallback(fling[0]);
+            });
+            assertTrue("fling did not finish",
+                    fling[0].done.await(TIMEOUT_MILLIS,
+                            TimeUnit.MILLISECONDS));
+
+            FrameStats stats = fling[0].stats;
+            int[] last = {0};
+            scenario.onActivity(a -> last[0] = ((GridLayoutManager) a
+                    .getGrid().getLayoutManager())
+                    .findLastVisibleItemPosition());
+            Log.i("FaceGallery", stats + ", dropped " + fling[0].dropped
+                    + " of " + FRAMES + " frames, scrolled to face "
+                    + last[0]);
+            Bundle results = new Bundle();
+            results.putLong("frames", stats.getCount());
+            results.putLong("dropped_frames", fling[0].dropped);
+            results.putInt("frame_p50_ms", stats.getPercentileMillis(.5));
+            results.putInt("frame_p99_ms", stats.getPercentileMillis(.99));
+            results.putLong("frame_max_ms", stats.getMaxNanos() / 1_000_000);
+            InstrumentationRegistry.getInstrumentation().sendStatus(0,
+                    results);
+
+            assertEquals(FRAMES, stats.getCount());
+            assertTrue(last[0] > 1000);
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.junkinsfacemaker;
+
+import android.content.Context;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.PixelFormat;
+import android.media.Image;
+import android.media.ImageReader;
+import android.os.Build;
+import android.os.Bundle;
+import android.util.Log;
+import android.view.Surface;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.junkinsfacemaker.core.HairstyleRegistry;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Benchmark of the face's render paths on a hardware canvas, the kind a
+ * window draws with: direct path drawing, layered masks, the bitmap
+ * cache and recorded display lists
+ * every frame is a seek bar step on one color, as in a drag, and every
+ * 16th frame changes the hairstyle; a frame is timed from the start of
+ * drawing until the GPU has it
+ * results go to logcat and to the instrumentation status
+ */
+@RunWith(AndroidJUnit4.class)
+public class FaceRenderPathBenchmarkTest {
+    private static final int WIDTH = 1080;
+    private static final int HEIGHT = 1200;
+    private static final int WARMUP_FRAMES = 60;
+    private static final int FRAMES = 600;
+
+    private static final String[] PATHS = {"direct", "layered", "bitmap",
+            "recorded"};
+
+    //sets a face up to draw one way
+    private static Face newFace(Context context, String path) {
+        Face face = new Face(context, null);
+        face.setRenderCacheBytes("bitmap".equals(path)
+                ? FaceBitmapCache.defaultBudget() : 0);
+        face.setLayeredRendering("layered".equals(path));
+        face.setRecordedRendering("recorded".equals(path));
+        face.layout(0, 0, WIDTH, HEIGHT);
+        return face;
+    }
+
+    //the memory a face keeps for drawing, besides its shared paths
+    private static long retainedBytes(Face face) {
+        long bytes = 0;
+        if (face.getRenderCache() != null) {
+            bytes += face.getRenderCache().size();
+        }
+        if (face.getLayerCompositor() != null) {
+            bytes += face.getLayerCompositor().getRetainedBytes();
+        }
+        if (face.getDisplayList() != null) {
+            bytes += face.getDisplayList().getRetainedBytes();
+        }
+        return bytes;
+    }
+
+    //draws one frame on a hardware canvas and waits for it
+    private static long frame(Face face, Surface surface, ImageReader reader,
+                              int i) {
+        face.setHairColor(Color.rgb(i & 0xff, 0x40, 0x20));
+        face.applyTraitChanges(Face.CHANGED_HAIR);
+        if (i % 16 == 0) {
+            face.setHairStyle((face.getHairStyle() + 1)
+                    % HairstyleRegistry.getDefault().size());
+        }
+        long start = System.nanoTime();
+        Canvas canvas = surface.lockHardwareCanvas();
+        canvas.drawColor(Color.WHITE);
+        face.onDraw(canvas);
+        surface.unlockCanvasAndPost(canvas);
+        Image image = reader.acquireLatestImage();
+        long nanos = System.nanoTime() - start;
+        if (image != null) {
+            image.close();
+        }
+        return nanos;
+    }
+
+    @Test
+    public void renderPaths_frameTimeAndMemory() {
+        assumeTrue("hardware canvases on surfaces need API 23",
+                Build.VERSION.SDK_INT >= Build.VERSION_CODES.M);
+        Context context =
+                InstrumentationRegistry.getInstrumentation().getTargetContext();
+        Bundle results = new Bundle();
+        for (String path : PATHS) {
+            ImageReader reader = ImageReader.newInstance(WIDTH, HEIGHT,
+                    PixelFormat.RGBA_8888, 2);
+            Surface surface = reader.getSurface();
+            long[] nanos = new long[FRAMES];
+            try {
+                Face face = newFace(context, path);
+                for (int i = 0; i < WARMUP_FRAMES; i++) {
+                    frame(face, surface, reader, i);
+                }
+                for (int i = 0; i < FRAMES; i++) {
+                    nanos[i] = frame(face, surface, reader, i);
+                }
+                Arrays.sort(nanos);
+                double median = nanos[FRAMES / 2] / 1e6;
+                double p90 = nanos[FRAMES * 9 / 10] / 1e6;
+                long bytes = retainedBytes(face);
+                Log.i("FaceRenderPaths", String.format(
+                        "%s: median %.3f ms, p90 %.3f ms, %d bytes",
+                        path, median, p90, bytes));
+                results.putDouble(path + "_median_ms", median);
+                results.putDouble(path + "_p90_ms", p90);
+                results.putLong(path + "_bytes", bytes);
+                assertTrue(nanos[0] > 0);
+            }
+            finally {
+                surface.release();
+                reader.close();
+            }
+        }
+        InstrumentationRegistry.getInstrumentation().sendStatus(0, results);
+    }
+}
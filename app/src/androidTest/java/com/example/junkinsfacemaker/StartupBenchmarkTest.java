@@ -0,0 +1,152 @@
+package com.example.junkinsfacemaker;
+
+import android.app.Instrumentation;
+import android.os.Bundle;
+import android.os.Parcel;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.test.core.app.ActivityScenario;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+/**
+ * Startup benchmark: time from MainActivity.onCreate to the face's first
+ * frame, as the activity measures it
+ * the first launch in the test process pays for class loading and
+ * building the face's shapes, the later ones find them cached; a start
+ * from a dead process needs a separate benchmark app, which this
+ * project's Android Gradle plugin cannot build yet
+ * a restore is timed the same way, after a configuration change: the
+ * saved face comes back without a random one being made first. a cold
+ * restore, after process death, is timed as a recreation with the
+ * shared face geometry evicted, plus the time to parcel and unparcel
+ * the saved state as the system does; class loading in a new process
+ * isn't included
+ * results go to logcat and to the instrumentation status, so they show
+ * up in the connectedAndroidTest output
+ */
+@RunWith(AndroidJUnit4.class)
+public class StartupBenchmarkTest {
+    private static final int WARM_RUNS = 10;
+    private static final long TIMEOUT_MILLIS = 5000;
+
+    //launches the activity and waits for its first face frame
+    private static long launch() {
+        try (ActivityScenario<MainActivity> scenario =
+                     ActivityScenario.launch(MainActivity.class)) {
+            return firstFrame(scenario);
+        }
+    }
+
+    //launches the activity, then times its recreation to a face frame
+    private static long restore() {
+        try (ActivityScenario<MainActivity> scenario =
+                     ActivityScenario.launch(MainActivity.class)) {
+            firstFrame(scenario);
+            scenario.recreate();
+            return firstFrame(scenario);
+        }
+    }
+
+    //launches the activity, then times a restore with nothing cached
+    private static long coldRestore() {
+        try (ActivityScenario<MainActivity> scenario =
+                     ActivityScenario.launch(MainActivity.class)) {
+            firstFrame(scenario);
+            Instrumentation instrumentation =
+                    InstrumentationRegistry.getInstrumentation();
+            Bundle saved = new Bundle();
+            scenario.onActivity(a ->
+                    instrumentation.callActivityOnSaveInstanceState(a, saved));
+            long start = SystemClock.uptimeMillis();
+            assertFalse(throughParcel(saved).isEmpty());
+            long parcelMillis = SystemClock.uptimeMillis() - start;
+
+            //a new process has no cached face geometry
+            instrumentation.runOnMainSync(
+                    () -> FacePathCache.getShared().evictAll());
+            scenario.recreate();
+            return parcelMillis + firstFrame(scenario);
+        }
+    }
+
+    //the saved state as a new process gets it back
+    private static Bundle throughParcel(Bundle state) {
+        Parcel parcel = Parcel.obtain();
+        try {
+            state.writeToParcel(parcel, 0);
+            parcel.setDataPosition(0);
+            Bundle copy = Bundle.CREATOR.createFromParcel(parcel);
+            copy.setClassLoader(MainActivity.class.getClassLoader());
+            return copy;
+        }
+        finally {
+            parcel.recycle();
+        }
+    }
+
+    //waits for the current activity's first face frame
+    private static long firstFrame(ActivityScenario<MainActivity> scenario) {
+        long[] millis = {-1};
+        long deadline = SystemClock.uptimeMillis() + TIMEOUT_MILLIS;
+        while (millis[0] < 0 && SystemClock.uptimeMillis() < deadline) {
+            scenario.onActivity(a -> millis[0] = a.getFirstFaceFrameMillis());
+            SystemClock.sleep(5);
+        }
+        assertTrue("no face frame within " + TIMEOUT_MILLIS + " ms",
+                millis[0] >= 0);
+        return millis[0];
+    }
+
+    @Test
+    public void startup_toFirstFaceFrame() {
+        long first = launch();
+        long[] warm = new long[WARM_RUNS];
+        for (int run = 0; run < WARM_RUNS; run++) {
+            warm[run] = launch();
+        }
+        Arrays.sort(warm);
+        long median = warm[WARM_RUNS / 2];
+
+        Log.i("FaceStartup", "first launch " + first + " ms, warm median "
+                + median + " ms, warm max " + warm[WARM_RUNS - 1] + " ms");
+        Bundle results = new Bundle();
+        results.putLong("first_launch_ms", first);
+        results.putLong("warm_median_ms", median);
+        results.putLong("warm_max_ms", warm[WARM_RUNS - 1]);
+        InstrumentationRegistry.getInstrumentation().sendStatus(0, results);
+    }
+
+    @Test
+    public void restore_toFirstFaceFrame() {
+        long[] restored = new long[WARM_RUNS];
+        long[] cold = new long[WARM_RUNS];
+        long[] launched = new long[WARM_RUNS];
+        for (int run = 0; run < WARM_RUNS; run++) {
+            restored[run] = restore();
+            cold[run] = coldRestore();
+            launched[run] = launch();
+        }
+        Arrays.sort(restored);
+        Arrays.sort(cold);
+        Arrays.sort(launched);
+
+        Log.i("FaceStartup", "restore median "
+                + restored[WARM_RUNS / 2] + " ms, cold restore median "
+                + cold[WARM_RUNS / 2] + " ms, launch median "
+                + launched[WARM_RUNS / 2] + " ms");
+        Bundle results = new Bundle();
+        results.putLong("restore_median_ms", restored[WARM_RUNS / 2]);
+        results.putLong("cold_restore_median_ms", cold[WARM_RUNS / 2]);
+        results.putLong("launch_median_ms", launched[WARM_RUNS / 2]);
+        InstrumentationRegistry.getInstrumentation().sendStatus(0, results);
+    }
+}
@@ -1,6 +1,6 @@
 /**
  * FaceMaker Face Class
- * contains values for the face's traits
+ * draws a face whose traits are held in a FaceModel
  * currently only generated with random values
  *
  * @version Oct 6 2020
@@ -9,28 +9,65 @@
 package com.example.junkinsfacemaker;
 
 import android.content.Context;
+import android.content.res.TypedArray;
+import android.graphics.Bitmap;
 import android.graphics.Canvas;
 import android.graphics.Color;
+import android.graphics.Matrix;
 import android.graphics.Paint;
-import android.os.Build;
+import android.graphics.Path;
+import android.graphics.RectF;
+import android.graphics.drawable.ColorDrawable;
+import android.graphics.drawable.Drawable;
+import android.os.Parcel;
+import android.os.Parcelable;
 import android.util.AttributeSet;
+import android.util.Log;
+import android.view.SurfaceHolder;
 import android.view.SurfaceView;
 
-import androidx.annotation.RequiresApi;
+import androidx.core.os.TraceCompat;
 
+import com.example.junkinsfacemaker.core.FaceAnimator;
+import com.example.junkinsfacemaker.core.FaceCodec;
+import com.example.junkinsfacemaker.core.FaceLayout;
+import com.example.junkinsfacemaker.core.FaceMetrics;
+import com.example.junkinsfacemaker.core.FaceModel;
+import com.example.junkinsfacemaker.core.FaceTraitStore;
+import com.example.junkinsfacemaker.core.FrameStats;
+
+import java.nio.ByteBuffer;
 import java.util.Random;
 
 
 //the main Face class
-public class Face extends SurfaceView {
+public class Face extends SurfaceView implements SurfaceHolder.Callback,
+        FaceAnimationClock.Listener {
+    //render modes
+    //VIEW draws through onDraw on the UI thread,
+    //THREAD draws into the surface from a FaceRenderThread
+    public static final int RENDER_MODE_VIEW = 0;
+    public static final int RENDER_MODE_THREAD = 1;
+
+    //trait change flags for applyTraitChanges
+    public static final int CHANGED_SKIN = 1;
+    public static final int CHANGED_EYES = 1 << 1;
+    public static final int CHANGED_HAIR = 1 << 2;
+    public static final int CHANGED_STYLE = 1 << 3;
+    public static final int CHANGED_COLORS =
+            CHANGED_SKIN | CHANGED_EYES | CHANGED_HAIR;
+    public static final int CHANGED_ALL = CHANGED_COLORS | CHANGED_STYLE;
+
     //instantiate Random
     Random rnd = new Random();
 
-    //trait values
-    private int skinColor;
-    private int eyeColor;
-    private int hairColor;
-    private int hairStyle;
+    //trait values live in the plain-Java model; they are randomized the
+    //first time they are needed, unless saved traits come back first
+    private final FaceModel model = new FaceModel();
+    private boolean traitsPending = true;
+
+    //tracks the hairstyle the shapes were built for
+    private final FaceLayout layout = new FaceLayout();
 
     //paints used to make the face
     Paint skinPaint = new Paint();
@@ -38,57 +75,550 @@ public class Face extends SurfaceView {
     Paint eyePaint = new Paint();
     Paint detailsPaint = new Paint();
 
-    //constants that define the dimensions of the face
-    public static final float headTop = 100f;
-    public static final float headLeft = 200f;
-    public static final float headWidth = 700f;
-    public static final float headHeight = 900f;
-    public static final float eyeRadius = 60f;
-    public static final float eyeSeparation = 130f;
-    public static final float pupilRadius = 40f;
-    public static final float mouthWidth = 200f;
-    public static final float mouthHeight = 30f;
-    public static final float noseWidth = 80f;
-    public static final float noseHeight = 150f;
+    //the paint of each layer, back to front
+    private final Paint[] layerSources =
+            new Paint[FaceLayerCompositor.NUM_LAYERS];
+
+    //the face's shapes as one shared path per layer, swapped only when
+    //the view size or hairstyle changes so that onDraw does no
+    //arithmetic and no allocation
+    private final FacePathCache pathCache = FacePathCache.getShared();
+    private Path[] layerPaths = new Path[FaceLayerCompositor.NUM_LAYERS];
+
+    //layout units to view pixels, recomputed only when the size changes
+    private final Matrix viewMatrix = new Matrix();
+
+    //the face as cached, tinted layers so a color edit repaints nothing
+    //and a hairstyle edit repaints only the hair; null when disabled
+    private FaceLayerCompositor compositor;
+
+    //the face as recorded draw commands that each frame replays; takes
+    //the place of the compositor when set, null when disabled
+    private FaceDisplayList displayList;
+
+    //held while the render thread draws and while the UI thread changes
+    //anything the render thread reads
+    private final Object frameLock = new Object();
 
-    public static final float hairWidth = 800f;
-    public static final float hairHeight = 300f;
+    //render mode state
+    private int renderMode = RENDER_MODE_VIEW;
+    private FaceRenderThread renderThread;
+    private boolean surfaceReady;
+    private Drawable viewBackground;
+    private int surfaceColor = Color.WHITE;
 
+    //whole rendered faces, so flipping back to a recent face is a single
+    //drawBitmap; null when disabled
+    private FaceBitmapCache renderCache =
+            new FaceBitmapCache(FaceBitmapCache.defaultBudget());
+    //draws misses into the cache's bitmaps
+    private final Canvas cacheCanvas = new Canvas();
+    //set while an edit changes the face every frame, e.g. a seek bar
+    //drag; those faces are drawn but not cached
+    private boolean editInProgress;
+    private boolean attached;
+
+    //frame times of each render mode
+    private final FrameStats viewFrameStats = new FrameStats("view");
+    private final FrameStats threadFrameStats = new FrameStats("thread");
+
+    //run once after the first frame is drawn, then dropped
+    private Runnable firstFrameListener;
+
+    //eases the paints through trait changes and blinks the eyes; moved
+    //on by the shared clock while the face is attached
+    private final FaceAnimator animator =
+            new FaceAnimator(1, System.identityHashCode(this));
+    private FaceAnimationClock clock;
+    //how far the lids drawn over the eyes are closed, 0-1
+    private float lid;
+    //the box around both eyes in layout units, and in view pixels
+    private static final RectF LAYOUT_EYES = layoutEyes();
+    private final RectF eyeBand = new RectF();
 
 
     /**
      * Main constructor
-     * creates a face with randomized traits
+     * creates a face with randomized traits; the randomizing waits until
+     * the traits are first used, so a face restored from saved state
+     * never rolls traits it would throw away
      *
      * @param context   Inherited parameter from SurfaceView
      * @param attrs     Inherited parameter from SurfaceView
      */
     public Face(Context context, AttributeSet attrs) {
         super(context, attrs);
-        this.randomize();
+        TraceCompat.beginSection("Face.init");
+        layerSources[FaceLayerCompositor.LAYER_BACK_HAIR] = hairPaint;
+        layerSources[FaceLayerCompositor.LAYER_SKIN] = skinPaint;
+        layerSources[FaceLayerCompositor.LAYER_EYES] = eyePaint;
+        layerSources[FaceLayerCompositor.LAYER_DETAILS] = detailsPaint;
+        layerSources[FaceLayerCompositor.LAYER_FRONT_HAIR] = hairPaint;
+        compositor = new FaceLayerCompositor(layerSources);
+        animator.add(model.getSkinColor(), model.getEyeColor(),
+                model.getHairColor(), model.getHairStyle());
+        //shapes are built in onSizeChanged, once the face has a size
 
 
         //make sure the face gets drawn
         setWillNotDraw(false);
 
         //palette setup
-        skinPaint.setColor(skinColor);
         skinPaint.setStyle(Paint.Style.FILL);
-        hairPaint.setColor(hairColor);
         hairPaint.setStyle(Paint.Style.FILL);
-        eyePaint.setColor(eyeColor);
         eyePaint.setStyle(Paint.Style.FILL);
         detailsPaint.setColor(Color.BLACK);
         detailsPaint.setStyle(Paint.Style.FILL);
+
+        //the render thread needs to know when the surface exists
+        getHolder().addCallback(this);
+        if (attrs != null){
+            TypedArray a = context.obtainStyledAttributes(attrs,
+                    R.styleable.Face);
+            setRenderMode(a.getInt(R.styleable.Face_renderMode,
+                    RENDER_MODE_VIEW));
+            a.recycle();
+        }
+        TraceCompat.endSection();
     }
 
     /**
      * A method to reset the paint colors based on the integer color values
      */
     public void updatePaints(){
-        skinPaint.setColor(skinColor);
-        hairPaint.setColor(hairColor);
-        eyePaint.setColor(eyeColor);
+        applyTraitChanges(CHANGED_COLORS);
+    }
+
+    /**
+     * A method to bring the paints and geometry up to date with traits
+     * that were changed through the model
+     * only the paints named by the flags are touched, unless a color
+     * transition is under way, which ends on the model's colors
+     *
+     * @param changes   CHANGED_* flags
+     */
+    public void applyTraitChanges(int changes){
+        synchronized (frameLock){
+            //a transition under way jumps to its end
+            if (animator.isTransitioning(0)){
+                changes |= CHANGED_COLORS;
+            }
+            FaceMetrics.PAINT_UPDATES.add(
+                    Integer.bitCount(changes & CHANGED_COLORS));
+            if ((changes & CHANGED_SKIN) != 0){
+                skinPaint.setColor(model.getSkinColor());
+            }
+            if ((changes & CHANGED_EYES) != 0){
+                eyePaint.setColor(model.getEyeColor());
+            }
+            if ((changes & CHANGED_HAIR) != 0){
+                hairPaint.setColor(model.getHairColor());
+            }
+            //ends any transition, so the animator doesn't undo this
+            animator.snapTo(0, skinPaint.getColor(), eyePaint.getColor(),
+                    hairPaint.getColor(), model.getHairStyle());
+        }
+        if ((changes & CHANGED_STYLE) != 0
+                && layout.update(model.getHairStyle())){
+            rebuildShapes(FaceLayerCompositor.HAIR_LAYERS);
+        }
+    }
+
+    /**
+     * Like applyTraitChanges for every trait, but the colors ease to the
+     * model's over the next frames instead of changing at once
+     * the shapes have nothing in between, so a new hairstyle shows right
+     * away; a face that isn't attached has no clock and just snaps
+     */
+    public void animateTraitChanges(){
+        if (!attached){
+            applyTraitChanges(CHANGED_ALL);
+            return;
+        }
+        synchronized (frameLock){
+            animator.animateTo(0, model.getSkinColor(), model.getEyeColor(),
+                    model.getHairColor(), model.getHairStyle());
+        }
+        //the clock may be sleeping until the next blink
+        clock.wake();
+        if (layout.update(model.getHairStyle())){
+            rebuildShapes(FaceLayerCompositor.HAIR_LAYERS);
+        }
+    }
+
+    /**
+     * Clock listener
+     * moves the animator on and redraws only if the paints or the lids
+     * changed; glances move pupils the paths can't, so they draw nothing
+     *
+     * @param frameTimeNanos    vsync time of the frame
+     */
+    @Override
+    public void onAnimationFrame(long frameTimeNanos) {
+        animator.advance(frameTimeNanos);
+        if (!animator.hasChanged(0)){
+            return;
+        }
+        FaceTraitStore shown = animator.getShownTraits();
+        float newLid = animator.getLid(0);
+        boolean changed;
+        synchronized (frameLock){
+            int recolored = (skinPaint.getColor() != shown.getSkinColor(0)
+                    ? 1 : 0)
+                    + (eyePaint.getColor() != shown.getEyeColor(0) ? 1 : 0)
+                    + (hairPaint.getColor() != shown.getHairColor(0) ? 1 : 0);
+            FaceMetrics.PAINT_UPDATES.add(recolored);
+            changed = newLid != lid || recolored > 0;
+            lid = newLid;
+            skinPaint.setColor(shown.getSkinColor(0));
+            eyePaint.setColor(shown.getEyeColor(0));
+            hairPaint.setColor(shown.getHairColor(0));
+        }
+        if (changed){
+            redraw();
+        }
+    }
+
+    /**
+     * Clock listener
+     * the clock sleeps while the face only waits for its next blink or
+     * glance
+     *
+     * @return  nanoseconds until the face moves again, 0 while it moves
+     */
+    @Override
+    public long getIdleNanos() {
+        return animator.getIdleTicks() * FaceAnimator.TICK_NANOS;
+    }
+
+    /**
+     * A getter for the face's animator
+     * gives access to the colors shown and how far the lids are closed
+     *
+     * @return  the animator, which holds this face at index 0
+     */
+    public FaceAnimator getAnimator() {
+        return animator;
+    }
+
+    /**
+     * Asks for the face to be drawn again using the current render mode
+     * repeated calls before the next frame result in a single frame
+     */
+    public void redraw(){
+        FaceMetrics.REDRAWS_REQUESTED.increment();
+        if (renderMode == RENDER_MODE_THREAD){
+            if (renderThread != null){
+                renderThread.requestRender();
+            }
+        }
+        else {
+            invalidate();
+        }
+    }
+
+    /**
+     * Switches between drawing on the UI thread and on a render thread
+     *
+     * @param mode  RENDER_MODE_VIEW or RENDER_MODE_THREAD
+     */
+    public void setRenderMode(int mode){
+        if (mode != RENDER_MODE_VIEW && mode != RENDER_MODE_THREAD){
+            return;
+        }
+        if (mode == renderMode){
+            return;
+        }
+        renderMode = mode;
+        if (mode == RENDER_MODE_THREAD){
+            //a view background would be drawn over the surface, so the
+            //render thread paints the background color itself
+            viewBackground = getBackground();
+            if (viewBackground instanceof ColorDrawable){
+                surfaceColor = ((ColorDrawable)viewBackground).getColor();
+            }
+            setBackground(null);
+            setWillNotDraw(true);
+            startRenderThread();
+        }
+        else {
+            stopRenderThread();
+            setBackground(viewBackground);
+            setWillNotDraw(false);
+            invalidate();
+        }
+    }
+
+    /**
+     * A getter for the render mode
+     * @return RENDER_MODE_VIEW or RENDER_MODE_THREAD
+     */
+    public int getRenderMode() {
+        return renderMode;
+    }
+
+    /**
+     * A getter for the frame times of a render mode
+     * @param mode  RENDER_MODE_VIEW or RENDER_MODE_THREAD
+     * @return  the stats for that mode
+     */
+    public FrameStats getFrameStats(int mode){
+        return mode == RENDER_MODE_THREAD ? threadFrameStats : viewFrameStats;
+    }
+
+    /**
+     * A helper method to start drawing from a render thread
+     * only starts once the surface exists
+     */
+    private void startRenderThread(){
+        if (renderThread != null || !surfaceReady
+                || renderMode != RENDER_MODE_THREAD){
+            return;
+        }
+        renderThread = new FaceRenderThread(this, getHolder(),
+                threadFrameStats);
+        renderThread.start();
+    }
+
+    /**
+     * A helper method to stop the render thread, if any
+     */
+    private void stopRenderThread(){
+        if (renderThread == null){
+            return;
+        }
+        renderThread.quit();
+        renderThread = null;
+    }
+
+    /**
+     * Draws a whole frame into the face's surface
+     * called from the render thread
+     *
+     * @param canvas    the surface's canvas
+     * @return  how long drawFace took, as onDraw times it in view mode
+     */
+    long drawFrame(Canvas canvas){
+        synchronized (frameLock){
+            canvas.drawColor(surfaceColor);
+            long start = System.nanoTime();
+            drawFace(canvas);
+            long nanos = System.nanoTime() - start;
+            if (firstFrameListener != null){
+                post(firstFrameListener);
+                firstFrameListener = null;
+            }
+            return nanos;
+        }
+    }
+
+    /**
+     * Sets something to run once the face has drawn its first frame, e.g.
+     * to measure startup; it runs on the UI thread in either render mode
+     *
+     * @param listener  run once, or null for none
+     */
+    public void setOnFirstFrameListener(Runnable listener){
+        synchronized (frameLock){
+            firstFrameListener = listener;
+        }
+    }
+
+    /**
+     * Surface listener
+     * starts the render thread if that mode is selected
+     *
+     * @param holder    the surface holder
+     */
+    @Override
+    public void surfaceCreated(SurfaceHolder holder) {
+        surfaceReady = true;
+        startRenderThread();
+    }
+
+    /**
+     * Surface listener
+     * redraws the face at the new size
+     *
+     * @param holder    the surface holder
+     * @param format    pixel format
+     * @param width     new width
+     * @param height    new height
+     */
+    @Override
+    public void surfaceChanged(SurfaceHolder holder, int format, int width,
+                               int height) {
+        if (renderThread != null){
+            renderThread.requestRender();
+        }
+    }
+
+    /**
+     * Surface listener
+     * stops the render thread before the surface goes away
+     *
+     * @param holder    the surface holder
+     */
+    @Override
+    public void surfaceDestroyed(SurfaceHolder holder) {
+        surfaceReady = false;
+        stopRenderThread();
+    }
+
+    /**
+     * Starts listening for memory pressure once the face is on screen
+     */
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        //a face is never shown without traits
+        traits();
+        attached = true;
+        if (renderCache != null){
+            getContext().registerComponentCallbacks(renderCache);
+        }
+        clock = FaceAnimationClock.getShared();
+        clock.addListener(this);
+    }
+
+    /**
+     * Logs the frame times of both render modes when the face goes away
+     */
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        attached = false;
+        if (renderCache != null){
+            getContext().unregisterComponentCallbacks(renderCache);
+        }
+        if (clock != null){
+            clock.removeListener(this);
+            clock = null;
+        }
+        //whatever was under way is shown as it would end
+        applyTraitChanges(0);
+        lid = 0;
+        Log.i("FaceFrames", viewFrameStats.toString());
+        Log.i("FaceFrames", threadFrameStats.toString());
+    }
+
+    /**
+     * Sets how much memory the cache of rendered faces may use
+     * the cached faces are dropped
+     *
+     * @param maxBytes  the budget; 0 or less turns the cache off
+     */
+    public void setRenderCacheBytes(int maxBytes){
+        synchronized (frameLock){
+            if (renderCache != null && attached){
+                getContext().unregisterComponentCallbacks(renderCache);
+            }
+            renderCache = maxBytes > 0 ? new FaceBitmapCache(maxBytes) : null;
+            if (renderCache != null && attached){
+                getContext().registerComponentCallbacks(renderCache);
+            }
+        }
+    }
+
+    /**
+     * Marks the start or end of an edit that changes the face on every
+     * frame, e.g. a seek bar drag
+     * the faces in between are never seen again, so they are drawn
+     * without the render cache; once the edit ends the settled face is
+     * drawn again and cached
+     *
+     * @param inProgress    whether such an edit is under way
+     */
+    public void setEditInProgress(boolean inProgress){
+        boolean settled;
+        synchronized (frameLock){
+            settled = editInProgress && !inProgress;
+            editInProgress = inProgress;
+        }
+        if (settled){
+            redraw();
+        }
+    }
+
+    /**
+     * A getter for whether an edit is under way
+     * @return  true between setEditInProgress(true) and (false)
+     */
+    public boolean isEditInProgress() {
+        return editInProgress;
+    }
+
+    /**
+     * A getter for the cache of rendered faces
+     * gives access to its hit, miss and eviction counts
+     *
+     * @return  the cache, or null when it is off
+     */
+    public FaceBitmapCache getRenderCache() {
+        return renderCache;
+    }
+
+    /**
+     * Turns layered compositing on or off
+     * when off, the layer paths are drawn directly on every uncached frame
+     *
+     * @param enabled   whether to draw through cached layers
+     */
+    public void setLayeredRendering(boolean enabled){
+        synchronized (frameLock){
+            if (enabled == (compositor != null)){
+                return;
+            }
+            if (enabled){
+                compositor = new FaceLayerCompositor(layerSources);
+                compositor.setLayerPaths(layerPaths);
+            }
+            else {
+                compositor = null;
+            }
+        }
+    }
+
+    /**
+     * Turns recorded rendering on or off
+     * when on, uncached frames replay the face's recorded draw commands
+     * instead of compositing layers or drawing the paths
+     *
+     * @param enabled   whether to draw through a display list
+     */
+    public void setRecordedRendering(boolean enabled){
+        synchronized (frameLock){
+            if (enabled == (displayList != null)){
+                return;
+            }
+            if (enabled){
+                displayList = new FaceDisplayList(layerSources);
+                displayList.setLayerPaths(layerPaths);
+            }
+            else {
+                displayList = null;
+            }
+        }
+    }
+
+    /**
+     * A getter for the display list
+     * gives access to which layers each frame re-recorded
+     *
+     * @return  the display list, or null when recorded rendering is off
+     */
+    public FaceDisplayList getDisplayList() {
+        return displayList;
+    }
+
+    /**
+     * A getter for the layer compositor
+     * gives access to which layers each frame re-rendered or recolored
+     *
+     * @return  the compositor, or null when layered rendering is off
+     */
+    public FaceLayerCompositor getLayerCompositor() {
+        return compositor;
     }
 
 
@@ -96,144 +626,347 @@ public class Face extends SurfaceView {
      * Randomize the face's values
      */
     public void randomize(){
-        //picks random OPAQUE colors
-        skinColor = rnd.nextInt(0xffffff + 1) + 0xff000000;
-        skinPaint.setColor(skinColor);
-        eyeColor = rnd.nextInt(0xffffff + 1) + 0xff000000;
-        eyePaint.setColor(eyeColor);
-        hairColor = rnd.nextInt(0xffffff + 1) + 0xff000000;
-        hairPaint.setColor(hairColor);
-        //random hairstyle is bounded by the current num of hairstyles,
-        //currently hardcoded
-        hairStyle = rnd.nextInt(3);
+        traitsPending = false;
+        FaceMetrics.RANDOMIZE_CALLS.increment();
+        model.randomizeRealistic(rnd);
+        updatePaints();
+        if (layout.update(model.getHairStyle())){
+            rebuildShapes(FaceLayerCompositor.HAIR_LAYERS);
+        }
     }
 
     /**
-     * A helper method to draw the eyes and pupils of the face
+     * A helper method to get the traits, randomizing them first if no
+     * traits have been given yet
      *
-     * @param canvas    the canvas object the face is being drawn on
-     */
-    @RequiresApi(api = Build.VERSION_CODES.LOLLIPOP)
-    public void drawEyes(Canvas canvas){
-        //draw the eye colors
-        canvas.drawOval(
-                headLeft + .5f*headWidth - .5f*eyeSeparation - 2*eyeRadius,
-                headTop + .3f * headHeight,
-                headLeft + .5f*headWidth - .5f*eyeSeparation,
-                headTop + .3f * headHeight + 2*eyeRadius,
-                eyePaint);
-        canvas.drawOval(headLeft + .5f*headWidth + .5f*eyeSeparation,
-                headTop + .3f * headHeight,
-                headLeft + .5f*headWidth + .5f*eyeSeparation + 2*eyeRadius,
-                headTop + .3f * headHeight + 2*eyeRadius,
-                eyePaint);
-
-        //draw the pupils
-        canvas.drawOval(
-                headLeft + .5f*headWidth - .5f*eyeSeparation  - eyeRadius
-                        - pupilRadius - 5f,
-                headTop + .3f * headHeight + eyeRadius - pupilRadius,
-                headLeft + .5f*headWidth - .5f*eyeSeparation - eyeRadius
-                        + pupilRadius - 5f,
-                headTop + .3f * headHeight + 2*eyeRadius - eyeRadius
-                        + pupilRadius,
-                detailsPaint);
-        canvas.drawOval(
-                headLeft + .5f*headWidth + .5f*eyeSeparation  + eyeRadius
-                        - pupilRadius + 5f,
-                headTop + .3f * headHeight + eyeRadius - pupilRadius,
-                headLeft + .5f*headWidth + .5f*eyeSeparation + eyeRadius
-                        + pupilRadius + 5f,
-                headTop + .3f * headHeight + 2*eyeRadius - eyeRadius
-                        + pupilRadius,
-                detailsPaint);
+     * @return  the model backing this face
+     */
+    private FaceModel traits(){
+        if (traitsPending){
+            randomize();
+        }
+        return model;
+    }
+
+    /**
+     * A helper method to look up the shapes for the current hairstyle and
+     * size; they are only built if no face has used them yet
+     *
+     * @param dirtyLayers   the compositor layers whose shapes may change
+     */
+    private void rebuildShapes(int dirtyLayers){
+        //an unsized face draws nothing, so there is nothing to build yet
+        if (getWidth() <= 0 || getHeight() <= 0){
+            return;
+        }
+        Path[] paths = pathCache.get(layout.getHairStyle(), getWidth(),
+                getHeight());
+        synchronized (frameLock){
+            layerPaths = paths;
+            if (compositor != null){
+                compositor.setLayerPaths(paths);
+                compositor.invalidateLayers(dirtyLayers);
+            }
+            if (displayList != null){
+                displayList.setLayerPaths(paths);
+                displayList.invalidateLayers(dirtyLayers);
+            }
+        }
+    }
+
+    /**
+     * Rebuilds the cached geometry when the view is resized
+     *
+     * @param w     new width
+     * @param h     new height
+     * @param oldw  old width
+     * @param oldh  old height
+     */
+    @Override
+    protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+        super.onSizeChanged(w, h, oldw, oldh);
+        traits();
+        FacePathCache.fitMatrix(w, h, viewMatrix);
+        viewMatrix.mapRect(eyeBand, LAYOUT_EYES);
+        rebuildShapes(FaceLayerCompositor.ALL_LAYERS);
+    }
+
+    /**
+     * A getter for the transform from layout units to view pixels
+     * e.g. for mapping touches onto FaceLayout shapes once inverted;
+     * the matrix is owned by the face and must not be modified
+     *
+     * @return  the face's fit to the view
+     */
+    public Matrix getViewMatrix() {
+        return viewMatrix;
+    }
+
+    /**
+     * Draws the face at another size, e.g. for a preview
+     * batch jobs should use a FaceThumbnailRenderer directly
+     *
+     * @param width     bitmap width
+     * @param height    bitmap height
+     * @return  a new bitmap of the face, fitted and centered
+     */
+    public Bitmap renderAtSize(int width, int height){
+        Bitmap bitmap = Bitmap.createBitmap(width, height,
+                Bitmap.Config.ARGB_8888);
+        FaceModel face = traits();
+        new FaceThumbnailRenderer(width, height).render(face.getSkinColor(),
+                face.getEyeColor(), face.getHairColor(),
+                face.getHairStyle(), Color.TRANSPARENT, bitmap);
+        return bitmap;
     }
 
     /**
      * Draws the face
-     * contains code for the face's visual layout
+     * replays the cached paths; no math or allocation happens here
      *
      * @param canvas    the canvas object the face will be drawn on
      */
-    @RequiresApi(api = Build.VERSION_CODES.LOLLIPOP)
     @Override
     public void onDraw(Canvas canvas)
     {
-        //if hairstyle 1, draw hair below  head
-        if (hairStyle == 0){
-            drawHatHair(canvas);
+        long start = System.nanoTime();
+        drawFace(canvas);
+        long nanos = System.nanoTime() - start;
+        viewFrameStats.record(nanos);
+        FaceMetrics.DRAW_NANOS.record(nanos);
+        FaceMetrics.FRAMES_DRAWN.increment();
+        if (firstFrameListener != null){
+            Runnable listener = firstFrameListener;
+            firstFrameListener = null;
+            listener.run();
         }
+    }//onDraw
 
-        //first the head underneath everything
-        canvas.drawOval(headLeft, headTop, headLeft + headWidth,
-                headTop + headHeight, skinPaint);
-
-        //draw the eyes
-        drawEyes(canvas);
+    /**
+     * A helper method to draw the face, from the render cache if possible
+     *
+     * @param canvas    the canvas object the face will be drawn on
+     */
+    private void drawFace(Canvas canvas){
+        TraceCompat.beginSection("Face.drawFace");
+        int w = getWidth();
+        int h = getHeight();
+        FaceBitmapCache cache = renderCache;
+        //colors in the middle of a transition or a drag are never seen
+        //again, so caching them would only push out faces that are
+        if (cache == null || w <= 0 || h <= 0 || editInProgress
+                || animator.isTransitioning(0)){
+            drawUncached(canvas);
+        }
+        else {
+            //key on what the paints draw, which may trail the model by a
+            //frame
+            int skin = skinPaint.getColor();
+            int eye = eyePaint.getColor();
+            int hair = hairPaint.getColor();
+            int style = layout.getHairStyle();
+            TraceCompat.beginSection("Face.drawCached");
+            Bitmap face = cache.get(skin, eye, hair, style, w, h);
+            if (face == null){
+                //an evicted face's bitmap if there is one
+                face = cache.obtain(w, h);
+                cacheCanvas.setBitmap(face);
+                drawUncached(cacheCanvas);
+                cacheCanvas.setBitmap(null);
+                cache.put(skin, eye, hair, style, face);
+            }
+            canvas.drawBitmap(face, 0, 0, null);
+            TraceCompat.endSection();
+        }
+        if (lid > 0){
+            drawLids(canvas);
+        }
+        TraceCompat.endSection();
+    }
 
-        //draw the nose
-        canvas.drawRect(headLeft + .5f*headWidth - .5f*noseWidth,
-                headTop + .5f*headHeight - .2f*noseHeight,
-                headLeft + .5f*headWidth + .5f*noseWidth,
-                headTop + .5f*headHeight + .8f*noseHeight, detailsPaint);
+    /**
+     * A helper method to draw the eyelids mid-blink: skin from the top of
+     * the eyes down, clipped to the eyes so it covers nothing else
+     *
+     * @param canvas    the canvas object the face will be drawn on
+     */
+    private void drawLids(Canvas canvas){
+        Path eyes = layerPaths[FaceLayerCompositor.LAYER_EYES];
+        if (eyes == null){
+            return;
+        }
+        TraceCompat.beginSection("Face.drawLids");
+        canvas.save();
+        canvas.clipPath(eyes);
+        canvas.drawRect(eyeBand.left, eyeBand.top, eyeBand.right,
+                eyeBand.top + lid * eyeBand.height(), skinPaint);
+        canvas.restore();
+        TraceCompat.endSection();
+    }
 
-        //draw the mouth
-        canvas.drawRect(headLeft + .5f*headWidth - .5f*mouthWidth,
-                headTop + .75f*headHeight - .2f*mouthHeight,
-                headLeft + .5f*headWidth + .5f*mouthWidth,
-                headTop + .75f*headHeight + .8f*mouthHeight, detailsPaint);
+    /**
+     * A helper method to find the box around both eyes in layout units
+     * @return  the box
+     */
+    private static RectF layoutEyes(){
+        float[] prims = new float[FaceLayout.FACE_PRIMITIVES
+                * FaceLayout.STRIDE];
+        FaceLayout.computeFace(prims, 0);
+        int left = FaceLayout.FIRST_EYE * FaceLayout.STRIDE;
+        int right = (FaceLayout.FIRST_EYE + 1) * FaceLayout.STRIDE;
+        return new RectF(prims[left + FaceLayout.LEFT],
+                prims[left + FaceLayout.TOP],
+                prims[right + FaceLayout.RIGHT],
+                prims[right + FaceLayout.BOTTOM]);
+    }
 
-        //draw hairstyle 2 and 3
-        if (hairStyle == 1){
-            drawAfro(canvas);
+    /**
+     * A helper method to draw the face without the render cache,
+     * from the display list or through the layers if they are on
+     *
+     * @param canvas    the canvas object the face will be drawn on
+     */
+    private void drawUncached(Canvas canvas){
+        if (displayList != null){
+            TraceCompat.beginSection("Face.drawDisplayList");
+            displayList.draw(canvas);
         }
-        else if (hairStyle == 2){
-            drawPomp(canvas);
+        else if (compositor != null){
+            TraceCompat.beginSection("Face.drawLayers");
+            compositor.draw(canvas);
         }
+        else {
+            TraceCompat.beginSection("Face.drawShapes");
+            drawShapes(canvas);
+        }
+        TraceCompat.endSection();
+    }
 
-    }//onDraw
+    /**
+     * A helper method to draw the cached paths onto a canvas,
+     * one drawPath per layer
+     *
+     * @param canvas    the canvas object the face will be drawn on
+     */
+    private void drawShapes(Canvas canvas){
+        Path[] paths = layerPaths;
+        for (int layer = 0; layer < paths.length; layer++){
+            if (paths[layer] != null){
+                canvas.drawPath(paths[layer], layerSources[layer]);
+            }
+        }
+    }
+
+    /**
+     * A getter for the face's traits
+     * @return  the model backing this face
+     */
+    public FaceModel getModel() {
+        return traits();
+    }
+
+    /**
+     * Writes the face's traits as one packed FaceCodec record
+     * @param buf   destination, needs FaceCodec.RECORD_BYTES remaining
+     */
+    public void exportTraits(ByteBuffer buf){
+        FaceCodec.write(buf, traits());
+    }
 
     /**
-     * A method to draw hat-hair on the given canvas
-     * @param canvas    the canvas
+     * Replaces the face's traits with one packed FaceCodec record
+     * and redraws it
+     *
+     * @param buf   source, needs FaceCodec.RECORD_BYTES remaining
      */
-    public void drawHatHair(Canvas canvas){
-        canvas.drawRect(headLeft + .5f*headWidth - .5f*hairWidth,
-                headTop - .2f*hairHeight,
-                headLeft + .5f*headWidth + .5f*hairWidth,
-                headTop + .8f*hairHeight, hairPaint);
+    public void importTraits(ByteBuffer buf){
+        traitsPending = false;
+        FaceCodec.read(buf, model);
+        applyTraitChanges(CHANGED_ALL);
+        redraw();
     }
 
     /**
-     * A method to draw an afro on the given canvas
-     * @param canvas    the canvas
+     * Saves the face's traits across configuration changes and process
+     * death, as the packed FaceCodec encoding
+     *
+     * @return  the saved state
      */
-    @RequiresApi(api = Build.VERSION_CODES.LOLLIPOP)
-    public void drawAfro(Canvas canvas){
-        canvas.drawOval(headLeft + .5f*headWidth - .5f*hairWidth,
-                headTop - .2f*hairHeight,
-                headLeft + .5f*headWidth + .5f*hairWidth,
-                headTop + hairHeight + 20f, hairPaint);
+    @Override
+    protected Parcelable onSaveInstanceState() {
+        SavedState state = new SavedState(super.onSaveInstanceState());
+        traits();
+        state.low = FaceCodec.packLow(model.getSkinColor(),
+                model.getEyeColor(), model.getHairColor());
+        state.high = FaceCodec.packHigh(model.getHairColor(),
+                model.getHairStyle());
+        return state;
     }
 
     /**
-     * A method to draw geometric pompadour on the given canvas
-     * @param canvas    the canvas
+     * Brings back the face saved by onSaveInstanceState
+     *
+     * @param state     the saved state
      */
-    public void drawPomp(Canvas canvas){
-        canvas.drawRect(headLeft + .5f*headWidth - .6f*hairWidth,
-                headTop - .2f*hairHeight,
-                headLeft + .5f*headWidth + .3f*hairWidth,
-                headTop + .95f*hairHeight, hairPaint);
+    @Override
+    protected void onRestoreInstanceState(Parcelable state) {
+        if (!(state instanceof SavedState)){
+            super.onRestoreInstanceState(state);
+            return;
+        }
+        SavedState saved = (SavedState)state;
+        super.onRestoreInstanceState(saved.getSuperState());
+        traitsPending = false;
+        FaceCodec.unpack(saved.low, saved.high, model);
+        applyTraitChanges(CHANGED_ALL);
+        redraw();
     }
 
+    /**
+     * A face's saved state: one packed record, 10 bytes in the parcel
+     */
+    static class SavedState extends BaseSavedState {
+        long low;
+        short high;
+
+        SavedState(Parcelable superState) {
+            super(superState);
+        }
+
+        private SavedState(Parcel in) {
+            super(in);
+            low = in.readLong();
+            high = (short)in.readInt();
+        }
+
+        @Override
+        public void writeToParcel(Parcel out, int flags) {
+            super.writeToParcel(out, flags);
+            out.writeLong(low);
+            out.writeInt(high);
+        }
+
+        public static final Parcelable.Creator<SavedState> CREATOR =
+                new Parcelable.Creator<SavedState>() {
+                    @Override
+                    public SavedState createFromParcel(Parcel in) {
+                        return new SavedState(in);
+                    }
+
+                    @Override
+                    public SavedState[] newArray(int size) {
+                        return new SavedState[size];
+                    }
+                };
+    }//class SavedState
+
 
     /**
      * A getter for eyeColor
      * @return eye color
      */
     public int getEyeColor() {
-        return eyeColor;
+        return traits().getEyeColor();
     }
 
     /**
@@ -241,7 +974,7 @@ public class Face extends SurfaceView {
      * @param newColor  an ARGB hexadecimal color
      */
     public void setEyeColor(int newColor){
-        eyeColor = newColor;
+        traits().setEyeColor(newColor);
     }
 
     /**
@@ -249,7 +982,7 @@ public class Face extends SurfaceView {
      * @return hair color
      */
     public int getHairColor() {
-        return hairColor;
+        return traits().getHairColor();
     }
 
     /**
@@ -257,7 +990,7 @@ public class Face extends SurfaceView {
      * @param newColor  an ARGB hexadecimal color
      */
     public void setHairColor(int newColor){
-        hairColor = newColor;
+        traits().setHairColor(newColor);
     }
 
     /**
@@ -265,7 +998,7 @@ public class Face extends SurfaceView {
      * @return skin color
      */
     public int getSkinColor() {
-        return skinColor;
+        return traits().getSkinColor();
     }
 
     /**
@@ -273,7 +1006,7 @@ public class Face extends SurfaceView {
      * @param newColor  an ARGB hexadecimal color
      */
     public void setSkinColor(int newColor){
-        skinColor = newColor;
+        traits().setSkinColor(newColor);
     }
 
 
@@ -283,18 +1016,17 @@ public class Face extends SurfaceView {
      * @return hair style
      */
     public int getHairStyle() {
-        return hairStyle;
+        return traits().getHairStyle();
     }
 
     /**
      * A setter for hairStyle
-     * @param   integer 0-2
-     *          0: Ultimate hat-hair, 1: Afro, 2: Geometric Pompadour
+     * @param newStyle  a HairstyleRegistry id
      */
     public void setHairStyle(int newStyle){
-        if (newStyle < 0 || newStyle > 2){
-            return;
+        traits().setHairStyle(newStyle);
+        if (layout.update(model.getHairStyle())){
+            rebuildShapes(FaceLayerCompositor.HAIR_LAYERS);
         }
-        hairStyle = newStyle;
     }
 }//class Face
@@ -0,0 +1,161 @@
+/**
+ * FaceMaker FaceAnimationClock Class
+ * one Choreographer frame callback shared by everything that animates
+ * faces, so every face on screen moves on the same vsync time and a
+ * screen of faces costs one callback a frame, not one each
+ * the callback is only posted every frame while something moves; when
+ * every listener is idle it sleeps until the first one has to move again
+ * UI thread only
+ *
+ * @version Oct 18 2026
+ * @author Alex Junkins
+ */
+package com.example.junkinsfacemaker;
+
+import android.view.Choreographer;
+
+import java.util.ArrayList;
+
+public class FaceAnimationClock implements Choreographer.FrameCallback {
+
+    /**
+     * Something that moves on every frame
+     */
+    public interface Listener {
+        /**
+         * Called once a frame while registered
+         * @param frameTimeNanos    vsync time of the frame
+         */
+        void onAnimationFrame(long frameTimeNanos);
+
+        /**
+         * Asked after each frame how long the listener can go without one
+         * @return  nanoseconds in which nothing moves, 0 while something
+         *          does
+         */
+        long getIdleNanos();
+    }
+
+    //shorter sleeps than this just wait for the next frame
+    private static final long FRAME_NANOS = 1000000000L / 60;
+
+    private static FaceAnimationClock shared;
+
+    private final Choreographer choreographer;
+    private final ArrayList<Listener> listeners = new ArrayList<>();
+    private boolean frameScheduled;
+    //whether the scheduled callback is a sleep rather than the next frame
+    private boolean sleeping;
+
+    /**
+     * Main constructor
+     * must be called on a thread with a Looper, normally the UI thread
+     */
+    public FaceAnimationClock() {
+        choreographer = Choreographer.getInstance();
+    }
+
+    /**
+     * A getter for the clock shared by the app's faces
+     * @return  the UI thread's clock
+     */
+    public static FaceAnimationClock getShared() {
+        //a new Choreographer means the old main thread is gone
+        if (shared == null
+                || shared.choreographer != Choreographer.getInstance()){
+            shared = new FaceAnimationClock();
+        }
+        return shared;
+    }
+
+    /**
+     * Starts calling a listener on every frame
+     * @param listener  added once, however often this is called
+     */
+    public void addListener(Listener listener){
+        if (listeners.contains(listener)){
+            return;
+        }
+        listeners.add(listener);
+        wake();
+    }
+
+    /**
+     * Asks for the next frame even if the clock is sleeping, e.g. when a
+     * listener starts moving between frames
+     */
+    public void wake(){
+        if (frameScheduled && !sleeping){
+            return;
+        }
+        if (frameScheduled){
+            choreographer.removeFrameCallback(this);
+        }
+        frameScheduled = true;
+        sleeping = false;
+        choreographer.postFrameCallback(this);
+    }
+
+    /**
+     * Stops calling a listener; the clock stops with the last one
+     * @param listener  the listener to drop
+     */
+    public void removeListener(Listener listener){
+        listeners.remove(listener);
+        if (listeners.isEmpty() && frameScheduled){
+            frameScheduled = false;
+            choreographer.removeFrameCallback(this);
+        }
+    }
+
+    /**
+     * A getter for the number of listeners
+     * @return listeners
+     */
+    public int getListenerCount() {
+        return listeners.size();
+    }
+
+    /**
+     * A getter for whether the clock is sleeping until a listener moves
+     * @return  true if no callback is due on the next frame
+     */
+    public boolean isSleeping() {
+        return frameScheduled && sleeping;
+    }
+
+    /**
+     * Frame callback
+     * passes the frame on, then asks for the next one if anything moves,
+     * or sleeps until something will
+     *
+     * @param frameTimeNanos    vsync time of the frame
+     */
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        frameScheduled = false;
+        sleeping = false;
+        //indexed, so a frame makes no iterator; listeners may leave as
+        //they are called
+        for (int i = listeners.size() - 1; i >= 0; i--){
+            if (i < listeners.size()){
+                listeners.get(i).onAnimationFrame(frameTimeNanos);
+            }
+        }
+        if (listeners.isEmpty() || frameScheduled){
+            return;
+        }
+        long idle = Long.MAX_VALUE;
+        for (int i = listeners.size() - 1; i >= 0 && idle > 0; i--){
+            idle = Math.min(idle, listeners.get(i).getIdleNanos());
+        }
+        frameScheduled = true;
+        if (idle < FRAME_NANOS){
+            choreographer.postFrameCallback(this);
+        }
+        else {
+            sleeping = true;
+            choreographer.postFrameCallbackDelayed(this, idle / 1000000);
+        }
+    }
+}//class FaceAnimationClock
@@ -0,0 +1,223 @@
+/**
+ * FaceMaker FaceBitmapCache Class
+ * an LRU cache of fully rendered faces, keyed by the packed traits that
+ * were drawn and the size they were drawn at, with a budget in bytes
+ * it listens for onTrimMemory and gives memory back when asked
+ * the bitmaps of a few evicted faces are kept to draw the next misses
+ * into, so a full cache takes in new faces without allocating
+ *
+ * @version Oct 18 2026
+ * @author Alex Junkins
+ */
+package com.example.junkinsfacemaker;
+
+import android.content.ComponentCallbacks2;
+import android.content.res.Configuration;
+import android.graphics.Bitmap;
+import android.graphics.Color;
+import android.util.LruCache;
+
+import com.example.junkinsfacemaker.core.FaceCodec;
+
+import java.util.ArrayDeque;
+
+public class FaceBitmapCache extends LruCache<FaceBitmapCache.Key, Bitmap>
+        implements ComponentCallbacks2 {
+    //evicted bitmaps kept for reuse; outside the budget, so kept few
+    static final int MAX_RECYCLED = 2;
+
+    //reused for lookups so a cache hit allocates nothing
+    private final Key probe = new Key();
+    private final ArrayDeque<Bitmap> recycled = new ArrayDeque<>();
+
+    /**
+     * Main constructor
+     * @param maxBytes  the most bitmap memory the cache may hold
+     */
+    public FaceBitmapCache(int maxBytes) {
+        super(maxBytes);
+    }
+
+    /**
+     * A budget suited to the current process: an eighth of the heap
+     * @return bytes
+     */
+    public static int defaultBudget(){
+        return (int)Math.min(Integer.MAX_VALUE,
+                Runtime.getRuntime().maxMemory() / 8);
+    }
+
+    /**
+     * Looks up a rendered face
+     *
+     * @param skin      an ARGB hexadecimal color
+     * @param eye       an ARGB hexadecimal color
+     * @param hair      an ARGB hexadecimal color
+     * @param style     hairstyle id
+     * @param width     bitmap width
+     * @param height    bitmap height
+     * @return  the bitmap, or null on a miss
+     */
+    public synchronized Bitmap get(int skin, int eye, int hair, int style,
+                                   int width, int height){
+        probe.set(skin, eye, hair, style, width, height);
+        return get(probe);
+    }
+
+    /**
+     * Adds a rendered face, evicting the least recently used ones if the
+     * budget is exceeded
+     *
+     * @param skin      an ARGB hexadecimal color
+     * @param eye       an ARGB hexadecimal color
+     * @param hair      an ARGB hexadecimal color
+     * @param style     hairstyle id
+     * @param bitmap    the face drawn at the bitmap's size
+     */
+    public void put(int skin, int eye, int hair, int style, Bitmap bitmap){
+        Key key = new Key();
+        key.set(skin, eye, hair, style, bitmap.getWidth(), bitmap.getHeight());
+        put(key, bitmap);
+    }
+
+    /**
+     * Gets a bitmap to draw a missed face into: a cleared evicted bitmap
+     * of the same size if one was kept, otherwise a new one
+     *
+     * @param width     bitmap width
+     * @param height    bitmap height
+     * @return  a transparent, mutable ARGB_8888 bitmap
+     */
+    public Bitmap obtain(int width, int height){
+        synchronized (recycled){
+            for (Bitmap bitmap : recycled){
+                if (bitmap.getWidth() == width
+                        && bitmap.getHeight() == height){
+                    recycled.remove(bitmap);
+                    bitmap.eraseColor(Color.TRANSPARENT);
+                    return bitmap;
+                }
+            }
+        }
+        return Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+    }
+
+    /**
+     * Keeps the bitmaps of evicted faces for obtain()
+     *
+     * @param evicted   true if removed to make room
+     * @param key       the entry's key
+     * @param oldValue  the entry's bitmap
+     * @param newValue  its replacement, if any
+     */
+    @Override
+    protected void entryRemoved(boolean evicted, Key key, Bitmap oldValue,
+                                Bitmap newValue) {
+        if (!evicted || !oldValue.isMutable()){
+            return;
+        }
+        synchronized (recycled){
+            if (recycled.size() == MAX_RECYCLED){
+                recycled.removeFirst();
+            }
+            recycled.addLast(oldValue);
+        }
+    }
+
+    /**
+     * A helper method to let go of the kept bitmaps
+     */
+    private void clearRecycled(){
+        synchronized (recycled){
+            recycled.clear();
+        }
+    }
+
+    /**
+     * Sizes entries by their pixel memory
+     *
+     * @param key       the entry's key
+     * @param bitmap    the entry's bitmap
+     * @return  bytes
+     */
+    @Override
+    protected int sizeOf(Key key, Bitmap bitmap) {
+        return bitmap.getRowBytes() * bitmap.getHeight();
+    }
+
+    /**
+     * Memory listener
+     * empties the cache when the app is in the background or memory is
+     * very low, halves it when memory is getting low
+     *
+     * @param level     how badly memory is needed
+     */
+    @Override
+    public void onTrimMemory(int level) {
+        if (level >= TRIM_MEMORY_BACKGROUND
+                || level == TRIM_MEMORY_RUNNING_LOW
+                || level == TRIM_MEMORY_RUNNING_CRITICAL){
+            evictAll();
+            clearRecycled();
+        }
+        else if (level >= TRIM_MEMORY_RUNNING_MODERATE){
+            trimToSize(maxSize() / 2);
+            clearRecycled();
+        }
+    }
+
+    /**
+     * Memory listener
+     * called on very old systems instead of onTrimMemory
+     */
+    @Override
+    public void onLowMemory() {
+        evictAll();
+        clearRecycled();
+    }
+
+    /**
+     * An unused but required configuration listener
+     * @param newConfig the new configuration
+     */
+    @Override
+    public void onConfigurationChanged(Configuration newConfig) { }
+
+    /**
+     * A cache key: the packed traits plus the bitmap size
+     */
+    static final class Key {
+        private long low;
+        private short high;
+        private int width;
+        private int height;
+
+        /**
+         * A helper method to fill in the key
+         */
+        void set(int skin, int eye, int hair, int hairStyle, int w, int h){
+            low = FaceCodec.packLow(skin, eye, hair);
+            high = FaceCodec.packHigh(hair, hairStyle);
+            width = w;
+            height = h;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)){
+                return false;
+            }
+            Key other = (Key)o;
+            return low == other.low && high == other.high
+                    && width == other.width && height == other.height;
+        }
+
+        @Override
+        public int hashCode() {
+            int h = (int)(low ^ (low >>> 32));
+            h = 31 * h + high;
+            h = 31 * h + width;
+            return 31 * h + height;
+        }
+    }//class Key
+}//class FaceBitmapCache
@@ -9,7 +9,7 @@
 
 package com.example.junkinsfacemaker;
 
-import android.util.Log;
+import android.os.Bundle;
 import android.view.View;
 import android.view.View.OnClickListener;
 import android.widget.Adapter;
@@ -19,11 +19,17 @@ import android.widget.RadioButton;
 import android.widget.SeekBar;
 import android.widget.Spinner;
 
+import com.example.junkinsfacemaker.core.FaceColors;
+import com.example.junkinsfacemaker.core.FaceMetrics;
+
 //for keeping track of which feature has been selected
 enum Feature { HAIR, EYES, SKIN; }
 
 public class FaceController implements OnClickListener,
         AdapterView.OnItemSelectedListener, SeekBar.OnSeekBarChangeListener{
+    //saved state key
+    static final String STATE_FEATURE = "selectedFeature";
+
     private Face faceReference;
     private RadioButton hairButtonRef;
     private RadioButton skinButtonRef;
@@ -33,6 +39,10 @@ public class FaceController implements OnClickListener,
     private SeekBar gBar;
     private Spinner hairSpinner;
     private Feature selectedFeature;
+    private FaceEditBatcher editBatcher;
+    //the seek bar being dragged, if any; changes without a touch, from
+    //keys, the D-pad or accessibility, are each a finished undo step
+    private SeekBar touchedBar;
 
     /**
      * Main constructor
@@ -43,9 +53,26 @@ public class FaceController implements OnClickListener,
     public FaceController (Face ref, Spinner hs,
                            RadioButton hbr, RadioButton sbr, RadioButton ebr,
                            SeekBar rb, SeekBar gb, SeekBar bb){
+        this(ref, hs, hbr, sbr, ebr, rb, gb, bb, null);
+    }
+
+    /**
+     * Restoring constructor
+     * when there is saved state, the face's traits are not back yet, so
+     * nothing is read from the face here; restoreState sets up the
+     * buttons, the spinner, the seek bars and the undo history instead
+     *
+     * @param ref           the reference Face
+     * @param savedState    the activity's saved state, or null
+     */
+    public FaceController (Face ref, Spinner hs,
+                           RadioButton hbr, RadioButton sbr, RadioButton ebr,
+                           SeekBar rb, SeekBar gb, SeekBar bb,
+                           Bundle savedState){
         selectedFeature = Feature.HAIR; //hair is selected by default.
         //assign references and update
         this.faceReference = ref;
+        this.editBatcher = new FaceEditBatcher(ref, savedState == null);
         this.hairSpinner = hs;
         this.hairButtonRef = hbr;
         this.skinButtonRef = sbr;
@@ -53,29 +80,46 @@ public class FaceController implements OnClickListener,
         this.rBar = rb;
         this.gBar = gb;
         this.bBar = bb;
-        hairButtonRef.setChecked(true);
-        updateSeekBars();
+        if (savedState == null){
+            hairButtonRef.setChecked(true);
+            updateSeekBars();
+        }
     }
 
     /**
      * Button onClick
      * determines behavior when 'random face' button is clicked:
      * randomizes the referenced face's features
+     * determines behavior when undo and redo are clicked: steps through
+     * the face's edit history
      * determines behavior when radio buttons are clicked:
      * deactivates other radio buttons and shows color vals
+     * any click ends the seek bar edit under way, if there is one
      *
      * @param view the clicked view
      */
     @Override
     public void onClick(View view) {
+        editBatcher.sealEdit();
         switch(view.getId()){
             case R.id.randomFaceButton:
-                faceReference.randomize();
-                faceReference.invalidate(); //redraw
+                editBatcher.randomize();
                 //correct spinner and seek bars
                 hairSpinner.setSelection(faceReference.getHairStyle());
                 updateSeekBars();
                 break;
+            case R.id.undoButton:
+                if (editBatcher.undo()){
+                    hairSpinner.setSelection(faceReference.getHairStyle());
+                    updateSeekBars();
+                }
+                break;
+            case R.id.redoButton:
+                if (editBatcher.redo()){
+                    hairSpinner.setSelection(faceReference.getHairStyle());
+                    updateSeekBars();
+                }
+                break;
             case R.id.hairButton:
                 selectedFeature = Feature.HAIR;
                 updateSeekBars();
@@ -100,6 +144,45 @@ public class FaceController implements OnClickListener,
         }
     }
 
+    /**
+     * Saves which feature is being edited
+     * the face saves its own traits, and the seek bars follow from both
+     *
+     * @param outState  the activity's saved state
+     */
+    public void saveState(Bundle outState){
+        outState.putInt(STATE_FEATURE, selectedFeature.ordinal());
+    }
+
+    /**
+     * Brings back the state saved by saveState, once the face has been
+     * restored: the selected feature, its radio button, the spinner and
+     * the seek bars
+     *
+     * @param savedState    the activity's saved state
+     */
+    public void restoreState(Bundle savedState){
+        int ordinal = savedState.getInt(STATE_FEATURE, Feature.HAIR.ordinal());
+        Feature[] features = Feature.values();
+        selectedFeature = ordinal >= 0 && ordinal < features.length
+                ? features[ordinal] : Feature.HAIR;
+        hairButtonRef.setChecked(selectedFeature == Feature.HAIR);
+        skinButtonRef.setChecked(selectedFeature == Feature.SKIN);
+        eyeButtonRef.setChecked(selectedFeature == Feature.EYES);
+        hairSpinner.setSelection(faceReference.getHairStyle());
+        //the restored face is where undo history starts
+        editBatcher.getHistory().reset(faceReference.getModel());
+        updateSeekBars();
+    }
+
+    /**
+     * A getter for the feature being edited
+     * @return  the selected feature
+     */
+    public Feature getSelectedFeature() {
+        return selectedFeature;
+    }
+
     /**
      * A method to set the current values  of the RGB seek bars to match the
      * color values of the current selected component
@@ -120,18 +203,9 @@ public class FaceController implements OnClickListener,
                 break;
         }
 
-        /**
-         * External Citation
-         * Date: Oct 6, 2020
-         * problem: Needed to covert a hex color to three rgb integers
-         * Resource: stackoverflow
-         * https://stackoverflow.com/questions/2534116/how-to-convert-getrgbx-
-         * y-integer-pixel-to-colorr-g-b-a-in-java
-         * Solution: Used bit-shifting and masking to isolate color components
-         */
-        setRedBar((currentColor>>16)&0xFF);
-        setGreenBar((currentColor>>8)&0xFF);
-        setBlueBar((currentColor)&0xFF);
+        setRedBar(FaceColors.channel(currentColor, FaceColors.RED));
+        setGreenBar(FaceColors.channel(currentColor, FaceColors.GREEN));
+        setBlueBar(FaceColors.channel(currentColor, FaceColors.BLUE));
     }
 
     /**
@@ -176,28 +250,16 @@ public class FaceController implements OnClickListener,
      *
      * @param parent    the spinner
      * @param view      default view
-     * @param pos       position
+     * @param pos       position, which is the hairstyle's registry id
      * @param id        id
      */
     @Override
     public void onItemSelected(AdapterView<?> parent, View view, int pos, long id) {
-        String selectedStyle = (String)parent.getItemAtPosition(pos);
-        Log.v("style", selectedStyle);
-        switch (selectedStyle){
-            case "Ultimate Hat-hair":
-                faceReference.setHairStyle(0);
-                break;
-            case "Afro":
-                faceReference.setHairStyle(1);
-                break;
-            case "Geometric Pompadour":
-                faceReference.setHairStyle(2);
-                break;
-            default:
-                //this should never happen. If it does, do nothing.
-                break;
-        }
-        faceReference.invalidate();
+        //runs on every selection, including setSelection calls, so it
+        //is counted rather than logged
+        FaceMetrics.STYLE_SELECTIONS.increment();
+        //the batcher ignores ids the registry does not have
+        editBatcher.setHairStyle(pos);
     }
 
     /**
@@ -222,89 +284,62 @@ public class FaceController implements OnClickListener,
                                   boolean fromUser) {
         //do nothing if the user did not manually change this seek bar
         if (!fromUser) { return; }
+        FaceMetrics.SEEK_BAR_EVENTS.mark();
 
-        //get the current color of the selected feature
-        int featureColor = getCurrentFeatureColor();
-
-        //determine which seek bar changed and bit shift the hex
-        //value accordingly, then splice it into the color
-        int newColorComp = progress;
-        int newColor = featureColor;
+        //determine which seek bar changed
+        int channel;
         switch(seekBar.getId()){
             case R.id.redSeekBar:
-                newColorComp = newColorComp<<16;
-                newColor = newColor&0x00FFFF;
+                channel = FaceColors.RED;
                 break;
             case R.id.greenSeekBar:
-                newColorComp = newColorComp<<8;
-                newColor = newColor&0xFF00FF;
+                channel = FaceColors.GREEN;
                 break;
             case R.id.blueSeekBar:
-                newColor = newColor&0xFFFF00;
+                channel = FaceColors.BLUE;
                 break;
             default:
                 //if any other id is provided, exit method.
                 return;
         }
 
-        //update the feature's color
-        newColor = newColor + newColorComp;
-        updateCurrentFeatureColor(newColor + 0xff000000);
-        faceReference.updatePaints();
-        faceReference.invalidate();
-
-    }
-
-    /**
-     * a helper method to get the color of the currently selected feature
-     * @return  the current color value of the selected feature
-     */
-    private int getCurrentFeatureColor(){
-        switch(selectedFeature){
-            case HAIR:
-                return faceReference.getHairColor();
-            case SKIN:
-                return faceReference.getSkinColor();
-            case EYES:
-                return faceReference.getEyeColor();
-            default: //this cannot happen
-                return -1;
+        //splice the new value into the feature's color;
+        //the batcher redraws once per frame and merges the drag into one
+        //undo step
+        editBatcher.setChannel(selectedFeature, channel, progress);
+        if (seekBar != touchedBar){
+            editBatcher.sealEdit();
         }
     }
 
     /**
-     * a helper method to get the color of the currently selected feature
-     * @return  the current color value of the selected feature
+     * A getter for the edit batcher
+     * @return  the batcher that applies this controller's edits
      */
-    private void updateCurrentFeatureColor(int newColor){
-        switch(selectedFeature){
-            case HAIR:
-                faceReference.setHairColor(newColor);
-                break;
-            case SKIN:
-                faceReference.setSkinColor(newColor);
-                break;
-            case EYES:
-                faceReference.setEyeColor(newColor);
-                break;
-            default: //this cannot happen
-                return;
-        }
+    public FaceEditBatcher getEditBatcher() {
+        return editBatcher;
     }
 
     /**
-     * An unused but required method to respond to a user starting to touch
-     * the seekbar
+     * A method to respond to a user starting to touch the seekbar:
+     * its changes merge into one undo step until the touch ends
      * @param seekBar   a reference to the seek bar
      */
     @Override
-    public void onStartTrackingTouch(SeekBar seekBar) { }
+    public void onStartTrackingTouch(SeekBar seekBar) {
+        //a drag on another bar ends the one before
+        editBatcher.sealEdit();
+        touchedBar = seekBar;
+    }
 
     /**
-     * An unused but required method to respond to a user ceasing to touch
-     * the seekbar
+     * A method to respond to a user ceasing to touch the seekbar:
+     * the drag is over, so it becomes one finished undo step
      * @param seekBar   a reference to the seek bar
      */
     @Override
-    public void onStopTrackingTouch(SeekBar seekBar) { }
+    public void onStopTrackingTouch(SeekBar seekBar) {
+        touchedBar = null;
+        editBatcher.sealEdit();
+    }
 }
@@ -0,0 +1,292 @@
+/**
+ * FaceMaker FaceDisplayList Class
+ * draws a face by replaying recorded draw commands instead of issuing
+ * them, one recording per FaceLayerCompositor layer
+ *
+ * a layer is recorded once per set of paths (hairstyle and view size)
+ * and replayed on every frame after that, so a frame is just the
+ * submission of the recordings. recordings are one drawPath each, and
+ * since a recorded paint keeps the color it had, a color edit re-records
+ * only its own layer; the rest of the face is untouched
+ *
+ * on a hardware canvas on API 29+ the recordings are RenderNodes under
+ * one root node, so a frame is a single drawRenderNode and a re-recorded
+ * layer is picked up without touching the root. elsewhere they are
+ * Pictures, which hardware canvases only play back from API 23; below
+ * that the paths are drawn directly
+ *
+ * @version Oct 18 2026
+ * @author Alex Junkins
+ */
+package com.example.junkinsfacemaker;
+
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Path;
+import android.graphics.Picture;
+import android.graphics.RecordingCanvas;
+import android.graphics.RectF;
+import android.graphics.RenderNode;
+import android.os.Build;
+
+import androidx.annotation.RequiresApi;
+
+import static com.example.junkinsfacemaker.FaceLayerCompositor.ALL_LAYERS;
+import static com.example.junkinsfacemaker.FaceLayerCompositor.NUM_LAYERS;
+
+public class FaceDisplayList {
+    //the face's shapes, one path per layer, from the FacePathCache
+    private Path[] layerPaths = new Path[NUM_LAYERS];
+
+    //the paints whose colors each layer is recorded with
+    private final Paint[] layerSources;
+
+    //a software canvas and a hardware one need different recordings, and
+    //a face with a render cache draws to both
+    private final PictureRecorder pictures = new PictureRecorder();
+    private NodeRecorder nodes;
+
+    private final long[] recordCounts = new long[NUM_LAYERS];
+    private int lastRecorded;
+
+    /**
+     * Main constructor
+     * the paints are read on every frame, not copied
+     *
+     * @param layerSources  for each layer, the paint to record it with
+     */
+    public FaceDisplayList(Paint[] layerSources) {
+        this.layerSources = layerSources;
+    }
+
+    /**
+     * Replaces the face's shapes
+     * the layers whose paths changed must also be invalidated
+     *
+     * @param paths     one path per layer, null for an empty layer
+     */
+    public void setLayerPaths(Path[] paths){
+        layerPaths = paths;
+    }
+
+    /**
+     * Marks layers whose shapes changed, so they get recorded again on the
+     * next frame
+     *
+     * @param layers    layer bits
+     */
+    public void invalidateLayers(int layers){
+        pictures.dirty |= layers;
+        if (nodes != null){
+            nodes.dirty |= layers;
+        }
+    }
+
+    /**
+     * Draws the face, re-recording only the layers that changed
+     * @param canvas    the canvas object the face will be drawn on
+     */
+    public void draw(Canvas canvas){
+        Recorder recorder;
+        if (!canvas.isHardwareAccelerated()
+                || Build.VERSION.SDK_INT < Build.VERSION_CODES.Q){
+            if (canvas.isHardwareAccelerated()
+                    && Build.VERSION.SDK_INT < Build.VERSION_CODES.M){
+                drawDirect(canvas);
+                return;
+            }
+            recorder = pictures;
+        }
+        else {
+            if (nodes == null){
+                nodes = new NodeRecorder();
+            }
+            recorder = nodes;
+        }
+
+        int recorded = 0;
+        for (int layer = 0; layer < NUM_LAYERS; layer++){
+            int bit = 1 << layer;
+            Paint paint = layerSources[layer];
+            if ((recorder.dirty & bit) != 0
+                    || recorder.colors[layer] != paint.getColor()){
+                recorder.record(layer, layerPaths[layer], paint);
+                recorder.colors[layer] = paint.getColor();
+                recordCounts[layer]++;
+                recorded |= bit;
+            }
+        }
+        recorder.dirty = 0;
+        lastRecorded = recorded;
+        recorder.draw(canvas);
+    }
+
+    /**
+     * A helper method to draw the paths as they are, for canvases that
+     * cannot play back a recording
+     *
+     * @param canvas    the canvas object the face will be drawn on
+     */
+    private void drawDirect(Canvas canvas){
+        Path[] paths = layerPaths;
+        for (int layer = 0; layer < NUM_LAYERS; layer++){
+            if (paths[layer] != null){
+                canvas.drawPath(paths[layer], layerSources[layer]);
+            }
+        }
+        lastRecorded = 0;
+    }
+
+    /**
+     * A getter for the layers recorded in the last frame
+     * @return  layer bits
+     */
+    public int getLastRecordedLayers() {
+        return lastRecorded;
+    }
+
+    /**
+     * A getter for how often a layer has been recorded
+     * @param layer     FaceLayerCompositor.LAYER_*
+     * @return  count
+     */
+    public long getRecordCount(int layer){
+        return recordCounts[layer];
+    }
+
+    /**
+     * A getter for the memory held by the recordings, as far as it is
+     * known: RenderNodes report theirs, Pictures do not, though they only
+     * hold one op and a reference to a cached path each
+     *
+     * @return  bytes
+     */
+    public long getRetainedBytes(){
+        return nodes != null ? nodes.getRetainedBytes() : 0;
+    }
+
+    /**
+     * One kind of recording, with what it was last recorded from
+     */
+    private abstract static class Recorder {
+        int dirty = ALL_LAYERS;
+        final int[] colors = new int[NUM_LAYERS];
+        final RectF bounds = new RectF();
+
+        /**
+         * Records one layer
+         *
+         * @param layer     FaceLayerCompositor.LAYER_*
+         * @param path      the layer's shapes, null if it has none
+         * @param paint     the paint to record them with
+         */
+        abstract void record(int layer, Path path, Paint paint);
+
+        /**
+         * Plays the recordings back
+         *
+         * @param canvas    the canvas object the face will be drawn on
+         */
+        abstract void draw(Canvas canvas);
+
+        /**
+         * A helper method to find how big a recording of a path must be
+         * @param path  the path
+         * @return  false if the path draws nothing
+         */
+        boolean measure(Path path){
+            if (path == null){
+                return false;
+            }
+            path.computeBounds(bounds, true);
+            return !bounds.isEmpty();
+        }
+    }
+
+    /**
+     * Recordings as Pictures
+     */
+    private static final class PictureRecorder extends Recorder {
+        private final Picture[] layers = new Picture[NUM_LAYERS];
+        private final boolean[] empty = new boolean[NUM_LAYERS];
+
+        @Override
+        void record(int layer, Path path, Paint paint){
+            empty[layer] = !measure(path);
+            if (empty[layer]){
+                return;
+            }
+            if (layers[layer] == null){
+                layers[layer] = new Picture();
+            }
+            //recorded from the origin, so the picture lines up with the view
+            Canvas canvas = layers[layer].beginRecording(
+                    (int)Math.ceil(bounds.right),
+                    (int)Math.ceil(bounds.bottom));
+            canvas.drawPath(path, paint);
+            layers[layer].endRecording();
+        }
+
+        @Override
+        void draw(Canvas canvas){
+            for (int layer = 0; layer < NUM_LAYERS; layer++){
+                if (!empty[layer]){
+                    canvas.drawPicture(layers[layer]);
+                }
+            }
+        }
+    }//class PictureRecorder
+
+    /**
+     * Recordings as RenderNodes, drawn through one root node that only
+     * needs recording once
+     */
+    @RequiresApi(api = Build.VERSION_CODES.Q)
+    private static final class NodeRecorder extends Recorder {
+        private final RenderNode root = new RenderNode("face");
+        private final RenderNode[] layers = new RenderNode[NUM_LAYERS];
+
+        NodeRecorder() {
+            for (int layer = 0; layer < NUM_LAYERS; layer++){
+                layers[layer] = new RenderNode("faceLayer");
+            }
+        }
+
+        @Override
+        void record(int layer, Path path, Paint paint){
+            RenderNode node = layers[layer];
+            if (!measure(path)){
+                node.discardDisplayList();
+                return;
+            }
+            node.setPosition(0, 0, (int)Math.ceil(bounds.right),
+                    (int)Math.ceil(bounds.bottom));
+            RecordingCanvas canvas = node.beginRecording();
+            canvas.drawPath(path, paint);
+            node.endRecording();
+        }
+
+        @Override
+        void draw(Canvas canvas){
+            //the root holds the layers by reference, so it only needs
+            //recording again when its own size changes
+            if (root.setPosition(0, 0, canvas.getWidth(), canvas.getHeight())
+                    || !root.hasDisplayList()){
+                RecordingCanvas recording = root.beginRecording();
+                for (RenderNode layer : layers){
+                    recording.drawRenderNode(layer);
+                }
+                root.endRecording();
+            }
+            canvas.drawRenderNode(root);
+        }
+
+        long getRetainedBytes(){
+            long bytes = root.computeApproximateMemoryUsage();
+            for (RenderNode layer : layers){
+                bytes += layer.computeApproximateMemoryUsage();
+            }
+            return bytes;
+        }
+    }//class NodeRecorder
+}//class FaceDisplayList
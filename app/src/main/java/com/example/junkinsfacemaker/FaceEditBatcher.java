@@ -0,0 +1,272 @@
+/**
+ * FaceMaker FaceEditBatcher Class
+ * sits between the FaceController and a Face and gathers trait edits,
+ * applying them at most once per Choreographer frame
+ * a seek bar drag fires many progress events between two vsyncs; only
+ * the last value of each trait matters, and only the paints of traits
+ * that really changed are updated
+ * every edit is also recorded in a FaceEditHistory, so it can be undone;
+ * the events of one seek bar drag fold into one history entry, and the
+ * face is told a drag is under way so it doesn't cache every step of it
+ * a randomized face eases into its new colors; any other edit in the
+ * same frame shows right away, as small steps need no easing
+ *
+ * @version Oct 18 2026
+ * @author Alex Junkins
+ */
+package com.example.junkinsfacemaker;
+
+import android.view.Choreographer;
+
+import com.example.junkinsfacemaker.core.FaceColors;
+import com.example.junkinsfacemaker.core.FaceEditHistory;
+import com.example.junkinsfacemaker.core.FaceMetrics;
+import com.example.junkinsfacemaker.core.FaceModel;
+
+public class FaceEditBatcher implements Choreographer.FrameCallback {
+    private final Face face;
+    private final Choreographer choreographer;
+    private final FaceEditHistory history =
+            new FaceEditHistory(FaceEditHistory.DEFAULT_CAPACITY);
+
+    //Face.CHANGED_* flags waiting for the next frame
+    private int pendingChanges;
+    private boolean frameScheduled;
+    //whether the next frame animates the changes rather than snapping
+    private boolean pendingAnimate;
+
+    //counters for tests and tuning
+    private long requestedFrames;
+    private long renderedFrames;
+
+    /**
+     * Main constructor
+     * must be called on a thread with a Looper, normally the UI thread
+     *
+     * @param face  the face being edited
+     */
+    public FaceEditBatcher(Face face) {
+        this(face, true);
+    }
+
+    /**
+     * Restoring constructor
+     * must be called on a thread with a Looper, normally the UI thread
+     *
+     * @param face          the face being edited
+     * @param startHistory  false to leave the face alone until its traits
+     *                      are restored and getHistory().reset is called
+     */
+    FaceEditBatcher(Face face, boolean startHistory) {
+        this.face = face;
+        this.choreographer = Choreographer.getInstance();
+        if (startHistory){
+            history.reset(face.getModel());
+        }
+    }
+
+    /**
+     * Changes the color of a feature on the next frame
+     *
+     * @param feature   the feature to recolor
+     * @param newColor  an ARGB hexadecimal color
+     */
+    public void setColor(Feature feature, int newColor){
+        setColor(feature, newColor, FaceEditHistory.NO_MERGE);
+    }
+
+    /**
+     * Changes one RGB channel of a feature's color on the next frame
+     * changes to the same channel fold into one undo step until
+     * sealEdit() is called
+     *
+     * @param feature   the feature to recolor
+     * @param channel   FaceColors.RED, GREEN or BLUE
+     * @param value     the new channel value, 0-255
+     */
+    public void setChannel(Feature feature, int channel, int value){
+        int color;
+        switch (feature){
+            case HAIR:
+                color = face.getHairColor();
+                break;
+            case SKIN:
+                color = face.getSkinColor();
+                break;
+            case EYES:
+                color = face.getEyeColor();
+                break;
+            default: //this cannot happen
+                return;
+        }
+        //one key per feature and channel
+        int mergeKey = feature.ordinal() * 32 + channel;
+        setColor(feature, FaceColors.spliceChannel(color, channel, value),
+                mergeKey);
+    }
+
+    /**
+     * A helper method to recolor a feature and record the edit
+     *
+     * @param feature   the feature to recolor
+     * @param newColor  an ARGB hexadecimal color
+     * @param mergeKey  history merge key
+     */
+    private void setColor(Feature feature, int newColor, int mergeKey){
+        FaceModel model = face.getModel();
+        //merged edits stream in until sealEdit()
+        face.setEditInProgress(mergeKey != FaceEditHistory.NO_MERGE);
+        switch (feature){
+            case HAIR:
+                if (model.getHairColor() == newColor) { return; }
+                model.setHairColor(newColor);
+                history.record(model, mergeKey);
+                request(Face.CHANGED_HAIR);
+                break;
+            case SKIN:
+                if (model.getSkinColor() == newColor) { return; }
+                model.setSkinColor(newColor);
+                history.record(model, mergeKey);
+                request(Face.CHANGED_SKIN);
+                break;
+            case EYES:
+                if (model.getEyeColor() == newColor) { return; }
+                model.setEyeColor(newColor);
+                history.record(model, mergeKey);
+                request(Face.CHANGED_EYES);
+                break;
+            default: //this cannot happen
+                break;
+        }
+    }
+
+    /**
+     * Changes the hairstyle on the next frame
+     * invalid or unchanged styles are ignored
+     *
+     * @param newStyle  the hairstyle id
+     */
+    public void setHairStyle(int newStyle){
+        FaceModel model = face.getModel();
+        if (!FaceModel.isValidHairStyle(newStyle)
+                || model.getHairStyle() == newStyle){
+            return;
+        }
+        model.setHairStyle(newStyle);
+        face.setEditInProgress(false);
+        history.record(model, FaceEditHistory.NO_MERGE);
+        request(Face.CHANGED_STYLE);
+    }
+
+    /**
+     * Randomizes every trait; the new values can be read from the face
+     * right away, but are drawn on the next frame
+     */
+    public void randomize(){
+        FaceMetrics.RANDOMIZE_CALLS.increment();
+        face.getModel().randomizeRealistic(face.rnd);
+        face.setEditInProgress(false);
+        history.record(face.getModel(), FaceEditHistory.NO_MERGE);
+        request(Face.CHANGED_ALL);
+        pendingAnimate = true;
+    }
+
+    /**
+     * Ends the current undo step, e.g. when a seek bar is let go, and
+     * lets the face cache what it settled on
+     */
+    public void sealEdit(){
+        history.seal();
+        face.setEditInProgress(false);
+    }
+
+    /**
+     * Undoes the last edit; like any edit, it is drawn on the next frame
+     * @return  false if there was nothing to undo
+     */
+    public boolean undo(){
+        if (!history.undo(face.getModel())){
+            return false;
+        }
+        face.setEditInProgress(false);
+        request(Face.CHANGED_ALL);
+        return true;
+    }
+
+    /**
+     * Redoes the last undone edit, drawn on the next frame
+     * @return  false if there was nothing to redo
+     */
+    public boolean redo(){
+        if (!history.redo(face.getModel())){
+            return false;
+        }
+        face.setEditInProgress(false);
+        request(Face.CHANGED_ALL);
+        return true;
+    }
+
+    /**
+     * A getter for the edit history
+     * @return  the history of this batcher's face
+     */
+    public FaceEditHistory getHistory() {
+        return history;
+    }
+
+    /**
+     * A helper method to remember a change and make sure a frame is coming
+     * @param changes   Face.CHANGED_* flags
+     */
+    private void request(int changes){
+        requestedFrames++;
+        pendingChanges |= changes;
+        pendingAnimate = false;
+        if (!frameScheduled){
+            frameScheduled = true;
+            choreographer.postFrameCallback(this);
+        }
+    }
+
+    /**
+     * Frame callback
+     * applies everything gathered since the last frame in one go
+     *
+     * @param frameTimeNanos    vsync time of the frame
+     */
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        int changes = pendingChanges;
+        boolean animate = pendingAnimate;
+        pendingChanges = 0;
+        pendingAnimate = false;
+        frameScheduled = false;
+        if (changes == 0){
+            return;
+        }
+        if (animate){
+            face.animateTraitChanges();
+        }
+        else {
+            face.applyTraitChanges(changes);
+        }
+        face.redraw();
+        renderedFrames++;
+    }
+
+    /**
+     * A getter for the number of edits that asked for a frame
+     * @return requested frames
+     */
+    public long getRequestedFrames() {
+        return requestedFrames;
+    }
+
+    /**
+     * A getter for the number of frames that were actually redrawn
+     * @return rendered frames
+     */
+    public long getRenderedFrames() {
+        return renderedFrames;
+    }
+}//class FaceEditBatcher
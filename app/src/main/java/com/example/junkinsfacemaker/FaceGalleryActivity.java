@@ -0,0 +1,144 @@
+/**
+ * FaceMaker Face Gallery Activity Class
+ * a scrolling grid of generated faces
+ * the faces are made on a background thread with java.util.Random, so
+ * opening the gallery neither blocks the UI thread nor needs the API 24
+ * streams and SplittableRandom that FaceBatchGenerator uses
+ *
+ * @version Oct 18 2026
+ * @author Alex Junkins
+ */
+
+package com.example.junkinsfacemaker;
+
+import androidx.appcompat.app.AppCompatActivity;
+import androidx.recyclerview.widget.GridLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+
+import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
+
+import com.example.junkinsfacemaker.core.FaceModel;
+import com.example.junkinsfacemaker.core.FaceTraitStore;
+
+import java.util.Random;
+
+public class FaceGalleryActivity extends AppCompatActivity {
+    //intent extras
+    public static final String EXTRA_COUNT = "count";
+    public static final String EXTRA_SEED = "seed";
+
+    public static final int DEFAULT_COUNT = 10_000;
+
+    private FaceThumbnailLoader loader;
+    private FaceGalleryAdapter adapter;
+    private RecyclerView grid;
+    private int cell;
+    //set on the UI thread when the activity goes away, so faces that are
+    //made after that are dropped
+    private boolean destroyed;
+
+    /**
+     * Sets up the grid and starts making the faces
+     * @param savedInstanceState inherited parameter from overridden onCreate
+     */
+    @Override
+    protected void onCreate(Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+        setContentView(R.layout.activity_gallery);
+
+        //as many columns of thumbnails as fit across the screen
+        cell = getResources().getDimensionPixelSize(
+                R.dimen.face_thumbnail_size);
+        int columns = Math.max(1,
+                getResources().getDisplayMetrics().widthPixels / cell);
+
+        grid = findViewById(R.id.galleryGrid);
+        grid.setHasFixedSize(true);
+        grid.setLayoutManager(new GridLayoutManager(this, columns));
+
+        int count = getIntent().getIntExtra(EXTRA_COUNT, DEFAULT_COUNT);
+        long seed = getIntent().getLongExtra(EXTRA_SEED,
+                System.currentTimeMillis());
+        Handler main = new Handler(Looper.getMainLooper());
+        new Thread(() -> {
+            FaceTraitStore faces = generate(seed, count);
+            main.post(() -> showFaces(faces));
+        }, "FaceGalleryGenerator").start();
+    }
+
+    /**
+     * A helper method to make the gallery's faces, one reused model at a
+     * time, with realistic skin tones as the app makes them
+     *
+     * @param seed      seed of the faces
+     * @param count     number of faces
+     * @return  the faces
+     */
+    static FaceTraitStore generate(long seed, int count){
+        FaceTraitStore faces = new FaceTraitStore(count);
+        FaceModel model = new FaceModel();
+        Random rnd = new Random(seed);
+        for (int i = 0; i < count; i++){
+            model.randomizeRealistic(rnd);
+            faces.set(i, model);
+        }
+        return faces;
+    }
+
+    /**
+     * A helper method to fill the grid once the faces are made
+     * @param faces     the gallery's faces
+     */
+    private void showFaces(FaceTraitStore faces){
+        if (destroyed){
+            return;
+        }
+        //leave a core for the UI thread
+        int threads = Math.max(1,
+                Runtime.getRuntime().availableProcessors() - 1);
+        loader = new FaceThumbnailLoader(faces, cell, threads,
+                FaceBitmapCache.defaultBudget());
+        adapter = new FaceGalleryAdapter(faces, loader);
+        grid.setAdapter(adapter);
+        grid.addOnScrollListener(new FaceGalleryPrefetcher(loader,
+                FaceGalleryPrefetcher.DEFAULT_ROWS_AHEAD));
+    }
+
+    /**
+     * Stops drawing thumbnails when the gallery goes away
+     */
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        destroyed = true;
+        if (loader != null){
+            loader.shutdown();
+        }
+    }
+
+    /**
+     * A getter for the grid
+     * @return  the gallery's RecyclerView
+     */
+    public RecyclerView getGrid() {
+        return grid;
+    }
+
+    /**
+     * A getter for the adapter
+     * @return  the gallery's adapter, null until the faces are made
+     */
+    public FaceGalleryAdapter getAdapter() {
+        return adapter;
+    }
+
+    /**
+     * A getter for the thumbnail loader
+     * @return  the gallery's loader, null until the faces are made
+     */
+    public FaceThumbnailLoader getLoader() {
+        return loader;
+    }
+}
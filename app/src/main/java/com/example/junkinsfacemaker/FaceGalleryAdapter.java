@@ -0,0 +1,112 @@
+/**
+ * FaceMaker FaceGalleryAdapter Class
+ * shows every face of a FaceTraitStore as a thumbnail in a RecyclerView
+ *
+ * view holders only ever hold a face index; the thumbnails are drawn by a
+ * FaceThumbnailLoader, so binding never draws on the UI thread
+ *
+ * @version Oct 18 2026
+ * @author Alex Junkins
+ */
+package com.example.junkinsfacemaker;
+
+import android.graphics.Bitmap;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.ImageView;
+
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.example.junkinsfacemaker.core.FaceTraitStore;
+
+public class FaceGalleryAdapter
+        extends RecyclerView.Adapter<FaceGalleryAdapter.Holder> {
+    private final FaceTraitStore store;
+    private final FaceThumbnailLoader loader;
+
+    //how many holders were ever made; stays near one screenful
+    private int createdHolders;
+
+    /**
+     * Main constructor
+     *
+     * @param store     the faces
+     * @param loader    draws their thumbnails
+     */
+    public FaceGalleryAdapter(FaceTraitStore store,
+                              FaceThumbnailLoader loader) {
+        this.store = store;
+        this.loader = loader;
+        setHasStableIds(true);
+    }
+
+    @Override
+    public Holder onCreateViewHolder(ViewGroup parent, int viewType) {
+        View item = LayoutInflater.from(parent.getContext())
+                .inflate(R.layout.item_face, parent, false);
+        createdHolders++;
+        return new Holder(item);
+    }
+
+    @Override
+    public void onBindViewHolder(Holder holder, int position) {
+        holder.boundIndex = position;
+        loader.load(position, holder);
+    }
+
+    /**
+     * Forgets the face of a holder going back to the pool, so a late
+     * thumbnail for it is not shown
+     *
+     * @param holder    the recycled holder
+     */
+    @Override
+    public void onViewRecycled(Holder holder) {
+        holder.boundIndex = RecyclerView.NO_POSITION;
+        holder.setThumbnail(null);
+    }
+
+    @Override
+    public int getItemCount() {
+        return store.size();
+    }
+
+    @Override
+    public long getItemId(int position) {
+        return position;
+    }
+
+    /**
+     * A getter for the number of view holders made so far
+     * @return  count
+     */
+    public int getCreatedHolderCount() {
+        return createdHolders;
+    }
+
+    /**
+     * A gallery cell: one thumbnail
+     */
+    static final class Holder extends RecyclerView.ViewHolder
+            implements FaceThumbnailLoader.Target {
+        private final ImageView image;
+        //read from loader threads
+        private volatile int boundIndex = RecyclerView.NO_POSITION;
+
+        Holder(View item) {
+            super(item);
+            image = item.findViewById(R.id.faceThumbnail);
+        }
+
+        @Override
+        public int getBoundIndex() {
+            return boundIndex;
+        }
+
+        @Override
+        public void setThumbnail(Bitmap thumbnail) {
+            image.setImageBitmap(thumbnail);
+        }
+    }//class Holder
+}//class FaceGalleryAdapter
@@ -0,0 +1,63 @@
+/**
+ * FaceMaker FaceGalleryPrefetcher Class
+ * asks the thumbnail loader for the rows just past the edge a gallery is
+ * scrolling towards, so they are drawn before they come on screen
+ *
+ * @version Oct 18 2026
+ * @author Alex Junkins
+ */
+package com.example.junkinsfacemaker;
+
+import androidx.recyclerview.widget.GridLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+
+public class FaceGalleryPrefetcher extends RecyclerView.OnScrollListener {
+    //how far ahead of the scroll to draw
+    public static final int DEFAULT_ROWS_AHEAD = 4;
+
+    private final FaceThumbnailLoader loader;
+    private final int rowsAhead;
+
+    /**
+     * Main constructor
+     *
+     * @param loader    draws the thumbnails
+     * @param rowsAhead how many rows past the visible ones to prefetch
+     */
+    public FaceGalleryPrefetcher(FaceThumbnailLoader loader, int rowsAhead) {
+        this.loader = loader;
+        this.rowsAhead = rowsAhead;
+    }
+
+    /**
+     * Scroll listener
+     * prefetches in the direction of the scroll; the same rows come up on
+     * many calls in a row, which is cheap, as the loader skips faces that
+     * are cached or already waiting
+     *
+     * @param recyclerView  the gallery
+     * @param dx            horizontal scroll
+     * @param dy            vertical scroll
+     */
+    @Override
+    public void onScrolled(RecyclerView recyclerView, int dx, int dy) {
+        if (!(recyclerView.getLayoutManager() instanceof GridLayoutManager)){
+            return;
+        }
+        GridLayoutManager grid =
+                (GridLayoutManager)recyclerView.getLayoutManager();
+        int ahead = rowsAhead * grid.getSpanCount();
+        if (dy > 0){
+            int last = grid.findLastVisibleItemPosition();
+            if (last != RecyclerView.NO_POSITION){
+                loader.prefetch(last + 1, last + 1 + ahead);
+            }
+        }
+        else if (dy < 0){
+            int first = grid.findFirstVisibleItemPosition();
+            if (first != RecyclerView.NO_POSITION){
+                loader.prefetch(first - ahead, first);
+            }
+        }
+    }
+}//class FaceGalleryPrefetcher
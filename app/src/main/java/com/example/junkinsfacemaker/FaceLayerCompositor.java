@@ -0,0 +1,221 @@
+/**
+ * FaceMaker FaceLayerCompositor Class
+ * draws a face as a stack of cached layers, back to front:
+ * back hair, head skin, eyes, details (pupils, nose, mouth), front hair
+ *
+ * each layer is kept as an ALPHA_8 mask cropped to the layer's bounds and
+ * is tinted with its trait color when composited, so a color edit only
+ * changes a paint color; a mask is re-rendered only when its geometry
+ * changes (view resize, or a hairstyle change for the hair layers)
+ *
+ * @version Oct 18 2026
+ * @author Alex Junkins
+ */
+package com.example.junkinsfacemaker;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Path;
+import android.graphics.RectF;
+
+public class FaceLayerCompositor {
+    //layers, in draw order
+    public static final int LAYER_BACK_HAIR = 0;
+    public static final int LAYER_SKIN = 1;
+    public static final int LAYER_EYES = 2;
+    public static final int LAYER_DETAILS = 3;
+    public static final int LAYER_FRONT_HAIR = 4;
+    public static final int NUM_LAYERS = 5;
+
+    //layer bit masks, for dirty tracking and instrumentation
+    public static final int ALL_LAYERS = (1 << NUM_LAYERS) - 1;
+    public static final int HAIR_LAYERS =
+            1 << LAYER_BACK_HAIR | 1 << LAYER_FRONT_HAIR;
+
+    /**
+     * Instrumentation listener, told what each composited frame cost
+     */
+    public interface Listener {
+        /**
+         * Called after each frame the compositor draws
+         *
+         * @param rendered      bits of the layers whose masks were redrawn
+         * @param recolored     bits of the layers whose tint changed
+         */
+        void onLayersDrawn(int rendered, int recolored);
+    }
+
+    //the face's shapes, one path per layer, from the FacePathCache
+    private Path[] layerPaths = new Path[NUM_LAYERS];
+
+    //the paints whose colors tint each layer
+    private final Paint[] layerSources;
+
+    //per-layer state
+    private final Bitmap[] masks = new Bitmap[NUM_LAYERS];
+    private final int[] maskLeft = new int[NUM_LAYERS];
+    private final int[] maskTop = new int[NUM_LAYERS];
+    private final Paint[] tints = new Paint[NUM_LAYERS];
+    private final long[] renderCounts = new long[NUM_LAYERS];
+    private final RectF layerBounds = new RectF();
+    private final Paint maskPaint = new Paint();
+
+    private int dirtyLayers = ALL_LAYERS;
+    private int lastRendered;
+    private int lastRecolored;
+    private Listener listener;
+
+    /**
+     * Main constructor
+     * the paints are read on every frame, not copied
+     *
+     * @param layerSources  for each layer, the paint whose color tints it
+     */
+    public FaceLayerCompositor(Paint[] layerSources) {
+        this.layerSources = layerSources;
+        for (int i = 0; i < NUM_LAYERS; i++){
+            tints[i] = new Paint();
+            //an impossible tint, so the first frame counts as a recolor
+            tints[i].setColor(0);
+        }
+        maskPaint.setStyle(Paint.Style.FILL);
+    }
+
+    /**
+     * Replaces the face's shapes
+     * the layers whose paths changed must also be invalidated
+     *
+     * @param paths     one path per layer, null for an empty layer
+     */
+    public void setLayerPaths(Path[] paths){
+        layerPaths = paths;
+    }
+
+    /**
+     * Marks layers whose shapes changed, so their masks get redrawn on the
+     * next frame
+     *
+     * @param layers    layer bits
+     */
+    public void invalidateLayers(int layers){
+        dirtyLayers |= layers;
+    }
+
+    /**
+     * Draws the face, redrawing only dirty masks
+     * @param canvas    the canvas object the face will be drawn on
+     */
+    public void draw(Canvas canvas){
+        int rendered = 0;
+        int recolored = 0;
+        for (int layer = 0; layer < NUM_LAYERS; layer++){
+            int bit = 1 << layer;
+            if ((dirtyLayers & bit) != 0){
+                renderMask(layer);
+                renderCounts[layer]++;
+                rendered |= bit;
+            }
+            int color = layerSources[layer].getColor();
+            if (tints[layer].getColor() != color){
+                tints[layer].setColor(color);
+                recolored |= bit;
+            }
+            if (masks[layer] != null){
+                canvas.drawBitmap(masks[layer], maskLeft[layer],
+                        maskTop[layer], tints[layer]);
+            }
+        }
+        dirtyLayers = 0;
+        lastRendered = rendered;
+        lastRecolored = recolored;
+        if (listener != null){
+            listener.onLayersDrawn(rendered, recolored);
+        }
+    }
+
+    /**
+     * A helper method to redraw one layer's mask
+     * the mask bitmap is reused when the layer's size is unchanged
+     *
+     * @param layer     LAYER_*
+     */
+    private void renderMask(int layer){
+        Path path = layerPaths[layer];
+        if (path != null){
+            path.computeBounds(layerBounds, true);
+        }
+        if (path == null || layerBounds.isEmpty()){
+            //e.g. no hair behind the head for this hairstyle
+            masks[layer] = null;
+            return;
+        }
+
+        int left = (int)Math.floor(layerBounds.left);
+        int top = (int)Math.floor(layerBounds.top);
+        int width = (int)Math.ceil(layerBounds.right) - left;
+        int height = (int)Math.ceil(layerBounds.bottom) - top;
+        Bitmap mask = masks[layer];
+        if (mask == null || mask.getWidth() != width
+                || mask.getHeight() != height){
+            mask = Bitmap.createBitmap(width, height, Bitmap.Config.ALPHA_8);
+            masks[layer] = mask;
+        }
+        else {
+            mask.eraseColor(0);
+        }
+        maskLeft[layer] = left;
+        maskTop[layer] = top;
+
+        Canvas canvas = new Canvas(mask);
+        canvas.translate(-left, -top);
+        canvas.drawPath(path, maskPaint);
+    }
+
+    /**
+     * A setter for the instrumentation listener
+     * @param listener  told about every frame, or null
+     */
+    public void setListener(Listener listener){
+        this.listener = listener;
+    }
+
+    /**
+     * A getter for the layers redrawn in the last frame
+     * @return  layer bits
+     */
+    public int getLastRenderedLayers() {
+        return lastRendered;
+    }
+
+    /**
+     * A getter for the layers recolored in the last frame
+     * @return  layer bits
+     */
+    public int getLastRecoloredLayers() {
+        return lastRecolored;
+    }
+
+    /**
+     * A getter for how often a layer's mask has been redrawn
+     * @param layer     LAYER_*
+     * @return  count
+     */
+    public long getRenderCount(int layer){
+        return renderCounts[layer];
+    }
+
+    /**
+     * A getter for the memory held by the masks
+     * @return  bytes
+     */
+    public long getRetainedBytes(){
+        long bytes = 0;
+        for (Bitmap mask : masks){
+            if (mask != null){
+                bytes += (long)mask.getRowBytes() * mask.getHeight();
+            }
+        }
+        return bytes;
+    }
+}//class FaceLayerCompositor
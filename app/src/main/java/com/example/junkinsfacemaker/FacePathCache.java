@@ -0,0 +1,223 @@
+/**
+ * FaceMaker FacePathCache Class
+ * builds the face's shapes into one Path per layer (see
+ * FaceLayerCompositor) and keeps them, keyed by hairstyle and view size
+ *
+ * the layout is in resolution-independent layout units; one Matrix per
+ * size scales and centers the face bounds in the view, and is applied
+ * once when the paths are built
+ *
+ * paths are built once per key and shared by every Face, so drawing a
+ * frame never builds geometry; a cached path must not be modified
+ *
+ * @version Oct 18 2026
+ * @author Alex Junkins
+ */
+package com.example.junkinsfacemaker;
+
+import android.graphics.Matrix;
+import android.graphics.Path;
+import android.graphics.RectF;
+import android.util.LruCache;
+
+import com.example.junkinsfacemaker.core.FaceLayout;
+import com.example.junkinsfacemaker.core.FaceRasterizer;
+
+public class FacePathCache extends LruCache<FacePathCache.Key, Path[]> {
+    //enough for every built-in style at a few sizes
+    public static final int DEFAULT_ENTRIES = 32;
+
+    private static final FacePathCache shared =
+            new FacePathCache(DEFAULT_ENTRIES);
+
+    //reused for lookups
+    private final Key probe = new Key();
+    private final float[] prims =
+            new float[FaceLayout.NUM_PRIMITIVES * FaceLayout.STRIDE];
+    private final RectF bounds = new RectF();
+    private final Matrix toView = new Matrix();
+
+    //paths currently held, and paths ever built
+    private int pathCount;
+    private int buildCount;
+
+    /**
+     * Main constructor
+     * @param maxEntries    how many (style, size) path sets to keep
+     */
+    public FacePathCache(int maxEntries) {
+        super(maxEntries);
+    }
+
+    /**
+     * A getter for the cache all faces share
+     * @return  the shared cache
+     */
+    public static FacePathCache getShared() {
+        return shared;
+    }
+
+    /**
+     * Finds the paths of a face, building them on a miss
+     *
+     * @param style     hairstyle id
+     * @param width     view width
+     * @param height    view height
+     * @return  one path per FaceLayerCompositor layer, null for a layer
+     *          the style does not have
+     */
+    public synchronized Path[] get(int style, int width, int height){
+        probe.set(style, width, height);
+        Path[] paths = get(probe);
+        if (paths == null){
+            fitMatrix(width, height, toView);
+            paths = build(style, toView);
+            Key key = new Key();
+            key.set(style, width, height);
+            put(key, paths);
+        }
+        return paths;
+    }
+
+    /**
+     * Computes the transform from layout units to a view: the face bounds
+     * scaled to fit and centered, the same fit FaceRasterizer uses
+     *
+     * @param width     view width
+     * @param height    view height
+     * @param out       receives the transform
+     */
+    public static void fitMatrix(int width, int height, Matrix out){
+        float scale = FaceRasterizer.fitScale(width, height);
+        out.setScale(scale, scale);
+        out.postTranslate(
+                FaceRasterizer.fitOffset(width, scale,
+                        FaceLayout.boundsLeft, FaceLayout.boundsRight),
+                FaceRasterizer.fitOffset(height, scale,
+                        FaceLayout.boundsTop, FaceLayout.boundsBottom));
+    }
+
+    /**
+     * A helper method to build the paths of a hairstyle
+     * @param style     hairstyle id
+     * @param toView    layout units to view pixels
+     * @return  one path per layer
+     */
+    private Path[] build(int style, Matrix toView){
+        Path[] paths = new Path[FaceLayerCompositor.NUM_LAYERS];
+        int count = FaceLayout.compute(style, prims);
+        //hair drawn before the head is behind it
+        boolean headDrawn = false;
+        for (int i = 0; i < count; i++){
+            int p = i * FaceLayout.STRIDE;
+            int paint = (int)prims[p + FaceLayout.PAINT];
+            int layer = layerOf(paint, headDrawn);
+            headDrawn |= paint == FaceLayout.PAINT_SKIN;
+
+            Path path = paths[layer];
+            if (path == null){
+                path = new Path();
+                paths[layer] = path;
+                pathCount++;
+                buildCount++;
+            }
+            bounds.set(prims[p + FaceLayout.LEFT], prims[p + FaceLayout.TOP],
+                    prims[p + FaceLayout.RIGHT], prims[p + FaceLayout.BOTTOM]);
+            if ((int)prims[p + FaceLayout.SHAPE] == FaceLayout.SHAPE_OVAL){
+                path.addOval(bounds, Path.Direction.CW);
+            }
+            else {
+                path.addRect(bounds, Path.Direction.CW);
+            }
+        }
+        for (Path path : paths){
+            if (path != null){
+                path.transform(toView);
+            }
+        }
+        return paths;
+    }
+
+    /**
+     * A helper method to find the layer of a shape
+     *
+     * @param paint     the shape's FaceLayout paint slot
+     * @param headDrawn whether the head comes before it in draw order
+     * @return  FaceLayerCompositor.LAYER_*
+     */
+    static int layerOf(int paint, boolean headDrawn){
+        switch (paint){
+            case FaceLayout.PAINT_SKIN:
+                return FaceLayerCompositor.LAYER_SKIN;
+            case FaceLayout.PAINT_EYE:
+                return FaceLayerCompositor.LAYER_EYES;
+            case FaceLayout.PAINT_HAIR:
+                return headDrawn ? FaceLayerCompositor.LAYER_FRONT_HAIR
+                        : FaceLayerCompositor.LAYER_BACK_HAIR;
+            default:
+                return FaceLayerCompositor.LAYER_DETAILS;
+        }
+    }
+
+    /**
+     * Keeps the path count in step with evictions
+     */
+    @Override
+    protected void entryRemoved(boolean evicted, Key key, Path[] oldValue,
+                                Path[] newValue) {
+        for (Path path : oldValue){
+            if (path != null){
+                pathCount--;
+            }
+        }
+    }
+
+    /**
+     * A getter for the number of paths the cache holds
+     * @return  count
+     */
+    public synchronized int getPathCount() {
+        return pathCount;
+    }
+
+    /**
+     * A getter for the number of paths ever built
+     * @return  count
+     */
+    public synchronized int getBuildCount() {
+        return buildCount;
+    }
+
+    /**
+     * A cache key: hairstyle plus view size
+     */
+    static final class Key {
+        private int style;
+        private int width;
+        private int height;
+
+        /**
+         * A helper method to fill in the key
+         */
+        void set(int hairStyle, int w, int h){
+            style = hairStyle;
+            width = w;
+            height = h;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)){
+                return false;
+            }
+            Key other = (Key)o;
+            return style == other.style && width == other.width
+                    && height == other.height;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * (31 * style + width) + height;
+        }
+    }//class Key
+}//class FacePathCache
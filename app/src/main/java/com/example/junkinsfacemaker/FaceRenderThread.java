@@ -0,0 +1,127 @@
+/**
+ * FaceMaker FaceRenderThread Class
+ * draws a Face into its SurfaceView's own surface off the UI thread
+ * redraw requests that arrive while a frame is being drawn are coalesced
+ * into a single pending frame, so at most one frame is ever in flight
+ *
+ * @version Oct 18 2026
+ * @author Alex Junkins
+ */
+package com.example.junkinsfacemaker;
+
+import android.graphics.Canvas;
+import android.view.SurfaceHolder;
+
+import com.example.junkinsfacemaker.core.FaceMetrics;
+import com.example.junkinsfacemaker.core.FrameStats;
+
+class FaceRenderThread extends Thread {
+    //how long to wait before asking again for a surface that has none
+    private static final long LOCK_RETRY_MILLIS = 16;
+
+    private final Face face;
+    private final SurfaceHolder holder;
+    private final FrameStats stats;
+
+    //guards the two flags below
+    private final Object lock = new Object();
+    private boolean pending = true; //draw once as soon as we start
+    private boolean running = true;
+
+    /**
+     * Main constructor
+     *
+     * @param face      the face to draw
+     * @param holder    the holder of the face's surface
+     * @param stats     where frame times are recorded
+     */
+    FaceRenderThread(Face face, SurfaceHolder holder, FrameStats stats) {
+        super("FaceRenderThread");
+        this.face = face;
+        this.holder = holder;
+        this.stats = stats;
+    }
+
+    /**
+     * Asks for a new frame
+     * does nothing extra if a frame is already pending
+     */
+    void requestRender(){
+        synchronized (lock){
+            pending = true;
+            lock.notify();
+        }
+    }
+
+    /**
+     * Stops the thread and waits for the frame in flight to finish,
+     * so the surface is no longer used once this returns
+     */
+    void quit(){
+        synchronized (lock){
+            running = false;
+            lock.notify();
+        }
+        boolean interrupted = false;
+        while (isAlive()){
+            try {
+                join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted){
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * The render loop
+     * sleeps until a frame is requested, then draws exactly one frame
+     */
+    @Override
+    public void run() {
+        while (true){
+            synchronized (lock){
+                while (running && !pending){
+                    try {
+                        lock.wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                if (!running){
+                    return;
+                }
+                pending = false;
+            }
+
+            Canvas canvas = holder.lockCanvas();
+            if (canvas == null){
+                //no buffer right now; keep the frame and try again shortly,
+                //unless surfaceDestroyed stops us first
+                synchronized (lock){
+                    pending = true;
+                    try {
+                        lock.wait(LOCK_RETRY_MILLIS);
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                continue;
+            }
+            try {
+                //only the drawing is timed, the same span as view mode, so
+                //both modes share one histogram
+                long nanos = face.drawFrame(canvas);
+                stats.record(nanos);
+                FaceMetrics.DRAW_NANOS.record(nanos);
+            }
+            finally {
+                //blocks until the frame is queued, keeping one in flight
+                holder.unlockCanvasAndPost(canvas);
+            }
+            FaceMetrics.FRAMES_DRAWN.increment();
+        }
+    }
+}//class FaceRenderThread
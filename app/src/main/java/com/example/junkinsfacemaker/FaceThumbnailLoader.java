@@ -0,0 +1,303 @@
+/**
+ * FaceMaker FaceThumbnailLoader Class
+ * draws gallery thumbnails off the UI thread and keeps recent ones
+ *
+ * faces come from a FaceTraitStore and are drawn by one
+ * FaceThumbnailRenderer per worker thread; finished thumbnails go into an
+ * LRU and are handed to their target on the UI thread, unless the target
+ * has been rebound to another face by then
+ * each face has at most one request waiting or being drawn; requests for
+ * bound targets go first and are never dropped, prefetches go after them
+ * in a bounded newest-first queue: when scrolling outruns the workers,
+ * the oldest prefetches (the faces furthest off screen) are dropped
+ *
+ * @version Oct 18 2026
+ * @author Alex Junkins
+ */
+package com.example.junkinsfacemaker;
+
+import android.graphics.Bitmap;
+import android.graphics.Color;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.LruCache;
+
+import com.example.junkinsfacemaker.core.FaceTraitStore;
+import com.example.junkinsfacemaker.core.FrameStats;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class FaceThumbnailLoader {
+    //prefetches waiting for a worker, at most
+    public static final int QUEUE_LIMIT = 128;
+
+    /**
+     * Something a thumbnail can be shown in, e.g. a gallery view holder
+     */
+    public interface Target {
+        /**
+         * A getter for the face the target currently shows
+         * @return  the face index, or a negative number if none
+         */
+        int getBoundIndex();
+
+        /**
+         * Shows a thumbnail; called on the UI thread
+         * @param thumbnail     the face, or null to clear
+         */
+        void setThumbnail(Bitmap thumbnail);
+    }
+
+    private final FaceTraitStore store;
+    private final int size;
+    private final ThreadPoolExecutor executor;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final LruCache<Integer, Bitmap> cache;
+
+    //guards the queues, the pending requests and shutDown
+    private final Object lock = new Object();
+    //requests for bound targets, and prefetches, both newest first
+    private final ArrayDeque<Request> binds = new ArrayDeque<>();
+    private final ArrayDeque<Request> prefetches = new ArrayDeque<>();
+    //every request queued or being drawn, by face index
+    private final HashMap<Integer, Request> pending = new HashMap<>();
+    private boolean shutDown;
+    //each run takes the most urgent request; the executor is only told
+    //how many there are
+    private final Runnable worker = this::runNext;
+
+    //one renderer per worker, since renderers are not thread-safe
+    private final ThreadLocal<FaceThumbnailRenderer> renderers =
+            new ThreadLocal<FaceThumbnailRenderer>() {
+                @Override
+                protected FaceThumbnailRenderer initialValue() {
+                    return new FaceThumbnailRenderer(size, size);
+                }
+            };
+
+    //render times, and what happened to requests
+    private final FrameStats renderStats = new FrameStats("thumbnail");
+    private final AtomicInteger dropped = new AtomicInteger();
+    private final AtomicInteger stale = new AtomicInteger();
+
+    /**
+     * Main constructor
+     *
+     * @param store     the faces
+     * @param size      thumbnail edge in pixels
+     * @param threads   worker threads
+     * @param maxBytes  thumbnail memory to keep
+     */
+    public FaceThumbnailLoader(FaceTraitStore store, int size, int threads,
+                               int maxBytes) {
+        this.store = store;
+        this.size = size;
+        this.cache = new LruCache<Integer, Bitmap>(maxBytes) {
+            @Override
+            protected int sizeOf(Integer key, Bitmap bitmap) {
+                return bitmap.getRowBytes() * bitmap.getHeight();
+            }
+        };
+        this.executor = new ThreadPoolExecutor(threads, threads, 1,
+                TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>());
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Shows a face's thumbnail in a target: at once if it is cached,
+     * otherwise once a worker has drawn it
+     *
+     * @param index     face index
+     * @param target    where to show it
+     */
+    public void load(int index, Target target){
+        Bitmap cached = cache.get(index);
+        target.setThumbnail(cached);
+        if (cached != null){
+            return;
+        }
+        synchronized (lock){
+            if (shutDown){
+                return;
+            }
+            Request request = pending.get(index);
+            if (request == null){
+                request = new Request(index);
+                pending.put(index, request);
+                binds.addFirst(request);
+                executor.execute(worker);
+            }
+            else if (request.target == null && prefetches.remove(request)){
+                //a prefetch that is now needed on screen jumps the queue
+                binds.addFirst(request);
+            }
+            //a request already being drawn shows up here when done
+            request.target = target;
+        }
+    }
+
+    /**
+     * Draws thumbnails ahead of need, e.g. just past the end of a scroll
+     * faces already cached are skipped
+     *
+     * @param from      first face index, inclusive
+     * @param to        last face index, exclusive
+     */
+    public void prefetch(int from, int to){
+        from = Math.max(0, from);
+        to = Math.min(store.size(), to);
+        for (int i = from; i < to; i++){
+            if (cache.get(i) != null){
+                continue;
+            }
+            synchronized (lock){
+                if (shutDown){
+                    return;
+                }
+                if (pending.containsKey(i)){
+                    continue;
+                }
+                Request request = new Request(i);
+                pending.put(i, request);
+                prefetches.addFirst(request);
+                if (prefetches.size() > QUEUE_LIMIT){
+                    //the slot of the dropped prefetch goes to this one
+                    pending.remove(prefetches.pollLast().index);
+                    dropped.incrementAndGet();
+                }
+                else {
+                    executor.execute(worker);
+                }
+            }
+        }
+    }
+
+    /**
+     * A getter for the number of faces waiting for or being drawn
+     * @return  count, each face counted once
+     */
+    public int getPendingCount(){
+        synchronized (lock){
+            return pending.size();
+        }
+    }
+
+    /**
+     * A getter for a cached thumbnail
+     * @param index     face index
+     * @return  the thumbnail, or null if it is not cached
+     */
+    public Bitmap getCached(int index){
+        return cache.get(index);
+    }
+
+    /**
+     * A getter for the thumbnail render times
+     * @return  stats of every thumbnail drawn
+     */
+    public FrameStats getRenderStats() {
+        return renderStats;
+    }
+
+    /**
+     * A getter for prefetches dropped because the queue was full
+     * @return  count
+     */
+    public int getDroppedCount() {
+        return dropped.get();
+    }
+
+    /**
+     * A getter for requests skipped because their target moved on
+     * @return  count
+     */
+    public int getStaleCount() {
+        return stale.get();
+    }
+
+    /**
+     * Stops the workers; pending requests are discarded
+     */
+    public void shutdown(){
+        synchronized (lock){
+            shutDown = true;
+            binds.clear();
+            prefetches.clear();
+            pending.clear();
+        }
+        executor.shutdownNow();
+    }
+
+    /**
+     * A helper method run by the workers: draws the most urgent request
+     * and shows it in its target, if it has one
+     */
+    private void runNext(){
+        Request request;
+        Target target;
+        synchronized (lock){
+            request = binds.pollFirst();
+            if (request == null){
+                request = prefetches.pollFirst();
+            }
+            if (request == null){
+                return;
+            }
+            target = request.target;
+        }
+        int index = request.index;
+        //the view was recycled for another face while this waited
+        if (target != null && target.getBoundIndex() != index){
+            synchronized (lock){
+                //unless it was bound to this face again meanwhile
+                if (request.target == target){
+                    pending.remove(index);
+                    stale.incrementAndGet();
+                    return;
+                }
+            }
+        }
+        Bitmap thumbnail = cache.get(index);
+        if (thumbnail == null){
+            long start = System.nanoTime();
+            thumbnail = Bitmap.createBitmap(size, size,
+                    Bitmap.Config.ARGB_8888);
+            renderers.get().render(store, index, Color.WHITE, thumbnail);
+            renderStats.record(System.nanoTime() - start);
+            cache.put(index, thumbnail);
+        }
+        synchronized (lock){
+            pending.remove(index);
+            //a bind may have arrived while this was drawn
+            target = request.target;
+        }
+        if (target == null){
+            return;
+        }
+        final Target shownIn = target;
+        final Bitmap shown = thumbnail;
+        mainHandler.post(() -> {
+            if (shownIn.getBoundIndex() == index){
+                shownIn.setThumbnail(shown);
+            }
+        });
+    }
+
+    /**
+     * One thumbnail to draw, and where to show it once a target is bound
+     */
+    private static final class Request {
+        private final int index;
+        //null for a prefetch; guarded by the loader's lock
+        private Target target;
+
+        Request(int index) {
+            this.index = index;
+        }
+    }//class Request
+}//class FaceThumbnailLoader
@@ -0,0 +1,116 @@
+/**
+ * FaceMaker FaceThumbnailRenderer Class
+ * draws many faces at one size, e.g. 64x64 previews of a FaceTraitStore
+ *
+ * the paths for each hairstyle at this size come from the shared
+ * FacePathCache, so the geometry is built once per style, not once per
+ * face; drawing a face only recolors five paints
+ * a renderer is not thread-safe; use one per thread
+ *
+ * @version Oct 18 2026
+ * @author Alex Junkins
+ */
+package com.example.junkinsfacemaker;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.Path;
+
+import com.example.junkinsfacemaker.core.FaceTraitStore;
+
+public class FaceThumbnailRenderer {
+    private final int width;
+    private final int height;
+    private final FacePathCache pathCache;
+
+    //one paint per layer, recolored per face
+    private final Paint[] layerPaints =
+            new Paint[FaceLayerCompositor.NUM_LAYERS];
+    private final Canvas canvas = new Canvas();
+
+    /**
+     * Main constructor
+     *
+     * @param width     thumbnail width in pixels
+     * @param height    thumbnail height in pixels
+     */
+    public FaceThumbnailRenderer(int width, int height) {
+        if (width <= 0 || height <= 0){
+            throw new IllegalArgumentException("bad size: " + width + "x"
+                    + height);
+        }
+        this.width = width;
+        this.height = height;
+        this.pathCache = FacePathCache.getShared();
+        for (int i = 0; i < layerPaints.length; i++){
+            layerPaints[i] = new Paint();
+            layerPaints[i].setStyle(Paint.Style.FILL);
+        }
+        layerPaints[FaceLayerCompositor.LAYER_DETAILS].setColor(Color.BLACK);
+    }
+
+    /**
+     * A getter for the thumbnail width
+     * @return width in pixels
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * A getter for the thumbnail height
+     * @return height in pixels
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Draws one face into a bitmap of this renderer's size
+     *
+     * @param skin          an ARGB hexadecimal color
+     * @param eye           an ARGB hexadecimal color
+     * @param hair          an ARGB hexadecimal color
+     * @param style         hairstyle id
+     * @param background    color of uncovered pixels
+     * @param dst           the bitmap, width x height and mutable
+     */
+    public void render(int skin, int eye, int hair, int style,
+                       int background, Bitmap dst){
+        if (dst.getWidth() != width || dst.getHeight() != height){
+            throw new IllegalArgumentException("bitmap is not " + width + "x"
+                    + height);
+        }
+        layerPaints[FaceLayerCompositor.LAYER_BACK_HAIR].setColor(hair);
+        layerPaints[FaceLayerCompositor.LAYER_SKIN].setColor(skin);
+        layerPaints[FaceLayerCompositor.LAYER_EYES].setColor(eye);
+        layerPaints[FaceLayerCompositor.LAYER_FRONT_HAIR].setColor(hair);
+
+        Path[] paths = pathCache.get(style, width, height);
+        canvas.setBitmap(dst);
+        dst.eraseColor(background);
+        for (int layer = 0; layer < paths.length; layer++){
+            if (paths[layer] != null){
+                canvas.drawPath(paths[layer], layerPaints[layer]);
+            }
+        }
+        canvas.setBitmap(null);
+    }
+
+    /**
+     * Draws one face of a store into a bitmap of this renderer's size
+     *
+     * @param store         the faces
+     * @param i             face index
+     * @param background    color of uncovered pixels
+     * @param dst           the bitmap, width x height and mutable
+     */
+    public void render(FaceTraitStore store, int i, int background,
+                       Bitmap dst){
+        render(store.getSkinColor(i), store.getEyeColor(i),
+                store.getHairColor(i), store.getHairStyle(i), background,
+                dst);
+    }
+}//class FaceThumbnailRenderer
@@ -8,19 +8,33 @@
 package com.example.junkinsfacemaker;
 
 import androidx.appcompat.app.AppCompatActivity;
+import androidx.core.os.TraceCompat;
 
+import android.content.Intent;
+import android.content.pm.ApplicationInfo;
+import android.os.Build;
 import android.os.Bundle;
+import android.os.SystemClock;
+import android.util.Log;
 import android.widget.ArrayAdapter;
 import android.widget.Button;
 import android.widget.RadioButton;
 import android.widget.SeekBar;
 import android.widget.Spinner;
 
-public class MainActivity extends AppCompatActivity {
+import com.example.junkinsfacemaker.core.FaceMetrics;
+import com.example.junkinsfacemaker.core.HairstyleRegistry;
+
+import java.io.FileDescriptor;
+import java.io.PrintWriter;
 
-    private String[] hairstyles =
-            {"Ultimate Hat-hair", "Afro", "Geometric Pompadour"};
+public class MainActivity extends AppCompatActivity {
+    private FaceController faceController;
 
+    //startup timing: when onCreate began, and how long until the face's
+    //first frame, or -1 until it has been drawn
+    private long createdAt;
+    private long firstFaceFrameMillis = -1;
 
     /**
      * Initializes the app's values when the class is created
@@ -28,8 +42,18 @@ public class MainActivity extends AppCompatActivity {
      */
     @Override
     protected void onCreate(Bundle savedInstanceState) {
+        createdAt = SystemClock.uptimeMillis();
+        TraceCompat.beginSection("MainActivity.onCreate");
         super.onCreate(savedInstanceState);
+        //debuggable builds record metrics from the start; any build can
+        //turn them on through dumpsys
+        if ((getApplicationInfo().flags & ApplicationInfo.FLAG_DEBUGGABLE)
+                != 0){
+            FaceMetrics.setEnabled(true);
+        }
+        TraceCompat.beginSection("inflate");
         setContentView(R.layout.activity_main);
+        TraceCompat.endSection();
 
         /**
          * External Citation
@@ -38,10 +62,10 @@ public class MainActivity extends AppCompatActivity {
          * Resource: CS301 class notes from Sep 3, 2020
          * Solution: Used example code from this post
          */
-        //populate the hairstyle spinner
+        //populate the hairstyle spinner; positions are registry ids
         ArrayAdapter<String> hairstyleAdapter = new ArrayAdapter<String>(this,
                 android.R.layout.simple_spinner_dropdown_item,
-                hairstyles);
+                HairstyleRegistry.getDefault().getNames());
         Spinner hairstyleSpinner = (Spinner) findViewById(R.id.hairstyleSpinner);
         hairstyleSpinner.setAdapter(hairstyleAdapter);
 
@@ -55,10 +79,14 @@ public class MainActivity extends AppCompatActivity {
         SeekBar greenSeekBar = findViewById(R.id.greenSeekBar);
         SeekBar blueSeekBar = findViewById(R.id.blueSeekBar);
         Spinner hairSpinner = findViewById(R.id.hairstyleSpinner);
-        FaceController faceController = new FaceController(
+        TraceCompat.beginSection("FaceController");
+        //when restoring, the controller leaves the face alone until
+        //onRestoreInstanceState has brought its traits back
+        faceController = new FaceController(
                 mainFace, hairSpinner,
                 hairButton, skinButton, eyesButton,
-                redSeekBar, greenSeekBar, blueSeekBar );
+                redSeekBar, greenSeekBar, blueSeekBar, savedInstanceState);
+        TraceCompat.endSection();
 
         //assign complex UI listeners
         hairButton.setOnClickListener(faceController);
@@ -72,8 +100,137 @@ public class MainActivity extends AppCompatActivity {
         //random button is not required for controller init.
         Button randomButton = findViewById(R.id.randomFaceButton);
         randomButton.setOnClickListener(faceController);
+        Button undoButton = findViewById(R.id.undoButton);
+        undoButton.setOnClickListener(faceController);
+        Button redoButton = findViewById(R.id.redoButton);
+        redoButton.setOnClickListener(faceController);
+
+        //the gallery is its own screen
+        Button galleryButton = findViewById(R.id.galleryButton);
+        galleryButton.setOnClickListener(v -> startActivity(
+                new Intent(this, FaceGalleryActivity.class)));
+
+        //set the hair spinner to the correct value; a restored one is set
+        //by restoreState
+        if (savedInstanceState == null){
+            hairSpinner.setSelection(mainFace.getHairStyle());
+        }
 
-        //set the hair spinner to the correct value
-        hairSpinner.setSelection(mainFace.getHairStyle());
+        //anything the first frame does not need waits until it is drawn
+        mainFace.setOnFirstFrameListener(this::onFirstFaceFrame);
+        TraceCompat.endSection();
+    }
+
+    /**
+     * Records how long the face took to show up, then does the setup that
+     * was left out of onCreate
+     */
+    private void onFirstFaceFrame(){
+        firstFaceFrameMillis = SystemClock.uptimeMillis() - createdAt;
+        Log.i("FaceStartup", "first face frame after "
+                + firstFaceFrameMillis + " ms");
+        //lets the system and startup benchmarks see when the app is usable
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.KITKAT){
+            reportFullyDrawn();
+        }
+        //queued behind the frame rather than run inside it
+        findViewById(R.id.faceView).post(this::warmUp);
+    }
+
+    /**
+     * Non-critical setup, run after the first frame
+     * builds the shapes of every hairstyle at the face's size, so the
+     * first pick from the spinner draws without building any
+     */
+    private void warmUp(){
+        TraceCompat.beginSection("MainActivity.warmUp");
+        Face mainFace = findViewById(R.id.faceView);
+        int width = mainFace.getWidth();
+        int height = mainFace.getHeight();
+        if (width > 0 && height > 0){
+            FacePathCache paths = FacePathCache.getShared();
+            //a large registry would push other sizes out of the cache
+            int styles = Math.min(HairstyleRegistry.getDefault().size(),
+                    FacePathCache.DEFAULT_ENTRIES / 2);
+            for (int style = 0; style < styles; style++){
+                paths.get(style, width, height);
+            }
+        }
+        TraceCompat.endSection();
+    }
+
+    /**
+     * A getter for the startup time
+     * @return  milliseconds from onCreate to the face's first frame, or -1
+     *          if it has not been drawn yet
+     */
+    long getFirstFaceFrameMillis() {
+        return firstFaceFrameMillis;
+    }
+
+    /**
+     * Saves the controller's state; the face saves its own traits
+     * @param outState  inherited parameter from overridden method
+     */
+    @Override
+    protected void onSaveInstanceState(Bundle outState) {
+        super.onSaveInstanceState(outState);
+        faceController.saveState(outState);
+    }
+
+    /**
+     * Restores the controller after the views, so the face's traits are
+     * already back when the seek bars are set from them
+     * @param savedInstanceState    inherited parameter from overridden method
+     */
+    @Override
+    protected void onRestoreInstanceState(Bundle savedInstanceState) {
+        super.onRestoreInstanceState(savedInstanceState);
+        faceController.restoreState(savedInstanceState);
+    }
+
+    /**
+     * Adds the face's metrics to the activity's dump:
+     *   adb shell dumpsys activity com.example.junkinsfacemaker [command]
+     * where command is metrics-on, metrics-off or metrics-reset
+     *
+     * @param prefix    inherited parameter from overridden method
+     * @param fd        inherited parameter from overridden method
+     * @param writer    inherited parameter from overridden method
+     * @param args      inherited parameter from overridden method
+     */
+    @Override
+    public void dump(String prefix, FileDescriptor fd, PrintWriter writer,
+                     String[] args) {
+        super.dump(prefix, fd, writer, args);
+        String command = args != null && args.length > 0 ? args[0] : "";
+        switch (command){
+            case "metrics-on":
+                FaceMetrics.setEnabled(true);
+                break;
+            case "metrics-off":
+                FaceMetrics.setEnabled(false);
+                break;
+            case "metrics-reset":
+                FaceMetrics.reset();
+                break;
+            default: //just dump
+                break;
+        }
+        FaceMetrics.dump(writer, prefix);
+        Face face = findViewById(R.id.faceView);
+        writer.println(prefix + "  "
+                + face.getFrameStats(Face.RENDER_MODE_VIEW));
+        writer.println(prefix + "  "
+                + face.getFrameStats(Face.RENDER_MODE_THREAD));
+        writer.flush();
+    }
+
+    /**
+     * A getter for the controller
+     * @return  the controller of the main face
+     */
+    FaceController getFaceController() {
+        return faceController;
     }
-}
\ No newline at end of file
+}
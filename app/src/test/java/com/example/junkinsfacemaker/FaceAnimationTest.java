@@ -0,0 +1,107 @@
+package com.example.junkinsfacemaker;
+
+import android.os.Looper;
+import android.view.ViewGroup;
+
+import com.example.junkinsfacemaker.core.FaceAnimator;
+import com.example.junkinsfacemaker.core.FaceModel;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.time.Duration;
+
+import static org.junit.Assert.*;
+import static org.robolectric.Shadows.shadowOf;
+
+/**
+ * Checks that a randomized face eases into its new colors on the shared
+ * clock, and that edits and detaching end the transition
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 30)
+public class FaceAnimationTest {
+    private static final int SKIN = 0xff010203;
+
+    private Face face;
+    private FaceEditBatcher batcher;
+
+    @Before
+    public void setUp() {
+        MainActivity activity =
+                Robolectric.buildActivity(MainActivity.class).setup().get();
+        face = activity.findViewById(R.id.faceView);
+        batcher = new FaceEditBatcher(face);
+        //a skin color randomizing never picks
+        batcher.setColor(Feature.SKIN, SKIN);
+        frames(1);
+    }
+
+    //lets the Choreographer run some frames
+    private void frames(int count) {
+        for (int i = 0; i < count; i++) {
+            shadowOf(Looper.getMainLooper()).idleFor(Duration.ofMillis(17));
+        }
+    }
+
+    @Test
+    public void randomize_easesIntoTheNewColors() {
+        batcher.randomize();
+        frames(3);
+        FaceModel model = face.getModel();
+        assertTrue(face.getAnimator().isTransitioning(0));
+        assertNotEquals(SKIN, face.skinPaint.getColor());
+        assertNotEquals(model.getSkinColor(), face.skinPaint.getColor());
+
+        frames(FaceAnimator.COLOR_TICKS + 2);
+        assertFalse(face.getAnimator().isTransitioning(0));
+        assertEquals(model.getSkinColor(), face.skinPaint.getColor());
+        assertEquals(model.getEyeColor(), face.eyePaint.getColor());
+        assertEquals(model.getHairColor(), face.hairPaint.getColor());
+    }
+
+    @Test
+    public void edits_endTheTransition() {
+        batcher.randomize();
+        frames(3);
+        batcher.setColor(Feature.EYES, 0xff123456);
+        frames(1);
+        FaceModel model = face.getModel();
+        assertFalse(face.getAnimator().isTransitioning(0));
+        assertEquals(model.getSkinColor(), face.skinPaint.getColor());
+        assertEquals(0xff123456, face.eyePaint.getColor());
+    }
+
+    @Test
+    public void clock_sleepsBetweenBlinks_andWakesForEdits() {
+        FaceAnimationClock clock = FaceAnimationClock.getShared();
+        //at most a blink and a glance away from resting
+        for (int i = 0; i < 10 * 60 && !clock.isSleeping(); i++) {
+            frames(1);
+        }
+        assertTrue(clock.isSleeping());
+
+        batcher.randomize();
+        assertFalse(clock.isSleeping());
+        frames(3);
+        assertTrue(face.getAnimator().isTransitioning(0));
+        assertNotEquals(SKIN, face.skinPaint.getColor());
+    }
+
+    @Test
+    public void clock_onlyRunsWhileFacesAreAttached() {
+        FaceAnimationClock clock = FaceAnimationClock.getShared();
+        int listeners = clock.getListenerCount();
+        assertTrue(listeners > 0);
+        batcher.randomize();
+        frames(2);
+        ((ViewGroup)face.getParent()).removeView(face);
+        assertEquals(listeners - 1, clock.getListenerCount());
+        assertEquals(face.getModel().getSkinColor(),
+                face.skinPaint.getColor());
+    }
+}
@@ -0,0 +1,155 @@
+package com.example.junkinsfacemaker;
+
+import android.content.ComponentCallbacks2;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Path;
+import android.graphics.RectF;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks the rendered-face cache: hits, misses, budget and trimming
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 30)
+public class FaceBitmapCacheTest {
+    private static final int WIDTH = 200;
+    private static final int HEIGHT = 220;
+    private static final int FACE_BYTES = WIDTH * HEIGHT * 4;
+
+    //counts bitmaps and shapes drawn on the screen canvas
+    private static class CountingCanvas extends Canvas {
+        int bitmaps;
+        int shapes;
+
+        @Override
+        public void drawBitmap(Bitmap bitmap, float left, float top,
+                               Paint paint) { bitmaps++; }
+
+        @Override
+        public void drawOval(RectF oval, Paint paint) { shapes++; }
+
+        @Override
+        public void drawRect(RectF rect, Paint paint) { shapes++; }
+
+        @Override
+        public void drawPath(Path path, Paint paint) { shapes++; }
+    }
+
+    private Face face;
+    private CountingCanvas canvas;
+
+    @Before
+    public void setUp() {
+        face = new Face(RuntimeEnvironment.getApplication(), null);
+        face.setRenderCacheBytes(3 * FACE_BYTES);
+        face.layout(0, 0, WIDTH, HEIGHT);
+        canvas = new CountingCanvas();
+    }
+
+    //recolors the face the way the edit batcher does
+    private void setSkin(int color) {
+        face.setSkinColor(color);
+        face.applyTraitChanges(Face.CHANGED_SKIN);
+    }
+
+    @Test
+    public void flippingBack_isASingleDrawBitmap() {
+        FaceBitmapCache cache = face.getRenderCache();
+        setSkin(0xff111111);
+        face.onDraw(canvas);
+        setSkin(0xff222222);
+        face.onDraw(canvas);
+        assertEquals(2, cache.missCount());
+
+        setSkin(0xff111111);
+        face.onDraw(canvas);
+        assertEquals(1, cache.hitCount());
+        assertEquals(3, canvas.bitmaps);
+        //shapes only ever go to the offscreen bitmaps
+        assertEquals(0, canvas.shapes);
+    }
+
+    @Test
+    public void budget_evictsLeastRecentlyUsed() {
+        FaceBitmapCache cache = face.getRenderCache();
+        for (int i = 1; i <= 4; i++) {
+            setSkin(0xff000000 | i);
+            face.onDraw(canvas);
+        }
+        assertEquals(1, cache.evictionCount());
+        assertEquals(3 * FACE_BYTES, cache.size());
+
+        //the first face was evicted, the last is still there
+        setSkin(0xff000001);
+        face.onDraw(canvas);
+        assertEquals(0, cache.hitCount());
+        setSkin(0xff000004);
+        face.onDraw(canvas);
+        assertEquals(1, cache.hitCount());
+    }
+
+    @Test
+    public void drag_isNotCached_untilItEnds() {
+        FaceBitmapCache cache = face.getRenderCache();
+        face.setEditInProgress(true);
+        for (int i = 1; i <= 10; i++) {
+            setSkin(0xff000000 | i);
+            face.onDraw(canvas);
+        }
+        assertEquals(0, cache.putCount());
+        assertEquals(0, cache.missCount());
+
+        //letting go caches the face the drag settled on
+        face.setEditInProgress(false);
+        face.onDraw(canvas);
+        assertEquals(1, cache.putCount());
+        setSkin(0xff00000a);
+        face.onDraw(canvas);
+        assertEquals(1, cache.hitCount());
+    }
+
+    @Test
+    public void evictedBitmaps_areReused() {
+        FaceBitmapCache cache = face.getRenderCache();
+        setSkin(0xff000001);
+        face.onDraw(canvas);
+        Bitmap first = cache.get(0xff000001, face.getEyeColor(),
+                face.getHairColor(), face.getHairStyle(), WIDTH, HEIGHT);
+        assertNotNull(first);
+        for (int i = 2; i <= 3; i++) {
+            setSkin(0xff000000 | i);
+            face.onDraw(canvas);
+        }
+
+        //the fourth face evicts the first and is drawn into its bitmap
+        setSkin(0xff000004);
+        face.onDraw(canvas);
+        assertEquals(1, cache.evictionCount());
+        assertSame(first, cache.get(0xff000004, face.getEyeColor(),
+                face.getHairColor(), face.getHairStyle(), WIDTH, HEIGHT));
+    }
+
+    @Test
+    public void trimMemory_givesMemoryBack() {
+        FaceBitmapCache cache = face.getRenderCache();
+        for (int i = 1; i <= 3; i++) {
+            setSkin(0xff000000 | i);
+            face.onDraw(canvas);
+        }
+        cache.onTrimMemory(ComponentCallbacks2.TRIM_MEMORY_RUNNING_MODERATE);
+        assertTrue(cache.size() <= cache.maxSize() / 2);
+        cache.onTrimMemory(ComponentCallbacks2.TRIM_MEMORY_BACKGROUND);
+        assertEquals(0, cache.size());
+        assertEquals(3, cache.evictionCount());
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.junkinsfacemaker;
+
+import android.view.KeyEvent;
+import android.widget.SeekBar;
+
+import com.example.junkinsfacemaker.core.FaceEditHistory;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks how seek bar changes become undo steps: a touch drag is one
+ * step, while changes without a touch, e.g. from the keyboard or D-pad,
+ * are a step each, and neither leaves the face's edit in progress
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 30)
+public class FaceControllerTest {
+    //100 in every channel
+    private static final int GRAY = 0xff646464;
+
+    private MainActivity activity;
+    private FaceController controller;
+    private FaceEditHistory history;
+    private Face face;
+    private SeekBar red;
+
+    @Before
+    public void setUp() {
+        activity = Robolectric.buildActivity(MainActivity.class).setup().get();
+        controller = activity.getFaceController();
+        history = controller.getEditBatcher().getHistory();
+        face = activity.findViewById(R.id.faceView);
+        red = activity.findViewById(R.id.redSeekBar);
+        //known colors with room to move either way, instead of random ones
+        //a step might not change
+        controller.getEditBatcher().setColor(Feature.HAIR, GRAY);
+        controller.getEditBatcher().setColor(Feature.EYES, GRAY);
+        controller.updateSeekBars();
+        assertEquals(100, red.getProgress());
+    }
+
+    //one D-pad step on a seek bar, as a keyboard user makes it
+    private void press(SeekBar bar) {
+        assertTrue(bar.onKeyDown(KeyEvent.KEYCODE_DPAD_RIGHT, new KeyEvent(
+                KeyEvent.ACTION_DOWN, KeyEvent.KEYCODE_DPAD_RIGHT)));
+    }
+
+    @Test
+    public void keyPresses_areEachAnUndoStep() {
+        int before = history.getUndoCount();
+        press(red);
+        press(red);
+        press(red);
+        assertEquals(before + 3, history.getUndoCount());
+        //and the settled face can be cached again
+        assertFalse(face.isEditInProgress());
+    }
+
+    @Test
+    public void touchDrag_isOneUndoStep_untilLetGo() {
+        int before = history.getUndoCount();
+        controller.onStartTrackingTouch(red);
+        for (int i = 1; i <= 10; i++) {
+            controller.onProgressChanged(red, 100 + i, true);
+        }
+        assertEquals(before + 1, history.getUndoCount());
+        assertTrue(face.isEditInProgress());
+
+        controller.onStopTrackingTouch(red);
+        assertFalse(face.isEditInProgress());
+        press(red);
+        assertEquals(before + 2, history.getUndoCount());
+    }
+
+    @Test
+    public void selectingAnotherFeature_endsTheEdit() {
+        int before = history.getUndoCount();
+        controller.onStartTrackingTouch(red);
+        controller.onProgressChanged(red, 120, true);
+        activity.findViewById(R.id.eyesButton).performClick();
+        assertFalse(face.isEditInProgress());
+
+        //the same channel of another feature is a new step
+        controller.onProgressChanged(red, 30, true);
+        assertEquals(before + 2, history.getUndoCount());
+    }
+}
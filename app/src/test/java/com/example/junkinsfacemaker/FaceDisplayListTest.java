@@ -0,0 +1,130 @@
+package com.example.junkinsfacemaker;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.Path;
+import android.graphics.Picture;
+
+import com.example.junkinsfacemaker.core.FaceModel;
+import com.example.junkinsfacemaker.core.HairstyleRegistry;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+import org.robolectric.annotation.GraphicsMode;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks that recorded rendering records each layer once per shape or
+ * color change, replays the recordings on every other frame, and draws
+ * the same pixels as drawing the shapes
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 30)
+@GraphicsMode(GraphicsMode.Mode.NATIVE)
+public class FaceDisplayListTest {
+    private static final int WIDTH = 1000;
+    private static final int HEIGHT = 1100;
+    private static final int SKIN = 1 << FaceLayerCompositor.LAYER_SKIN;
+
+    //counts what reaches the screen canvas
+    private static class CountingCanvas extends Canvas {
+        int pictures;
+        int shapes;
+
+        CountingCanvas(Bitmap bitmap) { super(bitmap); }
+
+        @Override
+        public void drawPicture(Picture picture) {
+            pictures++;
+            super.drawPicture(picture);
+        }
+
+        @Override
+        public void drawPath(Path path, Paint paint) { shapes++; }
+    }
+
+    private Face face;
+    private FaceDisplayList displayList;
+    private CountingCanvas canvas;
+
+    @Before
+    public void setUp() {
+        face = new Face(RuntimeEnvironment.getApplication(), null);
+        face.setRenderCacheBytes(0);
+        face.setRecordedRendering(true);
+        face.setHairStyle(FaceModel.AFRO);
+        face.layout(0, 0, WIDTH, HEIGHT);
+        displayList = face.getDisplayList();
+        canvas = new CountingCanvas(Bitmap.createBitmap(WIDTH, HEIGHT,
+                Bitmap.Config.ARGB_8888));
+    }
+
+    @Test
+    public void laterFrames_onlyReplay() {
+        face.onDraw(canvas);
+        assertEquals(FaceLayerCompositor.ALL_LAYERS,
+                displayList.getLastRecordedLayers());
+        int pictures = canvas.pictures;
+
+        for (int i = 0; i < 100; i++) {
+            face.onDraw(canvas);
+            assertEquals(0, displayList.getLastRecordedLayers());
+        }
+        assertEquals(101 * pictures, canvas.pictures);
+        assertEquals(0, canvas.shapes);
+    }
+
+    @Test
+    public void colorChange_onlyRecordsItsLayer() {
+        face.onDraw(canvas);
+        face.setSkinColor(face.getSkinColor() ^ 0x00ff00);
+        face.applyTraitChanges(Face.CHANGED_SKIN);
+        face.onDraw(canvas);
+        assertEquals(SKIN, displayList.getLastRecordedLayers());
+        assertEquals(1, displayList.getRecordCount(
+                FaceLayerCompositor.LAYER_EYES));
+    }
+
+    @Test
+    public void hairstyleChange_onlyRecordsHairLayers() {
+        face.onDraw(canvas);
+        face.setHairStyle(FaceModel.POMPADOUR);
+        face.onDraw(canvas);
+        assertEquals(FaceLayerCompositor.HAIR_LAYERS,
+                displayList.getLastRecordedLayers());
+    }
+
+    @Test
+    public void recording_matchesDirectDrawing() {
+        Bitmap recorded = Bitmap.createBitmap(WIDTH, HEIGHT,
+                Bitmap.Config.ARGB_8888);
+        Bitmap direct = Bitmap.createBitmap(WIDTH, HEIGHT,
+                Bitmap.Config.ARGB_8888);
+        int[] a = new int[WIDTH * HEIGHT];
+        int[] b = new int[WIDTH * HEIGHT];
+        face.setLayeredRendering(false);
+        int styles = HairstyleRegistry.getDefault().size();
+        for (int style = 0; style < styles; style++) {
+            face.setHairStyle(style);
+            face.setRecordedRendering(true);
+            Canvas c = new Canvas(recorded);
+            c.drawColor(Color.WHITE);
+            face.onDraw(c);
+            face.setRecordedRendering(false);
+            c = new Canvas(direct);
+            c.drawColor(Color.WHITE);
+            face.onDraw(c);
+
+            recorded.getPixels(a, 0, WIDTH, 0, 0, WIDTH, HEIGHT);
+            direct.getPixels(b, 0, WIDTH, 0, 0, WIDTH, HEIGHT);
+            assertArrayEquals("style " + style, b, a);
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.junkinsfacemaker;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Path;
+
+import com.example.junkinsfacemaker.core.FaceModel;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks that Face.onDraw neither allocates nor recomputes geometry once
+ * the view has been laid out, in the default configuration, both for a
+ * settled face and while a seek bar drag recolors it every frame
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 30)
+public class FaceDrawAllocationTest {
+    private static final int WARMUP_DRAWS = 20_000;
+    private static final int DRAWS = 10_000;
+
+    //a canvas that only counts what it is asked to draw
+    private static class CountingCanvas extends Canvas {
+        int paths;
+        int bitmaps;
+        Paint firstPaint;
+        Paint lastPaint;
+
+        @Override
+        public void drawPath(Path path, Paint paint) {
+            if (paths++ == 0) {
+                firstPaint = paint;
+            }
+            lastPaint = paint;
+        }
+
+        @Override
+        public void drawBitmap(Bitmap bitmap, float left, float top,
+                               Paint paint) {
+            bitmaps++;
+        }
+    }
+
+    //the thread's allocated bytes, less what asking for them costs
+    private static long allocatedBytes(Runnable draws) {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean)
+                        ManagementFactory.getThreadMXBean();
+        long tid = Thread.currentThread().getId();
+
+        //calibrate away whatever the measurement itself costs
+        long before = threads.getThreadAllocatedBytes(tid);
+        long overhead = threads.getThreadAllocatedBytes(tid) - before;
+
+        before = threads.getThreadAllocatedBytes(tid);
+        draws.run();
+        return threads.getThreadAllocatedBytes(tid) - before - overhead;
+    }
+
+    @Test
+    public void onDraw_allocatesNothingAfterWarmup() {
+        Face face = new Face(RuntimeEnvironment.getApplication(), null);
+        face.layout(0, 0, 1080, 1200);
+        CountingCanvas canvas = new CountingCanvas();
+        for (int i = 0; i < WARMUP_DRAWS; i++) {
+            face.onDraw(canvas);
+        }
+
+        long allocated = allocatedBytes(() -> {
+            for (int i = 0; i < DRAWS; i++) {
+                face.onDraw(canvas);
+            }
+        });
+
+        assertEquals("bytes allocated over " + DRAWS + " draws", 0,
+                allocated);
+        //a settled face is drawn once, then comes from the render cache
+        assertEquals(1, face.getRenderCache().missCount());
+        assertEquals(WARMUP_DRAWS + DRAWS, canvas.bitmaps);
+    }
+
+    @Test
+    public void seekBarDrag_allocatesNothingAfterWarmup() {
+        Face face = new Face(RuntimeEnvironment.getApplication(), null);
+        face.layout(0, 0, 1080, 1200);
+        CountingCanvas canvas = new CountingCanvas();
+        face.setEditInProgress(true);
+        //a drag frame: a new skin color, applied the way the batcher does
+        Runnable drag = () -> {
+            for (int i = 0; i < DRAWS; i++) {
+                face.setSkinColor(0xff000000 | i);
+                face.applyTraitChanges(Face.CHANGED_SKIN);
+                face.onDraw(canvas);
+            }
+        };
+        drag.run();
+        drag.run();
+
+        long allocated = allocatedBytes(drag);
+
+        assertEquals("bytes allocated over " + DRAWS + " drag frames", 0,
+                allocated);
+        //nothing from the drag went into the render cache
+        assertEquals(0, face.getRenderCache().putCount());
+    }
+
+    @Test
+    public void hairstyleChange_swapsCachedPaths() {
+        Face face = new Face(RuntimeEnvironment.getApplication(), null);
+        //paint order is only visible when the paths are drawn directly
+        face.setRenderCacheBytes(0);
+        face.setLayeredRendering(false);
+        face.layout(0, 0, 1080, 1200);
+
+        //hat-hair goes behind the head, the afro in front of it
+        face.setHairStyle(FaceModel.HAT_HAIR);
+        CountingCanvas canvas = new CountingCanvas();
+        face.onDraw(canvas);
+        assertSame(face.hairPaint, canvas.firstPaint);
+        assertSame(face.detailsPaint, canvas.lastPaint);
+
+        face.setHairStyle(FaceModel.AFRO);
+        canvas = new CountingCanvas();
+        face.onDraw(canvas);
+        assertSame(face.skinPaint, canvas.firstPaint);
+        assertSame(face.hairPaint, canvas.lastPaint);
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.junkinsfacemaker;
+
+import android.os.Looper;
+
+import com.example.junkinsfacemaker.core.HairstyleRegistry;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import java.time.Duration;
+
+import static org.junit.Assert.*;
+import static org.robolectric.Shadows.shadowOf;
+
+/**
+ * Checks that bursts of trait edits are drawn once per frame
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 30)
+public class FaceEditBatcherTest {
+    private Face face;
+    private FaceEditBatcher batcher;
+
+    @Before
+    public void setUp() {
+        face = new Face(RuntimeEnvironment.getApplication(), null);
+        batcher = new FaceEditBatcher(face);
+    }
+
+    //lets the Choreographer run one frame
+    private void nextFrame() {
+        shadowOf(Looper.getMainLooper()).idleFor(Duration.ofMillis(17));
+    }
+
+    @Test
+    public void seekBarDrag_rendersOncePerFrame() {
+        for (int red = 0; red < 50; red++) {
+            batcher.setColor(Feature.EYES, 0xff000000 | red << 16);
+        }
+        assertEquals(50, batcher.getRequestedFrames());
+        assertEquals(0, batcher.getRenderedFrames());
+
+        nextFrame();
+        assertEquals(1, batcher.getRenderedFrames());
+        assertEquals(0xff310000, face.eyePaint.getColor());
+
+        //no edits, no frames
+        nextFrame();
+        assertEquals(1, batcher.getRenderedFrames());
+    }
+
+    @Test
+    public void onlyChangedPaints_areUpdated() {
+        int skin = face.skinPaint.getColor();
+        int hair = face.hairPaint.getColor();
+        batcher.setColor(Feature.EYES, 0xff123456);
+        nextFrame();
+        assertEquals(skin, face.skinPaint.getColor());
+        assertEquals(hair, face.hairPaint.getColor());
+
+        //recoloring a paint behind the face's back shows it isn't redone
+        face.skinPaint.setColor(0xff00ff00);
+        batcher.setColor(Feature.HAIR, 0xff654321);
+        nextFrame();
+        assertEquals(0xff00ff00, face.skinPaint.getColor());
+        assertEquals(0xff654321, face.hairPaint.getColor());
+    }
+
+    @Test
+    public void unchangedValues_requestNothing() {
+        batcher.setColor(Feature.SKIN, face.getSkinColor());
+        batcher.setHairStyle(face.getHairStyle());
+        batcher.setHairStyle(7);
+        assertEquals(0, batcher.getRequestedFrames());
+    }
+
+    @Test
+    public void mixedEdits_shareOneFrame() {
+        batcher.randomize();
+        batcher.setHairStyle((face.getHairStyle() + 1)
+                % HairstyleRegistry.getDefault().size());
+        batcher.setColor(Feature.SKIN, 0xff010203);
+        nextFrame();
+        assertEquals(3, batcher.getRequestedFrames());
+        assertEquals(1, batcher.getRenderedFrames());
+        assertEquals(0xff010203, face.skinPaint.getColor());
+    }
+}
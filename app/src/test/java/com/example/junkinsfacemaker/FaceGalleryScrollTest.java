@@ -0,0 +1,160 @@
+package com.example.junkinsfacemaker;
+
+import android.content.Intent;
+import android.graphics.drawable.BitmapDrawable;
+import android.graphics.drawable.Drawable;
+import android.os.Looper;
+import android.view.View;
+import android.widget.ImageView;
+
+import androidx.recyclerview.widget.GridLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.android.controller.ActivityController;
+import org.robolectric.annotation.Config;
+
+import java.time.Duration;
+
+import static org.junit.Assert.*;
+import static org.robolectric.Shadows.shadowOf;
+
+/**
+ * Flings through the gallery one frame at a time and checks that the
+ * holders are recycled, every bound cell ends up with its thumbnail, and
+ * the loader never queues a face twice
+ * frame times mean nothing on the JVM, so dropped frames are measured on
+ * a device by FaceGalleryScrollBenchmarkTest
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 30)
+public class FaceGalleryScrollTest {
+    private static final int FACES = 10_000;
+    private static final int WARMUP_FRAMES = 30;
+    private static final int FRAMES = 600;
+    private static final int SCROLL_PER_FRAME = 120;
+    private static final long TIMEOUT_MILLIS = 10_000;
+
+    private ActivityController<FaceGalleryActivity> controller;
+    private FaceGalleryActivity activity;
+    private RecyclerView grid;
+
+    @Before
+    public void setUp() throws InterruptedException {
+        Intent intent = new Intent(RuntimeEnvironment.getApplication(),
+                FaceGalleryActivity.class)
+                .putExtra(FaceGalleryActivity.EXTRA_COUNT, FACES)
+                .putExtra(FaceGalleryActivity.EXTRA_SEED, 14L);
+        controller = Robolectric.buildActivity(FaceGalleryActivity.class,
+                intent).setup().visible();
+        activity = controller.get();
+        grid = activity.getGrid();
+        awaitFaces();
+    }
+
+    //the faces are made off the UI thread; waits for the grid to fill
+    private void awaitFaces() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (activity.getAdapter() == null
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+            shadowOf(Looper.getMainLooper()).idle();
+        }
+        assertNotNull("no faces within " + TIMEOUT_MILLIS + " ms",
+                activity.getAdapter());
+        shadowOf(Looper.getMainLooper()).idle();
+    }
+
+    @After
+    public void tearDown() {
+        controller.pause().stop().destroy();
+    }
+
+    //one frame of a steady fling: the scroll, then the frame callbacks
+    private void frame(int dy) {
+        grid.scrollBy(0, dy);
+        shadowOf(Looper.getMainLooper()).idleFor(Duration.ofMillis(16));
+    }
+
+    //lets the workers finish and their thumbnails reach the holders
+    private void awaitLoaded() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (activity.getLoader().getPendingCount() > 0
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, activity.getLoader().getPendingCount());
+        shadowOf(Looper.getMainLooper()).idle();
+    }
+
+    @Test
+    public void fling_loadsEveryBoundCell_andRecyclesHolders()
+            throws InterruptedException {
+        for (int i = 0; i < WARMUP_FRAMES + FRAMES; i++) {
+            frame(SCROLL_PER_FRAME);
+        }
+        awaitLoaded();
+
+        //each cell on screen shows its own face, however far the fling
+        //outran the workers
+        FaceThumbnailLoader loader = activity.getLoader();
+        assertTrue(grid.getChildCount() > 0);
+        for (int i = 0; i < grid.getChildCount(); i++) {
+            View cell = grid.getChildAt(i);
+            int position = grid.getChildAdapterPosition(cell);
+            Drawable shown = ((ImageView) cell.findViewById(
+                    R.id.faceThumbnail)).getDrawable();
+            assertTrue("cell " + position + " is blank",
+                    shown instanceof BitmapDrawable);
+            assertSame(loader.getCached(position),
+                    ((BitmapDrawable) shown).getBitmap());
+        }
+
+        //thousands of faces went by on a screenful of holders
+        GridLayoutManager layout = (GridLayoutManager) grid.getLayoutManager();
+        assertTrue(layout.findLastVisibleItemPosition() > 1000);
+        assertTrue(activity.getAdapter().getCreatedHolderCount() < 200);
+    }
+
+    @Test
+    public void repeatedPrefetches_queueEachFaceOnce()
+            throws InterruptedException {
+        awaitLoaded();
+        FaceThumbnailLoader loader = activity.getLoader();
+        int from = FACES - FaceThumbnailLoader.QUEUE_LIMIT;
+        for (int i = 0; i < 10; i++) {
+            loader.prefetch(from, FACES);
+        }
+        assertTrue(loader.getPendingCount() <= FaceThumbnailLoader.QUEUE_LIMIT);
+        assertEquals(0, loader.getDroppedCount());
+    }
+
+    @Test
+    public void shutdown_ignoresLateRequests() {
+        FaceThumbnailLoader loader = activity.getLoader();
+        loader.shutdown();
+        loader.prefetch(0, FACES);
+        assertEquals(0, loader.getPendingCount());
+    }
+
+    @Test
+    public void scrolling_prefetchesTheNextRows() throws InterruptedException {
+        frame(SCROLL_PER_FRAME);
+        GridLayoutManager layout = (GridLayoutManager) grid.getLayoutManager();
+        int next = layout.findLastVisibleItemPosition() + layout.getSpanCount();
+
+        //the workers draw it without the view ever being bound
+        long deadline = System.currentTimeMillis() + 5000;
+        while (activity.getLoader().getCached(next) == null
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertNotNull(activity.getLoader().getCached(next));
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.junkinsfacemaker;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+
+import com.example.junkinsfacemaker.core.FaceModel;
+import com.example.junkinsfacemaker.core.HairstyleRegistry;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+import org.robolectric.annotation.GraphicsMode;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks that layered compositing repaints only the layers a trait change
+ * touches, and draws the same pixels as replaying the shapes
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 30)
+@GraphicsMode(GraphicsMode.Mode.NATIVE)
+public class FaceLayerCompositorTest {
+    private static final int WIDTH = 1000;
+    private static final int HEIGHT = 1100;
+
+    private static final int SKIN = 1 << FaceLayerCompositor.LAYER_SKIN;
+    private static final int EYES = 1 << FaceLayerCompositor.LAYER_EYES;
+
+    private Face face;
+    private FaceLayerCompositor compositor;
+    private Canvas canvas;
+
+    @Before
+    public void setUp() {
+        face = new Face(RuntimeEnvironment.getApplication(), null);
+        face.setRenderCacheBytes(0);
+        face.layout(0, 0, WIDTH, HEIGHT);
+        compositor = face.getLayerCompositor();
+        canvas = new Canvas(Bitmap.createBitmap(WIDTH, HEIGHT,
+                Bitmap.Config.ARGB_8888));
+    }
+
+    @Test
+    public void firstFrame_rendersEveryLayer() {
+        face.onDraw(canvas);
+        assertEquals(FaceLayerCompositor.ALL_LAYERS,
+                compositor.getLastRenderedLayers());
+    }
+
+    @Test
+    public void colorChange_onlyRecolorsItsLayer() {
+        face.onDraw(canvas);
+        face.setSkinColor(face.getSkinColor() ^ 0x00ff00);
+        face.applyTraitChanges(Face.CHANGED_SKIN);
+        face.onDraw(canvas);
+        assertEquals(0, compositor.getLastRenderedLayers());
+        assertEquals(SKIN, compositor.getLastRecoloredLayers());
+
+        face.setEyeColor(face.getEyeColor() ^ 0x00ff00);
+        face.applyTraitChanges(Face.CHANGED_EYES);
+        face.onDraw(canvas);
+        assertEquals(0, compositor.getLastRenderedLayers());
+        assertEquals(EYES, compositor.getLastRecoloredLayers());
+        assertEquals(1,
+                compositor.getRenderCount(FaceLayerCompositor.LAYER_SKIN));
+    }
+
+    @Test
+    public void hairstyleChange_onlyRendersHairLayers() {
+        face.setHairStyle(FaceModel.HAT_HAIR);
+        face.onDraw(canvas);
+        face.setHairStyle(FaceModel.AFRO);
+        face.onDraw(canvas);
+        assertEquals(FaceLayerCompositor.HAIR_LAYERS,
+                compositor.getLastRenderedLayers());
+        assertEquals(0, compositor.getLastRecoloredLayers());
+
+        //nothing changed
+        face.onDraw(canvas);
+        assertEquals(0, compositor.getLastRenderedLayers());
+    }
+
+    @Test
+    public void listener_hearsEveryFrame() {
+        int[] frames = new int[1];
+        compositor.setListener((rendered, recolored) -> frames[0]++);
+        face.onDraw(canvas);
+        face.onDraw(canvas);
+        assertEquals(2, frames[0]);
+    }
+
+    @Test
+    public void layers_matchDirectDrawing() {
+        Bitmap layered = Bitmap.createBitmap(WIDTH, HEIGHT,
+                Bitmap.Config.ARGB_8888);
+        Bitmap direct = Bitmap.createBitmap(WIDTH, HEIGHT,
+                Bitmap.Config.ARGB_8888);
+        int[] a = new int[WIDTH * HEIGHT];
+        int[] b = new int[WIDTH * HEIGHT];
+        int styles = HairstyleRegistry.getDefault().size();
+        for (int style = 0; style < styles; style++) {
+            face.setHairStyle(style);
+            face.setLayeredRendering(true);
+            Canvas c = new Canvas(layered);
+            c.drawColor(Color.WHITE);
+            face.onDraw(c);
+            face.setLayeredRendering(false);
+            c = new Canvas(direct);
+            c.drawColor(Color.WHITE);
+            face.onDraw(c);
+
+            layered.getPixels(a, 0, WIDTH, 0, 0, WIDTH, HEIGHT);
+            direct.getPixels(b, 0, WIDTH, 0, 0, WIDTH, HEIGHT);
+            assertArrayEquals("style " + style, b, a);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.junkinsfacemaker;
+
+import android.graphics.Canvas;
+import android.graphics.Path;
+
+import com.example.junkinsfacemaker.core.FaceModel;
+import com.example.junkinsfacemaker.core.HairstyleRegistry;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks that face paths are built once per hairstyle and size, and then
+ * reused by every frame and every Face
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 30)
+public class FacePathCacheTest {
+    private static final int WIDTH = 1080;
+    private static final int HEIGHT = 1200;
+
+    private static Face newFace() {
+        Face face = new Face(RuntimeEnvironment.getApplication(), null);
+        face.setRenderCacheBytes(0);
+        face.setHairStyle(FaceModel.POMPADOUR);
+        face.layout(0, 0, WIDTH, HEIGHT);
+        return face;
+    }
+
+    @Test
+    public void pathCount_staysConstantUnderInvalidate() {
+        FacePathCache cache = FacePathCache.getShared();
+        Face face = newFace();
+        Canvas canvas = new Canvas();
+        face.onDraw(canvas);
+        int paths = cache.getPathCount();
+        int builds = cache.getBuildCount();
+
+        for (int i = 0; i < 1000; i++) {
+            face.invalidate();
+            face.onDraw(canvas);
+        }
+        assertEquals(paths, cache.getPathCount());
+        assertEquals(builds, cache.getBuildCount());
+    }
+
+    @Test
+    public void faces_shareTheirPaths() {
+        FacePathCache cache = FacePathCache.getShared();
+        newFace();
+        int builds = cache.getBuildCount();
+        newFace();
+        newFace();
+        assertEquals(builds, cache.getBuildCount());
+    }
+
+    @Test
+    public void unsizedFace_buildsNothing() {
+        FacePathCache cache = FacePathCache.getShared();
+        int builds = cache.getBuildCount();
+        Face face = new Face(RuntimeEnvironment.getApplication(), null);
+        face.setHairStyle((face.getHairStyle() + 1)
+                % HairstyleRegistry.getDefault().size());
+        assertEquals(builds, cache.getBuildCount());
+    }
+
+    @Test
+    public void paths_areKeyedByStyleAndSize() {
+        FacePathCache cache = new FacePathCache(4);
+        Path[] pomp = cache.get(FaceModel.POMPADOUR, WIDTH, HEIGHT);
+        assertSame(pomp, cache.get(FaceModel.POMPADOUR, WIDTH, HEIGHT));
+        assertNotSame(pomp, cache.get(FaceModel.POMPADOUR, 64, 64));
+        assertNotSame(pomp, cache.get(FaceModel.AFRO, WIDTH, HEIGHT));
+
+        //the pompadour has no hair behind the head
+        assertNull(pomp[FaceLayerCompositor.LAYER_BACK_HAIR]);
+        assertNotNull(pomp[FaceLayerCompositor.LAYER_FRONT_HAIR]);
+        assertEquals(12, cache.getPathCount());
+    }
+
+    @Test
+    public void eviction_releasesPaths() {
+        FacePathCache cache = new FacePathCache(1);
+        cache.get(FaceModel.HAT_HAIR, WIDTH, HEIGHT);
+        cache.get(FaceModel.AFRO, WIDTH, HEIGHT);
+        assertEquals(4, cache.getPathCount());
+        assertEquals(8, cache.getBuildCount());
+    }
+}
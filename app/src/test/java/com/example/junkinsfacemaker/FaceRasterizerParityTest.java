@@ -0,0 +1,93 @@
+package com.example.junkinsfacemaker;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+
+import com.example.junkinsfacemaker.core.HairstyleRegistry;
+import com.example.junkinsfacemaker.core.FaceRasterizer;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+import org.robolectric.annotation.GraphicsMode;
+
+import static org.junit.Assert.*;
+
+/**
+ * Keeps the headless FaceRasterizer and Face.onDraw from drifting apart
+ * by rendering the same faces with both and diffing the pixels
+ * only pixels on a shape's edge in onDraw's image, where antialiasing
+ * may round differently, are allowed to differ; one anywhere else means
+ * a shape moved, grew or changed color
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 30)
+@GraphicsMode(GraphicsMode.Mode.NATIVE)
+public class FaceRasterizerParityTest {
+    private static final int WIDTH = 1000;
+    private static final int HEIGHT = 1100;
+
+    @Test
+    public void rasterizer_matchesOnDraw_forEveryHairstyle() {
+        Face face = new Face(RuntimeEnvironment.getApplication(), null);
+        face.setRenderCacheBytes(0);
+        face.setLayeredRendering(false);
+        face.layout(0, 0, WIDTH, HEIGHT);
+        Bitmap bitmap = Bitmap.createBitmap(WIDTH, HEIGHT,
+                Bitmap.Config.ARGB_8888);
+        Canvas canvas = new Canvas(bitmap);
+        //both fit the face bounds to the image the same way
+        FaceRasterizer rasterizer = new FaceRasterizer(WIDTH, HEIGHT);
+        int[] drawn = new int[WIDTH * HEIGHT];
+        int[] rasterized = new int[WIDTH * HEIGHT];
+
+        int styles = HairstyleRegistry.getDefault().size();
+        for (int style = 0; style < styles; style++) {
+            face.setHairStyle(style);
+            canvas.drawColor(Color.WHITE);
+            face.onDraw(canvas);
+            bitmap.getPixels(drawn, 0, WIDTH, 0, 0, WIDTH, HEIGHT);
+
+            rasterizer.render(face.getSkinColor(), face.getEyeColor(),
+                    face.getHairColor(), style, Color.WHITE,
+                    rasterized, 0, WIDTH);
+
+            int edgeDiffs = 0;
+            int drift = 0;
+            int first = -1;
+            for (int i = 0; i < drawn.length; i++) {
+                if (drawn[i] == rasterized[i]) {
+                    continue;
+                }
+                if (onEdge(drawn, i % WIDTH, i / WIDTH)) {
+                    edgeDiffs++;
+                }
+                else if (drift++ == 0) {
+                    first = i;
+                }
+            }
+            assertEquals("style " + style + ": " + drift
+                    + " pixels off any edge differ, the first at ("
+                    + first % WIDTH + ", " + first / WIDTH + "); "
+                    + edgeDiffs + " edge pixels differ", 0, drift);
+        }
+    }
+
+    //whether a pixel has a neighbour of another color
+    private static boolean onEdge(int[] image, int x, int y) {
+        int color = image[y * WIDTH + x];
+        for (int ny = Math.max(0, y - 1); ny <= Math.min(HEIGHT - 1, y + 1);
+                ny++) {
+            for (int nx = Math.max(0, x - 1); nx <= Math.min(WIDTH - 1, x + 1);
+                    nx++) {
+                if (image[ny * WIDTH + nx] != color) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
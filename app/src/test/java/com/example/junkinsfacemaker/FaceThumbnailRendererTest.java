@@ -0,0 +1,84 @@
+package com.example.junkinsfacemaker;
+
+import android.graphics.Bitmap;
+import android.graphics.Color;
+
+import com.example.junkinsfacemaker.core.FaceBatchGenerator;
+import com.example.junkinsfacemaker.core.FaceRasterizer;
+import com.example.junkinsfacemaker.core.FaceTraitStore;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+import org.robolectric.annotation.GraphicsMode;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks that thumbnails are fitted like the on-screen face and reuse one
+ * path set per hairstyle for a whole batch
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 30)
+@GraphicsMode(GraphicsMode.Mode.NATIVE)
+public class FaceThumbnailRendererTest {
+    private static final int SIZE = 64;
+
+    //edge pixels may round differently at this scale
+    private static final double MAX_DIFF_FRACTION = .03;
+
+    @Test
+    public void batch_buildsGeometryOncePerStyle() {
+        FaceTraitStore faces = new FaceBatchGenerator().generate(3, 500);
+        FaceThumbnailRenderer renderer = new FaceThumbnailRenderer(SIZE, SIZE);
+        Bitmap tile = Bitmap.createBitmap(SIZE, SIZE, Bitmap.Config.ARGB_8888);
+        FacePathCache cache = FacePathCache.getShared();
+
+        //the first of each style may build its paths
+        for (int i = 0; i < 50; i++) {
+            renderer.render(faces, i, Color.WHITE, tile);
+        }
+        int builds = cache.getBuildCount();
+        for (int i = 50; i < faces.size(); i++) {
+            renderer.render(faces, i, Color.WHITE, tile);
+        }
+        assertEquals(builds, cache.getBuildCount());
+    }
+
+    @Test
+    public void thumbnail_matchesRasterizer() {
+        FaceTraitStore faces = new FaceBatchGenerator().generate(4, 9);
+        FaceThumbnailRenderer renderer = new FaceThumbnailRenderer(SIZE, SIZE);
+        FaceRasterizer rasterizer = new FaceRasterizer(SIZE, SIZE);
+        Bitmap tile = Bitmap.createBitmap(SIZE, SIZE, Bitmap.Config.ARGB_8888);
+        int[] drawn = new int[SIZE * SIZE];
+        int[] rasterized = new int[SIZE * SIZE];
+
+        for (int i = 0; i < faces.size(); i++) {
+            renderer.render(faces, i, Color.WHITE, tile);
+            tile.getPixels(drawn, 0, SIZE, 0, 0, SIZE, SIZE);
+            rasterizer.render(faces, i, Color.WHITE, rasterized, 0, SIZE);
+            int diffs = 0;
+            for (int p = 0; p < drawn.length; p++) {
+                if (drawn[p] != rasterized[p]) {
+                    diffs++;
+                }
+            }
+            assertTrue("face " + i + ": " + diffs + " pixels differ",
+                    diffs <= MAX_DIFF_FRACTION * drawn.length);
+        }
+    }
+
+    @Test
+    public void renderAtSize_fitsTheWholeFace() {
+        Face face = new Face(RuntimeEnvironment.getApplication(), null);
+        Bitmap small = face.renderAtSize(SIZE, 2 * SIZE);
+        assertEquals(SIZE, small.getWidth());
+        //fitted and centered: nothing touches the long edges
+        assertEquals(Color.TRANSPARENT, small.getPixel(SIZE / 2, 0));
+        assertEquals(Color.TRANSPARENT, small.getPixel(SIZE / 2, 2 * SIZE - 1));
+        assertEquals(face.getSkinColor(), small.getPixel(SIZE / 2, SIZE + 24));
+    }
+}
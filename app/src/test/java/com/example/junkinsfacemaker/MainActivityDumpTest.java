@@ -0,0 +1,80 @@
+package com.example.junkinsfacemaker;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.os.Looper;
+
+import com.example.junkinsfacemaker.core.FaceMetrics;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+
+import static org.junit.Assert.*;
+import static org.robolectric.Shadows.shadowOf;
+
+/**
+ * Checks that the face's hot paths feed the metrics and that dumpsys
+ * shows and controls them
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 30)
+public class MainActivityDumpTest {
+    private MainActivity activity;
+    private Face face;
+
+    @Before
+    public void setUp() {
+        activity = Robolectric.buildActivity(MainActivity.class).setup().get();
+        face = activity.findViewById(R.id.faceView);
+        shadowOf(Looper.getMainLooper()).idle();
+        FaceMetrics.setEnabled(true);
+        FaceMetrics.reset();
+    }
+
+    @After
+    public void tearDown() {
+        FaceMetrics.setEnabled(false);
+        FaceMetrics.reset();
+    }
+
+    private String dump(String... args) {
+        StringWriter text = new StringWriter();
+        activity.dump("", null, new PrintWriter(text), args);
+        return text.toString();
+    }
+
+    @Test
+    public void hotPaths_areCounted() {
+        activity.findViewById(R.id.randomFaceButton).performClick();
+        shadowOf(Looper.getMainLooper()).idle();
+        face.onDraw(new Canvas(Bitmap.createBitmap(200, 200,
+                Bitmap.Config.ARGB_8888)));
+
+        assertEquals(1, FaceMetrics.RANDOMIZE_CALLS.get());
+        assertTrue(FaceMetrics.REDRAWS_REQUESTED.get() >= 1);
+        assertEquals(1, FaceMetrics.FRAMES_DRAWN.get());
+        assertEquals(1, FaceMetrics.DRAW_NANOS.getCount());
+        assertTrue(FaceMetrics.PAINT_UPDATES.get() > 0);
+        assertTrue(dump().contains("face.randomize: 1"));
+    }
+
+    @Test
+    public void dumpsysCommands_switchMetrics() {
+        assertTrue(dump("metrics-off").contains("metrics disabled"));
+        activity.findViewById(R.id.randomFaceButton).performClick();
+        assertEquals(0, FaceMetrics.RANDOMIZE_CALLS.get());
+
+        assertTrue(dump("metrics-on").contains("metrics enabled"));
+        activity.findViewById(R.id.randomFaceButton).performClick();
+        assertEquals(1, FaceMetrics.RANDOMIZE_CALLS.get());
+        assertTrue(dump("metrics-reset").contains("face.randomize: 0"));
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.junkinsfacemaker;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.os.Looper;
+
+import com.example.junkinsfacemaker.core.HairstyleRegistry;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.*;
+import static org.robolectric.Shadows.shadowOf;
+
+/**
+ * Checks the startup metric and the setup deferred past the first frame
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 30)
+public class MainActivityStartupTest {
+    private static final int WIDTH = 480;
+    private static final int HEIGHT = 600;
+
+    @Test
+    public void firstFrame_isTimedThenWarmsEveryStyle() {
+        MainActivity activity =
+                Robolectric.buildActivity(MainActivity.class).setup().get();
+        Face face = activity.findViewById(R.id.faceView);
+        shadowOf(Looper.getMainLooper()).idle();
+        if (activity.getFirstFaceFrameMillis() < 0) {
+            face.layout(0, 0, WIDTH, HEIGHT);
+            face.draw(new Canvas(Bitmap.createBitmap(WIDTH, HEIGHT,
+                    Bitmap.Config.ARGB_8888)));
+        }
+        assertTrue(activity.getFirstFaceFrameMillis() >= 0);
+
+        //the warm-up runs after the frame, not inside it
+        shadowOf(Looper.getMainLooper()).idle();
+        FacePathCache cache = FacePathCache.getShared();
+        int builds = cache.getBuildCount();
+        for (int style = 0; style < HairstyleRegistry.getDefault().size();
+             style++) {
+            cache.get(style, face.getWidth(), face.getHeight());
+        }
+        assertEquals(builds, cache.getBuildCount());
+    }
+
+    @Test
+    public void firstFrameListener_runsOnce() {
+        MainActivity activity =
+                Robolectric.buildActivity(MainActivity.class).setup().get();
+        Face face = activity.findViewById(R.id.faceView);
+        int[] calls = {0};
+        face.setOnFirstFrameListener(() -> calls[0]++);
+        Canvas canvas = new Canvas(Bitmap.createBitmap(WIDTH, HEIGHT,
+                Bitmap.Config.ARGB_8888));
+        face.onDraw(canvas);
+        face.onDraw(canvas);
+        assertEquals(1, calls[0]);
+    }
+}
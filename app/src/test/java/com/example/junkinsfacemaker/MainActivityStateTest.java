@@ -0,0 +1,174 @@
+package com.example.junkinsfacemaker;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.os.Bundle;
+import android.os.Looper;
+import android.os.Parcel;
+import android.widget.SeekBar;
+
+import com.example.junkinsfacemaker.core.FaceColors;
+import com.example.junkinsfacemaker.core.FaceMetrics;
+import com.example.junkinsfacemaker.core.FaceModel;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.android.controller.ActivityController;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.*;
+import static org.robolectric.Shadows.shadowOf;
+
+/**
+ * Checks that the face and the editing state survive recreation, and
+ * that getting back to them skips the random face a fresh launch rolls
+ * warm: a configuration change, the process and its caches live on
+ * cold: process death, the state comes back through a parcel and the
+ * shared caches start empty
+ * how long a restore takes is measured on a device, by
+ * StartupBenchmarkTest
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 30)
+public class MainActivityStateTest {
+    private static final int SKIN = 0xff8a5a3c;
+    private static final int EYE = 0xff2060a0;
+    private static final int HAIR = 0xff302010;
+
+    @Before
+    public void setUp() {
+        //counts the random faces rolled
+        FaceMetrics.setEnabled(true);
+    }
+
+    @After
+    public void tearDown() {
+        FaceMetrics.setEnabled(false);
+        FaceMetrics.reset();
+    }
+
+    //edits a face the way a user would, with skin selected at the end
+    private static ActivityController<MainActivity> edited() {
+        ActivityController<MainActivity> controller =
+                Robolectric.buildActivity(MainActivity.class).setup();
+        MainActivity activity = controller.get();
+        Face face = activity.findViewById(R.id.faceView);
+        FaceEditBatcher batcher =
+                activity.getFaceController().getEditBatcher();
+        batcher.setColor(Feature.SKIN, SKIN);
+        batcher.setColor(Feature.EYES, EYE);
+        batcher.setColor(Feature.HAIR, HAIR);
+        batcher.setHairStyle(FaceModel.POMPADOUR);
+        activity.findViewById(R.id.skinButton).performClick();
+        shadowOf(Looper.getMainLooper()).idle();
+        assertEquals(SKIN, face.getSkinColor());
+        return controller;
+    }
+
+    //what a user would see: same face, same feature, seek bars on it
+    private static void assertRestored(MainActivity activity) {
+        Face face = activity.findViewById(R.id.faceView);
+        assertEquals(SKIN, face.getSkinColor());
+        assertEquals(EYE, face.getEyeColor());
+        assertEquals(HAIR, face.getHairColor());
+        assertEquals(FaceModel.POMPADOUR, face.getHairStyle());
+        assertEquals(SKIN, face.skinPaint.getColor());
+        assertEquals(Feature.SKIN,
+                activity.getFaceController().getSelectedFeature());
+        SeekBar red = activity.findViewById(R.id.redSeekBar);
+        SeekBar blue = activity.findViewById(R.id.blueSeekBar);
+        assertEquals(FaceColors.channel(SKIN, FaceColors.RED),
+                red.getProgress());
+        assertEquals(FaceColors.channel(SKIN, FaceColors.BLUE),
+                blue.getProgress());
+    }
+
+    //draws the face once, as its first frame after coming back
+    private static void firstFrame(MainActivity activity) {
+        shadowOf(Looper.getMainLooper()).idle();
+        Face face = activity.findViewById(R.id.faceView);
+        Bitmap frame = Bitmap.createBitmap(Math.max(1, face.getWidth()),
+                Math.max(1, face.getHeight()), Bitmap.Config.ARGB_8888);
+        face.draw(new Canvas(frame));
+    }
+
+    //what survives process death: the bundle, flattened and read back
+    private static Bundle throughParcel(Bundle state) {
+        Parcel parcel = Parcel.obtain();
+        try {
+            state.writeToParcel(parcel, 0);
+            parcel.setDataPosition(0);
+            Bundle copy = Bundle.CREATOR.createFromParcel(parcel);
+            copy.setClassLoader(MainActivity.class.getClassLoader());
+            return copy;
+        }
+        finally {
+            parcel.recycle();
+        }
+    }
+
+    @Test
+    public void warmRestore_configurationChange() {
+        ActivityController<MainActivity> controller = edited();
+        FaceMetrics.reset();
+        controller.recreate();
+        firstFrame(controller.get());
+        assertRestored(controller.get());
+        //the saved face was shown, no random one was made first
+        assertEquals(0, FaceMetrics.RANDOMIZE_CALLS.get());
+        controller.pause().stop().destroy();
+    }
+
+    @Test
+    public void coldRestore_processDeath() {
+        ActivityController<MainActivity> controller = edited();
+        Bundle saved = new Bundle();
+        controller.saveInstanceState(saved);
+        controller.pause().stop().destroy();
+        saved = throughParcel(saved);
+
+        //a new process has no cached face geometry
+        FacePathCache.getShared().evictAll();
+        FaceMetrics.reset();
+        ActivityController<MainActivity> restored =
+                Robolectric.buildActivity(MainActivity.class).setup(saved);
+        firstFrame(restored.get());
+        assertRestored(restored.get());
+        assertEquals(0, FaceMetrics.RANDOMIZE_CALLS.get());
+        restored.pause().stop().destroy();
+    }
+
+    @Test
+    public void freshLaunch_rollsOneRandomFace() {
+        FaceMetrics.reset();
+        ActivityController<MainActivity> launched =
+                Robolectric.buildActivity(MainActivity.class).setup();
+        firstFrame(launched.get());
+        assertEquals(1, FaceMetrics.RANDOMIZE_CALLS.get());
+        //and the controls follow it
+        Face face = launched.get().findViewById(R.id.faceView);
+        SeekBar red = launched.get().findViewById(R.id.redSeekBar);
+        assertEquals(FaceColors.channel(face.getHairColor(), FaceColors.RED),
+                red.getProgress());
+        launched.pause().stop().destroy();
+    }
+
+    @Test
+    public void savedFace_isOnePackedRecord() {
+        ActivityController<MainActivity> controller = edited();
+        Face face = controller.get().findViewById(R.id.faceView);
+        Face.SavedState state = (Face.SavedState)face.onSaveInstanceState();
+        Parcel parcel = Parcel.obtain();
+        state.writeToParcel(parcel, 0);
+        parcel.setDataPosition(0);
+        Face.SavedState copy = Face.SavedState.CREATOR.createFromParcel(parcel);
+        parcel.recycle();
+        assertEquals(state.low, copy.low);
+        assertEquals(state.high, copy.high);
+        controller.pause().stop().destroy();
+    }
+}
@@ -0,0 +1,94 @@
+/**
+ * FaceMaker AnimationBenchmarks Class
+ * measures animated frames of a wall of faces: one operation is one
+ * frame, advancing the animator by a tick and drawing every face into
+ * one framebuffer, so the score is frames per second
+ *
+ * faces blink and glance on their own; with restartTicks set, each face
+ * also starts a new color transition and hairstyle cross-fade that often,
+ * and at 15 every face is always mid-transition, the worst case
+ *
+ * @version Oct 18 2026
+ * @author Alex Junkins
+ */
+package com.example.junkinsfacemaker.benchmark;
+
+import com.example.junkinsfacemaker.core.FaceAnimator;
+import com.example.junkinsfacemaker.core.FaceBatchGenerator;
+import com.example.junkinsfacemaker.core.FaceRasterizer;
+import com.example.junkinsfacemaker.core.FaceTraitStore;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+@State(Scope.Thread)
+@Threads(1)
+public class AnimationBenchmarks {
+    private static final int COLUMNS = 25;
+    private static final int WHITE = 0xffffffff;
+    //distinct targets faces cycle through
+    private static final int TARGETS = 1024;
+
+    @Param({"500"})
+    public int faces;
+
+    //face edge in pixels
+    @Param({"64", "96"})
+    public int size;
+
+    //ticks between trait changes of a face; 0 for none
+    @Param({"0", "15"})
+    public int restartTicks;
+
+    private FaceAnimator animator;
+    private FaceRasterizer rasterizer;
+    private FaceTraitStore targets;
+    private int[] fb;
+    private int stride;
+    private long frameNanos;
+    private int frame;
+
+    @Setup
+    public void setUp() {
+        targets = new FaceBatchGenerator().generate(22, TARGETS);
+        animator = new FaceAnimator(faces, 22);
+        for (int i = 0; i < faces; i++){
+            int t = i % TARGETS;
+            animator.add(targets.getSkinColor(t), targets.getEyeColor(t),
+                    targets.getHairColor(t), targets.getHairStyle(t));
+        }
+        rasterizer = new FaceRasterizer(size, size);
+        stride = COLUMNS * size;
+        int rows = (faces + COLUMNS - 1) / COLUMNS;
+        fb = new int[stride * rows * size];
+        animator.advance(frameNanos);
+    }
+
+    /**
+     * One frame of every face
+     */
+    @Benchmark
+    public int[] frame() {
+        frame++;
+        if (restartTicks > 0){
+            //an even share of the faces starts over on every frame
+            for (int i = frame % restartTicks; i < faces; i += restartTicks){
+                int t = (i + frame) % TARGETS;
+                animator.animateTo(i, targets.getSkinColor(t),
+                        targets.getEyeColor(t), targets.getHairColor(t),
+                        targets.getHairStyle(t));
+            }
+        }
+        frameNanos += FaceAnimator.TICK_NANOS;
+        animator.advance(frameNanos);
+        for (int i = 0; i < faces; i++){
+            int offset = (i / COLUMNS) * size * stride + (i % COLUMNS) * size;
+            animator.render(i, rasterizer, WHITE, fb, offset, stride);
+        }
+        return fb;
+    }
+}//class AnimationBenchmarks
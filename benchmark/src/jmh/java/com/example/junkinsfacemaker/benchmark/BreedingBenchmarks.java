@@ -0,0 +1,75 @@
+/**
+ * FaceMaker BreedingBenchmarks Class
+ * measures breeding a generation of a million faces: selection,
+ * crossover, mutation and scoring against a target palette, reported in
+ * faces per second
+ *
+ * runs once on a single-thread pool and once with a thread per core, so
+ * the two scores show how well generations scale
+ *
+ * @version Oct 18 2026
+ * @author Alex Junkins
+ */
+package com.example.junkinsfacemaker.benchmark;
+
+import com.example.junkinsfacemaker.core.FaceBatchGenerator;
+import com.example.junkinsfacemaker.core.FaceBreeder;
+import com.example.junkinsfacemaker.core.FaceTraitStore;
+import com.example.junkinsfacemaker.core.PaletteFitness;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.ForkJoinPool;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+public class BreedingBenchmarks {
+    private static final int POPULATION = 1 << 20;
+
+    //pool threads; 0 is one per core
+    @Param({"1", "0"})
+    public int threads;
+
+    private ForkJoinPool pool;
+    private FaceBreeder breeder;
+    private FaceTraitStore parents;
+    private FaceTraitStore children;
+    private final float[] parentScores = new float[POPULATION];
+    private final float[] childScores = new float[POPULATION];
+    private int generation;
+
+    @Setup
+    public void setUp() {
+        pool = new ForkJoinPool(threads == 0
+                ? Runtime.getRuntime().availableProcessors() : threads);
+        breeder = new FaceBreeder(
+                new PaletteFitness(0xffe0b090, 0xff2060a0, 0xff302010), pool);
+        parents = new FaceBatchGenerator().generate(41, POPULATION);
+        children = new FaceTraitStore(POPULATION);
+        breeder.score(parents, parentScores);
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    /**
+     * One generation from the same parents, reported per face
+     */
+    @Benchmark
+    @OperationsPerInvocation(POPULATION)
+    public FaceBreeder.GenerationStats breedGeneration() {
+        //breeding from fixed parents keeps every invocation the same work
+        return breeder.breed(7, generation++, parents, parentScores,
+                children, childScores);
+    }
+}//class BreedingBenchmarks
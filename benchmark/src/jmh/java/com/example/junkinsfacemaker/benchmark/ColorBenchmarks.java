@@ -0,0 +1,98 @@
+/**
+ * FaceMaker ColorBenchmarks Class
+ * measures the Lab color math: batch conversion, batch delta E, snapping
+ * to palettes and skin tone sampling, all reported per color
+ *
+ * the benchmarks run once per nested class: single-threaded and with
+ * one thread per core
+ *
+ * @version Oct 18 2026
+ * @author Alex Junkins
+ */
+package com.example.junkinsfacemaker.benchmark;
+
+import com.example.junkinsfacemaker.core.ColorPalette;
+import com.example.junkinsfacemaker.core.FaceBatchGenerator;
+import com.example.junkinsfacemaker.core.LabColors;
+import com.example.junkinsfacemaker.core.SkinTones;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.Random;
+
+@State(Scope.Thread)
+public abstract class ColorBenchmarks {
+    private static final int BATCH = 4096;
+
+    //colors in the snapping palette
+    @Param({"8", "32"})
+    public int paletteSize;
+
+    private final Random rnd = new Random(16);
+    private final float[] l = new float[BATCH];
+    private final float[] a = new float[BATCH];
+    private final float[] b = new float[BATCH];
+    private final float[] distances = new float[BATCH];
+    private int[] colors;
+    private int[] scratch;
+    private ColorPalette palette;
+
+    @Setup
+    public void setUp() {
+        colors = new FaceBatchGenerator().generate(16, BATCH).hairColors();
+        scratch = new int[BATCH];
+        palette = ColorPalette.fit(colors, 0, BATCH, paletteSize, 16);
+        LabColors.toLab(colors, 0, BATCH, l, a, b);
+    }
+
+    /**
+     * sRGB to Lab through the tables
+     */
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public float[] toLab() {
+        LabColors.toLab(colors, 0, BATCH, l, a, b);
+        return l;
+    }
+
+    /**
+     * Squared delta E from a batch of Lab colors to one color
+     */
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public float[] deltaESquared() {
+        LabColors.deltaESquared(l, a, b, 0, BATCH, 50, 10, -10, distances);
+        return distances;
+    }
+
+    /**
+     * Snapping colors to the closest palette color
+     */
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public int[] snap() {
+        System.arraycopy(colors, 0, scratch, 0, BATCH);
+        palette.snap(scratch, 0, BATCH);
+        return scratch;
+    }
+
+    /**
+     * One realistic skin color
+     */
+    @Benchmark
+    public int sampleSkinTone() {
+        return SkinTones.sample(rnd);
+    }
+
+    @Threads(1)
+    public static class SingleThreaded extends ColorBenchmarks { }
+
+    @Threads(Threads.MAX)
+    public static class MultiThreaded extends ColorBenchmarks { }
+}//class ColorBenchmarks
@@ -0,0 +1,84 @@
+/**
+ * FaceMaker MetricsBenchmarks Class
+ * measures what the hot-path metrics add to the code they sit in: each
+ * benchmark does the same small piece of work, the baseline alone and
+ * the others with a counter increment or a histogram record beside it
+ *
+ * with enabled=false the metric benchmarks should cost only a load of
+ * the flag and a branch over the baseline, showing metrics can stay in
+ * release builds; with enabled=true they show the price of turning
+ * them on
+ *
+ * @version Oct 18 2026
+ * @author Alex Junkins
+ */
+package com.example.junkinsfacemaker.benchmark;
+
+import com.example.junkinsfacemaker.core.FaceMetrics;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MetricsBenchmarks {
+    @Param({"false", "true"})
+    public boolean enabled;
+
+    //stands in for the work being measured, e.g. a frame's draw time
+    private long value = 12345;
+
+    @Setup
+    public void setUp() {
+        FaceMetrics.reset();
+        FaceMetrics.setEnabled(enabled);
+    }
+
+    @TearDown
+    public void tearDown() {
+        FaceMetrics.setEnabled(false);
+    }
+
+    //a few cycles of work that can't be folded away
+    private long work(){
+        value = value * 6364136223846793005L + 1442695040888963407L;
+        return value;
+    }
+
+    /**
+     * The work alone
+     */
+    @Benchmark
+    public long baseline() {
+        return work();
+    }
+
+    /**
+     * The work and a counted event, as in redraw()
+     */
+    @Benchmark
+    public long counter() {
+        FaceMetrics.REDRAWS_REQUESTED.increment();
+        return work();
+    }
+
+    /**
+     * The work and a recorded duration, as in onDraw()
+     */
+    @Benchmark
+    public long histogram() {
+        long v = work();
+        FaceMetrics.DRAW_NANOS.record(v >>> 44);
+        return v;
+    }
+}//class MetricsBenchmarks
@@ -0,0 +1,129 @@
+/**
+ * FaceMaker RenderBenchmarks Class
+ * measures geometry and headless rendering for each hairstyle:
+ * the FaceLayout math that used to run in drawHatHair, drawAfro and
+ * drawPomp, building a rasterizer's spans, and drawing thumbnails
+ *
+ * the benchmarks run once per nested class: single-threaded and with
+ * one thread per core
+ *
+ * @version Oct 18 2026
+ * @author Alex Junkins
+ */
+package com.example.junkinsfacemaker.benchmark;
+
+import com.example.junkinsfacemaker.core.FaceBatchGenerator;
+import com.example.junkinsfacemaker.core.FaceLayout;
+import com.example.junkinsfacemaker.core.FaceRasterizer;
+import com.example.junkinsfacemaker.core.FaceTraitStore;
+import com.example.junkinsfacemaker.core.PngEncoder;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+@State(Scope.Thread)
+public abstract class RenderBenchmarks {
+    private static final int SHEET_COLUMNS = 16;
+    private static final int WHITE = 0xffffffff;
+
+    //0: hat-hair, 1: afro, 2: pompadour
+    @Param({"0", "1", "2"})
+    public int hairStyle;
+
+    private final float[] prims =
+            new float[FaceLayout.NUM_PRIMITIVES * FaceLayout.STRIDE];
+
+    /**
+     * Per-size rendering state; only the benchmarks that take it are
+     * repeated for each size
+     */
+    @State(Scope.Thread)
+    public static class Thumbnail {
+        //thumbnail edge in pixels
+        @Param({"64", "256"})
+        public int size;
+
+        FaceRasterizer rasterizer;
+        FaceTraitStore faces;
+        int[] tile;
+        int[] sheetRow;
+
+        @Setup
+        public void setUp() {
+            rasterizer = new FaceRasterizer(size, size);
+            faces = new FaceBatchGenerator().generate(8, SHEET_COLUMNS);
+            tile = new int[size * size];
+            sheetRow = new int[SHEET_COLUMNS * size * size];
+        }
+    }
+
+    /**
+     * The geometry of one face
+     */
+    @Benchmark
+    public float[] layout() {
+        FaceLayout.compute(hairStyle, prims);
+        return prims;
+    }
+
+    /**
+     * Building the spans, paid once per thumbnail size
+     */
+    @Benchmark
+    public FaceRasterizer buildRasterizer(Thumbnail t) {
+        return new FaceRasterizer(t.size, t.size);
+    }
+
+    /**
+     * Drawing one thumbnail
+     */
+    @Benchmark
+    public int[] rasterize(Thumbnail t) {
+        t.rasterizer.render(0xffe0b090, 0xff2060c0, 0xff603010, hairStyle,
+                WHITE, t.tile, 0, t.size);
+        return t.tile;
+    }
+
+    /**
+     * Drawing a row of a sprite sheet and encoding it as PNG,
+     * reported per face
+     */
+    @Benchmark
+    @OperationsPerInvocation(SHEET_COLUMNS)
+    public void sheetRow(Thumbnail t) throws IOException {
+        int stride = SHEET_COLUMNS * t.size;
+        for (int i = 0; i < SHEET_COLUMNS; i++){
+            t.rasterizer.render(t.faces.getSkinColor(i),
+                    t.faces.getEyeColor(i), t.faces.getHairColor(i),
+                    hairStyle, WHITE, t.sheetRow, i * t.size, stride);
+        }
+        try (PngEncoder png = new PngEncoder(NULL_STREAM, stride, t.size)){
+            for (int y = 0; y < t.size; y++){
+                png.writeRow(t.sheetRow, y * stride);
+            }
+        }
+    }
+
+    //discards encoded bytes
+    private static final OutputStream NULL_STREAM = new OutputStream() {
+        @Override
+        public void write(int b) { }
+
+        @Override
+        public void write(byte[] b, int off, int len) { }
+    };
+
+    @Threads(1)
+    public static class SingleThreaded extends RenderBenchmarks { }
+
+    @Threads(Threads.MAX)
+    public static class MultiThreaded extends RenderBenchmarks { }
+}//class RenderBenchmarks
@@ -0,0 +1,133 @@
+/**
+ * FaceMaker SimilarityBenchmarks Class
+ * measures "faces like this one" queries over large generated catalogs:
+ * the similarity index against a linear scan of the trait columns
+ *
+ * the catalog and its index are built once per catalog size and shared
+ * by every benchmark thread
+ *
+ * @version Oct 18 2026
+ * @author Alex Junkins
+ */
+package com.example.junkinsfacemaker.benchmark;
+
+import com.example.junkinsfacemaker.core.FaceBatchGenerator;
+import com.example.junkinsfacemaker.core.FaceSimilarityIndex;
+import com.example.junkinsfacemaker.core.FaceTraitStore;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+
+//10M faces and their index need a few GB
+@Fork(jvmArgsAppend = "-Xmx4g")
+@State(Scope.Thread)
+public class SimilarityBenchmarks {
+    private static final int K = 10;
+    private static final int QUERIES = 1024;
+    //a few dozen matches per query in 10M random faces; range queries
+    //cost grows with how many faces they return
+    private static final int RADIUS = 60 * 60;
+
+    /**
+     * The catalog, shared by all threads
+     */
+    @State(Scope.Benchmark)
+    public static class Catalog {
+        @Param({"1000000", "10000000"})
+        public int faces;
+
+        FaceTraitStore store;
+        FaceSimilarityIndex index;
+
+        @Setup
+        public void setUp() {
+            store = new FaceBatchGenerator().generate(15, faces);
+            index = FaceSimilarityIndex.build(store);
+        }
+    }
+
+    private final int[] out = new int[K];
+    private final int[] distances = new int[K];
+    private final int[] queries = new int[3 * QUERIES];
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Random rnd = new Random(15);
+        for (int i = 0; i < queries.length; i++){
+            queries[i] = rnd.nextInt() | 0xff000000;
+        }
+    }
+
+    private int query(){
+        next = (next + 3) % queries.length;
+        return next;
+    }
+
+    /**
+     * k nearest faces of any hairstyle, through the index
+     */
+    @Benchmark
+    public int[] nearestIndexed(Catalog c) {
+        int q = query();
+        c.index.nearest(queries[q], queries[q + 1], queries[q + 2],
+                FaceSimilarityIndex.ANY_STYLE, out);
+        return out;
+    }
+
+    /**
+     * k nearest faces of one hairstyle, through the index
+     */
+    @Benchmark
+    public int[] nearestOneStyleIndexed(Catalog c) {
+        int q = query();
+        c.index.nearest(queries[q], queries[q + 1], queries[q + 2], 1, out);
+        return out;
+    }
+
+    /**
+     * Every face within a radius, through the index
+     */
+    @Benchmark
+    public int[] withinIndexed(Catalog c) {
+        int q = query();
+        return c.index.within(queries[q], queries[q + 1], queries[q + 2],
+                FaceSimilarityIndex.ANY_STYLE, RADIUS);
+    }
+
+    /**
+     * k nearest faces by scanning every face, keeping the best K in an
+     * insertion-sorted array
+     */
+    @Benchmark
+    public int[] nearestBruteForce(Catalog c) {
+        int q = query();
+        int skin = queries[q], eye = queries[q + 1], hair = queries[q + 2];
+        int[] skins = c.store.skinColors();
+        int[] eyes = c.store.eyeColors();
+        int[] hairs = c.store.hairColors();
+        int found = 0;
+        for (int i = 0; i < skins.length; i++){
+            int d = FaceSimilarityIndex.distance(skins[i], eyes[i], hairs[i],
+                    skin, eye, hair);
+            if (found == K && d >= distances[K - 1]){
+                continue;
+            }
+            int at = found < K ? found++ : K - 1;
+            while (at > 0 && distances[at - 1] > d){
+                distances[at] = distances[at - 1];
+                out[at] = out[at - 1];
+                at--;
+            }
+            distances[at] = d;
+            out[at] = i;
+        }
+        return out;
+    }
+}//class SimilarityBenchmarks
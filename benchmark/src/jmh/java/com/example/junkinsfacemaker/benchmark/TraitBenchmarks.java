@@ -0,0 +1,90 @@
+/**
+ * FaceMaker TraitBenchmarks Class
+ * measures generating and editing face traits: the work behind
+ * Face.randomize(), the bulk generator, and the seek bar color splicing
+ * in FaceController.onProgressChanged and updateSeekBars
+ *
+ * the benchmarks run once per nested class: single-threaded and with
+ * one thread per core
+ *
+ * @version Oct 18 2026
+ * @author Alex Junkins
+ */
+package com.example.junkinsfacemaker.benchmark;
+
+import com.example.junkinsfacemaker.core.FaceBatchGenerator;
+import com.example.junkinsfacemaker.core.FaceColors;
+import com.example.junkinsfacemaker.core.FaceModel;
+import com.example.junkinsfacemaker.core.FaceTraitStore;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+
+@State(Scope.Thread)
+public abstract class TraitBenchmarks {
+    private final Random rnd = new Random(301);
+    private final FaceModel model = new FaceModel();
+    private final FaceTraitStore chunk =
+            new FaceTraitStore(FaceBatchGenerator.CHUNK_SIZE);
+    private int color;
+    private int progress;
+    private long seed;
+
+    @Setup
+    public void setUp() {
+        model.randomize(rnd);
+        color = model.getHairColor();
+    }
+
+    /**
+     * What Face.randomize() does to the traits
+     */
+    @Benchmark
+    public FaceModel randomize() {
+        model.randomize(rnd);
+        return model;
+    }
+
+    /**
+     * The bulk generator, reported per face
+     */
+    @Benchmark
+    @OperationsPerInvocation(FaceBatchGenerator.CHUNK_SIZE)
+    public FaceTraitStore generateChunk() {
+        FaceBatchGenerator.generateChunk(seed++, chunk, 0);
+        return chunk;
+    }
+
+    /**
+     * One seek bar progress event: splice a channel into the color
+     */
+    @Benchmark
+    public int spliceChannel() {
+        progress = (progress + 1) & 0xFF;
+        color = FaceColors.spliceChannel(color, FaceColors.GREEN, progress);
+        return color;
+    }
+
+    /**
+     * updateSeekBars: split the color into its three channels
+     */
+    @Benchmark
+    public void splitChannels(Blackhole bh) {
+        bh.consume(FaceColors.channel(color, FaceColors.RED));
+        bh.consume(FaceColors.channel(color, FaceColors.GREEN));
+        bh.consume(FaceColors.channel(color, FaceColors.BLUE));
+    }
+
+    @Threads(1)
+    public static class SingleThreaded extends TraitBenchmarks { }
+
+    @Threads(Threads.MAX)
+    public static class MultiThreaded extends TraitBenchmarks { }
+}//class TraitBenchmarks
@@ -0,0 +1,244 @@
+/**
+ * FaceMaker ColorPalette Class
+ * a fixed set of colors that other colors can be snapped to, choosing
+ * the palette color that looks closest (smallest delta E)
+ *
+ * palettes can be given directly, or fitted to a set of colors with
+ * k-means in Lab space, e.g. to reduce a catalog to a few hair colors
+ * the palette is immutable, so any number of threads can use it
+ *
+ * @version Oct 18 2026
+ * @author Alex Junkins
+ */
+package com.example.junkinsfacemaker.core;
+
+import java.util.Arrays;
+import java.util.Random;
+
+public final class ColorPalette {
+    //k-means gives up after this many rounds
+    static final int MAX_ITERATIONS = 16;
+    //k-means fits to an even sample of at most this many colors
+    static final int SAMPLE_LIMIT = 1 << 16;
+
+    private final int[] colors;
+    private final float[] l;
+    private final float[] a;
+    private final float[] b;
+
+    /**
+     * Main constructor
+     * @param colors    ARGB hexadecimal colors; they are made opaque
+     */
+    public ColorPalette(int... colors) {
+        if (colors.length == 0){
+            throw new IllegalArgumentException("empty palette");
+        }
+        this.colors = new int[colors.length];
+        for (int i = 0; i < colors.length; i++){
+            this.colors[i] = colors[i] | FaceModel.OPAQUE;
+        }
+        l = new float[colors.length];
+        a = new float[colors.length];
+        b = new float[colors.length];
+        LabColors.toLab(this.colors, 0, colors.length, l, a, b);
+    }
+
+    /**
+     * Fits a palette to a run of colors with k-means in Lab space
+     * the result is deterministic for a given seed
+     *
+     * @param source    ARGB hexadecimal colors
+     * @param from      first index, inclusive
+     * @param to        last index, exclusive
+     * @param size      number of palette colors
+     * @param seed      seeds the choice of starting colors
+     * @return  a palette of at most size colors; fewer if the run doesn't
+     *          have that many different colors
+     */
+    public static ColorPalette fit(int[] source, int from, int to, int size,
+                                   long seed){
+        if (size < 1 || to <= from){
+            throw new IllegalArgumentException("can't fit " + size
+                    + " colors to " + (to - from));
+        }
+        //an even sample keeps big catalogs cheap
+        int step = Math.max(1, (to - from + SAMPLE_LIMIT - 1) / SAMPLE_LIMIT);
+        int n = (to - from + step - 1) / step;
+        int[] sample = new int[n];
+        for (int i = 0; i < n; i++){
+            sample[i] = source[from + i * step];
+        }
+        float[] pl = new float[n], pa = new float[n], pb = new float[n];
+        LabColors.toLab(sample, 0, n, pl, pa, pb);
+
+        float[] cl = new float[size], ca = new float[size],
+                cb = new float[size];
+        int k = seedCenters(pl, pa, pb, n, cl, ca, cb, new Random(seed));
+
+        int[] assigned = new int[n];
+        Arrays.fill(assigned, -1);
+        float[] sumL = new float[k], sumA = new float[k], sumB = new float[k];
+        int[] counts = new int[k];
+        float[] dist = new float[k];
+        for (int round = 0; round < MAX_ITERATIONS; round++){
+            boolean moved = false;
+            Arrays.fill(sumL, 0);
+            Arrays.fill(sumA, 0);
+            Arrays.fill(sumB, 0);
+            Arrays.fill(counts, 0);
+            for (int i = 0; i < n; i++){
+                LabColors.deltaESquared(cl, ca, cb, 0, k,
+                        pl[i], pa[i], pb[i], dist);
+                int best = argMin(dist, k);
+                if (best != assigned[i]){
+                    assigned[i] = best;
+                    moved = true;
+                }
+                sumL[best] += pl[i];
+                sumA[best] += pa[i];
+                sumB[best] += pb[i];
+                counts[best]++;
+            }
+            if (!moved){
+                break;
+            }
+            //a center that lost all its colors stays where it was
+            for (int c = 0; c < k; c++){
+                if (counts[c] > 0){
+                    cl[c] = sumL[c] / counts[c];
+                    ca[c] = sumA[c] / counts[c];
+                    cb[c] = sumB[c] / counts[c];
+                }
+            }
+        }
+        int[] fitted = new int[k];
+        for (int c = 0; c < k; c++){
+            fitted[c] = LabColors.fromLab(cl[c], ca[c], cb[c]);
+        }
+        return new ColorPalette(fitted);
+    }
+
+    //k-means++: each next center is picked with probability proportional
+    //to its squared distance from the nearest center so far
+    private static int seedCenters(float[] pl, float[] pa, float[] pb, int n,
+                                   float[] cl, float[] ca, float[] cb,
+                                   Random rnd){
+        float[] nearest = new float[n];
+        float[] dist = new float[n];
+        int first = rnd.nextInt(n);
+        cl[0] = pl[first];
+        ca[0] = pa[first];
+        cb[0] = pb[first];
+        LabColors.deltaESquared(pl, pa, pb, 0, n, cl[0], ca[0], cb[0],
+                nearest);
+        int k = 1;
+        while (k < cl.length){
+            double total = 0;
+            for (int i = 0; i < n; i++){
+                total += nearest[i];
+            }
+            //every color is already a center
+            if (total == 0){
+                break;
+            }
+            double pick = rnd.nextDouble() * total;
+            int chosen = n - 1;
+            for (int i = 0; i < n; i++){
+                pick -= nearest[i];
+                if (pick < 0){
+                    chosen = i;
+                    break;
+                }
+            }
+            cl[k] = pl[chosen];
+            ca[k] = pa[chosen];
+            cb[k] = pb[chosen];
+            LabColors.deltaESquared(pl, pa, pb, 0, n, cl[k], ca[k], cb[k],
+                    dist);
+            for (int i = 0; i < n; i++){
+                nearest[i] = Math.min(nearest[i], dist[i]);
+            }
+            k++;
+        }
+        return k;
+    }
+
+    private static int argMin(float[] values, int n){
+        int best = 0;
+        for (int i = 1; i < n; i++){
+            if (values[i] < values[best]){
+                best = i;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * A getter for the number of colors
+     * @return  size
+     */
+    public int size() {
+        return colors.length;
+    }
+
+    /**
+     * A getter for one palette color
+     * @param i     palette index
+     * @return  an opaque ARGB hexadecimal color
+     */
+    public int getColor(int i) {
+        return colors[i];
+    }
+
+    /**
+     * Finds the palette color that looks closest to a color
+     * @param color     an ARGB hexadecimal color
+     * @return  the palette index
+     */
+    public int nearestIndex(int color){
+        float[] lab = new float[3];
+        LabColors.toLab(color, lab);
+        return nearestIndex(lab[0], lab[1], lab[2]);
+    }
+
+    private int nearestIndex(float ql, float qa, float qb){
+        int best = 0;
+        float bestDistance = Float.MAX_VALUE;
+        for (int i = 0; i < colors.length; i++){
+            float dl = l[i] - ql;
+            float da = a[i] - qa;
+            float db = b[i] - qb;
+            float d = dl * dl + da * da + db * db;
+            if (d < bestDistance){
+                bestDistance = d;
+                best = i;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Snaps a color to the palette
+     * @param color     an ARGB hexadecimal color
+     * @return  the palette color that looks closest
+     */
+    public int snap(int color){
+        return colors[nearestIndex(color)];
+    }
+
+    /**
+     * Snaps a run of colors to the palette, in place
+     *
+     * @param colors    ARGB hexadecimal colors
+     * @param from      first index, inclusive
+     * @param to        last index, exclusive
+     */
+    public void snap(int[] colors, int from, int to){
+        float[] lab = new float[3];
+        for (int i = from; i < to; i++){
+            LabColors.toLab(colors[i], lab);
+            colors[i] = this.colors[nearestIndex(lab[0], lab[1], lab[2])];
+        }
+    }
+}//class ColorPalette
@@ -0,0 +1,541 @@
+/**
+ * FaceMaker FaceAnimator Class
+ * animates many faces at once: trait changes ease from the old traits to
+ * the new ones instead of snapping, and idle faces blink and look around
+ *
+ * time moves in fixed ticks of TICK_NANOS, whatever the frame rate:
+ * advance() is given frame times from one shared clock and runs as many
+ * whole ticks as have passed, so every face moves the same way on a slow
+ * device as on a fast one, and a stall cannot make the faces jump
+ * further than MAX_TICKS_PER_ADVANCE ticks
+ * colors are interpolated in Lab, so a change looks even all the way
+ * through instead of passing through muddy RGB midpoints; a hairstyle
+ * change cross-fades the old hair into the new
+ *
+ * the state of every face lives in parallel arrays sized up front, and
+ * the traits currently shown are kept in a FaceTraitStore, so advancing
+ * and drawing allocate nothing. blinks and glances come from the
+ * animator's own seeded random numbers
+ * not thread-safe
+ *
+ * @version Oct 18 2026
+ * @author Alex Junkins
+ */
+package com.example.junkinsfacemaker.core;
+
+public final class FaceAnimator {
+    //60 ticks a second
+    public static final long TICK_NANOS = 1000000000L / 60;
+    //the most ticks one advance() runs; the rest of a stall is dropped
+    public static final int MAX_TICKS_PER_ADVANCE = 4;
+
+    //length of each kind of motion, in ticks
+    public static final int COLOR_TICKS = 15;
+    public static final int STYLE_TICKS = 12;
+    public static final int BLINK_TICKS = 8;
+    //time between blinks and between glances, in ticks
+    private static final int MIN_BLINK_GAP = 120;
+    private static final int MAX_BLINK_GAP = 360;
+    private static final int MIN_GLANCE_GAP = 60;
+    private static final int MAX_GLANCE_GAP = 240;
+    //share of the way to a glance target the pupils move each tick
+    private static final float GLANCE_RATE = .25f;
+
+    //the traits, in the order their Lab values are stored
+    private static final int SKIN = 0;
+    private static final int EYES = 1;
+    private static final int HAIR = 2;
+    private static final int TRAITS = 3;
+
+    private final int capacity;
+    private int count;
+
+    //what each face shows right now
+    private final FaceTraitStore shown;
+
+    //color transitions: Lab at the start and the end, trait * capacity + i
+    private final float[] fromL;
+    private final float[] fromA;
+    private final float[] fromB;
+    private final float[] toL;
+    private final float[] toA;
+    private final float[] toB;
+    //where each face's target colors are, COLOR_TICKS when they are there
+    private final int[] colorTicks;
+    private final int[] targetColors;
+
+    //hairstyle cross-fades
+    private final int[] fromStyles;
+    private final int[] styleTicks;
+
+    //blinks: ticks to the next one, then ticks into it
+    private final int[] blinkWaits;
+    private final int[] blinkTicks;
+
+    //where the pupils look, and where they are headed
+    private final float[] gazeX;
+    private final float[] gazeY;
+    private final float[] glanceX;
+    private final float[] glanceY;
+    private final int[] glanceWaits;
+
+    //whether a face looks different after the last advance, and whether
+    //it was changed from outside since
+    private final boolean[] changed;
+    private final boolean[] edited;
+
+    private final float[] lab = new float[3];
+    private long seed;
+    private long lastFrameNanos = Long.MIN_VALUE;
+    private long pendingNanos;
+    private long ticks;
+    //ticks in which nothing moves, as of the last advance
+    private int restTicks;
+
+    //frame buffer for the outgoing hairstyle of a cross-fade
+    private int[] fadeScratch = new int[0];
+
+    /**
+     * Main constructor
+     *
+     * @param capacity  the most faces animated
+     * @param seed      seed of the blinks and glances
+     */
+    public FaceAnimator(int capacity, long seed) {
+        if (capacity < 0){
+            throw new IllegalArgumentException("capacity " + capacity);
+        }
+        this.capacity = capacity;
+        //xorshift needs a seed that is not zero
+        this.seed = (seed ^ 0x9E3779B97F4A7C15L) | 1;
+        shown = new FaceTraitStore(capacity);
+        fromL = new float[TRAITS * capacity];
+        fromA = new float[TRAITS * capacity];
+        fromB = new float[TRAITS * capacity];
+        toL = new float[TRAITS * capacity];
+        toA = new float[TRAITS * capacity];
+        toB = new float[TRAITS * capacity];
+        colorTicks = new int[capacity];
+        targetColors = new int[TRAITS * capacity];
+        fromStyles = new int[capacity];
+        styleTicks = new int[capacity];
+        blinkWaits = new int[capacity];
+        blinkTicks = new int[capacity];
+        gazeX = new float[capacity];
+        gazeY = new float[capacity];
+        glanceX = new float[capacity];
+        glanceY = new float[capacity];
+        glanceWaits = new int[capacity];
+        changed = new boolean[capacity];
+        edited = new boolean[capacity];
+    }
+
+    /**
+     * Adds a face, shown with its traits right away
+     *
+     * @param skin      an ARGB hexadecimal color
+     * @param eye       an ARGB hexadecimal color
+     * @param hair      an ARGB hexadecimal color
+     * @param style     hairstyle id
+     * @return  the face's index
+     */
+    public int add(int skin, int eye, int hair, int style){
+        if (count == capacity){
+            throw new IllegalStateException("full: " + capacity);
+        }
+        int i = count++;
+        snapTo(i, skin, eye, hair, style);
+        blinkWaits[i] = nextInt(MIN_BLINK_GAP, MAX_BLINK_GAP);
+        blinkTicks[i] = BLINK_TICKS;
+        glanceWaits[i] = nextInt(MIN_GLANCE_GAP, MAX_GLANCE_GAP);
+        return i;
+    }
+
+    /**
+     * Shows new traits right away, ending any transition, e.g. for seek
+     * bar edits that already change in small steps
+     *
+     * @param i         face index
+     * @param skin      an ARGB hexadecimal color
+     * @param eye       an ARGB hexadecimal color
+     * @param hair      an ARGB hexadecimal color
+     * @param style     hairstyle id
+     */
+    public void snapTo(int i, int skin, int eye, int hair, int style){
+        shown.set(i, skin, eye, hair, style);
+        targetColors[SKIN * capacity + i] = skin;
+        targetColors[EYES * capacity + i] = eye;
+        targetColors[HAIR * capacity + i] = hair;
+        colorTicks[i] = COLOR_TICKS;
+        fromStyles[i] = style;
+        styleTicks[i] = STYLE_TICKS;
+        edited[i] = true;
+    }
+
+    /**
+     * Starts easing a face from what it shows now to new traits
+     * a transition already under way starts over from where it got to
+     *
+     * @param i         face index
+     * @param skin      an ARGB hexadecimal color
+     * @param eye       an ARGB hexadecimal color
+     * @param hair      an ARGB hexadecimal color
+     * @param style     hairstyle id
+     */
+    public void animateTo(int i, int skin, int eye, int hair, int style){
+        startColor(SKIN, i, shown.getSkinColor(i), skin);
+        startColor(EYES, i, shown.getEyeColor(i), eye);
+        startColor(HAIR, i, shown.getHairColor(i), hair);
+        colorTicks[i] = 0;
+        int current = shown.getHairStyle(i);
+        if (style != current){
+            //a fade under way jumps to its end rather than fading out a
+            //style that was only half shown
+            fromStyles[i] = current;
+            styleTicks[i] = 0;
+            shown.set(i, shown.getSkinColor(i), shown.getEyeColor(i),
+                    shown.getHairColor(i), style);
+        }
+        edited[i] = true;
+    }
+
+    private void startColor(int trait, int i, int from, int to){
+        int t = trait * capacity + i;
+        targetColors[t] = to;
+        LabColors.toLab(from, lab);
+        fromL[t] = lab[0];
+        fromA[t] = lab[1];
+        fromB[t] = lab[2];
+        LabColors.toLab(to, lab);
+        toL[t] = lab[0];
+        toA[t] = lab[1];
+        toB[t] = lab[2];
+    }
+
+    /**
+     * Moves every face on to a frame time from the shared clock
+     * the first call only starts the clock. ticks in which nothing was
+     * moving only count down to the next blink or glance, so a clock
+     * that slept through them loses none
+     *
+     * @param frameTimeNanos    the frame's time, e.g. a vsync time
+     * @return  the number of ticks stepped through, not counting the
+     *          ticks skipped while nothing moved
+     */
+    public int advance(long frameTimeNanos){
+        for (int i = 0; i < count; i++){
+            changed[i] = edited[i];
+            edited[i] = false;
+        }
+        if (lastFrameNanos == Long.MIN_VALUE){
+            lastFrameNanos = frameTimeNanos;
+            restTicks = getIdleTicks();
+            return 0;
+        }
+        pendingNanos += Math.max(0, frameTimeNanos - lastFrameNanos);
+        lastFrameNanos = frameTimeNanos;
+        //the last tick due is always stepped, so an edit starts on it
+        int rest = (int)Math.max(0,
+                Math.min(pendingNanos / TICK_NANOS - 1, restTicks));
+        skip(rest);
+        pendingNanos -= rest * TICK_NANOS;
+        int run = (int)Math.min(pendingNanos / TICK_NANOS,
+                MAX_TICKS_PER_ADVANCE);
+        if (run == MAX_TICKS_PER_ADVANCE){
+            pendingNanos = 0;
+        }
+        else {
+            pendingNanos -= run * TICK_NANOS;
+        }
+        for (int tick = 0; tick < run; tick++){
+            step();
+        }
+        restTicks = getIdleTicks();
+        return run;
+    }
+
+    /**
+     * A getter for how long nothing will move, e.g. for a clock to sleep
+     * until the next blink or glance instead of running every frame
+     *
+     * @return  ticks in which every face stays as it is, 0 while any
+     *          face moves, Integer.MAX_VALUE with no faces
+     */
+    public int getIdleTicks(){
+        int idle = Integer.MAX_VALUE;
+        for (int i = 0; i < count; i++){
+            if (isTransitioning(i) || blinkTicks[i] < BLINK_TICKS
+                    || gazeX[i] != glanceX[i] || gazeY[i] != glanceY[i]){
+                return 0;
+            }
+            //the tick a wait runs out on starts the blink or glance
+            idle = Math.min(idle,
+                    Math.min(blinkWaits[i], glanceWaits[i]) - 1);
+        }
+        return Math.max(0, idle);
+    }
+
+    /**
+     * A helper method to run ticks in which nothing moves
+     * only the waits count down, as they would in step()
+     */
+    private void skip(int run){
+        if (run == 0){
+            return;
+        }
+        ticks += run;
+        for (int i = 0; i < count; i++){
+            blinkWaits[i] -= run;
+            glanceWaits[i] -= run;
+        }
+    }
+
+    /**
+     * Moves every face on by one tick
+     */
+    public void step(){
+        ticks++;
+        for (int i = 0; i < count; i++){
+            if (colorTicks[i] < COLOR_TICKS){
+                colorTicks[i]++;
+                stepColors(i);
+                changed[i] = true;
+            }
+            if (styleTicks[i] < STYLE_TICKS){
+                styleTicks[i]++;
+                changed[i] = true;
+            }
+            if (blinkTicks[i] < BLINK_TICKS){
+                blinkTicks[i]++;
+                changed[i] = true;
+            }
+            else if (--blinkWaits[i] <= 0){
+                blinkTicks[i] = 0;
+                blinkWaits[i] = nextInt(MIN_BLINK_GAP, MAX_BLINK_GAP);
+            }
+            if (--glanceWaits[i] <= 0){
+                //mostly small glances, back near the middle half the time
+                boolean center = nextLong() < 0;
+                glanceX[i] = center ? 0 : nextFloat() * 2 - 1;
+                glanceY[i] = center ? 0 : nextFloat() - .5f;
+                glanceWaits[i] = nextInt(MIN_GLANCE_GAP, MAX_GLANCE_GAP);
+            }
+            float dx = glanceX[i] - gazeX[i];
+            float dy = glanceY[i] - gazeY[i];
+            if (dx != 0 || dy != 0){
+                //close enough snaps, so resting pupils stop redrawing
+                if (Math.abs(dx) < .01f && Math.abs(dy) < .01f){
+                    gazeX[i] = glanceX[i];
+                    gazeY[i] = glanceY[i];
+                }
+                else {
+                    gazeX[i] += dx * GLANCE_RATE;
+                    gazeY[i] += dy * GLANCE_RATE;
+                }
+                changed[i] = true;
+            }
+        }
+    }
+
+    /**
+     * A helper method to set a face's shown colors along its transition
+     */
+    private void stepColors(int i){
+        if (colorTicks[i] == COLOR_TICKS){
+            //land exactly on the targets, not on a Lab round trip of them
+            shown.set(i, targetColors[SKIN * capacity + i],
+                    targetColors[EYES * capacity + i],
+                    targetColors[HAIR * capacity + i],
+                    shown.getHairStyle(i));
+            return;
+        }
+        float t = ease((float)colorTicks[i] / COLOR_TICKS);
+        shown.set(i, mix(SKIN * capacity + i, t), mix(EYES * capacity + i, t),
+                mix(HAIR * capacity + i, t), shown.getHairStyle(i));
+    }
+
+    private int mix(int t, float f){
+        return LabColors.fromLab(fromL[t] + f * (toL[t] - fromL[t]),
+                fromA[t] + f * (toA[t] - fromA[t]),
+                fromB[t] + f * (toB[t] - fromB[t]));
+    }
+
+    //smoothstep: starts and ends at rest
+    private static float ease(float t){
+        return t * t * (3 - 2 * t);
+    }
+
+    /**
+     * Draws one face as it is now, cross-fading hairstyles if a change is
+     * under way
+     *
+     * @param i             face index
+     * @param rasterizer    draws the face
+     * @param background    color of uncovered pixels
+     * @param fb            the framebuffer
+     * @param offset        index of the image's top-left pixel in fb
+     * @param stride        ints from one fb row to the next
+     */
+    public void render(int i, FaceRasterizer rasterizer, int background,
+                       int[] fb, int offset, int stride){
+        int skin = shown.getSkinColor(i);
+        int eye = shown.getEyeColor(i);
+        int hair = shown.getHairColor(i);
+        float lid = getLid(i);
+        rasterizer.render(skin, eye, hair, shown.getHairStyle(i), lid,
+                gazeX[i], gazeY[i], background, fb, offset, stride);
+        if (styleTicks[i] >= STYLE_TICKS){
+            return;
+        }
+
+        //the old style drawn on the side, then blended under the new one
+        int width = rasterizer.getWidth();
+        int height = rasterizer.getHeight();
+        if (fadeScratch.length < width * height){
+            fadeScratch = new int[width * height];
+        }
+        int[] old = fadeScratch;
+        rasterizer.render(skin, eye, hair, fromStyles[i], lid, gazeX[i],
+                gazeY[i], background, old, 0, width);
+        int weight = (int)(256 * ease((float)styleTicks[i] / STYLE_TICKS));
+        for (int y = 0; y < height; y++){
+            int row = offset + y * stride;
+            int oldRow = y * width;
+            for (int x = 0; x < width; x++){
+                int a = old[oldRow + x];
+                int b = fb[row + x];
+                if (a != b){
+                    fb[row + x] = blend(a, b, weight);
+                }
+            }
+        }
+    }
+
+    /**
+     * Mixes two ARGB colors, two channels per multiply
+     *
+     * @param a         the color at weight 0
+     * @param b         the color at weight 256
+     * @param weight    0-256
+     * @return  the mix
+     */
+    static int blend(int a, int b, int weight){
+        int inverse = 256 - weight;
+        int rb = (((a & 0x00ff00ff) * inverse + (b & 0x00ff00ff) * weight)
+                >>> 8) & 0x00ff00ff;
+        int ag = (((a >>> 8) & 0x00ff00ff) * inverse
+                + ((b >>> 8) & 0x00ff00ff) * weight) & 0xff00ff00;
+        return ag | rb;
+    }
+
+    /**
+     * A getter for the traits each face shows right now; hairstyles are
+     * the new ones as soon as a cross-fade starts
+     * @return  the shown traits, which must not be modified
+     */
+    public FaceTraitStore getShownTraits() {
+        return shown;
+    }
+
+    /**
+     * A getter for how far a face's eyelids are closed
+     * @param i     face index
+     * @return  0 (open) to 1 (closed)
+     */
+    public float getLid(int i){
+        int tick = blinkTicks[i];
+        if (tick >= BLINK_TICKS){
+            return 0;
+        }
+        //down and back up again
+        float t = (float)tick / BLINK_TICKS;
+        return 1 - Math.abs(2 * t - 1);
+    }
+
+    /**
+     * A getter for where a face's pupils look, sideways
+     * @param i     face index
+     * @return  -1 (left) to 1 (right)
+     */
+    public float getGazeX(int i){
+        return gazeX[i];
+    }
+
+    /**
+     * A getter for where a face's pupils look, up and down
+     * @param i     face index
+     * @return  -1 (up) to 1 (down)
+     */
+    public float getGazeY(int i){
+        return gazeY[i];
+    }
+
+    /**
+     * A getter for how far a face's hairstyle cross-fade has got
+     * @param i     face index
+     * @return  0 (all old style) to 1 (all new style, or no fade)
+     */
+    public float getStyleFade(int i){
+        return ease((float)styleTicks[i] / STYLE_TICKS);
+    }
+
+    /**
+     * A getter for the style a face is fading away from
+     * @param i     face index
+     * @return  hairstyle id; the shown style once the fade is over
+     */
+    public int getFadingStyle(int i){
+        return styleTicks[i] < STYLE_TICKS ? fromStyles[i]
+                : shown.getHairStyle(i);
+    }
+
+    /**
+     * A getter for whether a face is still easing to its traits
+     * @param i     face index
+     * @return  true during a color transition or hairstyle cross-fade
+     */
+    public boolean isTransitioning(int i){
+        return colorTicks[i] < COLOR_TICKS || styleTicks[i] < STYLE_TICKS;
+    }
+
+    /**
+     * A getter for whether a face looks different since the last advance
+     * @param i     face index
+     * @return  true if it needs drawing again
+     */
+    public boolean hasChanged(int i){
+        return changed[i];
+    }
+
+    /**
+     * A getter for the number of faces
+     * @return  count
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * A getter for the number of ticks run so far
+     * @return  ticks
+     */
+    public long getTicks() {
+        return ticks;
+    }
+
+    //xorshift64*, so blinks and glances allocate nothing
+    private long nextLong(){
+        seed ^= seed << 13;
+        seed ^= seed >>> 7;
+        seed ^= seed << 17;
+        return seed * 0x2545F4914F6CDD1DL;
+    }
+
+    private int nextInt(int min, int max){
+        return min + (int)((nextLong() >>> 33) % (max - min + 1));
+    }
+
+    private float nextFloat(){
+        return (nextLong() >>> 40) / (float)(1 << 24);
+    }
+}//class FaceAnimator
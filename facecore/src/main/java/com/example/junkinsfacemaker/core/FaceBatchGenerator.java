@@ -0,0 +1,184 @@
+/**
+ * FaceMaker FaceBatchGenerator Class
+ * fills a FaceTraitStore with random faces, using every core
+ *
+ * faces are generated in fixed-size chunks, and each chunk gets its own
+ * SplittableRandom seeded from (seed, chunk index). The output for a
+ * seed is therefore the same no matter how many threads run or in which
+ * order the chunks finish
+ * faces follow the app's rule, FaceModel.randomizeRealistic: a realistic
+ * skin tone and random opaque eye and hair colors; uniform skin colors,
+ * as FaceModel.randomize picks, can be asked for instead
+ *
+ * @version Oct 18 2026
+ * @author Alex Junkins
+ */
+package com.example.junkinsfacemaker.core;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+public class FaceBatchGenerator {
+    //faces per chunk; big enough to amortize task overhead
+    public static final int CHUNK_SIZE = 1 << 16;
+    //generateUnique gives up after this many rounds without a new face
+    static final int MAX_STALLED_ROUNDS = 16;
+
+    private final ForkJoinPool pool;
+    private boolean realisticSkin = true;
+
+    /**
+     * Default constructor
+     * runs on the common fork-join pool
+     */
+    public FaceBatchGenerator() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Pool constructor
+     * @param pool  the pool the chunks run on
+     */
+    public FaceBatchGenerator(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Chooses the skin rule of the faces generated from now on
+     * @param realistic     true for SkinTones, false for any opaque color
+     */
+    public void setRealisticSkin(boolean realistic){
+        realisticSkin = realistic;
+    }
+
+    /**
+     * A getter for the skin rule
+     * @return  true if skins are realistic tones
+     */
+    public boolean isRealisticSkin() {
+        return realisticSkin;
+    }
+
+    /**
+     * Generates a new store of random faces
+     *
+     * @param seed      the seed; equal seeds give equal stores
+     * @param count     number of faces
+     * @return  the generated faces
+     */
+    public FaceTraitStore generate(long seed, int count){
+        FaceTraitStore store = new FaceTraitStore(count);
+        generate(seed, store);
+        return store;
+    }
+
+    /**
+     * Overwrites every face in a store with random faces
+     *
+     * @param seed      the seed; equal seeds give equal stores
+     * @param store     the store to fill
+     */
+    public void generate(long seed, FaceTraitStore store){
+        int chunks = (store.size() + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        boolean realistic = realisticSkin;
+        if (chunks <= 1){
+            generateChunk(seed, store, 0, realistic);
+            return;
+        }
+        //running the parallel stream from inside the pool keeps its
+        //tasks in that pool
+        pool.submit(() -> IntStream.range(0, chunks).parallel().forEach(
+                chunk -> generateChunk(seed, store, chunk, realistic)))
+                .join();
+    }
+
+    /**
+     * Generates a new store of random faces with no duplicates
+     * faces are generated as by generate(), passed through the dedup stage
+     * in order, and topped up with more rounds until there are enough, so
+     * the result is still the same for a seed
+     *
+     * @param seed      the seed; equal seeds give equal stores
+     * @param count     number of faces
+     * @param dedup     the dedup stage; also remembers these faces after
+     * @return  the generated faces
+     * @throws IllegalStateException    if the stage rejects whole rounds,
+     *                                  e.g. because its tolerance leaves
+     *                                  fewer distinct looks than count
+     */
+    public FaceTraitStore generateUnique(long seed, int count,
+                                         FaceDeduplicator dedup){
+        FaceTraitStore store = new FaceTraitStore(count);
+        int filled = 0;
+        int stalled = 0;
+        for (int round = 0; filled < count; round++){
+            long roundSeed = round == 0 ? seed : chunkSeed(seed, -round);
+            int before = filled;
+            filled = dedup.filterInto(generate(roundSeed, count - filled),
+                    store, filled);
+            stalled = filled == before ? stalled + 1 : 0;
+            if (stalled == MAX_STALLED_ROUNDS){
+                throw new IllegalStateException("only " + filled
+                        + " distinct faces found: " + dedup);
+            }
+        }
+        return store;
+    }
+
+    /**
+     * Generates one chunk of faces on the calling thread, with realistic
+     * skin tones
+     *
+     * @param seed      the store's seed
+     * @param store     the store to fill
+     * @param chunk     chunk index
+     */
+    public static void generateChunk(long seed, FaceTraitStore store,
+                                     int chunk){
+        generateChunk(seed, store, chunk, true);
+    }
+
+    /**
+     * Generates one chunk of faces on the calling thread
+     *
+     * @param seed      the store's seed
+     * @param store     the store to fill
+     * @param chunk     chunk index
+     * @param realistic true for SkinTones, false for any opaque skin color
+     */
+    public static void generateChunk(long seed, FaceTraitStore store,
+                                     int chunk, boolean realistic){
+        SplittableRandom rnd = new SplittableRandom(chunkSeed(seed, chunk));
+        int from = chunk * CHUNK_SIZE;
+        int to = Math.min(from + CHUNK_SIZE, store.size());
+        int[] skin = store.skinColors();
+        int[] eye = store.eyeColors();
+        int[] hair = store.hairColors();
+        int[] style = store.hairStyles();
+        int styles = HairstyleRegistry.getDefault().size();
+        for (int i = from; i < to; i++){
+            //same rules as FaceModel.randomizeRealistic and randomize
+            skin[i] = realistic ? SkinTones.sample(rnd)
+                    : rnd.nextInt(FaceModel.COLOR_RANGE) + FaceModel.OPAQUE;
+            eye[i] = rnd.nextInt(FaceModel.COLOR_RANGE) + FaceModel.OPAQUE;
+            hair[i] = rnd.nextInt(FaceModel.COLOR_RANGE) + FaceModel.OPAQUE;
+            style[i] = rnd.nextInt(styles);
+        }
+    }
+
+    /**
+     * Derives a chunk's seed from the store's seed
+     * uses the SplitMix64 finalizer so neighbouring chunks are unrelated
+     *
+     * @param seed      the store's seed
+     * @param chunk     chunk index
+     * @return  the chunk's seed
+     */
+    static long chunkSeed(long seed, int chunk){
+        long z = seed + (chunk + 1) * 0x9e3779b97f4a7c15L;
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}//class FaceBatchGenerator
@@ -0,0 +1,144 @@
+/**
+ * FaceMaker FaceBloomFilter Class
+ * a Bloom filter over long keys: a set that may wrongly claim to contain
+ * a key it has never seen, at a chosen rate, but never misses one it has
+ *
+ * it is sized from the number of keys expected and the false positive
+ * rate wanted, using the standard formulas
+ *   bits   m = -n ln(p) / ln(2)^2
+ *   hashes k = m / n ln(2)
+ * and the k bit positions come from two hashes of the key combined as
+ * h1 + i * h2 (Kirsch and Mitzenmacher)
+ * not thread-safe
+ *
+ * @version Oct 18 2026
+ * @author Alex Junkins
+ */
+package com.example.junkinsfacemaker.core;
+
+public final class FaceBloomFilter {
+    private final long[] words;
+    private final long bitCount;
+    private final int hashCount;
+    private long inserted;
+
+    /**
+     * Main constructor
+     *
+     * @param expected          keys the filter will hold
+     * @param falsePositiveRate wanted rate once that many are in, e.g. 0.01
+     */
+    public FaceBloomFilter(long expected, double falsePositiveRate) {
+        if (expected < 1 || !(falsePositiveRate > 0 && falsePositiveRate < 1)){
+            throw new IllegalArgumentException("can't size a filter for "
+                    + expected + " keys at rate " + falsePositiveRate);
+        }
+        long bits = bitsFor(expected, falsePositiveRate);
+        long numWords = (bits + 63) / 64;
+        if (numWords > Integer.MAX_VALUE - 8){
+            throw new IllegalArgumentException("filter too large: " + bits);
+        }
+        words = new long[(int)numWords];
+        bitCount = 64 * numWords;
+        hashCount = Math.max(1,
+                (int)Math.round((double)bitCount / expected * Math.log(2)));
+    }
+
+    /**
+     * The bits a filter needs
+     *
+     * @param expected          keys the filter will hold
+     * @param falsePositiveRate wanted rate once that many are in
+     * @return  bits
+     */
+    public static long bitsFor(long expected, double falsePositiveRate){
+        double ln2 = Math.log(2);
+        return Math.max(64, (long)Math.ceil(
+                -expected * Math.log(falsePositiveRate) / (ln2 * ln2)));
+    }
+
+    //a second, independent-looking hash of the key
+    private static long rehash(long key){
+        long z = key ^ 0x5851f42d4c957f2dL;
+        z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+        z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return (z ^ (z >>> 33)) | 1;
+    }
+
+    /**
+     * Adds a key
+     * @param key   the key, ideally already well mixed
+     * @return  true if the key was certainly not in the filter before
+     */
+    public boolean put(long key){
+        long h2 = rehash(key);
+        long combined = key;
+        boolean changed = false;
+        for (int i = 0; i < hashCount; i++){
+            long bit = (combined & Long.MAX_VALUE) % bitCount;
+            int w = (int)(bit >>> 6);
+            long mask = 1L << bit;
+            if ((words[w] & mask) == 0){
+                words[w] |= mask;
+                changed = true;
+            }
+            combined += h2;
+        }
+        if (changed){
+            inserted++;
+        }
+        return changed;
+    }
+
+    /**
+     * Checks for a key
+     * @param key   the key
+     * @return  false if the key was never added; true if it probably was
+     */
+    public boolean mightContain(long key){
+        long h2 = rehash(key);
+        long combined = key;
+        for (int i = 0; i < hashCount; i++){
+            long bit = (combined & Long.MAX_VALUE) % bitCount;
+            if ((words[(int)(bit >>> 6)] & (1L << bit)) == 0){
+                return false;
+            }
+            combined += h2;
+        }
+        return true;
+    }
+
+    /**
+     * The chance that the next new key is wrongly reported as seen, given
+     * how many keys are in
+     * @return  the rate, 0-1
+     */
+    public double getFalsePositiveRate() {
+        return Math.pow(1 - Math.exp(-(double)hashCount * inserted / bitCount),
+                hashCount);
+    }
+
+    /**
+     * A getter for the number of hash functions
+     * @return  k
+     */
+    public int getHashCount() {
+        return hashCount;
+    }
+
+    /**
+     * A getter for the size of the bit array
+     * @return  m
+     */
+    public long getBitCount() {
+        return bitCount;
+    }
+
+    /**
+     * A getter for the memory the bits take
+     * @return  bytes
+     */
+    public long getMemoryBytes() {
+        return 8L * words.length;
+    }
+}//class FaceBloomFilter
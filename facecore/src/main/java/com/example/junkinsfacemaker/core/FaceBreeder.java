@@ -0,0 +1,402 @@
+/**
+ * FaceMaker FaceBreeder Class
+ * breeds new faces from old ones instead of starting from scratch: each
+ * generation, every child gets two parents picked by tournament on a
+ * pluggable FaceFitness, takes each RGB channel of each color from one
+ * parent or the other, takes one parent's hairstyle, and then has some
+ * channels nudged by Gaussian noise
+ * the fittest face of each generation is carried over unchanged, so the
+ * best score never goes down
+ *
+ * populations live in FaceTraitStores and scores in a float array, two
+ * of each swapped every generation, so breeding millions of faces makes
+ * no object per face. children are bred and scored in parallel chunks of
+ * FaceBatchGenerator.CHUNK_SIZE, each with its own SplittableRandom
+ * seeded from (seed, generation, chunk), so a run is the same for a seed
+ * however many threads it gets
+ *
+ * @version Oct 18 2026
+ * @author Alex Junkins
+ */
+package com.example.junkinsfacemaker.core;
+
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+public class FaceBreeder {
+    public static final int CHUNK_SIZE = FaceBatchGenerator.CHUNK_SIZE;
+    public static final double DEFAULT_MUTATION_RATE = .05;
+    public static final double DEFAULT_MUTATION_SIGMA = 12;
+    public static final int DEFAULT_TOURNAMENT_SIZE = 3;
+
+    /**
+     * Told about every finished generation
+     */
+    public interface Listener {
+        /**
+         * Called on the thread that called evolve
+         * @param stats     the generation's scores and speed
+         */
+        void onGeneration(GenerationStats stats);
+    }
+
+    private final FaceFitness fitness;
+    private final ForkJoinPool pool;
+    private double mutationRate = DEFAULT_MUTATION_RATE;
+    private double mutationSigma = DEFAULT_MUTATION_SIGMA;
+    private int tournamentSize = DEFAULT_TOURNAMENT_SIZE;
+
+    /**
+     * Default constructor
+     * runs on the common fork-join pool
+     *
+     * @param fitness   scores the faces
+     */
+    public FaceBreeder(FaceFitness fitness) {
+        this(fitness, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Pool constructor
+     *
+     * @param fitness   scores the faces
+     * @param pool      the pool the chunks run on
+     */
+    public FaceBreeder(FaceFitness fitness, ForkJoinPool pool) {
+        this.fitness = fitness;
+        this.pool = pool;
+    }
+
+    /**
+     * Sets how children are mutated
+     *
+     * @param rate      chance of each of a child's nine color channels
+     *                  being nudged, 0-1
+     * @param sigma     standard deviation of a nudge, in channel steps
+     */
+    public void setMutation(double rate, double sigma){
+        if (rate < 0 || rate > 1 || sigma < 0){
+            throw new IllegalArgumentException("bad mutation: " + rate
+                    + ", " + sigma);
+        }
+        mutationRate = rate;
+        mutationSigma = sigma;
+    }
+
+    /**
+     * Sets how hard parents are selected
+     * @param size  faces drawn per tournament; 1 picks parents at random
+     */
+    public void setTournamentSize(int size){
+        if (size < 1){
+            throw new IllegalArgumentException("bad tournament size: "
+                    + size);
+        }
+        tournamentSize = size;
+    }
+
+    /**
+     * Breeds a population for a number of generations
+     * the population passed in is not changed
+     *
+     * @param seed          the seed; equal seeds give equal runs
+     * @param population    the first generation
+     * @param generations   generations to breed
+     * @param listener      told about each generation, or null
+     * @return  the last generation
+     */
+    public FaceTraitStore evolve(long seed, FaceTraitStore population,
+                                 int generations, Listener listener){
+        int n = population.size();
+        FaceTraitStore parents = new FaceTraitStore(n);
+        FaceTraitStore children = new FaceTraitStore(n);
+        copy(population, parents);
+        float[] parentScores = new float[n];
+        float[] childScores = new float[n];
+        score(parents, parentScores);
+        for (int g = 0; g < generations; g++){
+            GenerationStats stats = breed(seed, g, parents, parentScores,
+                    children, childScores);
+            if (listener != null){
+                listener.onGeneration(stats);
+            }
+            FaceTraitStore faces = parents;
+            parents = children;
+            children = faces;
+            float[] scores = parentScores;
+            parentScores = childScores;
+            childScores = scores;
+        }
+        return parents;
+    }
+
+    /**
+     * Scores a whole population, in parallel chunks
+     *
+     * @param faces     the population
+     * @param scores    receives each face's score
+     */
+    public void score(FaceTraitStore faces, float[] scores){
+        int chunks = chunksOf(faces.size());
+        run(chunks, chunk -> fitness.score(faces, chunk * CHUNK_SIZE,
+                Math.min((chunk + 1) * CHUNK_SIZE, faces.size()), scores));
+    }
+
+    /**
+     * Breeds and scores one generation
+     *
+     * @param seed          the run's seed
+     * @param generation    the generation's number, from 0
+     * @param parents       the current generation
+     * @param parentScores  the current generation's scores
+     * @param children      receives the next generation; same size
+     * @param childScores   receives the next generation's scores
+     * @return  the next generation's scores and how long it took
+     */
+    public GenerationStats breed(long seed, int generation,
+                                 FaceTraitStore parents, float[] parentScores,
+                                 FaceTraitStore children,
+                                 float[] childScores){
+        int n = parents.size();
+        if (children.size() != n || n == 0){
+            throw new IllegalArgumentException("bad population sizes: " + n
+                    + ", " + children.size());
+        }
+        long start = System.nanoTime();
+        int elite = fittest(parentScores, n);
+        long generationSeed = FaceBatchGenerator.chunkSeed(seed,
+                -1 - generation);
+        int chunks = chunksOf(n);
+        run(chunks, chunk -> {
+            int from = chunk * CHUNK_SIZE;
+            int to = Math.min(from + CHUNK_SIZE, n);
+            breedChunk(new SplittableRandom(
+                    FaceBatchGenerator.chunkSeed(generationSeed, chunk)),
+                    parents, parentScores, children, from, to);
+            fitness.score(children, from, to, childScores);
+        });
+        //the fittest parent lives on in the first slot
+        children.set(0, parents.getSkinColor(elite),
+                parents.getEyeColor(elite), parents.getHairColor(elite),
+                parents.getHairStyle(elite));
+        childScores[0] = parentScores[elite];
+
+        //summed in index order, so the mean is the same on any pool
+        float best = childScores[0];
+        double total = 0;
+        for (int i = 0; i < n; i++){
+            best = Math.max(best, childScores[i]);
+            total += childScores[i];
+        }
+        return new GenerationStats(generation, n, best, (float)(total / n),
+                System.nanoTime() - start);
+    }
+
+    /**
+     * A helper method to breed one chunk of children
+     */
+    private void breedChunk(SplittableRandom rnd, FaceTraitStore parents,
+                            float[] scores, FaceTraitStore children,
+                            int from, int to){
+        int[] skinIn = parents.skinColors();
+        int[] eyeIn = parents.eyeColors();
+        int[] hairIn = parents.hairColors();
+        int[] styleIn = parents.hairStyles();
+        int[] skinOut = children.skinColors();
+        int[] eyeOut = children.eyeColors();
+        int[] hairOut = children.hairColors();
+        int[] styleOut = children.hairStyles();
+        int n = parents.size();
+        for (int i = from; i < to; i++){
+            int mom = select(rnd, scores, n);
+            int dad = select(rnd, scores, n);
+            //one bit per channel picks the parent, one more the hairstyle
+            int genes = rnd.nextInt();
+            skinOut[i] = mutate(rnd, cross(skinIn[mom], skinIn[dad], genes));
+            eyeOut[i] = mutate(rnd, cross(eyeIn[mom], eyeIn[dad],
+                    genes >>> 3));
+            hairOut[i] = mutate(rnd, cross(hairIn[mom], hairIn[dad],
+                    genes >>> 6));
+            styleOut[i] = (genes & (1 << 9)) != 0 ? styleIn[mom]
+                    : styleIn[dad];
+        }
+    }
+
+    /**
+     * A helper method to pick a parent: the fittest of a few faces drawn
+     * at random
+     */
+    private int select(SplittableRandom rnd, float[] scores, int n){
+        int winner = rnd.nextInt(n);
+        for (int k = 1; k < tournamentSize; k++){
+            int rival = rnd.nextInt(n);
+            if (scores[rival] > scores[winner]){
+                winner = rival;
+            }
+        }
+        return winner;
+    }
+
+    /**
+     * Takes each RGB channel from one of two colors
+     *
+     * @param a     the color whose channel is taken when its bit is set
+     * @param b     the other color
+     * @param genes bits 0-2 pick blue, green and red
+     * @return  an opaque ARGB color
+     */
+    static int cross(int a, int b, int genes){
+        int mask = ((genes & 1) != 0 ? 0x0000ff : 0)
+                | ((genes & 2) != 0 ? 0x00ff00 : 0)
+                | ((genes & 4) != 0 ? 0xff0000 : 0);
+        return FaceModel.OPAQUE | (a & mask) | (b & ~mask & 0xffffff);
+    }
+
+    /**
+     * A helper method to nudge some of a color's channels
+     */
+    private int mutate(SplittableRandom rnd, int color){
+        if (mutationRate == 0){
+            return color;
+        }
+        for (int shift = 0; shift <= 16; shift += 8){
+            if (rnd.nextDouble() < mutationRate){
+                int channel = (color >>> shift) & 0xff;
+                channel += (int)Math.round(SkinTones.gaussian(rnd)
+                        * mutationSigma);
+                channel = Math.min(Math.max(channel, 0), 255);
+                color = (color & ~(0xff << shift)) | (channel << shift);
+            }
+        }
+        return color;
+    }
+
+    /**
+     * A helper method to find the fittest face; the first of any ties
+     */
+    private static int fittest(float[] scores, int n){
+        int best = 0;
+        for (int i = 1; i < n; i++){
+            if (scores[i] > scores[best]){
+                best = i;
+            }
+        }
+        return best;
+    }
+
+    private static int chunksOf(int n){
+        return (n + CHUNK_SIZE - 1) / CHUNK_SIZE;
+    }
+
+    /**
+     * A helper method to run every chunk, in the pool if there are more
+     * than one
+     */
+    private void run(int chunks, IntConsumer task){
+        if (chunks <= 1){
+            if (chunks == 1){
+                task.accept(0);
+            }
+            return;
+        }
+        //running the parallel stream from inside the pool keeps its
+        //tasks in that pool
+        pool.submit(() -> IntStream.range(0, chunks).parallel()
+                .forEach(task)).join();
+    }
+
+    /**
+     * A helper method to copy every face of one store into another
+     */
+    private static void copy(FaceTraitStore from, FaceTraitStore to){
+        int n = from.size();
+        System.arraycopy(from.skinColors(), 0, to.skinColors(), 0, n);
+        System.arraycopy(from.eyeColors(), 0, to.eyeColors(), 0, n);
+        System.arraycopy(from.hairColors(), 0, to.hairColors(), 0, n);
+        System.arraycopy(from.hairStyles(), 0, to.hairStyles(), 0, n);
+    }
+
+    /**
+     * One generation's scores and speed
+     */
+    public static final class GenerationStats {
+        private final int generation;
+        private final int size;
+        private final float bestScore;
+        private final float meanScore;
+        private final long nanos;
+
+        GenerationStats(int generation, int size, float bestScore,
+                        float meanScore, long nanos) {
+            this.generation = generation;
+            this.size = size;
+            this.bestScore = bestScore;
+            this.meanScore = meanScore;
+            this.nanos = nanos;
+        }
+
+        /**
+         * A getter for the generation's number
+         * @return  0 for the first bred generation
+         */
+        public int getGeneration() {
+            return generation;
+        }
+
+        /**
+         * A getter for the population size
+         * @return  faces bred
+         */
+        public int getSize() {
+            return size;
+        }
+
+        /**
+         * A getter for the fittest face's score
+         * @return  the best score
+         */
+        public float getBestScore() {
+            return bestScore;
+        }
+
+        /**
+         * A getter for the population's mean score
+         * @return  the mean score
+         */
+        public float getMeanScore() {
+            return meanScore;
+        }
+
+        /**
+         * A getter for the time the generation took to breed and score
+         * @return  nanoseconds
+         */
+        public long getNanos() {
+            return nanos;
+        }
+
+        /**
+         * A getter for the breeding speed
+         * @return  faces bred and scored per second
+         */
+        public double getFacesPerSecond() {
+            return nanos == 0 ? 0 : size * 1e9 / nanos;
+        }
+
+        /**
+         * Summarizes the generation on one line
+         * @return  scores and speed
+         */
+        @Override
+        public String toString() {
+            return String.format(Locale.US,
+                    "generation %d: best=%.1f mean=%.1f %.3fms "
+                            + "%.2fM faces/s",
+                    generation, bestScore, meanScore, nanos / 1e6,
+                    getFacesPerSecond() / 1e6);
+        }
+    }//class GenerationStats
+}//class FaceBreeder
@@ -0,0 +1,206 @@
+/**
+ * FaceMaker FaceCodec Class
+ * the canonical packed encoding of a face
+ *
+ * a face is three 24-bit colors and a hairstyle id, 80 bits in all,
+ * carried as a long (low) and a short (high):
+ *   low  bits  0-23   skin RGB
+ *   low  bits 24-47   eye RGB
+ *   low  bits 48-63   hair RGB, low 16 bits
+ *   high bits  0-7    hair RGB, high 8 bits
+ *   high bits  8-15   hairstyle id
+ * as bytes it is the big-endian long followed by the big-endian short,
+ * a fixed 10-byte record
+ *
+ * colors are always decoded as fully opaque, since every face color is
+ *
+ * a hairstyle id the registry doesn't know decodes as HAT_HAIR, as in
+ * FaceModel's constructor, so a record always decodes to the same face
+ *
+ * @version Oct 18 2026
+ * @author Alex Junkins
+ */
+package com.example.junkinsfacemaker.core;
+
+import java.nio.ByteBuffer;
+
+public final class FaceCodec {
+    public static final int RECORD_BYTES = 10;
+    public static final int HEX_CHARS = 2 * RECORD_BYTES;
+
+    private static final int RGB_MASK = 0xffffff;
+
+    private FaceCodec() { }
+
+    /**
+     * Packs the low 64 bits of a face
+     *
+     * @param skin  an ARGB hexadecimal color
+     * @param eye   an ARGB hexadecimal color
+     * @param hair  an ARGB hexadecimal color
+     * @return  the low part of the encoding
+     */
+    public static long packLow(int skin, int eye, int hair){
+        return (skin & RGB_MASK)
+                | (long)(eye & RGB_MASK) << 24
+                | (long)(hair & 0xffff) << 48;
+    }
+
+    /**
+     * Packs the high 16 bits of a face
+     *
+     * @param hair      an ARGB hexadecimal color
+     * @param style     hairstyle id, 0-255
+     * @return  the high part of the encoding
+     */
+    public static short packHigh(int hair, int style){
+        return (short)(((hair >>> 16) & 0xff) | (style & 0xff) << 8);
+    }
+
+    /**
+     * Unpacks the skin color
+     * @param low   the low part of the encoding
+     * @return  an opaque ARGB color
+     */
+    public static int skinColor(long low){
+        return (int)(low & RGB_MASK) | FaceModel.OPAQUE;
+    }
+
+    /**
+     * Unpacks the eye color
+     * @param low   the low part of the encoding
+     * @return  an opaque ARGB color
+     */
+    public static int eyeColor(long low){
+        return (int)((low >>> 24) & RGB_MASK) | FaceModel.OPAQUE;
+    }
+
+    /**
+     * Unpacks the hair color
+     * @param low   the low part of the encoding
+     * @param high  the high part of the encoding
+     * @return  an opaque ARGB color
+     */
+    public static int hairColor(long low, short high){
+        return (int)(low >>> 48) | (high & 0xff) << 16 | FaceModel.OPAQUE;
+    }
+
+    /**
+     * Unpacks the hairstyle
+     * @param high  the high part of the encoding
+     * @return  hairstyle id
+     */
+    public static int hairStyle(short high){
+        return (high >>> 8) & 0xff;
+    }
+
+    /**
+     * Unpacks the hairstyle for a face to show
+     * @param high  the high part of the encoding
+     * @return  hairstyle id, HAT_HAIR if the registry doesn't know it
+     */
+    public static int validHairStyle(short high){
+        int style = hairStyle(high);
+        return FaceModel.isValidHairStyle(style) ? style : FaceModel.HAT_HAIR;
+    }
+
+    /**
+     * Writes one 10-byte record at the buffer's position
+     *
+     * @param buf   destination
+     * @param low   the low part of the encoding
+     * @param high  the high part of the encoding
+     */
+    public static void write(ByteBuffer buf, long low, short high){
+        buf.putLong(low);
+        buf.putShort(high);
+    }
+
+    /**
+     * Writes a face as one 10-byte record at the buffer's position
+     * @param buf       destination
+     * @param model     the face
+     */
+    public static void write(ByteBuffer buf, FaceModel model){
+        write(buf, packLow(model.getSkinColor(), model.getEyeColor(),
+                model.getHairColor()),
+                packHigh(model.getHairColor(), model.getHairStyle()));
+    }
+
+    /**
+     * Reads one 10-byte record at the buffer's position into a face
+     * @param buf       source
+     * @param model     destination
+     */
+    public static void read(ByteBuffer buf, FaceModel model){
+        long low = buf.getLong();
+        short high = buf.getShort();
+        unpack(low, high, model);
+    }
+
+    /**
+     * Copies an encoded face into a model
+     *
+     * @param low       the low part of the encoding
+     * @param high      the high part of the encoding
+     * @param model     destination
+     */
+    public static void unpack(long low, short high, FaceModel model){
+        model.setSkinColor(skinColor(low));
+        model.setEyeColor(eyeColor(low));
+        model.setHairColor(hairColor(low, high));
+        model.setHairStyle(validHairStyle(high));
+    }
+
+    /**
+     * Formats an encoded face as 20 lowercase hex digits, high part first
+     *
+     * @param low   the low part of the encoding
+     * @param high  the high part of the encoding
+     * @return  the hex string
+     */
+    public static String toHex(long low, short high){
+        char[] out = new char[HEX_CHARS];
+        int bits = high & 0xffff;
+        for (int i = 3; i >= 0; i--){
+            out[i] = Character.forDigit(bits & 0xf, 16);
+            bits >>>= 4;
+        }
+        for (int i = HEX_CHARS - 1; i >= 4; i--){
+            out[i] = Character.forDigit((int)(low & 0xf), 16);
+            low >>>= 4;
+        }
+        return new String(out);
+    }
+
+    /**
+     * Parses the low part out of a hex string made by toHex
+     * @param hex   20 hex digits
+     * @return  the low part of the encoding
+     */
+    public static long parseLow(String hex){
+        checkHex(hex);
+        return Long.parseUnsignedLong(hex.substring(4), 16);
+    }
+
+    /**
+     * Parses the high part out of a hex string made by toHex
+     * @param hex   20 hex digits
+     * @return  the high part of the encoding
+     */
+    public static short parseHigh(String hex){
+        checkHex(hex);
+        return (short)Integer.parseInt(hex.substring(0, 4), 16);
+    }
+
+    /**
+     * A helper method to reject strings of the wrong length
+     * @param hex   the string to check
+     */
+    private static void checkHex(String hex){
+        if (hex.length() != HEX_CHARS){
+            throw new IllegalArgumentException("expected " + HEX_CHARS
+                    + " hex digits: " + hex);
+        }
+    }
+}//class FaceCodec
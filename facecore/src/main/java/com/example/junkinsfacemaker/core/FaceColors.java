@@ -0,0 +1,49 @@
+/**
+ * FaceMaker FaceColors Class
+ * helpers for working with the RGB channels of a face color
+ *
+ * External Citation
+ * Date: Oct 6, 2020
+ * problem: Needed to covert a hex color to three rgb integers
+ * Resource: stackoverflow
+ * https://stackoverflow.com/questions/2534116/how-to-convert-getrgbx-
+ * y-integer-pixel-to-colorr-g-b-a-in-java
+ * Solution: Used bit-shifting and masking to isolate color components
+ *
+ * @version Oct 18 2026
+ * @author Alex Junkins
+ */
+package com.example.junkinsfacemaker.core;
+
+public final class FaceColors {
+    //channels, named by how far they are shifted in an ARGB int
+    public static final int RED = 16;
+    public static final int GREEN = 8;
+    public static final int BLUE = 0;
+
+    private FaceColors() { }
+
+    /**
+     * Reads one channel of a color
+     *
+     * @param color     an ARGB hexadecimal color
+     * @param channel   RED, GREEN or BLUE
+     * @return  the channel value, 0-255
+     */
+    public static int channel(int color, int channel){
+        return (color >> channel) & 0xFF;
+    }
+
+    /**
+     * Replaces one channel of a color, making the result opaque
+     *
+     * @param color     an ARGB hexadecimal color
+     * @param channel   RED, GREEN or BLUE
+     * @param value     the new channel value, 0-255
+     * @return  the new opaque color
+     */
+    public static int spliceChannel(int color, int channel, int value){
+        int others = color & 0xFFFFFF & ~(0xFF << channel);
+        return others + (value << channel) + FaceModel.OPAQUE;
+    }
+}//class FaceColors
@@ -0,0 +1,197 @@
+/**
+ * FaceMaker FaceDeduplicator Class
+ * the dedup stage of face generation: lets each look through only once
+ *
+ * every face is reduced to a 64-bit key: its FaceCodec packing, mixed
+ * down from 80 bits. with a tolerance, each color is first rounded to a
+ * grid in Lab space, tolerance delta E on a side, so faces whose colors
+ * fall in the same cells count as the same look
+ * keys go into an exact off-heap FaceKeySet when one fits in the memory
+ * budget, and into a FaceBloomFilter at the chosen false positive rate
+ * when it doesn't. in the filter, a false positive drops a face that was
+ * actually new
+ * the exact set compares keys, not faces: two different faces sharing a
+ * key is a 64-bit hash collision, about n^2 / 2^65 likely for n faces
+ * not thread-safe
+ *
+ * @version Oct 18 2026
+ * @author Alex Junkins
+ */
+package com.example.junkinsfacemaker.core;
+
+import java.util.Locale;
+
+public final class FaceDeduplicator {
+    public static final double DEFAULT_FALSE_POSITIVE_RATE = 0.001;
+
+    private final int tolerance;
+    private final FaceKeySet exact;
+    private final FaceBloomFilter filter;
+
+    //what the stage has seen
+    private long seen;
+    private long duplicates;
+
+    /**
+     * Main constructor
+     *
+     * @param expected          how many faces will be checked, at most
+     * @param tolerance         delta E under which colors may count as the
+     *                          same; 0 for exact colors
+     * @param falsePositiveRate the filter's rate, if it comes to a filter
+     * @param memoryBudget      bytes the exact set may take
+     */
+    public FaceDeduplicator(long expected, int tolerance,
+                            double falsePositiveRate, long memoryBudget) {
+        if (tolerance < 0){
+            throw new IllegalArgumentException("negative tolerance: "
+                    + tolerance);
+        }
+        this.tolerance = tolerance;
+        if (FaceKeySet.bytesFor(expected) <= memoryBudget){
+            exact = new FaceKeySet(expected);
+            filter = null;
+        }
+        else {
+            exact = null;
+            filter = new FaceBloomFilter(expected, falsePositiveRate);
+        }
+    }
+
+    /**
+     * The key a face is deduplicated by
+     *
+     * @param skin      an ARGB hexadecimal color
+     * @param eye       an ARGB hexadecimal color
+     * @param hair      an ARGB hexadecimal color
+     * @param style     hairstyle id
+     * @param tolerance size of the Lab grid cells in delta E, or 0
+     * @return  the key
+     */
+    public static long key(int skin, int eye, int hair, int style,
+                           int tolerance){
+        if (tolerance > 0){
+            skin = quantize(skin, tolerance);
+            eye = quantize(eye, tolerance);
+            hair = quantize(hair, tolerance);
+        }
+        long low = FaceCodec.packLow(skin, eye, hair);
+        short high = FaceCodec.packHigh(hair, style);
+        //SplitMix64 over both parts
+        long z = low + (high + 1) * 0x9e3779b97f4a7c15L;
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    //the Lab cell of a color, packed like a color
+    private static int quantize(int color, int tolerance){
+        int lab = LabColors.toLab8(color);
+        return (FaceColors.channel(lab, FaceColors.RED) / tolerance) << 16
+                | (FaceColors.channel(lab, FaceColors.GREEN) / tolerance) << 8
+                | FaceColors.channel(lab, FaceColors.BLUE) / tolerance;
+    }
+
+    /**
+     * Checks a face and remembers it
+     *
+     * @param skin      an ARGB hexadecimal color
+     * @param eye       an ARGB hexadecimal color
+     * @param hair      an ARGB hexadecimal color
+     * @param style     hairstyle id
+     * @return  true if the face is new, false if it is a duplicate
+     */
+    public boolean add(int skin, int eye, int hair, int style){
+        long key = key(skin, eye, hair, style, tolerance);
+        boolean added = exact != null ? exact.add(key) : filter.put(key);
+        seen++;
+        if (!added){
+            duplicates++;
+        }
+        return added;
+    }
+
+    /**
+     * Copies the new faces of one store to the end of another
+     *
+     * @param from      faces to check
+     * @param to        destination
+     * @param filled    how many faces of the destination are already used
+     * @return  how many are used afterwards; copying stops when it's full
+     */
+    public int filterInto(FaceTraitStore from, FaceTraitStore to, int filled){
+        int[] skins = from.skinColors();
+        int[] eyes = from.eyeColors();
+        int[] hairs = from.hairColors();
+        int[] styles = from.hairStyles();
+        for (int i = 0; i < from.size() && filled < to.size(); i++){
+            if (add(skins[i], eyes[i], hairs[i], styles[i])){
+                to.set(filled++, skins[i], eyes[i], hairs[i], styles[i]);
+            }
+        }
+        return filled;
+    }
+
+    /**
+     * A getter for which structure backs the stage
+     * @return  true for the exact set, false for the Bloom filter
+     */
+    public boolean isExact() {
+        return exact != null;
+    }
+
+    /**
+     * A getter for the memory the stage uses
+     * @return  bytes; off-heap for the exact set
+     */
+    public long getMemoryBytes() {
+        return exact != null ? exact.getMemoryBytes()
+                : filter.getMemoryBytes();
+    }
+
+    /**
+     * A getter for the chance a new face is wrongly dropped right now
+     * @return  0 for the exact set
+     */
+    public double getFalsePositiveRate() {
+        return exact != null ? 0 : filter.getFalsePositiveRate();
+    }
+
+    /**
+     * A getter for the number of faces checked
+     * @return  count
+     */
+    public long getSeenCount() {
+        return seen;
+    }
+
+    /**
+     * A getter for the number of faces dropped as duplicates
+     * @return  count
+     */
+    public long getDuplicateCount() {
+        return duplicates;
+    }
+
+    /**
+     * A getter for the share of checked faces that were duplicates
+     * @return  0-1
+     */
+    public double getDuplicateRate() {
+        return seen == 0 ? 0 : (double)duplicates / seen;
+    }
+
+    /**
+     * A one-line report, e.g. for logs
+     * @return  the report
+     */
+    @Override
+    public String toString() {
+        return String.format(Locale.US,
+                "dedup %s tolerance %d: %d seen, %d duplicates (%.4f%%),"
+                        + " %.1f MB, false positive rate %.2e",
+                isExact() ? "exact" : "bloom", tolerance, seen, duplicates,
+                100 * getDuplicateRate(), getMemoryBytes() / 1048576.0,
+                getFalsePositiveRate());
+    }
+}//class FaceDeduplicator
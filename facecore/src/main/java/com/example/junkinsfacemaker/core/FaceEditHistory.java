@@ -0,0 +1,224 @@
+/**
+ * FaceMaker FaceEditHistory Class
+ * undo and redo for face edits, in a fixed amount of memory
+ *
+ * the history keeps the current face packed with FaceCodec, and each
+ * edit as the XOR of the packings before and after it: 10 bytes however
+ * many traits changed. applying an entry's XOR to the current packing
+ * steps back over the edit, and applying it again steps forward, so undo
+ * and redo are O(1) and never copy a whole face
+ * consecutive edits with the same merge key, e.g. the progress events of
+ * one seek bar drag, fold into a single entry (XORs compose) until the
+ * entry is sealed
+ * entries live in parallel ring arrays allocated up front; when the
+ * ring is full the oldest entry is forgotten, and recording never
+ * allocates
+ * colors are recorded without alpha, since face colors are opaque
+ * not thread-safe
+ *
+ * @version Oct 18 2026
+ * @author Alex Junkins
+ */
+package com.example.junkinsfacemaker.core;
+
+public final class FaceEditHistory {
+    public static final int DEFAULT_CAPACITY = 1024;
+    //merge key of edits that always get their own entry
+    public static final int NO_MERGE = -1;
+    //bytes each entry takes
+    public static final int ENTRY_BYTES = 8 + 2 + 4;
+
+    private final long[] lows;
+    private final short[] highs;
+    private final int[] mergeKeys;
+
+    //the face as the history last saw it
+    private long currentLow;
+    private short currentHigh;
+
+    //entries [first, first + undoable) can be undone, the next redoable
+    //ones redone; indices wrap around the ring
+    private int first;
+    private int undoable;
+    private int redoable;
+    private boolean topSealed = true;
+
+    /**
+     * Main constructor
+     * @param capacity  the most entries kept
+     */
+    public FaceEditHistory(int capacity) {
+        if (capacity < 1){
+            throw new IllegalArgumentException("capacity " + capacity);
+        }
+        lows = new long[capacity];
+        highs = new short[capacity];
+        mergeKeys = new int[capacity];
+    }
+
+    /**
+     * Forgets every entry and starts over from a face
+     * @param model     the face as it is now
+     */
+    public void reset(FaceModel model){
+        currentLow = packLow(model);
+        currentHigh = packHigh(model);
+        first = 0;
+        undoable = 0;
+        redoable = 0;
+        topSealed = true;
+    }
+
+    private static long packLow(FaceModel model){
+        return FaceCodec.packLow(model.getSkinColor(), model.getEyeColor(),
+                model.getHairColor());
+    }
+
+    private static short packHigh(FaceModel model){
+        return FaceCodec.packHigh(model.getHairColor(), model.getHairStyle());
+    }
+
+    private int slot(int entry){
+        return (first + entry) % lows.length;
+    }
+
+    /**
+     * Records the edits made to a face since the last call, as one entry
+     * or folded into the last one
+     * any redo entries are dropped, as in every editor
+     *
+     * @param model     the face after the edit
+     * @param mergeKey  edits with the same key fold together until
+     *                  seal(); NO_MERGE for edits that stand alone
+     * @return  false if the face had not changed
+     */
+    public boolean record(FaceModel model, int mergeKey){
+        long low = packLow(model);
+        short high = packHigh(model);
+        long deltaLow = low ^ currentLow;
+        short deltaHigh = (short)(high ^ currentHigh);
+        if (deltaLow == 0 && deltaHigh == 0){
+            return false;
+        }
+        currentLow = low;
+        currentHigh = high;
+        redoable = 0;
+
+        if (!topSealed && mergeKey != NO_MERGE && undoable > 0
+                && mergeKeys[slot(undoable - 1)] == mergeKey){
+            int top = slot(undoable - 1);
+            lows[top] ^= deltaLow;
+            highs[top] ^= deltaHigh;
+            //dragged back to where it started: nothing left to undo
+            if (lows[top] == 0 && highs[top] == 0){
+                undoable--;
+                topSealed = true;
+            }
+            return true;
+        }
+
+        if (undoable == lows.length){
+            //full: forget the oldest
+            first = (first + 1) % lows.length;
+            undoable--;
+        }
+        int top = slot(undoable++);
+        lows[top] = deltaLow;
+        highs[top] = deltaHigh;
+        mergeKeys[top] = mergeKey;
+        topSealed = mergeKey == NO_MERGE;
+        return true;
+    }
+
+    /**
+     * Ends the current merged entry, so the next edit starts a new one
+     * e.g. when the user lets go of a seek bar
+     */
+    public void seal(){
+        topSealed = true;
+    }
+
+    /**
+     * Steps back over the last edit
+     * @param model     receives the face as it was before it
+     * @return  false if there was nothing to undo
+     */
+    public boolean undo(FaceModel model){
+        if (undoable == 0){
+            return false;
+        }
+        int top = slot(--undoable);
+        redoable++;
+        currentLow ^= lows[top];
+        currentHigh ^= highs[top];
+        topSealed = true;
+        FaceCodec.unpack(currentLow, currentHigh, model);
+        return true;
+    }
+
+    /**
+     * Steps forward over the last undone edit
+     * @param model     receives the face as it was after it
+     * @return  false if there was nothing to redo
+     */
+    public boolean redo(FaceModel model){
+        if (redoable == 0){
+            return false;
+        }
+        int top = slot(undoable++);
+        redoable--;
+        currentLow ^= lows[top];
+        currentHigh ^= highs[top];
+        topSealed = true;
+        FaceCodec.unpack(currentLow, currentHigh, model);
+        return true;
+    }
+
+    /**
+     * A getter for whether undo() would do anything
+     * @return  true if there are edits to undo
+     */
+    public boolean canUndo() {
+        return undoable > 0;
+    }
+
+    /**
+     * A getter for whether redo() would do anything
+     * @return  true if there are edits to redo
+     */
+    public boolean canRedo() {
+        return redoable > 0;
+    }
+
+    /**
+     * A getter for the number of edits that can be undone
+     * @return  count
+     */
+    public int getUndoCount() {
+        return undoable;
+    }
+
+    /**
+     * A getter for the number of edits that can be redone
+     * @return  count
+     */
+    public int getRedoCount() {
+        return redoable;
+    }
+
+    /**
+     * A getter for the most entries kept
+     * @return  capacity
+     */
+    public int getCapacity() {
+        return lows.length;
+    }
+
+    /**
+     * A getter for the memory the entries take; fixed at construction
+     * @return  bytes
+     */
+    public long getMemoryBytes() {
+        return (long)ENTRY_BYTES * lows.length;
+    }
+}//class FaceEditHistory
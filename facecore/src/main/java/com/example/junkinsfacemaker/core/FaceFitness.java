@@ -0,0 +1,26 @@
+/**
+ * FaceMaker FaceFitness Interface
+ * scores faces for a FaceBreeder: the fitter a face, the more likely it
+ * is picked as a parent
+ *
+ * faces are scored a run at a time straight from the store's arrays, so
+ * a population of millions needs no object per face
+ *
+ * @version Oct 18 2026
+ * @author Alex Junkins
+ */
+package com.example.junkinsfacemaker.core;
+
+public interface FaceFitness {
+    /**
+     * Scores a run of faces; higher is fitter
+     * called from several threads at once on runs that don't overlap,
+     * so any scratch space must be local to the call
+     *
+     * @param faces     the population
+     * @param from      first index, inclusive
+     * @param to        last index, exclusive
+     * @param scores    receives each face's score at the same index
+     */
+    void score(FaceTraitStore faces, int from, int to, float[] scores);
+}//interface FaceFitness
@@ -0,0 +1,170 @@
+/**
+ * FaceMaker FaceKeySet Class
+ * an exact set of long keys, kept off the Java heap
+ *
+ * keys live in a direct buffer as an open-addressing table with linear
+ * probing, 8 bytes a slot, instead of one boxed Long and hash node per
+ * entry. the table doubles when it is more than MAX_LOAD full. zero marks
+ * an empty slot, so a zero key is tracked on the side
+ * not thread-safe
+ *
+ * @version Oct 18 2026
+ * @author Alex Junkins
+ */
+package com.example.junkinsfacemaker.core;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+public final class FaceKeySet {
+    //fullest the table gets before it doubles
+    public static final double MAX_LOAD = 0.6;
+    //the most slots one direct buffer can hold: its size in bytes is an
+    //int, and 8 << 28 would overflow
+    public static final int MAX_CAPACITY = 1 << 27;
+
+    private static final int MIN_CAPACITY = 16;
+
+    private ByteBuffer table;
+    private int capacity;
+    private int shift;
+    private int size;
+    private boolean hasZero;
+
+    /**
+     * Main constructor
+     * @param expected  how many keys to make room for up front
+     */
+    public FaceKeySet(long expected) {
+        allocate(capacityFor(expected));
+    }
+
+    /**
+     * The table size that holds some keys without growing
+     * @param expected  number of keys
+     * @return  slots, a power of two
+     */
+    static int capacityFor(long expected){
+        long needed = slotsFor(expected);
+        if (needed > MAX_CAPACITY){
+            throw new IllegalArgumentException("too many keys: " + expected);
+        }
+        return Math.max(MIN_CAPACITY,
+                Integer.highestOneBit((int)needed - 1) << 1);
+    }
+
+    /**
+     * The off-heap memory a set needs to hold some keys without growing
+     * @param expected  number of keys
+     * @return  bytes, or Long.MAX_VALUE if no set can hold that many
+     */
+    public static long bytesFor(long expected){
+        if (slotsFor(expected) > MAX_CAPACITY){
+            return Long.MAX_VALUE;
+        }
+        return 8L * capacityFor(expected);
+    }
+
+    //the fewest slots that keep some keys under MAX_LOAD
+    private static long slotsFor(long expected){
+        return (long)Math.ceil(expected / MAX_LOAD) + 1;
+    }
+
+    private void allocate(int slots){
+        table = ByteBuffer.allocateDirect(8 * slots)
+                .order(ByteOrder.nativeOrder());
+        capacity = slots;
+        shift = 64 - Integer.numberOfTrailingZeros(slots);
+    }
+
+    //the slot a key's probe starts at
+    private int home(long key){
+        return (int)((key * 0x9e3779b97f4a7c15L) >>> shift);
+    }
+
+    /**
+     * Adds a key
+     * @param key   the key
+     * @return  true if it was not in the set yet
+     */
+    public boolean add(long key){
+        if (key == 0){
+            boolean added = !hasZero;
+            hasZero = true;
+            size += added ? 1 : 0;
+            return added;
+        }
+        int mask = capacity - 1;
+        for (int i = home(key); ; i = (i + 1) & mask){
+            long slot = table.getLong(8 * i);
+            if (slot == key){
+                return false;
+            }
+            if (slot == 0){
+                table.putLong(8 * i, key);
+                size++;
+                if (size > MAX_LOAD * capacity){
+                    grow();
+                }
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Checks for a key
+     * @param key   the key
+     * @return  whether it is in the set
+     */
+    public boolean contains(long key){
+        if (key == 0){
+            return hasZero;
+        }
+        int mask = capacity - 1;
+        for (int i = home(key); ; i = (i + 1) & mask){
+            long slot = table.getLong(8 * i);
+            if (slot == key){
+                return true;
+            }
+            if (slot == 0){
+                return false;
+            }
+        }
+    }
+
+    private void grow(){
+        if (capacity >= MAX_CAPACITY){
+            throw new IllegalStateException("key set is full: " + size);
+        }
+        ByteBuffer old = table;
+        int oldCapacity = capacity;
+        allocate(2 * capacity);
+        int mask = capacity - 1;
+        for (int j = 0; j < oldCapacity; j++){
+            long key = old.getLong(8 * j);
+            if (key != 0){
+                int i = home(key);
+                while (table.getLong(8 * i) != 0){
+                    i = (i + 1) & mask;
+                }
+                table.putLong(8 * i, key);
+            }
+        }
+    }
+
+    /**
+     * A getter for the number of keys
+     * @return  size
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * A getter for the off-heap memory in use
+     * @return  bytes
+     */
+    public long getMemoryBytes() {
+        return 8L * capacity;
+    }
+}//class FaceKeySet
@@ -0,0 +1,255 @@
+/**
+ * FaceMaker FaceLayout Class
+ * computes every shape that makes up a face as a flat float array, so
+ * renderers only have to replay it instead of redoing the geometry math
+ *
+ * each primitive takes STRIDE floats:
+ * shape (oval or rect), paint slot, left, top, right, bottom
+ * primitives are stored in draw order (back to front); the hair comes
+ * from the HairstyleRegistry, the rest of the face is the same for all
+ *
+ * @version Oct 18 2026
+ * @author Alex Junkins
+ */
+package com.example.junkinsfacemaker.core;
+
+public class FaceLayout {
+    //constants that define the dimensions of the face, in layout units;
+    //renderers scale the bounds below to whatever size they draw at
+    public static final float headTop = 100f;
+    public static final float headLeft = 200f;
+    public static final float headWidth = 700f;
+    public static final float headHeight = 900f;
+    public static final float eyeRadius = 60f;
+    public static final float eyeSeparation = 130f;
+    public static final float pupilRadius = 40f;
+    public static final float mouthWidth = 200f;
+    public static final float mouthHeight = 30f;
+    public static final float noseWidth = 80f;
+    public static final float noseHeight = 150f;
+    //how far a pupil can look off center and stay inside its eye
+    public static final float pupilTravel = eyeRadius - pupilRadius - 5f;
+
+    public static final float hairWidth = 800f;
+    public static final float hairHeight = 300f;
+
+    //the box every hairstyle fits in, for fitting faces into thumbnails
+    //pompadour reaches furthest left, hat-hair and afro furthest right
+    public static final float boundsLeft = headLeft + .5f*headWidth
+            - .6f*hairWidth;
+    public static final float boundsTop = headTop - .2f*hairHeight;
+    public static final float boundsRight = headLeft + .5f*headWidth
+            + .5f*hairWidth;
+    public static final float boundsBottom = headTop + headHeight;
+
+    //shape kinds
+    public static final int SHAPE_OVAL = 0;
+    public static final int SHAPE_RECT = 1;
+
+    //paint slots
+    public static final int PAINT_SKIN = 0;
+    public static final int PAINT_HAIR = 1;
+    public static final int PAINT_EYE = 2;
+    public static final int PAINT_DETAILS = 3;
+    public static final int NUM_PAINTS = 4;
+
+    //offsets of a primitive's fields
+    public static final int SHAPE = 0;
+    public static final int PAINT = 1;
+    public static final int LEFT = 2;
+    public static final int TOP = 3;
+    public static final int RIGHT = 4;
+    public static final int BOTTOM = 5;
+    public static final int STRIDE = 6;
+
+    //head, eyes, pupils, nose and mouth
+    public static final int FACE_PRIMITIVES = 7;
+    //where computeFace puts the eyes and the pupils, left then right
+    public static final int FIRST_EYE = 1;
+    public static final int FIRST_PUPIL = 3;
+
+    //the most primitives a face can have, whatever its hairstyle
+    public static final int NUM_PRIMITIVES =
+            FACE_PRIMITIVES + HairstyleRegistry.MAX_PRIMITIVES;
+
+    private final float[] primitives = new float[NUM_PRIMITIVES * STRIDE];
+    private int count;
+    private int hairStyle = -1;
+
+    /**
+     * Default constructor
+     * lays out a face with hat-hair
+     */
+    public FaceLayout() {
+        update(FaceModel.HAT_HAIR);
+    }
+
+    /**
+     * Recomputes the layout for a hairstyle
+     * does nothing if the layout is already for that hairstyle
+     *
+     * @param style     the hairstyle id
+     * @return  whether the primitives changed
+     */
+    public boolean update(int style){
+        if (style == hairStyle){
+            return false;
+        }
+        count = compute(style, primitives);
+        hairStyle = style;
+        return true;
+    }
+
+    /**
+     * A getter for the computed primitives
+     * the array is owned by the layout and must not be modified
+     * @return  NUM_PRIMITIVES * STRIDE floats, getCount() of them used
+     */
+    public float[] getPrimitives() {
+        return primitives;
+    }
+
+    /**
+     * A getter for the number of primitives in the layout
+     * @return count
+     */
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * A getter for the hairstyle the layout was computed for
+     * @return hair style
+     */
+    public int getHairStyle() {
+        return hairStyle;
+    }
+
+    /**
+     * Computes the primitives of a face into an array
+     * uses the default HairstyleRegistry; an unknown hairstyle gives a
+     * face without hair
+     *
+     * @param style     the hairstyle id
+     * @param out       destination, at least NUM_PRIMITIVES * STRIDE long
+     * @return  the number of primitives written
+     */
+    public static int compute(int style, float[] out){
+        return compute(HairstyleRegistry.getDefault(), style, out);
+    }
+
+    /**
+     * Computes the primitives of a face into an array
+     *
+     * @param registry  where to find the hairstyle
+     * @param style     the hairstyle id
+     * @param out       destination, at least NUM_PRIMITIVES * STRIDE long
+     * @return  the number of primitives written
+     */
+    public static int compute(HairstyleRegistry registry, int style,
+                              float[] out){
+        int i = 0;
+        boolean hair = registry.isValid(style);
+
+        //hair behind the head goes first
+        if (hair && registry.getZOrder(style)
+                == HairstyleRegistry.BEHIND_HEAD){
+            i = putHair(registry, style, out, i);
+        }
+
+        i = computeFace(out, i);
+
+        //then hair on top of the head
+        if (hair && registry.getZOrder(style)
+                == HairstyleRegistry.IN_FRONT_OF_HEAD){
+            i = putHair(registry, style, out, i);
+        }
+
+        return i / STRIDE;
+    }
+
+    /**
+     * Computes the FACE_PRIMITIVES primitives every face shares,
+     * everything but the hair
+     *
+     * @param out       destination
+     * @param i         offset to start writing at
+     * @return  the offset just past the written primitives
+     */
+    public static int computeFace(float[] out, int i){
+        //first the head underneath everything
+        i = put(out, i, SHAPE_OVAL, PAINT_SKIN, headLeft, headTop,
+                headLeft + headWidth, headTop + headHeight);
+
+        //the eye colors
+        i = put(out, i, SHAPE_OVAL, PAINT_EYE,
+                headLeft + .5f*headWidth - .5f*eyeSeparation - 2*eyeRadius,
+                headTop + .3f * headHeight,
+                headLeft + .5f*headWidth - .5f*eyeSeparation,
+                headTop + .3f * headHeight + 2*eyeRadius);
+        i = put(out, i, SHAPE_OVAL, PAINT_EYE,
+                headLeft + .5f*headWidth + .5f*eyeSeparation,
+                headTop + .3f * headHeight,
+                headLeft + .5f*headWidth + .5f*eyeSeparation + 2*eyeRadius,
+                headTop + .3f * headHeight + 2*eyeRadius);
+
+        //the pupils
+        i = put(out, i, SHAPE_OVAL, PAINT_DETAILS,
+                headLeft + .5f*headWidth - .5f*eyeSeparation  - eyeRadius
+                        - pupilRadius - 5f,
+                headTop + .3f * headHeight + eyeRadius - pupilRadius,
+                headLeft + .5f*headWidth - .5f*eyeSeparation - eyeRadius
+                        + pupilRadius - 5f,
+                headTop + .3f * headHeight + 2*eyeRadius - eyeRadius
+                        + pupilRadius);
+        i = put(out, i, SHAPE_OVAL, PAINT_DETAILS,
+                headLeft + .5f*headWidth + .5f*eyeSeparation  + eyeRadius
+                        - pupilRadius + 5f,
+                headTop + .3f * headHeight + eyeRadius - pupilRadius,
+                headLeft + .5f*headWidth + .5f*eyeSeparation + eyeRadius
+                        + pupilRadius + 5f,
+                headTop + .3f * headHeight + 2*eyeRadius - eyeRadius
+                        + pupilRadius);
+
+        //the nose
+        i = put(out, i, SHAPE_RECT, PAINT_DETAILS,
+                headLeft + .5f*headWidth - .5f*noseWidth,
+                headTop + .5f*headHeight - .2f*noseHeight,
+                headLeft + .5f*headWidth + .5f*noseWidth,
+                headTop + .5f*headHeight + .8f*noseHeight);
+
+        //the mouth
+        i = put(out, i, SHAPE_RECT, PAINT_DETAILS,
+                headLeft + .5f*headWidth - .5f*mouthWidth,
+                headTop + .75f*headHeight - .2f*mouthHeight,
+                headLeft + .5f*headWidth + .5f*mouthWidth,
+                headTop + .75f*headHeight + .8f*mouthHeight);
+        return i;
+    }
+
+    /**
+     * A helper method to copy a hairstyle's precompiled primitives
+     * @return  the offset just past the copied primitives
+     */
+    private static int putHair(HairstyleRegistry registry, int style,
+                               float[] out, int i){
+        float[] hair = registry.getPrimitives(style);
+        System.arraycopy(hair, 0, out, i, hair.length);
+        return i + hair.length;
+    }
+
+    /**
+     * A helper method to write one primitive
+     * @return  the offset just past the written primitive
+     */
+    private static int put(float[] out, int i, int shape, int paint,
+                           float left, float top, float right, float bottom){
+        out[i + SHAPE] = shape;
+        out[i + PAINT] = paint;
+        out[i + LEFT] = left;
+        out[i + TOP] = top;
+        out[i + RIGHT] = right;
+        out[i + BOTTOM] = bottom;
+        return i + STRIDE;
+    }
+}//class FaceLayout
@@ -0,0 +1,93 @@
+/**
+ * FaceMaker FaceMetrics Class
+ * the app's hot-path metrics in one place: how long the face takes to
+ * draw, how many redraws are asked for against how many are drawn, and
+ * how busy the controls are
+ *
+ * metrics are off until setEnabled(true); while off, every record or
+ * increment costs a load of a plain static field and a branch that is
+ * almost never taken; the field is mutable, so the JIT can't fold it
+ * away, but the cost is small enough for the calls to stay in the hot
+ * paths of release builds (see MetricsBenchmarks)
+ * the flag is deliberately not volatile: a thread that is already
+ * drawing may take a moment to see it change, which is fine for metrics
+ *
+ * @version Oct 18 2026
+ * @author Alex Junkins
+ */
+package com.example.junkinsfacemaker.core;
+
+import java.io.PrintWriter;
+
+public final class FaceMetrics {
+    //read by every metric on every call
+    static boolean enabled;
+
+    //time spent in Face.drawFace for one frame, in nanoseconds, in
+    //either render mode; locking and posting the surface isn't included
+    public static final MetricHistogram DRAW_NANOS =
+            new MetricHistogram("face.draw.nanos");
+    //redraws asked for, and frames actually drawn
+    public static final MetricCounter REDRAWS_REQUESTED =
+            new MetricCounter("face.redraw.requested");
+    public static final MetricCounter FRAMES_DRAWN =
+            new MetricCounter("face.redraw.drawn");
+    //paints set to a new color, one per paint
+    public static final MetricCounter PAINT_UPDATES =
+            new MetricCounter("face.paintUpdates");
+    public static final MetricCounter RANDOMIZE_CALLS =
+            new MetricCounter("face.randomize");
+    public static final MetricRate SEEK_BAR_EVENTS =
+            new MetricRate("controller.seekBarEvents");
+    public static final MetricCounter STYLE_SELECTIONS =
+            new MetricCounter("controller.styleSelections");
+
+    private FaceMetrics() { }
+
+    /**
+     * Turns recording on or off; what was recorded is kept
+     * @param on    whether metrics record
+     */
+    public static void setEnabled(boolean on){
+        enabled = on;
+    }
+
+    /**
+     * A getter for whether metrics record
+     * @return  true if enabled
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Forgets everything recorded
+     */
+    public static void reset(){
+        DRAW_NANOS.reset();
+        REDRAWS_REQUESTED.reset();
+        FRAMES_DRAWN.reset();
+        PAINT_UPDATES.reset();
+        RANDOMIZE_CALLS.reset();
+        SEEK_BAR_EVENTS.reset();
+        STYLE_SELECTIONS.reset();
+    }
+
+    /**
+     * Writes every metric, one per line
+     *
+     * @param out       destination
+     * @param prefix    put before every line, e.g. dumpsys indentation
+     */
+    public static void dump(PrintWriter out, String prefix){
+        out.println(prefix + "metrics " + (enabled ? "enabled" : "disabled"));
+        out.println(prefix + "  " + DRAW_NANOS.format(1e6, "ms"));
+        out.println(prefix + "  " + REDRAWS_REQUESTED);
+        out.println(prefix + "  " + FRAMES_DRAWN);
+        out.println(prefix + "  " + PAINT_UPDATES);
+        out.println(prefix + "  " + RANDOMIZE_CALLS);
+        out.println(prefix + "  " + SEEK_BAR_EVENTS);
+        out.println(prefix + "  " + STYLE_SELECTIONS);
+        out.flush();
+    }
+}//class FaceMetrics
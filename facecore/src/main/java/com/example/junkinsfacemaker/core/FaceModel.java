@@ -0,0 +1,153 @@
+/**
+ * FaceMaker FaceModel Class
+ * contains values for a face's traits without any Android dependencies,
+ * so faces can be generated and tested on a plain JVM
+ *
+ * @version Oct 18 2026
+ * @author Alex Junkins
+ */
+package com.example.junkinsfacemaker.core;
+
+import java.util.Random;
+
+public class FaceModel {
+    //the random color rule: any 24-bit color made fully opaque
+    public static final int COLOR_RANGE = 0xffffff + 1;
+    public static final int OPAQUE = 0xff000000;
+
+    //ids of the built-in hairstyles, see HairstyleRegistry
+    public static final int HAT_HAIR = 0;
+    public static final int AFRO = 1;
+    public static final int POMPADOUR = 2;
+
+    //trait values
+    private int skinColor;
+    private int eyeColor;
+    private int hairColor;
+    private int hairStyle;
+
+    /**
+     * Default constructor
+     * creates an all-black face with hat-hair; call randomize() or the
+     * setters to give it traits
+     */
+    public FaceModel() {
+        this(OPAQUE, OPAQUE, OPAQUE, HAT_HAIR);
+    }
+
+    /**
+     * Trait constructor
+     *
+     * @param skin      an ARGB hexadecimal color
+     * @param eye       an ARGB hexadecimal color
+     * @param hair      an ARGB hexadecimal color
+     * @param style     hairstyle id
+     */
+    public FaceModel(int skin, int eye, int hair, int style) {
+        skinColor = skin;
+        eyeColor = eye;
+        hairColor = hair;
+        hairStyle = isValidHairStyle(style) ? style : HAT_HAIR;
+    }
+
+    /**
+     * Randomize the face's values
+     *
+     * @param rnd   the source of randomness
+     */
+    public void randomize(Random rnd){
+        //picks random OPAQUE colors
+        skinColor = rnd.nextInt(COLOR_RANGE) + OPAQUE;
+        eyeColor = rnd.nextInt(COLOR_RANGE) + OPAQUE;
+        hairColor = rnd.nextInt(COLOR_RANGE) + OPAQUE;
+        hairStyle = rnd.nextInt(HairstyleRegistry.getDefault().size());
+    }
+
+    /**
+     * Randomize the face's values like randomize(), except that the skin
+     * is a realistic skin tone
+     *
+     * @param rnd   the source of randomness
+     */
+    public void randomizeRealistic(Random rnd){
+        randomize(rnd);
+        skinColor = SkinTones.sample(rnd);
+    }
+
+    /**
+     * A method to check a hairstyle id
+     * @param style     the id to check
+     * @return  whether the id names a hairstyle in the default registry
+     */
+    public static boolean isValidHairStyle(int style){
+        return HairstyleRegistry.getDefault().isValid(style);
+    }
+
+    /**
+     * A getter for eyeColor
+     * @return eye color
+     */
+    public int getEyeColor() {
+        return eyeColor;
+    }
+
+    /**
+     * A setter for eyeColor
+     * @param newColor  an ARGB hexadecimal color
+     */
+    public void setEyeColor(int newColor){
+        eyeColor = newColor;
+    }
+
+    /**
+     * A getter for hairColor
+     * @return hair color
+     */
+    public int getHairColor() {
+        return hairColor;
+    }
+
+    /**
+     * A setter for hairColor
+     * @param newColor  an ARGB hexadecimal color
+     */
+    public void setHairColor(int newColor){
+        hairColor = newColor;
+    }
+
+    /**
+     * A getter for skinColor
+     * @return skin color
+     */
+    public int getSkinColor() {
+        return skinColor;
+    }
+
+    /**
+     * A setter for skinColor
+     * @param newColor  an ARGB hexadecimal color
+     */
+    public void setSkinColor(int newColor){
+        skinColor = newColor;
+    }
+
+    /**
+     * A getter for hairStyle
+     * @return hair style
+     */
+    public int getHairStyle() {
+        return hairStyle;
+    }
+
+    /**
+     * A setter for hairStyle
+     * invalid ids are ignored
+     * @param newStyle  a HairstyleRegistry id
+     */
+    public void setHairStyle(int newStyle){
+        if (!isValidHairStyle(newStyle)){
+            return;
+        }
+        hairStyle = newStyle;
+    }
+}//class FaceModel
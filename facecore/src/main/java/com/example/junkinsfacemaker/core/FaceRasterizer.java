@@ -0,0 +1,421 @@
+/**
+ * FaceMaker FaceRasterizer Class
+ * draws faces into a plain ARGB int[] framebuffer, without Android
+ *
+ * the FaceLayout shapes are turned into horizontal pixel spans when the
+ * rasterizer is made, once for the face and once per hairstyle; drawing
+ * a face is then only a background fill plus one Arrays.fill per span
+ * a pixel is covered when its center is inside the shape, the same rule
+ * an Android Canvas uses for shapes drawn without anti-aliasing
+ *
+ * @version Oct 18 2026
+ * @author Alex Junkins
+ */
+package com.example.junkinsfacemaker.core;
+
+import java.util.Arrays;
+
+public class FaceRasterizer {
+    //color of pupils, nose and mouth
+    public static final int DETAILS_COLOR = 0xff000000;
+
+    //fields of a span
+    private static final int SPAN_PAINT = 0;
+    private static final int SPAN_ROW = 1;
+    private static final int SPAN_START = 2;
+    private static final int SPAN_END = 3;
+    private static final int SPAN_STRIDE = 4;
+
+    private final int width;
+    private final int height;
+    private final float scale;
+    private final float offsetX;
+    private final float offsetY;
+
+    //spans of everything but the hair, in draw order
+    private final int[] faceSpans;
+    //where each face primitive's spans end in faceSpans
+    private final int[] primitiveEnds = new int[FaceLayout.FACE_PRIMITIVES];
+    //how far the pupils move for a full look to the side, in pixels
+    private final float pupilTravel;
+
+    //spans of each hairstyle, and whether they go behind the head
+    private final int[][] hairSpans;
+    private final boolean[] hairBehind;
+
+    /**
+     * Fitting constructor
+     * scales faces to fit the image, centered, keeping their proportions,
+     * the same way Face fits them to the view
+     *
+     * @param width     image width in pixels
+     * @param height    image height in pixels
+     */
+    public FaceRasterizer(int width, int height) {
+        this(width, height, fitScale(width, height),
+                fitOffset(width, fitScale(width, height),
+                        FaceLayout.boundsLeft, FaceLayout.boundsRight),
+                fitOffset(height, fitScale(width, height),
+                        FaceLayout.boundsTop, FaceLayout.boundsBottom));
+    }
+
+    /**
+     * Transform constructor
+     * a layout point (x, y) lands on pixel (x*scale + offsetX,
+     * y*scale + offsetY)
+     *
+     * @param width     image width in pixels
+     * @param height    image height in pixels
+     * @param scale     layout units to pixels
+     * @param offsetX   horizontal shift in pixels
+     * @param offsetY   vertical shift in pixels
+     */
+    public FaceRasterizer(int width, int height, float scale,
+                          float offsetX, float offsetY) {
+        this(width, height, scale, offsetX, offsetY,
+                HairstyleRegistry.getDefault());
+    }
+
+    /**
+     * Registry constructor
+     * like the transform constructor, for the hairstyles of a registry
+     *
+     * @param width     image width in pixels
+     * @param height    image height in pixels
+     * @param scale     layout units to pixels
+     * @param offsetX   horizontal shift in pixels
+     * @param offsetY   vertical shift in pixels
+     * @param registry  the hairstyles to draw
+     */
+    public FaceRasterizer(int width, int height, float scale,
+                          float offsetX, float offsetY,
+                          HairstyleRegistry registry) {
+        if (width <= 0 || height <= 0){
+            throw new IllegalArgumentException("bad size: " + width + "x"
+                    + height);
+        }
+        this.width = width;
+        this.height = height;
+        this.scale = scale;
+        this.offsetX = offsetX;
+        this.offsetY = offsetY;
+
+        float[] prims = new float[FaceLayout.FACE_PRIMITIVES
+                * FaceLayout.STRIDE];
+        FaceLayout.computeFace(prims, 0);
+        //built one primitive at a time, so the eyes can be found again
+        int[][] parts = new int[FaceLayout.FACE_PRIMITIVES][];
+        int total = 0;
+        for (int p = 0; p < parts.length; p++){
+            parts[p] = buildSpans(prims, p, 1);
+            total += parts[p].length;
+            primitiveEnds[p] = total;
+        }
+        faceSpans = new int[total];
+        for (int p = 0; p < parts.length; p++){
+            System.arraycopy(parts[p], 0, faceSpans,
+                    primitiveEnds[p] - parts[p].length, parts[p].length);
+        }
+        pupilTravel = FaceLayout.pupilTravel * scale;
+        hairSpans = new int[registry.size()][];
+        hairBehind = new boolean[registry.size()];
+        for (int style = 0; style < registry.size(); style++){
+            hairSpans[style] = buildSpans(registry.getPrimitives(style), 0,
+                    registry.getPrimitiveCount(style));
+            hairBehind[style] = registry.getZOrder(style)
+                    == HairstyleRegistry.BEHIND_HEAD;
+        }
+    }
+
+    /**
+     * Finds the scale that fits every hairstyle into an image
+     *
+     * @param width     image width in pixels
+     * @param height    image height in pixels
+     * @return  pixels per layout unit
+     */
+    public static float fitScale(int width, int height){
+        return Math.min(
+                width / (FaceLayout.boundsRight - FaceLayout.boundsLeft),
+                height / (FaceLayout.boundsBottom - FaceLayout.boundsTop));
+    }
+
+    /**
+     * Finds the shift that centers the face bounds along one axis
+     *
+     * @param size      image size along the axis in pixels
+     * @param scale     pixels per layout unit
+     * @param min       low edge of the bounds in layout units
+     * @param max       high edge of the bounds in layout units
+     * @return  the shift in pixels
+     */
+    public static float fitOffset(int size, float scale, float min,
+                                  float max){
+        return .5f * (size - scale * (max - min)) - scale * min;
+    }
+
+    /**
+     * A getter for the image width
+     * @return width in pixels
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * A getter for the image height
+     * @return height in pixels
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Draws one face
+     *
+     * @param skin          an ARGB hexadecimal color
+     * @param eye           an ARGB hexadecimal color
+     * @param hair          an ARGB hexadecimal color
+     * @param style         hairstyle id
+     * @param background    color of uncovered pixels
+     * @param fb            the framebuffer
+     * @param offset        index of the image's top-left pixel in fb
+     * @param stride        ints from one fb row to the next
+     */
+    public void render(int skin, int eye, int hair, int style,
+                       int background, int[] fb, int offset, int stride){
+        for (int y = 0; y < height; y++){
+            int row = offset + y * stride;
+            Arrays.fill(fb, row, row + width, background);
+        }
+        if (style < 0 || style >= hairSpans.length){
+            return;
+        }
+
+        int[] hairs = hairSpans[style];
+        if (hairBehind[style]){
+            fillSpans(hairs, 0, hairs.length, skin, eye, hair, fb, offset,
+                    stride);
+        }
+        fillSpans(faceSpans, 0, faceSpans.length, skin, eye, hair, fb,
+                offset, stride);
+        if (!hairBehind[style]){
+            fillSpans(hairs, 0, hairs.length, skin, eye, hair, fb, offset,
+                    stride);
+        }
+    }
+
+    /**
+     * Draws one face with its eyes moved: eyelids part or fully closed,
+     * and the pupils looking off center
+     * with the lids open and the pupils centered this draws the same
+     * pixels as render()
+     *
+     * @param skin          an ARGB hexadecimal color
+     * @param eye           an ARGB hexadecimal color
+     * @param hair          an ARGB hexadecimal color
+     * @param style         hairstyle id
+     * @param lid           how far the eyelids are closed, 0-1
+     * @param gazeX         where the pupils look, -1 (left) to 1 (right)
+     * @param gazeY         where the pupils look, -1 (up) to 1 (down)
+     * @param background    color of uncovered pixels
+     * @param fb            the framebuffer
+     * @param offset        index of the image's top-left pixel in fb
+     * @param stride        ints from one fb row to the next
+     */
+    public void render(int skin, int eye, int hair, int style, float lid,
+                       float gazeX, float gazeY, int background, int[] fb,
+                       int offset, int stride){
+        for (int y = 0; y < height; y++){
+            int row = offset + y * stride;
+            Arrays.fill(fb, row, row + width, background);
+        }
+        if (style < 0 || style >= hairSpans.length){
+            return;
+        }
+
+        int[] hairs = hairSpans[style];
+        if (hairBehind[style]){
+            fillSpans(hairs, 0, hairs.length, skin, eye, hair, fb, offset,
+                    stride);
+        }
+        //the head
+        fillSpans(faceSpans, 0, primitiveEnds[0], skin, eye, hair, fb,
+                offset, stride);
+        int dx = Math.round(gazeX * pupilTravel);
+        int dy = Math.round(gazeY * pupilTravel);
+        for (int side = 0; side < 2; side++){
+            fillEye(FaceLayout.FIRST_EYE + side,
+                    FaceLayout.FIRST_PUPIL + side, lid, dx, dy, skin, eye,
+                    fb, offset, stride);
+        }
+        //the nose and mouth
+        int details = primitiveEnds[FaceLayout.FIRST_PUPIL + 1];
+        fillSpans(faceSpans, details, faceSpans.length, skin, eye, hair, fb,
+                offset, stride);
+        if (!hairBehind[style]){
+            fillSpans(hairs, 0, hairs.length, skin, eye, hair, fb, offset,
+                    stride);
+        }
+    }
+
+    /**
+     * A helper method to draw one eye: the rows under the lid in skin,
+     * the rest in the eye color, then the pupil moved and kept inside
+     * what is left of the eye
+     * an eye is an oval, so it has at most one span per row, on
+     * consecutive rows
+     */
+    private void fillEye(int eyePrimitive, int pupilPrimitive, float lid,
+                         int dx, int dy, int skin, int eye, int[] fb,
+                         int offset, int stride){
+        int first = primitiveEnds[eyePrimitive - 1];
+        int end = primitiveEnds[eyePrimitive];
+        if (first == end){
+            return;
+        }
+        int topRow = faceSpans[first + SPAN_ROW];
+        int rows = (end - first) / SPAN_STRIDE;
+        int openRow = topRow + Math.round(lid * rows);
+        for (int s = first; s < end; s += SPAN_STRIDE){
+            int y = faceSpans[s + SPAN_ROW];
+            int row = offset + y * stride;
+            Arrays.fill(fb, row + faceSpans[s + SPAN_START],
+                    row + faceSpans[s + SPAN_END], y < openRow ? skin : eye);
+        }
+
+        for (int s = primitiveEnds[pupilPrimitive - 1];
+             s < primitiveEnds[pupilPrimitive]; s += SPAN_STRIDE){
+            int y = faceSpans[s + SPAN_ROW] + dy;
+            int e = first + (y - topRow) * SPAN_STRIDE;
+            if (y < openRow || e >= end || faceSpans[e + SPAN_ROW] != y){
+                continue;
+            }
+            int start = Math.max(faceSpans[s + SPAN_START] + dx,
+                    faceSpans[e + SPAN_START]);
+            int stop = Math.min(faceSpans[s + SPAN_END] + dx,
+                    faceSpans[e + SPAN_END]);
+            if (start < stop){
+                int row = offset + y * stride;
+                Arrays.fill(fb, row + start, row + stop, DETAILS_COLOR);
+            }
+        }
+    }
+
+    /**
+     * A helper method to fill a run of spans with their paints' colors
+     */
+    private static void fillSpans(int[] spans, int from, int to, int skin,
+                                  int eye, int hair, int[] fb, int offset,
+                                  int stride){
+        for (int s = from; s < to; s += SPAN_STRIDE){
+            int color;
+            switch (spans[s + SPAN_PAINT]){
+                case FaceLayout.PAINT_SKIN:
+                    color = skin;
+                    break;
+                case FaceLayout.PAINT_HAIR:
+                    color = hair;
+                    break;
+                case FaceLayout.PAINT_EYE:
+                    color = eye;
+                    break;
+                default:
+                    color = DETAILS_COLOR;
+                    break;
+            }
+            int row = offset + spans[s + SPAN_ROW] * stride;
+            Arrays.fill(fb, row + spans[s + SPAN_START],
+                    row + spans[s + SPAN_END], color);
+        }
+    }
+
+    /**
+     * Draws one face of a store
+     *
+     * @param store         the faces
+     * @param i             face index
+     * @param background    color of uncovered pixels
+     * @param fb            the framebuffer
+     * @param offset        index of the image's top-left pixel in fb
+     * @param stride        ints from one fb row to the next
+     */
+    public void render(FaceTraitStore store, int i, int background,
+                       int[] fb, int offset, int stride){
+        render(store.getSkinColor(i), store.getEyeColor(i),
+                store.getHairColor(i), store.getHairStyle(i),
+                background, fb, offset, stride);
+    }
+
+    /**
+     * A helper method to turn layout primitives into clipped pixel spans
+     *
+     * @param prims     layout primitives
+     * @param first     index of the first primitive to use
+     * @param count     number of primitives
+     * @return  SPAN_STRIDE ints per span
+     */
+    private int[] buildSpans(float[] prims, int first, int count){
+        int[] spans = new int[64];
+        int n = 0;
+        for (int p = first * FaceLayout.STRIDE;
+             p < (first + count) * FaceLayout.STRIDE; p += FaceLayout.STRIDE){
+            int paint = (int)prims[p + FaceLayout.PAINT];
+            float left = prims[p + FaceLayout.LEFT] * scale + offsetX;
+            float top = prims[p + FaceLayout.TOP] * scale + offsetY;
+            float right = prims[p + FaceLayout.RIGHT] * scale + offsetX;
+            float bottom = prims[p + FaceLayout.BOTTOM] * scale + offsetY;
+            boolean oval =
+                    (int)prims[p + FaceLayout.SHAPE] == FaceLayout.SHAPE_OVAL;
+
+            float cx = .5f * (left + right);
+            float cy = .5f * (top + bottom);
+            float rx = .5f * (right - left);
+            float ry = .5f * (bottom - top);
+            int firstRow = Math.max(0, round(top));
+            int lastRow = Math.min(height, round(bottom));
+            for (int y = firstRow; y < lastRow; y++){
+                int start;
+                int end;
+                if (oval){
+                    //half the oval's width at this row's pixel centers
+                    float dy = (y + .5f - cy) / ry;
+                    if (dy * dy >= 1f){
+                        continue;
+                    }
+                    float half = rx * (float)Math.sqrt(1f - dy * dy);
+                    start = round(cx - half);
+                    end = round(cx + half);
+                }
+                else {
+                    start = round(left);
+                    end = round(right);
+                }
+                start = Math.max(0, start);
+                end = Math.min(width, end);
+                if (start >= end){
+                    continue;
+                }
+                if (n + SPAN_STRIDE > spans.length){
+                    spans = Arrays.copyOf(spans, 2 * spans.length);
+                }
+                spans[n + SPAN_PAINT] = paint;
+                spans[n + SPAN_ROW] = y;
+                spans[n + SPAN_START] = start;
+                spans[n + SPAN_END] = end;
+                n += SPAN_STRIDE;
+            }
+        }
+        return Arrays.copyOf(spans, n);
+    }
+
+    /**
+     * A helper method to snap a shape edge to the nearest pixel boundary,
+     * the way Skia does for shapes drawn without anti-aliasing
+     * @param edge  position in pixels
+     * @return  pixel index
+     */
+    private static int round(float edge){
+        return (int)Math.floor(edge + .5f);
+    }
+}//class FaceRasterizer
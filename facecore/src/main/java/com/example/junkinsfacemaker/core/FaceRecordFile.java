@@ -0,0 +1,330 @@
+/**
+ * FaceMaker FaceRecordFile Class
+ * a file of packed faces: a 16-byte header followed by FaceCodec records
+ *   bytes 0-3    magic "FACE"
+ *   bytes 4-5    format version
+ *   bytes 6-7    reserved, zero
+ *   bytes 8-15   number of records
+ * records are written through a FileChannel and read back through
+ * memory-mapped segments, so any record can be fetched by index without
+ * reading the ones before it
+ *
+ * @version Oct 18 2026
+ * @author Alex Junkins
+ */
+package com.example.junkinsfacemaker.core;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+public final class FaceRecordFile {
+    public static final int MAGIC = 0x46414345; //"FACE"
+    public static final short VERSION = 1;
+    public static final int HEADER_BYTES = 16;
+
+    //records per mapped segment; keeps each mapping well under 2GB
+    static final int SEGMENT_RECORDS = 1 << 26;
+
+    //records buffered by the writer between channel writes
+    private static final int WRITE_BUFFER_RECORDS = 1 << 13;
+
+    private FaceRecordFile() { }
+
+    /**
+     * Writes a whole store to a new file
+     *
+     * @param path      the file, replaced if it exists
+     * @param store     the faces
+     * @throws IOException  if the file can't be written
+     */
+    public static void write(Path path, FaceTraitStore store)
+            throws IOException {
+        try (Writer writer = new Writer(path)){
+            writer.append(store, 0, store.size());
+        }
+    }
+
+    /**
+     * Reads a whole file into a new store
+     *
+     * @param path  the file
+     * @return  the faces
+     * @throws IOException  if the file can't be read or is too large
+     */
+    public static FaceTraitStore readAll(Path path) throws IOException {
+        try (Reader reader = new Reader(path)){
+            if (reader.size() > Integer.MAX_VALUE){
+                throw new IOException("too many faces for one store: "
+                        + reader.size());
+            }
+            FaceTraitStore store = new FaceTraitStore((int)reader.size());
+            reader.read(0, store, 0, store.size());
+            return store;
+        }
+    }
+
+    /**
+     * Streams records into a file
+     * the record count in the header is filled in on close
+     */
+    public static final class Writer implements Closeable {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(
+                WRITE_BUFFER_RECORDS * FaceCodec.RECORD_BYTES);
+        private long count;
+
+        /**
+         * Main constructor
+         * @param path  the file, replaced if it exists
+         * @throws IOException  if the file can't be opened
+         */
+        public Writer(Path path) throws IOException {
+            channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.WRITE);
+            //room for the header, written for real on close
+            channel.position(HEADER_BYTES);
+        }
+
+        /**
+         * Appends one encoded face
+         *
+         * @param low   the low part of the encoding
+         * @param high  the high part of the encoding
+         * @throws IOException  if the write fails
+         */
+        public void append(long low, short high) throws IOException {
+            if (buffer.remaining() < FaceCodec.RECORD_BYTES){
+                flush();
+            }
+            FaceCodec.write(buffer, low, high);
+            count++;
+        }
+
+        /**
+         * Appends a face
+         *
+         * @param skin      an ARGB hexadecimal color
+         * @param eye       an ARGB hexadecimal color
+         * @param hair      an ARGB hexadecimal color
+         * @param style     hairstyle id
+         * @throws IOException  if the write fails
+         */
+        public void append(int skin, int eye, int hair, int style)
+                throws IOException {
+            append(FaceCodec.packLow(skin, eye, hair),
+                    FaceCodec.packHigh(hair, style));
+        }
+
+        /**
+         * Appends a range of faces from a store
+         *
+         * @param store     source
+         * @param from      first index, inclusive
+         * @param to        last index, exclusive
+         * @throws IOException  if the write fails
+         */
+        public void append(FaceTraitStore store, int from, int to)
+                throws IOException {
+            int[] skin = store.skinColors();
+            int[] eye = store.eyeColors();
+            int[] hair = store.hairColors();
+            int[] style = store.hairStyles();
+            for (int i = from; i < to; i++){
+                append(skin[i], eye[i], hair[i], style[i]);
+            }
+        }
+
+        /**
+         * A getter for the records written so far
+         * @return record count
+         */
+        public long size() {
+            return count;
+        }
+
+        /**
+         * A helper method to write out the buffered records
+         * @throws IOException  if the write fails
+         */
+        private void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()){
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+
+        /**
+         * Writes the remaining records and the header, then closes
+         * @throws IOException  if the write fails
+         */
+        @Override
+        public void close() throws IOException {
+            try {
+                flush();
+                ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+                header.putInt(MAGIC).putShort(VERSION).putShort((short)0)
+                        .putLong(count).flip();
+                long at = 0;
+                while (header.hasRemaining()){
+                    at += channel.write(header, at);
+                }
+            }
+            finally {
+                channel.close();
+            }
+        }
+    }//class Writer
+
+    /**
+     * Random access to the records of a file through memory mapping
+     * reads are absolute, so one Reader can serve many threads
+     */
+    public static final class Reader implements Closeable {
+        private final FileChannel channel;
+        private final MappedByteBuffer[] segments;
+        private final long count;
+
+        /**
+         * Main constructor
+         * @param path  the file
+         * @throws IOException  if the file can't be read or isn't a face file
+         */
+        public Reader(Path path) throws IOException {
+            channel = FileChannel.open(path, StandardOpenOption.READ);
+            try {
+                ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+                long at = 0;
+                while (header.hasRemaining()){
+                    int n = channel.read(header, at);
+                    if (n < 0){
+                        throw new IOException("truncated header: " + path);
+                    }
+                    at += n;
+                }
+                header.flip();
+                if (header.getInt() != MAGIC){
+                    throw new IOException("not a face file: " + path);
+                }
+                short version = header.getShort();
+                if (version != VERSION){
+                    throw new IOException("unsupported version " + version
+                            + ": " + path);
+                }
+                header.getShort();
+                count = header.getLong();
+                //a corrupt count could overflow the size it implies
+                if (count < 0 || count > (Long.MAX_VALUE - HEADER_BYTES)
+                        / FaceCodec.RECORD_BYTES){
+                    throw new IOException("bad record count " + count
+                            + ": " + path);
+                }
+                long needed = HEADER_BYTES + count * FaceCodec.RECORD_BYTES;
+                if (channel.size() < needed){
+                    throw new IOException("truncated records: " + path);
+                }
+
+                int numSegments =
+                        (int)((count + SEGMENT_RECORDS - 1) / SEGMENT_RECORDS);
+                segments = new MappedByteBuffer[numSegments];
+                for (int s = 0; s < numSegments; s++){
+                    long first = (long)s * SEGMENT_RECORDS;
+                    long records = Math.min(SEGMENT_RECORDS, count - first);
+                    segments[s] = channel.map(FileChannel.MapMode.READ_ONLY,
+                            HEADER_BYTES + first * FaceCodec.RECORD_BYTES,
+                            records * FaceCodec.RECORD_BYTES);
+                }
+            }
+            catch (IOException | RuntimeException e){
+                channel.close();
+                throw e;
+            }
+        }
+
+        /**
+         * A getter for the number of records
+         * @return record count
+         */
+        public long size() {
+            return count;
+        }
+
+        /**
+         * Reads the low part of a record
+         * @param index     record index
+         * @return  the low part of the encoding
+         */
+        public long getLow(long index){
+            checkIndex(index);
+            return segments[(int)(index / SEGMENT_RECORDS)].getLong(
+                    (int)(index % SEGMENT_RECORDS) * FaceCodec.RECORD_BYTES);
+        }
+
+        /**
+         * Reads the high part of a record
+         * @param index     record index
+         * @return  the high part of the encoding
+         */
+        public short getHigh(long index){
+            checkIndex(index);
+            return segments[(int)(index / SEGMENT_RECORDS)].getShort(
+                    (int)(index % SEGMENT_RECORDS) * FaceCodec.RECORD_BYTES
+                            + 8);
+        }
+
+        /**
+         * Reads one face
+         * @param index     record index
+         * @param model     destination
+         */
+        public void read(long index, FaceModel model){
+            FaceCodec.unpack(getLow(index), getHigh(index), model);
+        }
+
+        /**
+         * Reads a run of faces into a store
+         *
+         * @param index     first record index
+         * @param store     destination
+         * @param to        first store index to fill
+         * @param length    number of faces
+         */
+        public void read(long index, FaceTraitStore store, int to,
+                         int length){
+            for (int i = 0; i < length; i++){
+                long low = getLow(index + i);
+                short high = getHigh(index + i);
+                store.set(to + i, FaceCodec.skinColor(low),
+                        FaceCodec.eyeColor(low),
+                        FaceCodec.hairColor(low, high),
+                        FaceCodec.validHairStyle(high));
+            }
+        }
+
+        /**
+         * A helper method to reject indexes past the end
+         * @param index     record index
+         */
+        private void checkIndex(long index){
+            if (index < 0 || index >= count){
+                throw new IndexOutOfBoundsException("record " + index
+                        + " of " + count);
+            }
+        }
+
+        /**
+         * Closes the file; the mappings stay valid until collected
+         * @throws IOException  if closing fails
+         */
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }//class Reader
+}//class FaceRecordFile
@@ -0,0 +1,569 @@
+/**
+ * FaceMaker FaceSimilarityIndex Class
+ * answers "faces that look like this one" queries over a large catalog
+ *
+ * a face is a point in a 9 dimensional color space: the red, green and
+ * blue channels of its skin, eye and hair colors. how alike two faces
+ * look is the squared distance between their points
+ * faces are split into one partition per hairstyle, and each partition
+ * is an implicit k-d tree: its points are reordered in place so that
+ * every node is the median of its range on one channel, with the lower
+ * half before it and the upper half after. there are no node objects,
+ * only the reordered channels, face ids and split channels
+ *
+ * a perceptual index measures the same way on LabColors.toLab8 colors,
+ * so distances are squared delta E and follow how different faces look
+ * rather than how far apart their RGB values are
+ *
+ * the index is immutable once built, so any number of threads can query
+ * it at once
+ *
+ * @version Oct 18 2026
+ * @author Alex Junkins
+ */
+package com.example.junkinsfacemaker.core;
+
+import java.util.Arrays;
+
+public final class FaceSimilarityIndex {
+    //pass as the style to search every hairstyle
+    public static final int ANY_STYLE = -1;
+    //skin, eye and hair RGB
+    public static final int DIMENSIONS = 9;
+    //the largest possible distance, between black and white faces
+    public static final int MAX_DISTANCE = DIMENSIONS * 255 * 255;
+
+    //ranges this small are scanned rather than split
+    static final int LEAF_SIZE = 8;
+    //points looked at to pick the widest channel of a range
+    private static final int SPREAD_SAMPLES = 32;
+
+    private final Partition[] partitions;
+    private final int size;
+    private final boolean perceptual;
+
+    private FaceSimilarityIndex(Partition[] partitions, int size,
+                                boolean perceptual) {
+        this.partitions = partitions;
+        this.size = size;
+        this.perceptual = perceptual;
+    }
+
+    /**
+     * Builds an index of every face in a store, by RGB distance
+     *
+     * @param store     the faces
+     * @return  the index; face ids are store indices
+     */
+    public static FaceSimilarityIndex build(FaceTraitStore store){
+        return build(store, false);
+    }
+
+    /**
+     * Builds an index of every face in a store
+     *
+     * @param store         the faces
+     * @param perceptual    whether to measure by delta E instead of RGB
+     * @return  the index; face ids are store indices
+     */
+    public static FaceSimilarityIndex build(FaceTraitStore store,
+                                            boolean perceptual){
+        int n = store.size();
+        int[] styles = store.hairStyles();
+        Partition[] partitions = allocate(styles, n);
+        int[] skins = store.skinColors();
+        int[] eyes = store.eyeColors();
+        int[] hairs = store.hairColors();
+        for (int i = 0; i < n; i++){
+            partitions[styles[i]].add(i, space(skins[i], perceptual),
+                    space(eyes[i], perceptual), space(hairs[i], perceptual));
+        }
+        return finish(partitions, n, perceptual);
+    }
+
+    /**
+     * Builds an index straight from a record file, without unpacking the
+     * faces into a store first
+     *
+     * @param reader        the faces
+     * @param perceptual    whether to measure by delta E instead of RGB
+     * @return  the index; face ids are record indices
+     */
+    public static FaceSimilarityIndex build(FaceRecordFile.Reader reader,
+                                            boolean perceptual){
+        if (reader.size() > Integer.MAX_VALUE){
+            throw new IllegalArgumentException("too many faces to index: "
+                    + reader.size());
+        }
+        int n = (int)reader.size();
+        int[] styles = new int[n];
+        for (int i = 0; i < n; i++){
+            styles[i] = FaceCodec.hairStyle(reader.getHigh(i));
+        }
+        Partition[] partitions = allocate(styles, n);
+        for (int i = 0; i < n; i++){
+            long low = reader.getLow(i);
+            short high = reader.getHigh(i);
+            partitions[styles[i]].add(i,
+                    space(FaceCodec.skinColor(low), perceptual),
+                    space(FaceCodec.eyeColor(low), perceptual),
+                    space(FaceCodec.hairColor(low, high), perceptual));
+        }
+        return finish(partitions, n, perceptual);
+    }
+
+    //a color as the index measures it
+    private static int space(int color, boolean perceptual){
+        return perceptual ? LabColors.toLab8(color) : color;
+    }
+
+    //sizes one partition per hairstyle that occurs
+    private static Partition[] allocate(int[] styles, int n){
+        int[] counts = new int[HairstyleRegistry.MAX_STYLES];
+        for (int i = 0; i < n; i++){
+            int style = styles[i];
+            if (style < 0 || style >= counts.length){
+                throw new IllegalArgumentException("face " + i
+                        + " has invalid hairstyle " + style);
+            }
+            counts[style]++;
+        }
+        Partition[] partitions = new Partition[counts.length];
+        for (int s = 0; s < counts.length; s++){
+            if (counts[s] > 0){
+                partitions[s] = new Partition(counts[s]);
+            }
+        }
+        return partitions;
+    }
+
+    private static FaceSimilarityIndex finish(Partition[] partitions, int n,
+                                              boolean perceptual){
+        for (Partition p : partitions){
+            if (p != null){
+                p.build(0, p.ids.length);
+            }
+        }
+        return new FaceSimilarityIndex(partitions, n, perceptual);
+    }
+
+    /**
+     * The squared distance between two faces' colors
+     * on LabColors.toLab8 colors, this is the squared delta E
+     *
+     * @param skinA     first face's skin color
+     * @param eyeA      first face's eye color
+     * @param hairA     first face's hair color
+     * @param skinB     second face's skin color
+     * @param eyeB      second face's eye color
+     * @param hairB     second face's hair color
+     * @return  0 for identical colors, up to MAX_DISTANCE
+     */
+    public static int distance(int skinA, int eyeA, int hairA,
+                               int skinB, int eyeB, int hairB){
+        return colorDistance(skinA, skinB) + colorDistance(eyeA, eyeB)
+                + colorDistance(hairA, hairB);
+    }
+
+    private static int colorDistance(int a, int b){
+        int dr = ((a >> 16) & 0xFF) - ((b >> 16) & 0xFF);
+        int dg = ((a >> 8) & 0xFF) - ((b >> 8) & 0xFF);
+        int db = (a & 0xFF) - (b & 0xFF);
+        return dr * dr + dg * dg + db * db;
+    }
+
+    /**
+     * A getter for the number of faces indexed
+     * @return  size
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * A getter for how distances are measured
+     * @return  true for delta E, false for RGB
+     */
+    public boolean isPerceptual() {
+        return perceptual;
+    }
+
+    /**
+     * Finds the faces closest to some colors
+     *
+     * @param skin      skin color
+     * @param eye       eye color
+     * @param hair      hair color
+     * @param style     only faces with this hairstyle, or ANY_STYLE
+     * @param out       receives the face ids, nearest first; its length is
+     *                  how many to find
+     * @return  how many were found, fewer than out.length only if there
+     *          aren't enough faces
+     */
+    public int nearest(int skin, int eye, int hair, int style, int[] out){
+        Search search = new Search(space(skin, perceptual),
+                space(eye, perceptual), space(hair, perceptual), -1);
+        search.startNearest(out);
+        searchPartitions(search, style);
+        return search.finishNearest();
+    }
+
+    /**
+     * Finds the faces that look most like one of the indexed faces: the
+     * same hairstyle and the closest colors, leaving out the face itself
+     *
+     * @param store     the store the index was built from
+     * @param face      the face to match
+     * @param out       receives the face ids, nearest first; its length is
+     *                  how many to find
+     * @return  how many were found
+     */
+    public int similarTo(FaceTraitStore store, int face, int[] out){
+        Search search = new Search(
+                space(store.getSkinColor(face), perceptual),
+                space(store.getEyeColor(face), perceptual),
+                space(store.getHairColor(face), perceptual), face);
+        search.startNearest(out);
+        searchPartitions(search, store.getHairStyle(face));
+        return search.finishNearest();
+    }
+
+    /**
+     * Finds every face within a distance of some colors
+     *
+     * @param skin          skin color
+     * @param eye           eye color
+     * @param hair          hair color
+     * @param style         only faces with this hairstyle, or ANY_STYLE
+     * @param maxDistance   the largest squared distance to include, as
+     *                      returned by distance(); squared delta E for a
+     *                      perceptual index
+     * @return  the face ids, in ascending order
+     */
+    public int[] within(int skin, int eye, int hair, int style,
+                        int maxDistance){
+        Search search = new Search(space(skin, perceptual),
+                space(eye, perceptual), space(hair, perceptual), -1);
+        search.startRange(maxDistance);
+        searchPartitions(search, style);
+        return search.finishRange();
+    }
+
+    private void searchPartitions(Search search, int style){
+        if (style == ANY_STYLE){
+            for (Partition p : partitions){
+                if (p != null){
+                    p.search(search, 0, p.ids.length, 0);
+                }
+            }
+        }
+        else if (style >= 0 && style < partitions.length
+                && partitions[style] != null){
+            Partition p = partitions[style];
+            p.search(search, 0, p.ids.length, 0);
+        }
+    }
+
+    /**
+     * The faces of one hairstyle, as an implicit k-d tree
+     * the node of the range [lo, hi) is point (lo + hi) / 2; its split
+     * channel is splits[node]
+     */
+    private static final class Partition {
+        private final int[] ids;
+        //DIMENSIONS unsigned channels per point
+        private final byte[] channels;
+        private final byte[] splits;
+        private int count;
+
+        Partition(int capacity) {
+            ids = new int[capacity];
+            channels = new byte[capacity * DIMENSIONS];
+            splits = new byte[capacity];
+        }
+
+        void add(int id, int skin, int eye, int hair){
+            int at = count * DIMENSIONS;
+            putColor(at, skin);
+            putColor(at + 3, eye);
+            putColor(at + 6, hair);
+            ids[count++] = id;
+        }
+
+        private void putColor(int at, int color){
+            channels[at] = (byte)(color >> 16);
+            channels[at + 1] = (byte)(color >> 8);
+            channels[at + 2] = (byte)color;
+        }
+
+        private int channel(int point, int dim){
+            return channels[point * DIMENSIONS + dim] & 0xFF;
+        }
+
+        //arranges [lo, hi) into a subtree
+        void build(int lo, int hi){
+            while (hi - lo > LEAF_SIZE){
+                int mid = (lo + hi) >>> 1;
+                int dim = widestChannel(lo, hi);
+                select(lo, hi, mid, dim);
+                splits[mid] = (byte)dim;
+                //recurse into the smaller half so the stack stays shallow
+                if (mid - lo < hi - mid - 1){
+                    build(lo, mid);
+                    lo = mid + 1;
+                }
+                else {
+                    build(mid + 1, hi);
+                    hi = mid;
+                }
+            }
+        }
+
+        //estimates which channel varies most over [lo, hi) from a sample
+        private int widestChannel(int lo, int hi){
+            int step = Math.max(1, (hi - lo) / SPREAD_SAMPLES);
+            int best = 0;
+            int bestSpread = -1;
+            for (int dim = 0; dim < DIMENSIONS; dim++){
+                int min = 255;
+                int max = 0;
+                for (int i = lo; i < hi; i += step){
+                    int c = channel(i, dim);
+                    min = Math.min(min, c);
+                    max = Math.max(max, c);
+                }
+                if (max - min > bestSpread){
+                    bestSpread = max - min;
+                    best = dim;
+                }
+            }
+            return best;
+        }
+
+        //quickselect: puts the point of rank k on dim at k, smaller before
+        //and larger after
+        private void select(int lo, int hi, int k, int dim){
+            hi--;
+            while (hi > lo){
+                int pivot = medianOfThree(lo, (lo + hi) >>> 1, hi, dim);
+                int i = lo;
+                int j = hi;
+                while (i <= j){
+                    while (channel(i, dim) < pivot){
+                        i++;
+                    }
+                    while (channel(j, dim) > pivot){
+                        j--;
+                    }
+                    if (i <= j){
+                        swap(i++, j--);
+                    }
+                }
+                if (k <= j){
+                    hi = j;
+                }
+                else if (k >= i){
+                    lo = i;
+                }
+                else {
+                    return;
+                }
+            }
+        }
+
+        private int medianOfThree(int a, int b, int c, int dim){
+            int x = channel(a, dim);
+            int y = channel(b, dim);
+            int z = channel(c, dim);
+            return Math.max(Math.min(x, y), Math.min(Math.max(x, y), z));
+        }
+
+        private void swap(int a, int b){
+            int id = ids[a];
+            ids[a] = ids[b];
+            ids[b] = id;
+            int pa = a * DIMENSIONS;
+            int pb = b * DIMENSIONS;
+            for (int d = 0; d < DIMENSIONS; d++){
+                byte c = channels[pa + d];
+                channels[pa + d] = channels[pb + d];
+                channels[pb + d] = c;
+            }
+        }
+
+        private int distance(int point, int[] q){
+            int at = point * DIMENSIONS;
+            int sum = 0;
+            for (int d = 0; d < DIMENSIONS; d++){
+                int diff = (channels[at + d] & 0xFF) - q[d];
+                sum += diff * diff;
+            }
+            return sum;
+        }
+
+        //visits [lo, hi), whose cell is at least cellDistance from the
+        //query, skipping halves that can't beat the search's bound
+        void search(Search s, int lo, int hi, int cellDistance){
+            if (hi - lo <= LEAF_SIZE){
+                for (int i = lo; i < hi; i++){
+                    s.offer(ids[i], distance(i, s.query));
+                }
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            int dim = splits[mid];
+            s.offer(ids[mid], distance(mid, s.query));
+            int diff = s.query[dim] - channel(mid, dim);
+            if (diff < 0){
+                search(s, lo, mid, cellDistance);
+            }
+            else {
+                search(s, mid + 1, hi, cellDistance);
+            }
+            //the far cell is as far as this one, but diff away on dim
+            int old = s.offsets[dim];
+            int farDistance = cellDistance - old * old + diff * diff;
+            if (farDistance > s.bound()){
+                return;
+            }
+            s.offsets[dim] = diff;
+            if (diff < 0){
+                search(s, mid + 1, hi, farDistance);
+            }
+            else {
+                search(s, lo, mid, farDistance);
+            }
+            s.offsets[dim] = old;
+        }
+    }//class Partition
+
+    /**
+     * The state of one query: a bounded max-heap of the best faces for a
+     * k-nearest search, or a growing list for a range search
+     */
+    private static final class Search {
+        private final int[] query = new int[DIMENSIONS];
+        //per channel, how far the query is outside the cell being visited
+        private final int[] offsets = new int[DIMENSIONS];
+        private final int exclude;
+
+        //nearest: heap of ids and distances, the worst at the root
+        private int[] heapIds;
+        private int[] heapDistances;
+        private int count;
+        private int capacity;
+
+        //range: everything at or under maxDistance
+        private boolean range;
+        private int maxDistance;
+
+        Search(int skin, int eye, int hair, int exclude) {
+            int[] colors = {skin, eye, hair};
+            for (int c = 0; c < 3; c++){
+                query[3 * c] = FaceColors.channel(colors[c], FaceColors.RED);
+                query[3 * c + 1] =
+                        FaceColors.channel(colors[c], FaceColors.GREEN);
+                query[3 * c + 2] =
+                        FaceColors.channel(colors[c], FaceColors.BLUE);
+            }
+            this.exclude = exclude;
+        }
+
+        void startNearest(int[] out){
+            heapIds = out;
+            heapDistances = new int[out.length];
+            capacity = out.length;
+        }
+
+        void startRange(int maxDistance){
+            range = true;
+            this.maxDistance = maxDistance;
+            heapIds = new int[16];
+        }
+
+        //squared distance past which a face can't be a result
+        int bound(){
+            if (range){
+                return maxDistance;
+            }
+            return count < capacity ? MAX_DISTANCE : heapDistances[0];
+        }
+
+        void offer(int id, int distance){
+            if (id == exclude){
+                return;
+            }
+            if (range){
+                if (distance <= maxDistance){
+                    if (count == heapIds.length){
+                        heapIds = Arrays.copyOf(heapIds, 2 * count);
+                    }
+                    heapIds[count++] = id;
+                }
+            }
+            else if (count < capacity){
+                heapIds[count] = id;
+                heapDistances[count] = distance;
+                siftUp(count++);
+            }
+            else if (capacity > 0 && distance < heapDistances[0]){
+                heapIds[0] = id;
+                heapDistances[0] = distance;
+                siftDown(0, count);
+            }
+        }
+
+        //heap sorts the results in place, nearest first
+        int finishNearest(){
+            for (int n = count - 1; n > 0; n--){
+                swap(0, n);
+                siftDown(0, n);
+            }
+            return count;
+        }
+
+        int[] finishRange(){
+            int[] result = Arrays.copyOf(heapIds, count);
+            Arrays.sort(result);
+            return result;
+        }
+
+        private void siftUp(int i){
+            while (i > 0){
+                int parent = (i - 1) >>> 1;
+                if (heapDistances[parent] >= heapDistances[i]){
+                    return;
+                }
+                swap(i, parent);
+                i = parent;
+            }
+        }
+
+        private void siftDown(int i, int n){
+            while (true){
+                int child = 2 * i + 1;
+                if (child >= n){
+                    return;
+                }
+                if (child + 1 < n
+                        && heapDistances[child + 1] > heapDistances[child]){
+                    child++;
+                }
+                if (heapDistances[i] >= heapDistances[child]){
+                    return;
+                }
+                swap(i, child);
+                i = child;
+            }
+        }
+
+        private void swap(int a, int b){
+            int id = heapIds[a];
+            heapIds[a] = heapIds[b];
+            heapIds[b] = id;
+            int d = heapDistances[a];
+            heapDistances[a] = heapDistances[b];
+            heapDistances[b] = d;
+        }
+    }//class Search
+}//class FaceSimilarityIndex
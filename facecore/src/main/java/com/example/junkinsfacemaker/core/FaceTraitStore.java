@@ -0,0 +1,149 @@
+/**
+ * FaceMaker FaceTraitStore Class
+ * holds the traits of many faces as parallel int arrays (one array per
+ * trait) instead of one object per face
+ * face i is skinColors[i], eyeColors[i], hairColors[i], hairStyles[i]
+ *
+ * @version Oct 18 2026
+ * @author Alex Junkins
+ */
+package com.example.junkinsfacemaker.core;
+
+public class FaceTraitStore {
+    private final int size;
+    private final int[] skinColors;
+    private final int[] eyeColors;
+    private final int[] hairColors;
+    private final int[] hairStyles;
+
+    /**
+     * Main constructor
+     * creates a store of all-zero faces
+     *
+     * @param size  number of faces
+     */
+    public FaceTraitStore(int size) {
+        if (size < 0){
+            throw new IllegalArgumentException("negative size: " + size);
+        }
+        this.size = size;
+        skinColors = new int[size];
+        eyeColors = new int[size];
+        hairColors = new int[size];
+        hairStyles = new int[size];
+    }
+
+    /**
+     * A getter for the number of faces
+     * @return size
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Sets all traits of one face
+     *
+     * @param i         face index
+     * @param skin      an ARGB hexadecimal color
+     * @param eye       an ARGB hexadecimal color
+     * @param hair      an ARGB hexadecimal color
+     * @param style     hairstyle id
+     */
+    public void set(int i, int skin, int eye, int hair, int style){
+        skinColors[i] = skin;
+        eyeColors[i] = eye;
+        hairColors[i] = hair;
+        hairStyles[i] = style;
+    }
+
+    /**
+     * Copies one face's traits from a model
+     * @param i         face index
+     * @param model     source traits
+     */
+    public void set(int i, FaceModel model){
+        set(i, model.getSkinColor(), model.getEyeColor(),
+                model.getHairColor(), model.getHairStyle());
+    }
+
+    /**
+     * Copies one face's traits into a model
+     * @param i         face index
+     * @param model     destination
+     */
+    public void copyTo(int i, FaceModel model){
+        model.setSkinColor(skinColors[i]);
+        model.setEyeColor(eyeColors[i]);
+        model.setHairColor(hairColors[i]);
+        model.setHairStyle(hairStyles[i]);
+    }
+
+    /**
+     * A getter for skin color
+     * @param i     face index
+     * @return skin color
+     */
+    public int getSkinColor(int i) {
+        return skinColors[i];
+    }
+
+    /**
+     * A getter for eye color
+     * @param i     face index
+     * @return eye color
+     */
+    public int getEyeColor(int i) {
+        return eyeColors[i];
+    }
+
+    /**
+     * A getter for hair color
+     * @param i     face index
+     * @return hair color
+     */
+    public int getHairColor(int i) {
+        return hairColors[i];
+    }
+
+    /**
+     * A getter for hairstyle
+     * @param i     face index
+     * @return hair style
+     */
+    public int getHairStyle(int i) {
+        return hairStyles[i];
+    }
+
+    /**
+     * Direct access to the skin color column, for bulk jobs
+     * @return the backing array
+     */
+    public int[] skinColors() {
+        return skinColors;
+    }
+
+    /**
+     * Direct access to the eye color column, for bulk jobs
+     * @return the backing array
+     */
+    public int[] eyeColors() {
+        return eyeColors;
+    }
+
+    /**
+     * Direct access to the hair color column, for bulk jobs
+     * @return the backing array
+     */
+    public int[] hairColors() {
+        return hairColors;
+    }
+
+    /**
+     * Direct access to the hairstyle column, for bulk jobs
+     * @return the backing array
+     */
+    public int[] hairStyles() {
+        return hairStyles;
+    }
+}//class FaceTraitStore
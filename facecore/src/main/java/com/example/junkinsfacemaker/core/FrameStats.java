@@ -0,0 +1,125 @@
+/**
+ * FaceMaker FrameStats Class
+ * collects frame times so different render paths can be compared
+ * times are kept in a histogram of 1ms buckets, so recording a frame
+ * never allocates
+ *
+ * @version Oct 18 2026
+ * @author Alex Junkins
+ */
+package com.example.junkinsfacemaker.core;
+
+import java.util.Locale;
+
+public class FrameStats {
+    //frames slower than this all land in the last bucket
+    public static final int NUM_BUCKETS = 100;
+    private static final long NANOS_PER_MILLI = 1000000L;
+
+    private final String name;
+    private final long[] buckets = new long[NUM_BUCKETS];
+    private long count;
+    private long totalNanos;
+    private long maxNanos;
+
+    /**
+     * Main constructor
+     * @param name  label used when the stats are printed
+     */
+    public FrameStats(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Records one frame
+     * @param nanos     how long the frame took
+     */
+    public synchronized void record(long nanos){
+        int bucket = (int)Math.min(nanos / NANOS_PER_MILLI, NUM_BUCKETS - 1);
+        buckets[bucket]++;
+        count++;
+        totalNanos += nanos;
+        if (nanos > maxNanos){
+            maxNanos = nanos;
+        }
+    }
+
+    /**
+     * Forgets all recorded frames
+     */
+    public synchronized void reset(){
+        for (int i = 0; i < NUM_BUCKETS; i++){
+            buckets[i] = 0;
+        }
+        count = 0;
+        totalNanos = 0;
+        maxNanos = 0;
+    }
+
+    /**
+     * A getter for the number of recorded frames
+     * @return frame count
+     */
+    public synchronized long getCount() {
+        return count;
+    }
+
+    /**
+     * A getter for the mean frame time
+     * @return mean in nanoseconds, 0 if nothing was recorded
+     */
+    public synchronized long getMeanNanos() {
+        return count == 0 ? 0 : totalNanos / count;
+    }
+
+    /**
+     * A getter for the slowest frame
+     * @return max in nanoseconds
+     */
+    public synchronized long getMaxNanos() {
+        return maxNanos;
+    }
+
+    /**
+     * Finds the frame time below which a fraction of frames fall
+     * accurate to the 1ms bucket size
+     *
+     * @param fraction  between 0 and 1, e.g. .99 for p99
+     * @return  the upper bound of the bucket in milliseconds
+     */
+    public synchronized int getPercentileMillis(double fraction){
+        if (count == 0){
+            return 0;
+        }
+        long target = (long)Math.ceil(fraction * count);
+        long seen = 0;
+        for (int i = 0; i < NUM_BUCKETS; i++){
+            seen += buckets[i];
+            if (seen >= target){
+                return i + 1;
+            }
+        }
+        return NUM_BUCKETS;
+    }
+
+    /**
+     * A getter for the label
+     * @return name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Summarizes the recorded frames on one line
+     * @return  count, mean, p50, p99 and max
+     */
+    @Override
+    public synchronized String toString() {
+        return String.format(Locale.US,
+                "%s: frames=%d mean=%.3fms p50<%dms p99<%dms max=%.3fms",
+                name, count, getMeanNanos() / 1e6,
+                getPercentileMillis(.5), getPercentileMillis(.99),
+                maxNanos / 1e6);
+    }
+}//class FrameStats
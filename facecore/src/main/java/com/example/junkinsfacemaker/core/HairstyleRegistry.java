@@ -0,0 +1,222 @@
+/**
+ * FaceMaker HairstyleRegistry Class
+ * the table of hairstyles: for each int id, a display name, whether the
+ * hair goes behind or in front of the head, and its precompiled draw
+ * primitives in the FaceLayout format
+ *
+ * ids are dense (0 to size()-1) so every lookup is an array index; a
+ * registry is immutable once built, and the default one can be swapped
+ * for a bigger table at startup
+ *
+ * @version Oct 18 2026
+ * @author Alex Junkins
+ */
+package com.example.junkinsfacemaker.core;
+
+import java.util.Arrays;
+
+public final class HairstyleRegistry {
+    //z-orders
+    public static final int BEHIND_HEAD = 0;
+    public static final int IN_FRONT_OF_HEAD = 1;
+
+    //ids have to fit the 8 bits FaceCodec packs them into
+    public static final int MAX_STYLES = 256;
+
+    //the most primitives one hairstyle may use
+    public static final int MAX_PRIMITIVES = 4;
+
+    private static volatile HairstyleRegistry defaultRegistry =
+            createBuiltIn();
+
+    private final String[] names;
+    private final int[] zOrders;
+    private final float[][] primitives;
+
+    /**
+     * Builder constructor
+     * @param b     the builder holding the styles
+     */
+    private HairstyleRegistry(Builder b) {
+        names = Arrays.copyOf(b.names, b.size);
+        zOrders = Arrays.copyOf(b.zOrders, b.size);
+        primitives = Arrays.copyOf(b.primitives, b.size);
+    }
+
+    /**
+     * A getter for the registry the app and generators use
+     * @return  the default registry
+     */
+    public static HairstyleRegistry getDefault() {
+        return defaultRegistry;
+    }
+
+    /**
+     * Replaces the default registry
+     * meant for startup, before any faces are made; faces made earlier
+     * may hold ids the new registry does not have
+     *
+     * @param registry  the new default
+     */
+    public static void setDefault(HairstyleRegistry registry){
+        if (registry == null || registry.size() == 0){
+            throw new IllegalArgumentException("empty hairstyle registry");
+        }
+        defaultRegistry = registry;
+    }
+
+    /**
+     * A getter for the number of hairstyles
+     * @return  count; ids run from 0 to this minus one
+     */
+    public int size() {
+        return names.length;
+    }
+
+    /**
+     * A method to check a hairstyle id
+     * @param id    the id to check
+     * @return  whether the id names a hairstyle in this registry
+     */
+    public boolean isValid(int id){
+        return id >= 0 && id < names.length;
+    }
+
+    /**
+     * A getter for a hairstyle's display name
+     * @param id    hairstyle id
+     * @return  name
+     */
+    public String getName(int id){
+        return names[id];
+    }
+
+    /**
+     * A getter for every display name, in id order, for pickers
+     * @return  a new array of names
+     */
+    public String[] getNames(){
+        return names.clone();
+    }
+
+    /**
+     * A getter for which side of the head a hairstyle is drawn on
+     * @param id    hairstyle id
+     * @return  BEHIND_HEAD or IN_FRONT_OF_HEAD
+     */
+    public int getZOrder(int id){
+        return zOrders[id];
+    }
+
+    /**
+     * A getter for a hairstyle's primitives, in FaceLayout format
+     * the array is owned by the registry and must not be modified
+     *
+     * @param id    hairstyle id
+     * @return  getPrimitiveCount(id) * FaceLayout.STRIDE floats
+     */
+    public float[] getPrimitives(int id){
+        return primitives[id];
+    }
+
+    /**
+     * A getter for how many primitives a hairstyle has
+     * @param id    hairstyle id
+     * @return  count, at most MAX_PRIMITIVES
+     */
+    public int getPrimitiveCount(int id){
+        return primitives[id].length / FaceLayout.STRIDE;
+    }
+
+    /**
+     * Starts a registry holding the built-in hairstyles, so their ids
+     * (FaceModel.HAT_HAIR, AFRO and POMPADOUR) stay valid
+     *
+     * @return  a builder
+     */
+    public static Builder withBuiltIns() {
+        Builder b = new Builder();
+        float centerX = FaceLayout.headLeft + .5f*FaceLayout.headWidth;
+        float top = FaceLayout.headTop - .2f*FaceLayout.hairHeight;
+
+        b.add("Ultimate Hat-hair", BEHIND_HEAD,
+                FaceLayout.SHAPE_RECT, FaceLayout.PAINT_HAIR,
+                centerX - .5f*FaceLayout.hairWidth, top,
+                centerX + .5f*FaceLayout.hairWidth,
+                FaceLayout.headTop + .8f*FaceLayout.hairHeight);
+        b.add("Afro", IN_FRONT_OF_HEAD,
+                FaceLayout.SHAPE_OVAL, FaceLayout.PAINT_HAIR,
+                centerX - .5f*FaceLayout.hairWidth, top,
+                centerX + .5f*FaceLayout.hairWidth,
+                FaceLayout.headTop + FaceLayout.hairHeight + 20f);
+        b.add("Geometric Pompadour", IN_FRONT_OF_HEAD,
+                FaceLayout.SHAPE_RECT, FaceLayout.PAINT_HAIR,
+                centerX - .6f*FaceLayout.hairWidth, top,
+                centerX + .3f*FaceLayout.hairWidth,
+                FaceLayout.headTop + .95f*FaceLayout.hairHeight);
+        return b;
+    }
+
+    /**
+     * A helper method to build the initial default registry
+     * @return  the built-in hairstyles
+     */
+    private static HairstyleRegistry createBuiltIn(){
+        return withBuiltIns().build();
+    }
+
+    /**
+     * Collects hairstyles; ids are handed out in the order they are added
+     */
+    public static final class Builder {
+        private String[] names = new String[8];
+        private int[] zOrders = new int[8];
+        private float[][] primitives = new float[8][];
+        private int size;
+
+        private Builder() { }
+
+        /**
+         * Adds a hairstyle
+         *
+         * @param name          display name
+         * @param zOrder        BEHIND_HEAD or IN_FRONT_OF_HEAD
+         * @param primitives    FaceLayout.STRIDE floats per primitive:
+         *                      shape, paint slot, left, top, right, bottom
+         * @return  the new hairstyle's id
+         */
+        public int add(String name, int zOrder, float... primitives){
+            if (size == MAX_STYLES){
+                throw new IllegalStateException("more than " + MAX_STYLES
+                        + " hairstyles");
+            }
+            if (zOrder != BEHIND_HEAD && zOrder != IN_FRONT_OF_HEAD){
+                throw new IllegalArgumentException("bad z-order: " + zOrder);
+            }
+            int count = primitives.length / FaceLayout.STRIDE;
+            if (count == 0 || count > MAX_PRIMITIVES
+                    || primitives.length % FaceLayout.STRIDE != 0){
+                throw new IllegalArgumentException(name + ": needs 1 to "
+                        + MAX_PRIMITIVES + " primitives of "
+                        + FaceLayout.STRIDE + " floats");
+            }
+            if (size == names.length){
+                names = Arrays.copyOf(names, 2 * size);
+                zOrders = Arrays.copyOf(zOrders, 2 * size);
+                this.primitives = Arrays.copyOf(this.primitives, 2 * size);
+            }
+            names[size] = name;
+            zOrders[size] = zOrder;
+            this.primitives[size] = primitives.clone();
+            return size++;
+        }
+
+        /**
+         * Freezes the hairstyles into a registry
+         * @return  the registry
+         */
+        public HairstyleRegistry build(){
+            return new HairstyleRegistry(this);
+        }
+    }//class Builder
+}//class HairstyleRegistry
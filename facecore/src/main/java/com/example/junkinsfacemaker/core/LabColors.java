@@ -0,0 +1,260 @@
+/**
+ * FaceMaker LabColors Class
+ * converts face colors between sRGB and CIE L*a*b*, where equal distances
+ * look about equally different, and measures how different colors look
+ *
+ * sRGB to Lab is table driven: each 8-bit channel's share of X, Y and Z
+ * is precomputed, and the Lab cube root curve is a linear interpolation
+ * table, so a conversion is a few lookups and no pow() calls
+ * color differences are CIE76 delta E, the Euclidean distance in Lab;
+ * the batch versions work on parallel float arrays so the JIT can
+ * vectorize the loops
+ *
+ * External Citation
+ * Date: Oct 18, 2026
+ * problem: Needed the sRGB, XYZ and Lab conversion formulas
+ * Resource: Bruce Lindbloom, "Useful Color Equations"
+ * http://www.brucelindbloom.com/index.html?Math.html
+ * Solution: Used the sRGB (D65) matrices and the CIE Lab definitions
+ *
+ * @version Oct 18 2026
+ * @author Alex Junkins
+ */
+package com.example.junkinsfacemaker.core;
+
+public final class LabColors {
+    //D65 reference white
+    private static final double WHITE_X = 0.95047;
+    private static final double WHITE_Y = 1.0;
+    private static final double WHITE_Z = 1.08883;
+
+    //where the Lab curve switches from linear to a cube root
+    private static final double EPSILON = 216.0 / 24389.0;
+    private static final double KAPPA = 24389.0 / 27.0;
+
+    //steps of the cube root curve table over 0-1
+    private static final int CURVE_STEPS = 4096;
+
+    //each channel's share of X, Y and Z, already divided by the white
+    private static final float[] X_OF_RED = new float[256];
+    private static final float[] X_OF_GREEN = new float[256];
+    private static final float[] X_OF_BLUE = new float[256];
+    private static final float[] Y_OF_RED = new float[256];
+    private static final float[] Y_OF_GREEN = new float[256];
+    private static final float[] Y_OF_BLUE = new float[256];
+    private static final float[] Z_OF_RED = new float[256];
+    private static final float[] Z_OF_GREEN = new float[256];
+    private static final float[] Z_OF_BLUE = new float[256];
+    //the Lab curve f(t), with one extra entry for interpolation
+    private static final float[] CURVE = new float[CURVE_STEPS + 2];
+
+    static {
+        for (int v = 0; v < 256; v++){
+            double lin = toLinear(v / 255.0);
+            X_OF_RED[v] = (float)(0.4124564 * lin / WHITE_X);
+            X_OF_GREEN[v] = (float)(0.3575761 * lin / WHITE_X);
+            X_OF_BLUE[v] = (float)(0.1804375 * lin / WHITE_X);
+            Y_OF_RED[v] = (float)(0.2126729 * lin / WHITE_Y);
+            Y_OF_GREEN[v] = (float)(0.7151522 * lin / WHITE_Y);
+            Y_OF_BLUE[v] = (float)(0.0721750 * lin / WHITE_Y);
+            Z_OF_RED[v] = (float)(0.0193339 * lin / WHITE_Z);
+            Z_OF_GREEN[v] = (float)(0.1191920 * lin / WHITE_Z);
+            Z_OF_BLUE[v] = (float)(0.9503041 * lin / WHITE_Z);
+        }
+        for (int i = 0; i < CURVE.length; i++){
+            CURVE[i] = (float)curve((double)i / CURVE_STEPS);
+        }
+    }
+
+    private LabColors() { }
+
+    /**
+     * The exact sRGB decoding curve
+     * @param v     an encoded channel, 0-1
+     * @return  linear light, 0-1
+     */
+    static double toLinear(double v){
+        return v <= 0.04045 ? v / 12.92 : Math.pow((v + 0.055) / 1.055, 2.4);
+    }
+
+    /**
+     * The exact sRGB encoding curve
+     * @param lin   linear light, 0-1
+     * @return  an encoded channel, 0-1
+     */
+    static double fromLinear(double lin){
+        return lin <= 0.0031308
+                ? 12.92 * lin : 1.055 * Math.pow(lin, 1 / 2.4) - 0.055;
+    }
+
+    /**
+     * The exact Lab curve
+     * @param t     a tristimulus value relative to the white
+     * @return  f(t)
+     */
+    static double curve(double t){
+        return t > EPSILON ? Math.cbrt(t) : (KAPPA * t + 16) / 116;
+    }
+
+    //the Lab curve from the table; t is clamped to 0-1
+    private static float lookupCurve(float t){
+        float x = Math.min(Math.max(t, 0f), 1f) * CURVE_STEPS;
+        int i = (int)x;
+        float frac = x - i;
+        return CURVE[i] + frac * (CURVE[i + 1] - CURVE[i]);
+    }
+
+    //f(X/Xn), f(Y/Yn) and f(Z/Zn) of a color, in that order
+    private static float curveX(int c){
+        int r = (c >> 16) & 0xFF, g = (c >> 8) & 0xFF, b = c & 0xFF;
+        return lookupCurve(X_OF_RED[r] + X_OF_GREEN[g] + X_OF_BLUE[b]);
+    }
+
+    private static float curveY(int c){
+        int r = (c >> 16) & 0xFF, g = (c >> 8) & 0xFF, b = c & 0xFF;
+        return lookupCurve(Y_OF_RED[r] + Y_OF_GREEN[g] + Y_OF_BLUE[b]);
+    }
+
+    private static float curveZ(int c){
+        int r = (c >> 16) & 0xFF, g = (c >> 8) & 0xFF, b = c & 0xFF;
+        return lookupCurve(Z_OF_RED[r] + Z_OF_GREEN[g] + Z_OF_BLUE[b]);
+    }
+
+    /**
+     * Converts one color to Lab
+     *
+     * @param color     an ARGB hexadecimal color; alpha is ignored
+     * @param lab       receives L (0-100), a and b
+     */
+    public static void toLab(int color, float[] lab){
+        float fx = curveX(color);
+        float fy = curveY(color);
+        float fz = curveZ(color);
+        lab[0] = 116 * fy - 16;
+        lab[1] = 500 * (fx - fy);
+        lab[2] = 200 * (fy - fz);
+    }
+
+    /**
+     * Converts a run of colors to Lab, into parallel arrays
+     *
+     * @param colors    ARGB hexadecimal colors
+     * @param from      first index, inclusive
+     * @param to        last index, exclusive
+     * @param l         receives L at the same indices
+     * @param a         receives a at the same indices
+     * @param b         receives b at the same indices
+     */
+    public static void toLab(int[] colors, int from, int to,
+                             float[] l, float[] a, float[] b){
+        for (int i = from; i < to; i++){
+            int c = colors[i];
+            float fx = curveX(c);
+            float fy = curveY(c);
+            float fz = curveZ(c);
+            l[i] = 116 * fy - 16;
+            a[i] = 500 * (fx - fy);
+            b[i] = 200 * (fy - fz);
+        }
+    }
+
+    /**
+     * Converts one color to Lab rounded to whole units, packed like an RGB
+     * color: L (0-100) where red would be, a + 128 as green, b + 128 as
+     * blue. the squared channel distance between two packed colors is
+     * then their squared delta E, to within rounding
+     *
+     * @param color     an ARGB hexadecimal color; alpha is ignored
+     * @return  the packed Lab color, with zero alpha
+     */
+    public static int toLab8(int color){
+        float fx = curveX(color);
+        float fy = curveY(color);
+        float fz = curveZ(color);
+        int l = Math.round(116 * fy - 16);
+        int a = Math.round(500 * (fx - fy)) + 128;
+        int b = Math.round(200 * (fy - fz)) + 128;
+        return (clamp(l) << 16) | (clamp(a) << 8) | clamp(b);
+    }
+
+    private static int clamp(int v){
+        return Math.min(Math.max(v, 0), 255);
+    }
+
+    /**
+     * Converts a Lab color back to the closest sRGB color
+     * this is exact math rather than tables: it is for picking colors,
+     * not for bulk work
+     *
+     * @param l     lightness, 0-100
+     * @param a     green-red axis
+     * @param b     blue-yellow axis
+     * @return  an opaque ARGB hexadecimal color; out of gamut channels are
+     *          clamped
+     */
+    public static int fromLab(float l, float a, float b){
+        double fy = (l + 16) / 116.0;
+        double fx = fy + a / 500.0;
+        double fz = fy - b / 200.0;
+        double x = WHITE_X * inverseCurve(fx);
+        double y = WHITE_Y * inverseCurve(fy);
+        double z = WHITE_Z * inverseCurve(fz);
+        double r = 3.2404542 * x - 1.5371385 * y - 0.4985314 * z;
+        double g = -0.9692660 * x + 1.8760108 * y + 0.0415560 * z;
+        double bl = 0.0556434 * x - 0.2040259 * y + 1.0572252 * z;
+        return FaceModel.OPAQUE | (encode(r) << 16) | (encode(g) << 8)
+                | encode(bl);
+    }
+
+    private static double inverseCurve(double f){
+        double cube = f * f * f;
+        return cube > EPSILON ? cube : (116 * f - 16) / KAPPA;
+    }
+
+    private static int encode(double lin){
+        double v = fromLinear(Math.min(Math.max(lin, 0), 1));
+        return (int)Math.round(v * 255);
+    }
+
+    /**
+     * How different two colors look
+     *
+     * @param colorA    an ARGB hexadecimal color
+     * @param colorB    an ARGB hexadecimal color
+     * @return  CIE76 delta E; about 2.3 is just noticeable
+     */
+    public static float deltaE(int colorA, int colorB){
+        float fxA = curveX(colorA), fyA = curveY(colorA), fzA = curveZ(colorA);
+        float fxB = curveX(colorB), fyB = curveY(colorB), fzB = curveZ(colorB);
+        float dl = 116 * (fyA - fyB);
+        float da = 500 * ((fxA - fyA) - (fxB - fyB));
+        float db = 200 * ((fyA - fzA) - (fyB - fzB));
+        return (float)Math.sqrt(dl * dl + da * da + db * db);
+    }
+
+    /**
+     * Squared delta E from a run of Lab colors to one Lab color
+     * the loop has no branches, so it vectorizes
+     *
+     * @param l     L of the colors
+     * @param a     a of the colors
+     * @param b     b of the colors
+     * @param from  first index, inclusive
+     * @param to    last index, exclusive
+     * @param ql    L of the color to compare to
+     * @param qa    a of the color to compare to
+     * @param qb    b of the color to compare to
+     * @param out   receives the squared distances at the same indices
+     */
+    public static void deltaESquared(float[] l, float[] a, float[] b,
+                                     int from, int to,
+                                     float ql, float qa, float qb,
+                                     float[] out){
+        for (int i = from; i < to; i++){
+            float dl = l[i] - ql;
+            float da = a[i] - qa;
+            float db = b[i] - qb;
+            out[i] = dl * dl + da * da + db * db;
+        }
+    }
+}//class LabColors
@@ -0,0 +1,76 @@
+/**
+ * FaceMaker MetricCounter Class
+ * a named count of events, e.g. redraws asked for
+ * counting is one atomic add, with no lock, and nothing at all while
+ * FaceMetrics is disabled
+ *
+ * @version Oct 18 2026
+ * @author Alex Junkins
+ */
+package com.example.junkinsfacemaker.core;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+public class MetricCounter {
+    private final String name;
+    private final AtomicLong count = new AtomicLong();
+
+    /**
+     * Main constructor
+     * @param name  label used when the metric is dumped
+     */
+    public MetricCounter(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Counts one event
+     */
+    public void increment(){
+        if (FaceMetrics.enabled){
+            count.incrementAndGet();
+        }
+    }
+
+    /**
+     * Counts a number of events at once
+     * @param n     how many
+     */
+    public void add(long n){
+        if (FaceMetrics.enabled){
+            count.addAndGet(n);
+        }
+    }
+
+    /**
+     * A getter for the count
+     * @return  events counted since the last reset
+     */
+    public long get() {
+        return count.get();
+    }
+
+    /**
+     * Forgets all counted events
+     */
+    public void reset(){
+        count.set(0);
+    }
+
+    /**
+     * A getter for the label
+     * @return name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Shows the count on one line
+     * @return  name and count
+     */
+    @Override
+    public String toString() {
+        return name + ": " + count.get();
+    }
+}//class MetricCounter
@@ -0,0 +1,101 @@
+/**
+ * FaceMaker MetricRate Class
+ * measures how often something happens while it is happening, e.g. seek
+ * bar events during a drag: events are counted in one-second windows and
+ * each window that saw any events is recorded in a histogram, so the
+ * dump shows typical and peak events per second
+ * a window ends with the first event after it, so quiet time between
+ * bursts is not recorded as a run of empty seconds
+ * lock-free; does nothing while FaceMetrics is disabled
+ *
+ * @version Oct 18 2026
+ * @author Alex Junkins
+ */
+package com.example.junkinsfacemaker.core;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+public class MetricRate {
+    public static final long WINDOW_NANOS = 1000000000L;
+    private static final long NO_WINDOW = Long.MIN_VALUE;
+
+    private final MetricCounter total;
+    private final MetricHistogram perSecond;
+    private final AtomicLong windowStart = new AtomicLong(NO_WINDOW);
+    private final AtomicLong windowCount = new AtomicLong();
+
+    /**
+     * Main constructor
+     * @param name  label used when the metric is dumped
+     */
+    public MetricRate(String name) {
+        total = new MetricCounter(name);
+        perSecond = new MetricHistogram(name + ".perSecond");
+    }
+
+    /**
+     * Counts one event now
+     */
+    public void mark(){
+        if (FaceMetrics.enabled){
+            mark(System.nanoTime());
+        }
+    }
+
+    /**
+     * Counts one event at a given time
+     * @param nowNanos  a System.nanoTime() value
+     */
+    public void mark(long nowNanos){
+        if (!FaceMetrics.enabled){
+            return;
+        }
+        long start = windowStart.get();
+        if (start == NO_WINDOW || nowNanos - start >= WINDOW_NANOS){
+            //one thread closes the window; the others count in the new one
+            if (windowStart.compareAndSet(start, nowNanos)){
+                long finished = windowCount.getAndSet(0);
+                if (finished > 0){
+                    perSecond.record(finished);
+                }
+            }
+        }
+        windowCount.incrementAndGet();
+        total.increment();
+    }
+
+    /**
+     * A getter for the number of events ever counted
+     * @return  events since the last reset
+     */
+    public long getCount() {
+        return total.get();
+    }
+
+    /**
+     * A getter for the events of each finished window
+     * @return  a histogram of events per second
+     */
+    public MetricHistogram getPerSecond() {
+        return perSecond;
+    }
+
+    /**
+     * Forgets all counted events
+     */
+    public void reset(){
+        windowStart.set(NO_WINDOW);
+        windowCount.set(0);
+        total.reset();
+        perSecond.reset();
+    }
+
+    /**
+     * Summarizes the rate on one line
+     * @return  the total, then the per-second distribution
+     */
+    @Override
+    public String toString() {
+        return total + ", " + perSecond.format(1, "/s");
+    }
+}//class MetricRate
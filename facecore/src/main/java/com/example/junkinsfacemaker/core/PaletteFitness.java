@@ -0,0 +1,57 @@
+/**
+ * FaceMaker PaletteFitness Class
+ * scores faces by how close their colors are to a target palette of one
+ * skin, one eye and one hair color: the score is minus the sum of the
+ * three squared delta E distances, so a face in exactly the target
+ * colors scores 0 and everything else less
+ * the hairstyle does not count
+ *
+ * distances use LabColors.toLab8, which is table lookups and integer
+ * math, so scoring allocates nothing
+ *
+ * @version Oct 18 2026
+ * @author Alex Junkins
+ */
+package com.example.junkinsfacemaker.core;
+
+public class PaletteFitness implements FaceFitness {
+    private final int skinLab;
+    private final int eyeLab;
+    private final int hairLab;
+
+    /**
+     * Main constructor
+     *
+     * @param skin  the target skin color, ARGB
+     * @param eye   the target eye color, ARGB
+     * @param hair  the target hair color, ARGB
+     */
+    public PaletteFitness(int skin, int eye, int hair) {
+        skinLab = LabColors.toLab8(skin);
+        eyeLab = LabColors.toLab8(eye);
+        hairLab = LabColors.toLab8(hair);
+    }
+
+    @Override
+    public void score(FaceTraitStore faces, int from, int to,
+                      float[] scores){
+        int[] skin = faces.skinColors();
+        int[] eye = faces.eyeColors();
+        int[] hair = faces.hairColors();
+        for (int i = from; i < to; i++){
+            scores[i] = -(distance(LabColors.toLab8(skin[i]), skinLab)
+                    + distance(LabColors.toLab8(eye[i]), eyeLab)
+                    + distance(LabColors.toLab8(hair[i]), hairLab));
+        }
+    }
+
+    /**
+     * A helper method for the squared delta E of two packed Lab colors
+     */
+    private static int distance(int a, int b){
+        int dl = ((a >>> 16) & 0xff) - ((b >>> 16) & 0xff);
+        int da = ((a >>> 8) & 0xff) - ((b >>> 8) & 0xff);
+        int db = (a & 0xff) - (b & 0xff);
+        return dl * dl + da * da + db * db;
+    }
+}//class PaletteFitness
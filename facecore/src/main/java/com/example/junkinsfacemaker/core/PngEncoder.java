@@ -0,0 +1,198 @@
+/**
+ * FaceMaker PngEncoder Class
+ * writes an 8-bit RGB PNG one row at a time, so images of any height can
+ * be encoded without holding every pixel in memory
+ * rows use the Sub filter, which turns the flat colors of a face into
+ * long runs of zeros for deflate
+ *
+ * @version Oct 18 2026
+ * @author Alex Junkins
+ */
+package com.example.junkinsfacemaker.core;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+public class PngEncoder implements Closeable {
+    private static final byte[] SIGNATURE =
+            {(byte)0x89, 'P', 'N', 'G', '\r', '\n', 0x1a, '\n'};
+    private static final int COLOR_TYPE_RGB = 2;
+    private static final int FILTER_SUB = 1;
+    private static final int BYTES_PER_PIXEL = 3;
+
+    //largest IDAT chunk we write
+    private static final int CHUNK_BYTES = 1 << 16;
+
+    private final OutputStream out;
+    private final int width;
+    private final int height;
+    private final Deflater deflater;
+    private final DeflaterOutputStream idat;
+    private final byte[] rowBytes;
+    private int rowsWritten;
+    private boolean closed;
+
+    /**
+     * Main constructor
+     * writes the PNG signature and header right away
+     *
+     * @param out       destination; closed when the encoder is closed
+     * @param width     image width in pixels
+     * @param height    image height in pixels
+     * @throws IOException  if writing fails
+     */
+    public PngEncoder(OutputStream out, int width, int height)
+            throws IOException {
+        this(out, width, height, Deflater.DEFAULT_COMPRESSION);
+    }
+
+    /**
+     * Compression constructor
+     *
+     * @param out       destination; closed when the encoder is closed
+     * @param width     image width in pixels
+     * @param height    image height in pixels
+     * @param level     deflate level, 0-9
+     * @throws IOException  if writing fails
+     */
+    public PngEncoder(OutputStream out, int width, int height, int level)
+            throws IOException {
+        if (width <= 0 || height <= 0){
+            throw new IllegalArgumentException("bad size: " + width + "x"
+                    + height);
+        }
+        this.out = out;
+        this.width = width;
+        this.height = height;
+        this.rowBytes = new byte[1 + width * BYTES_PER_PIXEL];
+        this.deflater = new Deflater(level);
+
+        out.write(SIGNATURE);
+        byte[] header = new byte[13];
+        putInt(header, 0, width);
+        putInt(header, 4, height);
+        header[8] = 8; //bit depth
+        header[9] = COLOR_TYPE_RGB;
+        //compression, filter and interlace methods all stay 0
+        writeChunk("IHDR", header, 0, header.length);
+
+        idat = new DeflaterOutputStream(new ChunkStream(), deflater,
+                CHUNK_BYTES);
+    }
+
+    /**
+     * Encodes the next row of the image; alpha is dropped
+     *
+     * @param argb      pixels
+     * @param offset    index of the row's first pixel
+     * @throws IOException  if writing fails
+     */
+    public void writeRow(int[] argb, int offset) throws IOException {
+        if (rowsWritten == height){
+            throw new IllegalStateException("all " + height
+                    + " rows already written");
+        }
+        rowBytes[0] = FILTER_SUB;
+        int prevR = 0;
+        int prevG = 0;
+        int prevB = 0;
+        for (int x = 0, b = 1; x < width; x++, b += BYTES_PER_PIXEL){
+            int pixel = argb[offset + x];
+            int r = (pixel >>> 16) & 0xff;
+            int g = (pixel >>> 8) & 0xff;
+            int bl = pixel & 0xff;
+            rowBytes[b] = (byte)(r - prevR);
+            rowBytes[b + 1] = (byte)(g - prevG);
+            rowBytes[b + 2] = (byte)(bl - prevB);
+            prevR = r;
+            prevG = g;
+            prevB = bl;
+        }
+        idat.write(rowBytes);
+        rowsWritten++;
+    }
+
+    /**
+     * Finishes the image and closes the destination
+     * @throws IOException  if writing fails or rows are missing
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed){
+            return;
+        }
+        closed = true;
+        try {
+            if (rowsWritten != height){
+                throw new IOException("only " + rowsWritten + " of "
+                        + height + " rows written");
+            }
+            idat.finish();
+            writeChunk("IEND", rowBytes, 0, 0);
+            out.flush();
+        }
+        finally {
+            deflater.end();
+            out.close();
+        }
+    }
+
+    /**
+     * A helper method to write one PNG chunk with its length and CRC
+     *
+     * @param type      four-letter chunk type
+     * @param data      chunk data
+     * @param off       offset of the data
+     * @param len       length of the data
+     * @throws IOException  if writing fails
+     */
+    private void writeChunk(String type, byte[] data, int off, int len)
+            throws IOException {
+        byte[] typeBytes = type.getBytes(StandardCharsets.US_ASCII);
+        byte[] word = new byte[4];
+        putInt(word, 0, len);
+        out.write(word);
+        out.write(typeBytes);
+        out.write(data, off, len);
+        CRC32 crc = new CRC32();
+        crc.update(typeBytes);
+        crc.update(data, off, len);
+        putInt(word, 0, (int)crc.getValue());
+        out.write(word);
+    }
+
+    /**
+     * A helper method to store a big-endian int
+     */
+    private static void putInt(byte[] buf, int at, int value){
+        buf[at] = (byte)(value >>> 24);
+        buf[at + 1] = (byte)(value >>> 16);
+        buf[at + 2] = (byte)(value >>> 8);
+        buf[at + 3] = (byte)value;
+    }
+
+    /**
+     * Turns the deflated stream into IDAT chunks
+     */
+    private class ChunkStream extends OutputStream {
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[] {(byte)b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            while (len > 0){
+                int n = Math.min(len, CHUNK_BYTES);
+                writeChunk("IDAT", b, off, n);
+                off += n;
+                len -= n;
+            }
+        }
+    }
+}//class PngEncoder
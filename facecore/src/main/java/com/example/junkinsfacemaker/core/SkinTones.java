@@ -0,0 +1,106 @@
+/**
+ * FaceMaker SkinTones Class
+ * samples realistic skin colors, instead of any 24-bit color
+ *
+ * a sample is a random point along a scale of real skin tones, blended
+ * in Lab space so the steps between tones look even, plus a little
+ * jitter so no two faces need share a tone exactly
+ *
+ * External Citation
+ * Date: Oct 18, 2026
+ * problem: Needed a range of realistic skin colors
+ * Resource: the Monk Skin Tone Scale, Ellis Monk
+ * https://skintone.google/the-scale
+ * Solution: Used the scale's ten tones as the ends of the blends
+ *
+ * @version Oct 18 2026
+ * @author Alex Junkins
+ */
+package com.example.junkinsfacemaker.core;
+
+import java.util.Random;
+import java.util.SplittableRandom;
+
+public final class SkinTones {
+    //lightest to darkest
+    private static final int[] TONES = {
+            0xfff6ede4, 0xfff3e7db, 0xfff7ead0, 0xffeadaba, 0xffd7bd96,
+            0xffa07e56, 0xff825c43, 0xff604134, 0xff3a312a, 0xff292420
+    };
+
+    //the scale's tones, for snapping faces to them
+    public static final ColorPalette PALETTE = new ColorPalette(TONES);
+
+    //standard deviation of the jitter, in delta E units
+    private static final float LIGHTNESS_JITTER = 2.5f;
+    private static final float HUE_JITTER = 1.5f;
+
+    private static final float[] L = new float[TONES.length];
+    private static final float[] A = new float[TONES.length];
+    private static final float[] B = new float[TONES.length];
+
+    static {
+        LabColors.toLab(TONES, 0, TONES.length, L, A, B);
+    }
+
+    private SkinTones() { }
+
+    /**
+     * Picks a random realistic skin color
+     * @param rnd   the source of randomness
+     * @return  an opaque ARGB hexadecimal color
+     */
+    public static int sample(Random rnd){
+        return blend(rnd.nextFloat(), rnd.nextGaussian(), rnd.nextGaussian(),
+                rnd.nextGaussian());
+    }
+
+    /**
+     * Picks a random realistic skin color, e.g. for FaceBatchGenerator
+     * @param rnd   the source of randomness
+     * @return  an opaque ARGB hexadecimal color
+     */
+    public static int sample(SplittableRandom rnd){
+        return blend((float)rnd.nextDouble(), gaussian(rnd), gaussian(rnd),
+                gaussian(rnd));
+    }
+
+    /**
+     * A helper method to find the tone at a point along the scale, moved
+     * by some jitter
+     *
+     * @param along     0-1, lightest to darkest
+     * @param dl        lightness jitter, in standard deviations
+     * @param da        green-red jitter, in standard deviations
+     * @param db        blue-yellow jitter, in standard deviations
+     * @return  an opaque ARGB hexadecimal color
+     */
+    private static int blend(float along, double dl, double da, double db){
+        float at = along * (TONES.length - 1);
+        int i = Math.min((int)at, TONES.length - 2);
+        float t = at - i;
+        float l = L[i] + t * (L[i + 1] - L[i]) + (float)dl * LIGHTNESS_JITTER;
+        float a = A[i] + t * (A[i + 1] - A[i]) + (float)da * HUE_JITTER;
+        float b = B[i] + t * (B[i + 1] - B[i]) + (float)db * HUE_JITTER;
+        return LabColors.fromLab(l, a, b);
+    }
+
+    /**
+     * A helper method for a standard normal value, by the polar method;
+     * SplittableRandom has no nextGaussian
+     *
+     * @param rnd   the source of randomness
+     * @return  a normally distributed value, mean 0 and deviation 1
+     */
+    static double gaussian(SplittableRandom rnd){
+        double x;
+        double y;
+        double s;
+        do {
+            x = 2 * rnd.nextDouble() - 1;
+            y = 2 * rnd.nextDouble() - 1;
+            s = x * x + y * y;
+        } while (s >= 1 || s == 0);
+        return x * Math.sqrt(-2 * Math.log(s) / s);
+    }
+}//class SkinTones
@@ -0,0 +1,132 @@
+/**
+ * FaceMaker SpriteSheetWriter Class
+ * renders a run of faces into one PNG: a grid of equally sized tiles,
+ * left to right, top to bottom
+ *
+ * the sheet is produced in bands of a few tile rows; the tiles of a band
+ * are rasterized in parallel, then its pixel rows are streamed to the
+ * PNG encoder, so memory use stays at one band whatever the sheet size
+ *
+ * @version Oct 18 2026
+ * @author Alex Junkins
+ */
+package com.example.junkinsfacemaker.core;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+public class SpriteSheetWriter {
+    public static final int DEFAULT_BACKGROUND = 0xffffffff;
+
+    //tile rows rendered together in one band
+    private static final int BAND_TILE_ROWS = 8;
+
+    private final FaceRasterizer rasterizer;
+    private final int columns;
+    private final ForkJoinPool pool;
+    private int background = DEFAULT_BACKGROUND;
+
+    /**
+     * Main constructor
+     *
+     * @param tileWidth     width of one face in pixels
+     * @param tileHeight    height of one face in pixels
+     * @param columns       faces per sheet row
+     */
+    public SpriteSheetWriter(int tileWidth, int tileHeight, int columns) {
+        this(new FaceRasterizer(tileWidth, tileHeight), columns,
+                ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Full constructor
+     *
+     * @param rasterizer    draws each tile; its size is the tile size
+     * @param columns       faces per sheet row
+     * @param pool          the pool tiles are rendered on
+     */
+    public SpriteSheetWriter(FaceRasterizer rasterizer, int columns,
+                             ForkJoinPool pool) {
+        if (columns <= 0){
+            throw new IllegalArgumentException("bad column count: " + columns);
+        }
+        this.rasterizer = rasterizer;
+        this.columns = columns;
+        this.pool = pool;
+    }
+
+    /**
+     * A setter for the color behind the faces
+     * @param color     an ARGB hexadecimal color
+     */
+    public void setBackground(int color){
+        background = color;
+    }
+
+    /**
+     * Writes every face of a store to a PNG file
+     *
+     * @param store     the faces
+     * @param path      the file, replaced if it exists
+     * @throws IOException  if writing fails
+     */
+    public void write(FaceTraitStore store, Path path) throws IOException {
+        write(store, 0, store.size(),
+                new BufferedOutputStream(Files.newOutputStream(path)));
+    }
+
+    /**
+     * Writes a run of faces as a PNG
+     * the last sheet row is padded with background tiles
+     *
+     * @param store     the faces
+     * @param from      first face, inclusive
+     * @param to        last face, exclusive
+     * @param out       destination; closed when done
+     * @throws IOException  if writing fails
+     */
+    public void write(FaceTraitStore store, int from, int to,
+                      OutputStream out) throws IOException {
+        int count = to - from;
+        if (count <= 0){
+            out.close();
+            throw new IllegalArgumentException("no faces to write");
+        }
+        int tileW = rasterizer.getWidth();
+        int tileH = rasterizer.getHeight();
+        int sheetW = columns * tileW;
+        int tileRows = (count + columns - 1) / columns;
+
+        int bandRows = Math.min(BAND_TILE_ROWS, tileRows);
+        int[] band = new int[bandRows * tileH * sheetW];
+        try (PngEncoder png = new PngEncoder(out, sheetW, tileRows * tileH)){
+            for (int firstRow = 0; firstRow < tileRows; firstRow += bandRows){
+                int rows = Math.min(bandRows, tileRows - firstRow);
+                int firstTile = firstRow * columns;
+                pool.submit(() -> IntStream.range(0, rows * columns)
+                        .parallel()
+                        .forEach(t -> {
+                            int offset = (t / columns) * tileH * sheetW
+                                    + (t % columns) * tileW;
+                            int face = from + firstTile + t;
+                            if (face < to){
+                                rasterizer.render(store, face, background,
+                                        band, offset, sheetW);
+                            }
+                            else {
+                                rasterizer.render(0, 0, 0, -1, background,
+                                        band, offset, sheetW);
+                            }
+                        })).join();
+                for (int y = 0; y < rows * tileH; y++){
+                    png.writeRow(band, y * sheetW);
+                }
+            }
+        }
+    }
+}//class SpriteSheetWriter
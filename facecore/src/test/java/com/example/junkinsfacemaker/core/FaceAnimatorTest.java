@@ -0,0 +1,253 @@
+package com.example.junkinsfacemaker.core;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the face animator and animated rendering
+ */
+public class FaceAnimatorTest {
+    private static final int SIZE = 96;
+    private static final int WHITE = 0xffffffff;
+    private static final int RED = 0xffff0000;
+    private static final int BLUE = 0xff0000ff;
+
+    private FaceAnimator animator;
+    private long now;
+
+    @Before
+    public void setUp() {
+        animator = new FaceAnimator(4, 22);
+        animator.add(RED, BLUE, RED, FaceModel.HAT_HAIR);
+        animator.advance(now);
+    }
+
+    //runs whole ticks through the clock
+    private void ticks(int count){
+        for (int i = 0; i < count; i++){
+            now += FaceAnimator.TICK_NANOS;
+            animator.advance(now);
+        }
+    }
+
+    @Test
+    public void colors_easeThroughLabAndLandOnTheTarget() {
+        animator.animateTo(0, BLUE, BLUE, RED, FaceModel.HAT_HAIR);
+        ticks(FaceAnimator.COLOR_TICKS / 2);
+        int middle = animator.getShownTraits().getSkinColor(0);
+        assertNotEquals(RED, middle);
+        assertNotEquals(BLUE, middle);
+        //about halfway in how different it looks
+        float fromRed = LabColors.deltaE(RED, middle);
+        float toBlue = LabColors.deltaE(middle, BLUE);
+        assertEquals(fromRed, toBlue, .3f * (fromRed + toBlue));
+        assertTrue(animator.isTransitioning(0));
+
+        ticks(FaceAnimator.COLOR_TICKS);
+        assertEquals(BLUE, animator.getShownTraits().getSkinColor(0));
+        assertEquals(RED, animator.getShownTraits().getHairColor(0));
+        assertFalse(animator.isTransitioning(0));
+    }
+
+    @Test
+    public void snap_showsTraitsRightAway() {
+        animator.animateTo(0, BLUE, BLUE, BLUE, FaceModel.AFRO);
+        ticks(2);
+        animator.snapTo(0, 0xff00ff00, RED, BLUE, FaceModel.POMPADOUR);
+        assertEquals(0xff00ff00, animator.getShownTraits().getSkinColor(0));
+        assertFalse(animator.isTransitioning(0));
+        animator.advance(now);
+        assertTrue(animator.hasChanged(0));
+    }
+
+    @Test
+    public void advance_runsFixedTicks() {
+        long start = animator.getTicks();
+        //a second of uneven frames is still 60 ticks
+        long[] gaps = {5, 11, 16, 17, 21, 33};
+        long end = now + 1000000000L;
+        int g = 0;
+        while (now + gaps[g % gaps.length] * 1000000L <= end){
+            now += gaps[g++ % gaps.length] * 1000000L;
+            animator.advance(now);
+        }
+        animator.advance(end);
+        assertEquals(60, animator.getTicks() - start);
+
+        //a long stall only moves things on a little
+        animator.animateTo(0, BLUE, BLUE, BLUE, FaceModel.HAT_HAIR);
+        animator.advance(end);
+        now = end + 5000000000L;
+        assertEquals(FaceAnimator.MAX_TICKS_PER_ADVANCE,
+                animator.advance(now));
+    }
+
+    @Test
+    public void idleFaces_blinkAndLookAround() {
+        boolean closed = false;
+        boolean looked = false;
+        for (int i = 0; i < 10 * 60; i++){
+            ticks(1);
+            closed |= animator.getLid(0) == 1f;
+            looked |= animator.getGazeX(0) != 0 || animator.getGazeY(0) != 0;
+        }
+        assertTrue(closed);
+        assertTrue(looked);
+        assertTrue(Math.abs(animator.getGazeX(0)) <= 1);
+    }
+
+    @Test
+    public void idleTicks_canBeSleptThrough() {
+        ticks(FaceAnimator.COLOR_TICKS);
+        animator.animateTo(0, BLUE, BLUE, BLUE, FaceModel.HAT_HAIR);
+        ticks(1);
+        assertEquals(0, animator.getIdleTicks());
+
+        //one advance per wake-up, as a clock sleeping when idle gives
+        FaceAnimator stepped = new FaceAnimator(4, 22);
+        stepped.add(RED, BLUE, RED, FaceModel.HAT_HAIR);
+        FaceAnimator slept = new FaceAnimator(4, 22);
+        slept.add(RED, BLUE, RED, FaceModel.HAT_HAIR);
+        long time = 0;
+        stepped.advance(time);
+        slept.advance(time);
+        int wakes = 0;
+        for (int i = 0; i < 20 * 60; i++){
+            time += FaceAnimator.TICK_NANOS;
+            stepped.advance(time);
+            if (i + 1 == slept.getTicks() + Math.max(1,
+                    slept.getIdleTicks())){
+                slept.advance(time);
+                wakes++;
+                //the same blinks and glances, on the same ticks
+                assertEquals(stepped.getTicks(), slept.getTicks());
+                assertEquals(stepped.getLid(0), slept.getLid(0), 0);
+                assertEquals(stepped.getGazeX(0), slept.getGazeX(0), 0);
+            }
+        }
+        assertTrue(wakes < 20 * 60 / 2);
+    }
+
+    @Test
+    public void restingEyes_drawLikeAStillFace() {
+        FaceRasterizer rasterizer = new FaceRasterizer(SIZE, SIZE);
+        int[] still = new int[SIZE * SIZE];
+        int[] moving = new int[SIZE * SIZE];
+        for (int style = 0; style < 3; style++){
+            rasterizer.render(RED, BLUE, 0xff302010, style, WHITE, still, 0,
+                    SIZE);
+            rasterizer.render(RED, BLUE, 0xff302010, style, 0, 0, 0, WHITE,
+                    moving, 0, SIZE);
+            assertArrayEquals("style " + style, still, moving);
+        }
+    }
+
+    @Test
+    public void closedEyes_showNoEyeColor() {
+        FaceRasterizer rasterizer = new FaceRasterizer(SIZE, SIZE);
+        int[] fb = new int[SIZE * SIZE];
+        rasterizer.render(RED, BLUE, 0xff302010, FaceModel.AFRO, 1, 0, 0,
+                WHITE, fb, 0, SIZE);
+        for (int pixel : fb){
+            assertNotEquals(BLUE, pixel);
+        }
+
+        //pupils off to the side stay inside the eyes
+        rasterizer.render(RED, BLUE, 0xff302010, FaceModel.AFRO, 0, 1, 1,
+                WHITE, fb, 0, SIZE);
+        int[] still = new int[SIZE * SIZE];
+        rasterizer.render(RED, BLUE, 0xff302010, FaceModel.AFRO, WHITE,
+                still, 0, SIZE);
+        for (int p = 0; p < fb.length; p++){
+            if (fb[p] != still[p]){
+                assertTrue(still[p] == BLUE
+                        || still[p] == FaceRasterizer.DETAILS_COLOR);
+            }
+        }
+    }
+
+    @Test
+    public void hairstyleChange_crossFades() {
+        FaceRasterizer rasterizer = new FaceRasterizer(SIZE, SIZE);
+        int[] fb = new int[SIZE * SIZE];
+        int[] before = new int[SIZE * SIZE];
+        int[] after = new int[SIZE * SIZE];
+        int hair = 0xff302010;
+        animator.snapTo(0, RED, BLUE, hair, FaceModel.HAT_HAIR);
+        rasterizer.render(RED, BLUE, hair, FaceModel.HAT_HAIR, 0,
+                animator.getGazeX(0), animator.getGazeY(0), WHITE, before, 0,
+                SIZE);
+        animator.animateTo(0, RED, BLUE, hair, FaceModel.AFRO);
+        ticks(FaceAnimator.STYLE_TICKS / 2);
+        animator.render(0, rasterizer, WHITE, fb, 0, SIZE);
+        rasterizer.render(RED, BLUE, hair, FaceModel.AFRO, animator.getLid(0),
+                animator.getGazeX(0), animator.getGazeY(0), WHITE, after, 0,
+                SIZE);
+        boolean blended = false;
+        for (int p = 0; p < fb.length; p++){
+            blended |= fb[p] != after[p] && fb[p] != before[p];
+        }
+        assertTrue(blended);
+        assertEquals(FaceModel.HAT_HAIR, animator.getFadingStyle(0));
+
+        ticks(FaceAnimator.STYLE_TICKS);
+        assertEquals(FaceModel.AFRO, animator.getFadingStyle(0));
+        assertEquals(1f, animator.getStyleFade(0), 0f);
+    }
+
+    @Test
+    public void blend_mixesEveryChannel() {
+        assertEquals(0xff000000, FaceAnimator.blend(0xff000000, 0xffffffff, 0));
+        assertEquals(0xffffffff, FaceAnimator.blend(0xff000000, 0xffffffff,
+                256));
+        assertEquals(0x7f7f7f7f, FaceAnimator.blend(0, 0xffffffff, 128));
+    }
+
+    @Test
+    public void frames_allocateNothing() {
+        int faces = 500;
+        FaceAnimator wall = new FaceAnimator(faces, 7);
+        FaceTraitStore targets = new FaceBatchGenerator().generate(7, 64);
+        for (int i = 0; i < faces; i++){
+            wall.add(targets.getSkinColor(i % 64), targets.getEyeColor(i % 64),
+                    targets.getHairColor(i % 64), targets.getHairStyle(i % 64));
+        }
+        FaceRasterizer rasterizer = new FaceRasterizer(32, 32);
+        int[] fb = new int[32 * 32];
+        long[] clock = {0};
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean)
+                        ManagementFactory.getThreadMXBean();
+        //warm up so the JIT and the fade buffer aren't counted
+        frames(wall, targets, rasterizer, fb, clock, 200);
+        long before = threads.getThreadAllocatedBytes(
+                Thread.currentThread().getId());
+        frames(wall, targets, rasterizer, fb, clock, 200);
+        long allocated = threads.getThreadAllocatedBytes(
+                Thread.currentThread().getId()) - before;
+        //a little slack for the bean's own bookkeeping
+        assertTrue("allocated " + allocated, allocated < 1024);
+    }
+
+    private static void frames(FaceAnimator wall, FaceTraitStore targets,
+                               FaceRasterizer rasterizer, int[] fb,
+                               long[] clock, int count){
+        for (int f = 0; f < count; f++){
+            for (int i = f % 20; i < wall.size(); i += 20){
+                int t = (i + f) % targets.size();
+                wall.animateTo(i, targets.getSkinColor(t),
+                        targets.getEyeColor(t), targets.getHairColor(t),
+                        targets.getHairStyle(t));
+            }
+            clock[0] += FaceAnimator.TICK_NANOS;
+            wall.advance(clock[0]);
+            for (int i = 0; i < wall.size(); i++){
+                wall.render(i, rasterizer, WHITE, fb, 0, 32);
+            }
+        }
+    }
+}
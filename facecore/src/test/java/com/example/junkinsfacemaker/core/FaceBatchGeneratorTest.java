@@ -0,0 +1,80 @@
+package com.example.junkinsfacemaker.core;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for bulk face generation
+ */
+public class FaceBatchGeneratorTest {
+    private static final int COUNT = 3 * FaceBatchGenerator.CHUNK_SIZE + 123;
+
+    @Test
+    public void sameSeed_sameFaces_anyParallelism() {
+        FaceTraitStore serial =
+                new FaceBatchGenerator(new ForkJoinPool(1)).generate(42, COUNT);
+        FaceTraitStore parallel =
+                new FaceBatchGenerator(new ForkJoinPool(4)).generate(42, COUNT);
+        assertArrayEquals(serial.skinColors(), parallel.skinColors());
+        assertArrayEquals(serial.eyeColors(), parallel.eyeColors());
+        assertArrayEquals(serial.hairColors(), parallel.hairColors());
+        assertArrayEquals(serial.hairStyles(), parallel.hairStyles());
+    }
+
+    @Test
+    public void differentSeeds_differentFaces() {
+        FaceBatchGenerator generator = new FaceBatchGenerator();
+        FaceTraitStore a = generator.generate(1, 1000);
+        FaceTraitStore b = generator.generate(2, 1000);
+        assertFalse(Arrays.equals(a.skinColors(), b.skinColors()));
+    }
+
+    @Test
+    public void faces_followRandomizeRules() {
+        FaceTraitStore store = new FaceBatchGenerator().generate(7, COUNT);
+        int[] styleCounts = new int[HairstyleRegistry.getDefault().size()];
+        for (int i = 0; i < store.size(); i++) {
+            assertEquals(0xff, store.getSkinColor(i) >>> 24);
+            assertEquals(0xff, store.getEyeColor(i) >>> 24);
+            assertEquals(0xff, store.getHairColor(i) >>> 24);
+            assertTrue(FaceModel.isValidHairStyle(store.getHairStyle(i)));
+            styleCounts[store.getHairStyle(i)]++;
+        }
+        for (int count : styleCounts) {
+            assertTrue(count > 0);
+        }
+    }
+
+    @Test
+    public void skins_areRealisticTones_likeTheApp() {
+        FaceTraitStore store = new FaceBatchGenerator().generate(8, 10_000);
+        for (int i = 0; i < store.size(); i++) {
+            int skin = store.getSkinColor(i);
+            assertTrue(LabColors.deltaE(skin, SkinTones.PALETTE.snap(skin))
+                    < 25);
+        }
+    }
+
+    @Test
+    public void uniformSkins_onlyChangeTheSkinRule() {
+        FaceBatchGenerator generator = new FaceBatchGenerator();
+        FaceTraitStore realistic = generator.generate(9, 10_000);
+        generator.setRealisticSkin(false);
+        FaceTraitStore uniform = generator.generate(9, 10_000);
+        int farFromTones = 0;
+        for (int i = 0; i < uniform.size(); i++) {
+            int skin = uniform.getSkinColor(i);
+            assertEquals(0xff, skin >>> 24);
+            if (LabColors.deltaE(skin, SkinTones.PALETTE.snap(skin)) >= 25) {
+                farFromTones++;
+            }
+        }
+        assertTrue(farFromTones > uniform.size() / 2);
+        assertFalse(Arrays.equals(realistic.skinColors(),
+                uniform.skinColors()));
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.junkinsfacemaker.core;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for breeding faces
+ */
+public class FaceBreederTest {
+    private static final int SKIN = 0xffe0b090;
+    private static final int EYE = 0xff2060a0;
+    private static final int HAIR = 0xff302010;
+    private static final FaceFitness PALETTE =
+            new PaletteFitness(SKIN, EYE, HAIR);
+
+    @Test
+    public void sameSeed_sameRun_anyParallelism() {
+        int count = 2 * FaceBreeder.CHUNK_SIZE + 77;
+        FaceTraitStore start = new FaceBatchGenerator().generate(3, count);
+        FaceTraitStore serial = new FaceBreeder(PALETTE, new ForkJoinPool(1))
+                .evolve(9, start, 3, null);
+        FaceTraitStore parallel =
+                new FaceBreeder(PALETTE, new ForkJoinPool(4))
+                        .evolve(9, start, 3, null);
+        assertArrayEquals(serial.skinColors(), parallel.skinColors());
+        assertArrayEquals(serial.eyeColors(), parallel.eyeColors());
+        assertArrayEquals(serial.hairColors(), parallel.hairColors());
+        assertArrayEquals(serial.hairStyles(), parallel.hairStyles());
+        //and the start is left alone
+        assertArrayEquals(new FaceBatchGenerator().generate(3, count)
+                .skinColors(), start.skinColors());
+    }
+
+    @Test
+    public void children_inheritEveryChannelFromAParent() {
+        FaceTraitStore parents = new FaceTraitStore(2);
+        parents.set(0, 0xff112233, 0xff445566, 0xff778899, FaceModel.AFRO);
+        parents.set(1, 0xffaabbcc, 0xffddeeff, 0xff010203,
+                FaceModel.POMPADOUR);
+        FaceBreeder breeder = new FaceBreeder(PALETTE);
+        breeder.setMutation(0, 0);
+        breeder.setTournamentSize(1);
+        FaceTraitStore children = breeder.evolve(5, parents, 1, null);
+        for (int i = 0; i < children.size(); i++){
+            assertFromParents(parents.skinColors(), children.getSkinColor(i));
+            assertFromParents(parents.eyeColors(), children.getEyeColor(i));
+            assertFromParents(parents.hairColors(), children.getHairColor(i));
+            int style = children.getHairStyle(i);
+            assertTrue(style == FaceModel.AFRO
+                    || style == FaceModel.POMPADOUR);
+        }
+    }
+
+    private static void assertFromParents(int[] colors, int child){
+        assertEquals(0xff, child >>> 24);
+        for (int shift = 0; shift <= 16; shift += 8){
+            int c = (child >>> shift) & 0xff;
+            assertTrue(c == ((colors[0] >>> shift) & 0xff)
+                    || c == ((colors[1] >>> shift) & 0xff));
+        }
+    }
+
+    @Test
+    public void cross_picksChannelsByBit() {
+        assertEquals(0xff11bb33, FaceBreeder.cross(0xff112233, 0xffaabbcc,
+                0b101));
+        assertEquals(0xffaabbcc, FaceBreeder.cross(0xff112233, 0xffaabbcc,
+                0));
+        assertEquals(0xff112233, FaceBreeder.cross(0xff112233, 0xffaabbcc,
+                0b111));
+    }
+
+    @Test
+    public void mutation_staysOpaqueAndInRange() {
+        FaceTraitStore start = new FaceTraitStore(1000);
+        for (int i = 0; i < start.size(); i++){
+            start.set(i, 0xff000000, 0xffffffff, 0xff808080, 0);
+        }
+        FaceBreeder breeder = new FaceBreeder(PALETTE);
+        breeder.setMutation(1, 40);
+        FaceTraitStore children = breeder.evolve(1, start, 1, null);
+        int changed = 0;
+        for (int i = 0; i < children.size(); i++){
+            assertEquals(0xff, children.getSkinColor(i) >>> 24);
+            assertEquals(0xff, children.getEyeColor(i) >>> 24);
+            changed += children.getHairColor(i) != 0xff808080 ? 1 : 0;
+        }
+        assertTrue(changed > 900);
+    }
+
+    @Test
+    public void generations_closeInOnThePalette() {
+        FaceTraitStore start = new FaceBatchGenerator().generate(11, 20000);
+        List<FaceBreeder.GenerationStats> stats = new ArrayList<>();
+        FaceTraitStore end = new FaceBreeder(PALETTE)
+                .evolve(11, start, 30, stats::add);
+        assertEquals(30, stats.size());
+        for (int g = 1; g < stats.size(); g++){
+            assertTrue(stats.get(g).getBestScore()
+                    >= stats.get(g - 1).getBestScore());
+        }
+        FaceBreeder.GenerationStats last = stats.get(29);
+        assertTrue(last.getMeanScore() > 10 * stats.get(0).getMeanScore());
+        assertTrue(last.getFacesPerSecond() > 0);
+        assertEquals(20000, last.getSize());
+
+        //the best face ends up within a few delta E of every target color
+        float[] scores = new float[end.size()];
+        PALETTE.score(end, 0, end.size(), scores);
+        int best = 0;
+        for (int i = 1; i < scores.length; i++){
+            best = scores[i] > scores[best] ? i : best;
+        }
+        assertEquals(last.getBestScore(), scores[best], 0f);
+        assertTrue(LabColors.deltaE(SKIN, end.getSkinColor(best)) < 5);
+        assertTrue(LabColors.deltaE(EYE, end.getEyeColor(best)) < 5);
+    }
+
+    @Test
+    public void paletteFitness_isZeroOnTheTarget() {
+        FaceTraitStore faces = new FaceTraitStore(2);
+        faces.set(0, SKIN, EYE, HAIR, FaceModel.AFRO);
+        faces.set(1, SKIN ^ 0x101010, EYE, HAIR, FaceModel.AFRO);
+        float[] scores = new float[2];
+        PALETTE.score(faces, 0, 2, scores);
+        assertEquals(0, scores[0], 0f);
+        assertTrue(scores[1] < 0);
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.junkinsfacemaker.core;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the packed face encoding and record files
+ */
+public class FaceCodecTest {
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    @Test
+    public void pack_roundTripsExtremes() {
+        int[] colors = {0xff000000, 0xffffffff, 0xff123456, 0xfffedcba};
+        for (int skin : colors) {
+            for (int eye : colors) {
+                for (int hair : colors) {
+                    long low = FaceCodec.packLow(skin, eye, hair);
+                    short high = FaceCodec.packHigh(hair, 255);
+                    assertEquals(skin, FaceCodec.skinColor(low));
+                    assertEquals(eye, FaceCodec.eyeColor(low));
+                    assertEquals(hair, FaceCodec.hairColor(low, high));
+                    assertEquals(255, FaceCodec.hairStyle(high));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void record_isTenBytes_andHexRoundTrips() {
+        FaceModel in = new FaceModel(0xff010203, 0xff040506, 0xff070809,
+                FaceModel.POMPADOUR);
+        ByteBuffer buf = ByteBuffer.allocate(FaceCodec.RECORD_BYTES);
+        FaceCodec.write(buf, in);
+        assertFalse(buf.hasRemaining());
+
+        buf.flip();
+        FaceModel out = new FaceModel();
+        FaceCodec.read(buf, out);
+        assertEquals(in.getSkinColor(), out.getSkinColor());
+        assertEquals(in.getEyeColor(), out.getEyeColor());
+        assertEquals(in.getHairColor(), out.getHairColor());
+        assertEquals(in.getHairStyle(), out.getHairStyle());
+
+        buf.flip();
+        long low = buf.getLong();
+        short high = buf.getShort();
+        String hex = FaceCodec.toHex(low, high);
+        assertEquals(FaceCodec.HEX_CHARS, hex.length());
+        assertEquals(low, FaceCodec.parseLow(hex));
+        assertEquals(high, FaceCodec.parseHigh(hex));
+    }
+
+    @Test
+    public void unknownHairstyle_decodesAsHatHair() {
+        long low = FaceCodec.packLow(0xff010203, 0xff040506, 0xff070809);
+        short high = FaceCodec.packHigh(0xff070809, 200);
+        assertEquals(200, FaceCodec.hairStyle(high));
+
+        //not whatever style the model had before
+        FaceModel out = new FaceModel(0, 0, 0, FaceModel.POMPADOUR);
+        FaceCodec.unpack(low, high, out);
+        assertEquals(FaceModel.HAT_HAIR, out.getHairStyle());
+        assertEquals(0xff070809, out.getHairColor());
+    }
+
+    @Test
+    public void file_roundTripsStore_withRandomAccess() throws IOException {
+        FaceTraitStore store = new FaceBatchGenerator().generate(5, 20000);
+        Path path = tmp.newFile("faces.bin").toPath();
+        FaceRecordFile.write(path, store);
+        assertEquals(FaceRecordFile.HEADER_BYTES
+                        + 20000L * FaceCodec.RECORD_BYTES, Files.size(path));
+
+        FaceTraitStore back = FaceRecordFile.readAll(path);
+        assertArrayEquals(store.skinColors(), back.skinColors());
+        assertArrayEquals(store.eyeColors(), back.eyeColors());
+        assertArrayEquals(store.hairColors(), back.hairColors());
+        assertArrayEquals(store.hairStyles(), back.hairStyles());
+
+        try (FaceRecordFile.Reader reader = new FaceRecordFile.Reader(path)) {
+            FaceModel face = new FaceModel();
+            reader.read(12345, face);
+            assertEquals(store.getHairColor(12345), face.getHairColor());
+            assertEquals(store.getHairStyle(12345), face.getHairStyle());
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void reader_rejectsOtherFiles() throws IOException {
+        Path path = tmp.newFile("junk.bin").toPath();
+        Files.write(path, new byte[64]);
+        new FaceRecordFile.Reader(path).close();
+    }
+
+    @Test
+    public void reader_rejectsCountsThatOverflow() throws IOException {
+        Path path = tmp.newFile("corrupt.bin").toPath();
+        //count * RECORD_BYTES wraps around to 4, which the file would hold
+        long count = 0x199999999999999AL;
+        assertEquals(4, count * FaceCodec.RECORD_BYTES);
+        ByteBuffer header = ByteBuffer.allocate(64);
+        header.putInt(FaceRecordFile.MAGIC).putShort(FaceRecordFile.VERSION)
+                .putShort((short)0).putLong(count);
+        Files.write(path, header.array());
+        try {
+            new FaceRecordFile.Reader(path).close();
+            fail("expected an IOException");
+        } catch (IOException e) {
+            assertTrue(e.getMessage().startsWith("bad record count"));
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.junkinsfacemaker.core;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for RGB channel helpers
+ */
+public class FaceColorsTest {
+    @Test
+    public void splice_replacesOnlyThatChannel_andIsOpaque() {
+        int color = 0x7f123456;
+        assertEquals(0xffab3456,
+                FaceColors.spliceChannel(color, FaceColors.RED, 0xab));
+        assertEquals(0xff12ab56,
+                FaceColors.spliceChannel(color, FaceColors.GREEN, 0xab));
+        assertEquals(0xff1234ab,
+                FaceColors.spliceChannel(color, FaceColors.BLUE, 0xab));
+    }
+
+    @Test
+    public void channel_readsEachComponent() {
+        assertEquals(0x12, FaceColors.channel(0xff123456, FaceColors.RED));
+        assertEquals(0x34, FaceColors.channel(0xff123456, FaceColors.GREEN));
+        assertEquals(0x56, FaceColors.channel(0xff123456, FaceColors.BLUE));
+    }
+}
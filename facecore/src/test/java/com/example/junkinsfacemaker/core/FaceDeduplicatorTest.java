@@ -0,0 +1,166 @@
+package com.example.junkinsfacemaker.core;
+
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the dedup stage and the sets behind it
+ */
+public class FaceDeduplicatorTest {
+    private static final long BIG_BUDGET = 1L << 30;
+
+    @Test
+    public void keySet_agreesWithHashSet_acrossGrowth() {
+        FaceKeySet set = new FaceKeySet(10);
+        Set<Long> reference = new HashSet<>();
+        Random rnd = new Random(17);
+        for (int i = 0; i < 200_000; i++){
+            //a small range so many keys repeat, and zero shows up too
+            long key = rnd.nextInt(100_000) - 50_000;
+            assertEquals(reference.add(key), set.add(key));
+        }
+        assertEquals(reference.size(), set.size());
+        for (long key = -60_000; key < 60_000; key += 7){
+            assertEquals(reference.contains(key), set.contains(key));
+        }
+        assertTrue(set.getMemoryBytes() >= 8L * set.size());
+    }
+
+    @Test
+    public void keySet_limit_fitsOneDirectBuffer() {
+        //the most keys a set takes without growing
+        long lo = 0;
+        long hi = 1L << 32;
+        while (lo < hi){
+            long mid = (lo + hi + 1) >>> 1;
+            if (FaceKeySet.bytesFor(mid) != Long.MAX_VALUE){
+                lo = mid;
+            }
+            else {
+                hi = mid - 1;
+            }
+        }
+        assertEquals(FaceKeySet.MAX_CAPACITY, FaceKeySet.capacityFor(lo));
+        assertEquals(8L * FaceKeySet.MAX_CAPACITY, FaceKeySet.bytesFor(lo));
+        assertTrue(FaceKeySet.bytesFor(lo) <= Integer.MAX_VALUE);
+
+        //one more, or the 100M that used to overflow, is refused up front
+        assertEquals(Long.MAX_VALUE, FaceKeySet.bytesFor(100_000_000));
+        try {
+            FaceKeySet.capacityFor(lo + 1);
+            fail("expected an IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage().startsWith("too many keys"));
+        }
+    }
+
+    @Test
+    public void bloom_neverMisses_andKeepsItsRate() {
+        int n = 100_000;
+        double rate = 0.01;
+        FaceBloomFilter filter = new FaceBloomFilter(n, rate);
+        Random rnd = new Random(18);
+        long[] keys = new long[n];
+        for (int i = 0; i < n; i++){
+            keys[i] = rnd.nextLong();
+            filter.put(keys[i]);
+        }
+        for (long key : keys){
+            assertTrue(filter.mightContain(key));
+        }
+        int falsePositives = 0;
+        int probes = 200_000;
+        for (int i = 0; i < probes; i++){
+            if (filter.mightContain(rnd.nextLong())){
+                falsePositives++;
+            }
+        }
+        double observed = (double)falsePositives / probes;
+        assertTrue("observed " + observed, observed < 2 * rate);
+        assertEquals(rate, filter.getFalsePositiveRate(), rate / 2);
+        //about 9.6 bits a key at 1%
+        assertTrue(filter.getMemoryBytes() < 2 * n);
+    }
+
+    @Test
+    public void exact_dropsOnlyRepeats() {
+        FaceDeduplicator dedup = new FaceDeduplicator(1000, 0,
+                FaceDeduplicator.DEFAULT_FALSE_POSITIVE_RATE, BIG_BUDGET);
+        assertTrue(dedup.isExact());
+        assertTrue(dedup.add(0xff102030, 0xff405060, 0xff708090, 1));
+        assertFalse(dedup.add(0xff102030, 0xff405060, 0xff708090, 1));
+        //one channel or the style apart is a different face
+        assertTrue(dedup.add(0xff102031, 0xff405060, 0xff708090, 1));
+        assertTrue(dedup.add(0xff102030, 0xff405060, 0xff708090, 2));
+        assertEquals(4, dedup.getSeenCount());
+        assertEquals(1, dedup.getDuplicateCount());
+        assertEquals(0.25, dedup.getDuplicateRate(), 0);
+        assertEquals(0, dedup.getFalsePositiveRate(), 0);
+    }
+
+    @Test
+    public void tolerance_mergesLookalikes() {
+        FaceDeduplicator dedup = new FaceDeduplicator(1000, 8,
+                FaceDeduplicator.DEFAULT_FALSE_POSITIVE_RATE, BIG_BUDGET);
+        assertTrue(dedup.add(0xff804020, 0xff2060a0, 0xff101010, 0));
+        //one unit of red is far under a delta E of 8, but may cross a cell
+        //edge; of a few such neighbours most must merge
+        int merged = 0;
+        for (int d = 1; d <= 4; d++){
+            if (!dedup.add(0xff804020 + (d << 16), 0xff2060a0, 0xff101010, 0)){
+                merged++;
+            }
+        }
+        assertTrue(merged >= 3);
+        assertTrue(dedup.add(0xff20f020, 0xff2060a0, 0xff101010, 0));
+    }
+
+    @Test
+    public void smallBudget_fallsBackToBloom() {
+        FaceDeduplicator dedup = new FaceDeduplicator(1_000_000, 0, 0.01, 1024);
+        assertFalse(dedup.isExact());
+        assertTrue(dedup.getMemoryBytes()
+                < FaceKeySet.bytesFor(1_000_000));
+        assertTrue(dedup.add(1, 2, 3, 0));
+        assertFalse(dedup.add(1, 2, 3, 0));
+        assertTrue(dedup.toString().contains("bloom"));
+    }
+
+    @Test
+    public void generateUnique_isUniqueAndRepeatable() {
+        int count = 3 * FaceBatchGenerator.CHUNK_SIZE;
+        FaceBatchGenerator generator = new FaceBatchGenerator();
+        //realistic skins share a few cells, too few looks for this many
+        generator.setRealisticSkin(false);
+        //a coarse grid, so plenty of generated faces are duplicates
+        FaceDeduplicator dedup = new FaceDeduplicator(4 * count, 40,
+                FaceDeduplicator.DEFAULT_FALSE_POSITIVE_RATE, BIG_BUDGET);
+        FaceTraitStore a = generator.generateUnique(9, count, dedup);
+        assertTrue(dedup.getDuplicateCount() > 0);
+        Set<Long> keys = new HashSet<>();
+        for (int i = 0; i < count; i++){
+            assertTrue(keys.add(FaceDeduplicator.key(a.getSkinColor(i),
+                    a.getEyeColor(i), a.getHairColor(i), a.getHairStyle(i),
+                    40)));
+        }
+        FaceTraitStore b = generator.generateUnique(9, count,
+                new FaceDeduplicator(4 * count, 40,
+                        FaceDeduplicator.DEFAULT_FALSE_POSITIVE_RATE,
+                        BIG_BUDGET));
+        assertArrayEquals(a.skinColors(), b.skinColors());
+        assertArrayEquals(a.hairStyles(), b.hairStyles());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void generateUnique_tooFewLooks_fails() {
+        //one giant cell per color leaves one look per hairstyle
+        FaceDeduplicator dedup = new FaceDeduplicator(100, 255,
+                FaceDeduplicator.DEFAULT_FALSE_POSITIVE_RATE, BIG_BUDGET);
+        new FaceBatchGenerator().generateUnique(1, 100, dedup);
+    }
+}
@@ -0,0 +1,179 @@
+package com.example.junkinsfacemaker.core;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the undo/redo history
+ */
+public class FaceEditHistoryTest {
+    private FaceModel face;
+    private FaceEditHistory history;
+
+    @Before
+    public void setUp() {
+        face = new FaceModel(0xff112233, 0xff445566, 0xff778899,
+                FaceModel.AFRO);
+        history = new FaceEditHistory(8);
+        history.reset(face);
+    }
+
+    private static void assertFace(int skin, int eye, int hair, int style,
+                                   FaceModel model){
+        assertEquals(skin, model.getSkinColor());
+        assertEquals(eye, model.getEyeColor());
+        assertEquals(hair, model.getHairColor());
+        assertEquals(style, model.getHairStyle());
+    }
+
+    @Test
+    public void undoRedo_stepThroughEdits() {
+        face.setSkinColor(0xff000001);
+        history.record(face, FaceEditHistory.NO_MERGE);
+        face.setHairStyle(FaceModel.POMPADOUR);
+        history.record(face, FaceEditHistory.NO_MERGE);
+
+        assertTrue(history.undo(face));
+        assertFace(0xff000001, 0xff445566, 0xff778899, FaceModel.AFRO, face);
+        assertTrue(history.undo(face));
+        assertFace(0xff112233, 0xff445566, 0xff778899, FaceModel.AFRO, face);
+        assertFalse(history.undo(face));
+
+        assertTrue(history.redo(face));
+        assertTrue(history.redo(face));
+        assertFace(0xff000001, 0xff445566, 0xff778899, FaceModel.POMPADOUR,
+                face);
+        assertFalse(history.redo(face));
+    }
+
+    @Test
+    public void randomize_isOneStep() {
+        FaceModel before = new FaceModel(face.getSkinColor(),
+                face.getEyeColor(), face.getHairColor(), face.getHairStyle());
+        face.randomize(new Random(18));
+        history.record(face, FaceEditHistory.NO_MERGE);
+        history.undo(face);
+        assertFace(before.getSkinColor(), before.getEyeColor(),
+                before.getHairColor(), before.getHairStyle(), face);
+    }
+
+    @Test
+    public void drag_mergesUntilSealed() {
+        for (int red = 0; red < 200; red++){
+            face.setHairColor(FaceColors.spliceChannel(face.getHairColor(),
+                    FaceColors.RED, red));
+            history.record(face, 1);
+        }
+        //a different channel starts a new step
+        face.setHairColor(FaceColors.spliceChannel(face.getHairColor(),
+                FaceColors.GREEN, 0));
+        history.record(face, 2);
+        history.seal();
+        face.setHairColor(FaceColors.spliceChannel(face.getHairColor(),
+                FaceColors.GREEN, 1));
+        history.record(face, 2);
+        assertEquals(3, history.getUndoCount());
+
+        history.undo(face);
+        assertEquals(0xffc70099, face.getHairColor());
+        history.undo(face);
+        assertEquals(0xffc78899, face.getHairColor());
+        history.undo(face);
+        assertEquals(0xff778899, face.getHairColor());
+    }
+
+    @Test
+    public void dragBackToStart_leavesNothingToUndo() {
+        face.setEyeColor(0xff005566);
+        history.record(face, 3);
+        face.setEyeColor(0xff445566);
+        history.record(face, 3);
+        assertFalse(history.canUndo());
+    }
+
+    @Test
+    public void newEdit_dropsRedo() {
+        face.setSkinColor(0xff000001);
+        history.record(face, FaceEditHistory.NO_MERGE);
+        history.undo(face);
+        assertTrue(history.canRedo());
+        face.setSkinColor(0xff000002);
+        history.record(face, FaceEditHistory.NO_MERGE);
+        assertFalse(history.canRedo());
+        history.undo(face);
+        assertEquals(0xff112233, face.getSkinColor());
+    }
+
+    @Test
+    public void fullRing_forgetsOldest() {
+        for (int i = 1; i <= 20; i++){
+            face.setSkinColor(FaceModel.OPAQUE | i);
+            history.record(face, FaceEditHistory.NO_MERGE);
+        }
+        assertEquals(8, history.getUndoCount());
+        while (history.undo(face)) { }
+        //only edits 13-20 are kept, so undo stops at 12
+        assertEquals(FaceModel.OPAQUE | 12, face.getSkinColor());
+        while (history.redo(face)) { }
+        assertEquals(FaceModel.OPAQUE | 20, face.getSkinColor());
+    }
+
+    @Test
+    public void unchangedFace_recordsNothing() {
+        assertFalse(history.record(face, FaceEditHistory.NO_MERGE));
+        assertEquals(0, history.getUndoCount());
+    }
+
+    @Test
+    public void hundredThousandEdits_allocateNothing() {
+        history = new FaceEditHistory(FaceEditHistory.DEFAULT_CAPACITY);
+        history.reset(face);
+        Random rnd = new Random(18);
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean)
+                        ManagementFactory.getThreadMXBean();
+        //warm up so the JIT and class loading aren't counted
+        edit(rnd, 100_000);
+        long before = threads.getThreadAllocatedBytes(
+                Thread.currentThread().getId());
+        edit(rnd, 100_000);
+        long allocated = threads.getThreadAllocatedBytes(
+                Thread.currentThread().getId()) - before;
+        //a little slack for the bean's own bookkeeping
+        assertTrue("allocated " + allocated, allocated < 1024);
+        assertTrue(history.getUndoCount() + history.getRedoCount()
+                <= FaceEditHistory.DEFAULT_CAPACITY);
+    }
+
+    //drags, seals, style changes, undos and redos
+    private void edit(Random rnd, int count){
+        for (int i = 0; i < count; i++){
+            int op = rnd.nextInt(10);
+            if (op < 6){
+                int channel = 8 * rnd.nextInt(3);
+                face.setSkinColor(FaceColors.spliceChannel(face.getSkinColor(),
+                        channel, rnd.nextInt(256)));
+                history.record(face, channel);
+            }
+            else if (op == 6){
+                history.seal();
+            }
+            else if (op == 7){
+                face.setHairStyle((face.getHairStyle() + 1)
+                        % HairstyleRegistry.getDefault().size());
+                history.record(face, FaceEditHistory.NO_MERGE);
+            }
+            else if (op == 8){
+                history.undo(face);
+            }
+            else {
+                history.redo(face);
+            }
+        }
+    }
+}
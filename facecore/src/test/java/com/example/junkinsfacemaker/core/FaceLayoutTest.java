@@ -0,0 +1,69 @@
+package com.example.junkinsfacemaker.core;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the headless face model and layout
+ */
+public class FaceLayoutTest {
+    @Test
+    public void everyStyle_hasFacePlusHairPrimitives() {
+        float[] out = new float[FaceLayout.NUM_PRIMITIVES * FaceLayout.STRIDE];
+        HairstyleRegistry registry = HairstyleRegistry.getDefault();
+        for (int style = 0; style < registry.size(); style++) {
+            assertEquals(FaceLayout.FACE_PRIMITIVES
+                            + registry.getPrimitiveCount(style),
+                    FaceLayout.compute(style, out));
+        }
+    }
+
+    @Test
+    public void hatHair_isBehindHead_otherHairIsInFront() {
+        FaceLayout layout = new FaceLayout();
+        float[] prims = layout.getPrimitives();
+        int last = FaceLayout.FACE_PRIMITIVES * FaceLayout.STRIDE;
+
+        layout.update(FaceModel.HAT_HAIR);
+        assertEquals(FaceLayout.PAINT_HAIR, (int) prims[FaceLayout.PAINT]);
+        assertEquals(FaceLayout.PAINT_SKIN,
+                (int) prims[FaceLayout.STRIDE + FaceLayout.PAINT]);
+
+        layout.update(FaceModel.AFRO);
+        assertEquals(FaceLayout.PAINT_SKIN, (int) prims[FaceLayout.PAINT]);
+        assertEquals(FaceLayout.PAINT_HAIR, (int) prims[last + FaceLayout.PAINT]);
+        assertEquals(FaceLayout.SHAPE_OVAL, (int) prims[last + FaceLayout.SHAPE]);
+
+        layout.update(FaceModel.POMPADOUR);
+        assertEquals(FaceLayout.SHAPE_RECT, (int) prims[last + FaceLayout.SHAPE]);
+    }
+
+    @Test
+    public void head_matchesConstants() {
+        FaceLayout layout = new FaceLayout();
+        layout.update(FaceModel.AFRO);
+        float[] prims = layout.getPrimitives();
+        assertEquals(FaceLayout.headLeft, prims[FaceLayout.LEFT], 0f);
+        assertEquals(FaceLayout.headTop, prims[FaceLayout.TOP], 0f);
+        assertEquals(FaceLayout.headLeft + FaceLayout.headWidth,
+                prims[FaceLayout.RIGHT], 0f);
+        assertEquals(FaceLayout.headTop + FaceLayout.headHeight,
+                prims[FaceLayout.BOTTOM], 0f);
+    }
+
+    @Test
+    public void randomize_givesOpaqueColorsAndValidStyle() {
+        FaceModel model = new FaceModel();
+        Random rnd = new Random(301);
+        for (int i = 0; i < 1000; i++) {
+            model.randomize(rnd);
+            assertEquals(0xff, model.getSkinColor() >>> 24);
+            assertEquals(0xff, model.getEyeColor() >>> 24);
+            assertEquals(0xff, model.getHairColor() >>> 24);
+            assertTrue(FaceModel.isValidHairStyle(model.getHairStyle()));
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.junkinsfacemaker.core;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the metrics switch, rates and the dump
+ */
+public class FaceMetricsTest {
+    private static final long SECOND = MetricRate.WINDOW_NANOS;
+
+    private boolean wasEnabled;
+
+    @Before
+    public void setUp() {
+        wasEnabled = FaceMetrics.isEnabled();
+        FaceMetrics.reset();
+    }
+
+    @After
+    public void tearDown() {
+        FaceMetrics.setEnabled(wasEnabled);
+        FaceMetrics.reset();
+    }
+
+    @Test
+    public void disabledMetrics_recordNothing() {
+        FaceMetrics.setEnabled(false);
+        FaceMetrics.DRAW_NANOS.record(1000);
+        FaceMetrics.REDRAWS_REQUESTED.increment();
+        FaceMetrics.PAINT_UPDATES.add(3);
+        FaceMetrics.SEEK_BAR_EVENTS.mark(0);
+        assertEquals(0, FaceMetrics.DRAW_NANOS.getCount());
+        assertEquals(0, FaceMetrics.REDRAWS_REQUESTED.get());
+        assertEquals(0, FaceMetrics.PAINT_UPDATES.get());
+        assertEquals(0, FaceMetrics.SEEK_BAR_EVENTS.getCount());
+
+        FaceMetrics.setEnabled(true);
+        FaceMetrics.REDRAWS_REQUESTED.increment();
+        FaceMetrics.PAINT_UPDATES.add(3);
+        assertEquals(1, FaceMetrics.REDRAWS_REQUESTED.get());
+        assertEquals(3, FaceMetrics.PAINT_UPDATES.get());
+    }
+
+    @Test
+    public void rate_recordsEventsPerBusySecond() {
+        FaceMetrics.setEnabled(true);
+        MetricRate rate = new MetricRate("test");
+        //a second at 60 events, a quiet minute, then a second at 30
+        for (int i = 0; i < 60; i++){
+            rate.mark(i * SECOND / 60);
+        }
+        long later = 61 * SECOND;
+        for (int i = 0; i < 30; i++){
+            rate.mark(later + i * SECOND / 30);
+        }
+        rate.mark(later + SECOND);
+
+        assertEquals(91, rate.getCount());
+        MetricHistogram perSecond = rate.getPerSecond();
+        assertEquals(2, perSecond.getCount());
+        assertEquals(60, perSecond.getMax());
+        assertEquals(30, perSecond.getPercentile(.5));
+    }
+
+    @Test
+    public void dump_listsEveryMetric() {
+        FaceMetrics.setEnabled(true);
+        FaceMetrics.DRAW_NANOS.record(2000000);
+        FaceMetrics.RANDOMIZE_CALLS.increment();
+        StringWriter text = new StringWriter();
+        FaceMetrics.dump(new PrintWriter(text), "  ");
+        String dump = text.toString();
+        assertTrue(dump.startsWith("  metrics enabled"));
+        assertTrue(dump, dump.contains("face.draw.nanos: count=1 "));
+        assertTrue(dump, dump.contains("p50=2.000ms"));
+        assertTrue(dump, dump.contains("face.randomize: 1"));
+        assertTrue(dump, dump.contains("controller.seekBarEvents: 0"));
+        assertEquals(8, dump.split("\n").length);
+    }
+}
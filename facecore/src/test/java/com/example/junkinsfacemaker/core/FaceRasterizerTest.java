@@ -0,0 +1,83 @@
+package com.example.junkinsfacemaker.core;
+
+import org.junit.Test;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import javax.imageio.ImageIO;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the headless renderer and PNG output
+ */
+public class FaceRasterizerTest {
+    private static final int SKIN = 0xffe0b090;
+    private static final int EYE = 0xff2060c0;
+    private static final int HAIR = 0xff603010;
+    private static final int WHITE = 0xffffffff;
+
+    @Test
+    public void identityRender_putsFeaturesWhereFaceDrawsThem() {
+        int w = 1000;
+        int h = 1100;
+        FaceRasterizer r = new FaceRasterizer(w, h, 1f, 0f, 0f);
+        int[] fb = new int[w * h];
+        r.render(SKIN, EYE, HAIR, FaceModel.AFRO, WHITE, fb, 0, w);
+
+        assertEquals(WHITE, fb[5 * w + 5]);
+        //middle of the cheek, below the afro and away from the nose
+        assertEquals(SKIN, fb[800 * w + 400]);
+        //the nose
+        assertEquals(FaceRasterizer.DETAILS_COLOR, fb[600 * w + 550]);
+        //the afro covers the top of the head
+        assertEquals(HAIR, fb[200 * w + 550]);
+    }
+
+    @Test
+    public void fittedRender_keepsWholeFaceInTile() {
+        FaceRasterizer r = new FaceRasterizer(64, 64);
+        int[] fb = new int[64 * 64];
+        int styles = HairstyleRegistry.getDefault().size();
+        for (int style = 0; style < styles; style++) {
+            r.render(SKIN, EYE, HAIR, style, WHITE, fb, 0, 64);
+            //the border stays mostly background
+            assertEquals(WHITE, fb[0]);
+            assertEquals(WHITE, fb[63 * 64 + 63]);
+            assertEquals(SKIN, fb[50 * 64 + 32 - 10]);
+        }
+    }
+
+    @Test
+    public void spriteSheet_decodesToRenderedTiles() throws IOException {
+        FaceTraitStore store = new FaceBatchGenerator().generate(3, 10);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        new SpriteSheetWriter(32, 32, 4).write(store, 0, 10, bytes);
+
+        BufferedImage sheet =
+                ImageIO.read(new ByteArrayInputStream(bytes.toByteArray()));
+        assertEquals(4 * 32, sheet.getWidth());
+        assertEquals(3 * 32, sheet.getHeight());
+
+        FaceRasterizer r = new FaceRasterizer(32, 32);
+        int[] tile = new int[32 * 32];
+        for (int face = 0; face < 10; face++) {
+            r.render(store, face, SpriteSheetWriter.DEFAULT_BACKGROUND,
+                    tile, 0, 32);
+            int x0 = (face % 4) * 32;
+            int y0 = (face / 4) * 32;
+            for (int y = 0; y < 32; y++) {
+                for (int x = 0; x < 32; x++) {
+                    assertEquals(tile[y * 32 + x],
+                            sheet.getRGB(x0 + x, y0 + y) | 0xff000000);
+                }
+            }
+        }
+        //padding tiles are plain background
+        assertEquals(SpriteSheetWriter.DEFAULT_BACKGROUND,
+                sheet.getRGB(3 * 32 + 16, 2 * 32 + 16));
+    }
+}
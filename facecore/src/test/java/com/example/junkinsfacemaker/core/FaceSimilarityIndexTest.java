@@ -0,0 +1,196 @@
+package com.example.junkinsfacemaker.core;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the similarity index, checked against brute force scans
+ */
+public class FaceSimilarityIndexTest {
+    private static final int COUNT = 50_000;
+    private static final int QUERIES = 200;
+    private static final int K = 10;
+
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    private final FaceTraitStore store =
+            new FaceBatchGenerator().generate(15, COUNT);
+    private final FaceSimilarityIndex index = FaceSimilarityIndex.build(store);
+
+    private int distance(int i, int skin, int eye, int hair){
+        return FaceSimilarityIndex.distance(store.getSkinColor(i),
+                store.getEyeColor(i), store.getHairColor(i), skin, eye, hair);
+    }
+
+    //the K smallest distances over every face of the style
+    private int[] bruteNearest(int skin, int eye, int hair, int style,
+                               int exclude){
+        int[] all = new int[COUNT];
+        int n = 0;
+        for (int i = 0; i < COUNT; i++){
+            if (i != exclude && (style == FaceSimilarityIndex.ANY_STYLE
+                    || store.getHairStyle(i) == style)){
+                all[n++] = distance(i, skin, eye, hair);
+            }
+        }
+        all = Arrays.copyOf(all, n);
+        Arrays.sort(all);
+        return Arrays.copyOf(all, Math.min(K, n));
+    }
+
+    private int[] distancesOf(int[] ids, int n, int skin, int eye, int hair){
+        int[] d = new int[n];
+        for (int i = 0; i < n; i++){
+            d[i] = distance(ids[i], skin, eye, hair);
+        }
+        return d;
+    }
+
+    @Test
+    public void nearest_matchesBruteForce() {
+        Random rnd = new Random(1);
+        int styles = HairstyleRegistry.getDefault().size();
+        int[] out = new int[K];
+        for (int q = 0; q < QUERIES; q++){
+            int skin = rnd.nextInt(), eye = rnd.nextInt(), hair = rnd.nextInt();
+            int style = q % (styles + 1) - 1;
+            int n = index.nearest(skin, eye, hair, style, out);
+            assertEquals(K, n);
+            //ties may pick different faces, but never a farther one
+            assertArrayEquals(bruteNearest(skin, eye, hair, style, -1),
+                    distancesOf(out, n, skin, eye, hair));
+            for (int i = 0; i < n && style >= 0; i++){
+                assertEquals(style, store.getHairStyle(out[i]));
+            }
+        }
+    }
+
+    @Test
+    public void similarTo_sameStyle_notItself() {
+        int[] out = new int[K];
+        for (int face = 0; face < COUNT; face += COUNT / 50){
+            int skin = store.getSkinColor(face);
+            int eye = store.getEyeColor(face);
+            int hair = store.getHairColor(face);
+            int n = index.similarTo(store, face, out);
+            assertEquals(K, n);
+            for (int i = 0; i < n; i++){
+                assertNotEquals(face, out[i]);
+                assertEquals(store.getHairStyle(face),
+                        store.getHairStyle(out[i]));
+            }
+            assertArrayEquals(bruteNearest(skin, eye, hair,
+                    store.getHairStyle(face), face),
+                    distancesOf(out, n, skin, eye, hair));
+        }
+    }
+
+    @Test
+    public void within_matchesBruteForce() {
+        Random rnd = new Random(2);
+        for (int q = 0; q < QUERIES; q++){
+            int skin = rnd.nextInt(), eye = rnd.nextInt(), hair = rnd.nextInt();
+            int style = q % 2 == 0 ? FaceSimilarityIndex.ANY_STYLE : 1;
+            int radius = 60 * 60 * (1 + q % 9);
+            int[] expected = new int[COUNT];
+            int n = 0;
+            for (int i = 0; i < COUNT; i++){
+                if ((style < 0 || store.getHairStyle(i) == style)
+                        && distance(i, skin, eye, hair) <= radius){
+                    expected[n++] = i;
+                }
+            }
+            assertArrayEquals(Arrays.copyOf(expected, n),
+                    index.within(skin, eye, hair, style, radius));
+        }
+    }
+
+    @Test
+    public void exactFace_isItsOwnNearest() {
+        int[] out = new int[1];
+        int face = 1234;
+        index.nearest(store.getSkinColor(face), store.getEyeColor(face),
+                store.getHairColor(face), store.getHairStyle(face), out);
+        assertEquals(0, distance(out[0], store.getSkinColor(face),
+                store.getEyeColor(face), store.getHairColor(face)));
+    }
+
+    @Test
+    public void fewFaces_returnsWhatThereIs() {
+        FaceTraitStore small = new FaceBatchGenerator().generate(3, 5);
+        FaceSimilarityIndex smallIndex = FaceSimilarityIndex.build(small);
+        int[] out = new int[K];
+        assertEquals(5, smallIndex.nearest(0, 0, 0,
+                FaceSimilarityIndex.ANY_STYLE, out));
+        assertEquals(0, smallIndex.nearest(0, 0, 0, 200, out));
+        assertEquals(0, FaceSimilarityIndex.build(new FaceTraitStore(0))
+                .nearest(0, 0, 0, FaceSimilarityIndex.ANY_STYLE, out));
+    }
+
+    @Test
+    public void recordFile_buildsTheSameIndex() throws Exception {
+        Path file = tmp.getRoot().toPath().resolve("faces.bin");
+        FaceRecordFile.write(file, store);
+        FaceSimilarityIndex fromFile;
+        try (FaceRecordFile.Reader reader = new FaceRecordFile.Reader(file)){
+            fromFile = FaceSimilarityIndex.build(reader, false);
+        }
+        assertEquals(COUNT, fromFile.size());
+        int[] a = new int[K];
+        int[] b = new int[K];
+        int skin = 0xff336699, eye = 0xff00ff00, hair = 0xff884422;
+        index.nearest(skin, eye, hair, FaceSimilarityIndex.ANY_STYLE, a);
+        fromFile.nearest(skin, eye, hair, FaceSimilarityIndex.ANY_STYLE, b);
+        assertArrayEquals(a, b);
+    }
+
+    @Test
+    public void perceptual_matchesBruteForceDeltaE() {
+        FaceSimilarityIndex lab = FaceSimilarityIndex.build(store, true);
+        assertTrue(lab.isPerceptual());
+        int[] labSkins = new int[COUNT];
+        int[] labEyes = new int[COUNT];
+        int[] labHairs = new int[COUNT];
+        for (int i = 0; i < COUNT; i++){
+            labSkins[i] = LabColors.toLab8(store.getSkinColor(i));
+            labEyes[i] = LabColors.toLab8(store.getEyeColor(i));
+            labHairs[i] = LabColors.toLab8(store.getHairColor(i));
+        }
+        Random rnd = new Random(3);
+        int[] out = new int[K];
+        for (int q = 0; q < QUERIES / 4; q++){
+            int skin = rnd.nextInt(), eye = rnd.nextInt(), hair = rnd.nextInt();
+            int ls = LabColors.toLab8(skin), le = LabColors.toLab8(eye),
+                    lh = LabColors.toLab8(hair);
+            int[] all = new int[COUNT];
+            for (int i = 0; i < COUNT; i++){
+                all[i] = FaceSimilarityIndex.distance(labSkins[i], labEyes[i],
+                        labHairs[i], ls, le, lh);
+            }
+            Arrays.sort(all);
+            int n = lab.nearest(skin, eye, hair, FaceSimilarityIndex.ANY_STYLE,
+                    out);
+            int[] found = new int[n];
+            for (int i = 0; i < n; i++){
+                found[i] = FaceSimilarityIndex.distance(labSkins[out[i]],
+                        labEyes[out[i]], labHairs[out[i]], ls, le, lh);
+            }
+            assertArrayEquals(Arrays.copyOf(all, K), found);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidStyle_isRejected() {
+        FaceTraitStore bad = new FaceTraitStore(1);
+        bad.set(0, 0, 0, 0, HairstyleRegistry.MAX_STYLES);
+        FaceSimilarityIndex.build(bad);
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.junkinsfacemaker.core;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for frame time collection
+ */
+public class FrameStatsTest {
+    private static final long MS = 1000000L;
+
+    @Test
+    public void percentiles_followRecordedFrames() {
+        FrameStats stats = new FrameStats("test");
+        for (int i = 0; i < 99; i++) {
+            stats.record(2 * MS);
+        }
+        stats.record(40 * MS);
+
+        assertEquals(100, stats.getCount());
+        assertEquals(3, stats.getPercentileMillis(.5));
+        assertEquals(3, stats.getPercentileMillis(.99));
+        assertEquals(41, stats.getPercentileMillis(1));
+        assertEquals(40 * MS, stats.getMaxNanos());
+    }
+
+    @Test
+    public void slowFrames_landInLastBucket() {
+        FrameStats stats = new FrameStats("test");
+        stats.record(10000 * MS);
+        assertEquals(FrameStats.NUM_BUCKETS, stats.getPercentileMillis(.5));
+        stats.reset();
+        assertEquals(0, stats.getCount());
+        assertEquals(0, stats.getPercentileMillis(.5));
+    }
+}
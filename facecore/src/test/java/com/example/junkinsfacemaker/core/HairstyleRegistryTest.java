@@ -0,0 +1,110 @@
+package com.example.junkinsfacemaker.core;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the hairstyle table and the code that reads from it
+ */
+public class HairstyleRegistryTest {
+    private static final HairstyleRegistry BUILT_IN =
+            HairstyleRegistry.getDefault();
+
+    @After
+    public void restoreDefault() {
+        HairstyleRegistry.setDefault(BUILT_IN);
+    }
+
+    //a registry of the built-ins plus a full table of two-part styles
+    private static HairstyleRegistry fullRegistry() {
+        HairstyleRegistry.Builder b = HairstyleRegistry.withBuiltIns();
+        for (int i = BUILT_IN.size(); i < HairstyleRegistry.MAX_STYLES; i++) {
+            float x = 100f + i;
+            b.add("style " + i, HairstyleRegistry.IN_FRONT_OF_HEAD,
+                    FaceLayout.SHAPE_RECT, FaceLayout.PAINT_HAIR,
+                    x, 40f, x + 300f, 200f,
+                    FaceLayout.SHAPE_OVAL, FaceLayout.PAINT_HAIR,
+                    x + 300f, 40f, x + 700f, 260f);
+        }
+        return b.build();
+    }
+
+    @Test
+    public void builtIns_keepTheirIds() {
+        assertEquals(3, BUILT_IN.size());
+        assertEquals("Ultimate Hat-hair", BUILT_IN.getName(FaceModel.HAT_HAIR));
+        assertEquals("Afro", BUILT_IN.getName(FaceModel.AFRO));
+        assertEquals("Geometric Pompadour",
+                BUILT_IN.getName(FaceModel.POMPADOUR));
+        assertEquals(HairstyleRegistry.BEHIND_HEAD,
+                BUILT_IN.getZOrder(FaceModel.HAT_HAIR));
+        assertEquals(HairstyleRegistry.IN_FRONT_OF_HEAD,
+                BUILT_IN.getZOrder(FaceModel.AFRO));
+        assertFalse(BUILT_IN.isValid(3));
+        assertFalse(BUILT_IN.isValid(-1));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void add_rejectsIdsTheCodecCannotHold() {
+        HairstyleRegistry.Builder b = HairstyleRegistry.withBuiltIns();
+        for (int i = BUILT_IN.size(); i <= HairstyleRegistry.MAX_STYLES; i++) {
+            b.add("style " + i, HairstyleRegistry.BEHIND_HEAD,
+                    FaceLayout.SHAPE_RECT, FaceLayout.PAINT_HAIR,
+                    0f, 0f, 1f, 1f);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void add_rejectsPartialPrimitives() {
+        HairstyleRegistry.withBuiltIns().add("bad",
+                HairstyleRegistry.BEHIND_HEAD, 0f, 1f, 2f);
+    }
+
+    @Test
+    public void fullRegistry_fitsTheCodec() {
+        HairstyleRegistry registry = fullRegistry();
+        assertEquals(HairstyleRegistry.MAX_STYLES, registry.size());
+
+        int last = registry.size() - 1;
+        short high = FaceCodec.packHigh(0xff000000, last);
+        assertEquals(last, FaceCodec.hairStyle(high));
+    }
+
+    @Test
+    public void layoutAndRasterizer_readTheDefault() {
+        HairstyleRegistry registry = fullRegistry();
+        HairstyleRegistry.setDefault(registry);
+        int last = registry.size() - 1;
+
+        float[] out = new float[FaceLayout.NUM_PRIMITIVES * FaceLayout.STRIDE];
+        assertEquals(FaceLayout.FACE_PRIMITIVES + 2,
+                FaceLayout.compute(last, out));
+        //in front of the head, so after the face
+        assertEquals(FaceLayout.PAINT_SKIN, (int) out[FaceLayout.PAINT]);
+
+        FaceRasterizer rasterizer = new FaceRasterizer(64, 64);
+        int[] fb = new int[64 * 64];
+        rasterizer.render(0xff111111, 0xff222222, 0xff333333, last,
+                0xffffffff, fb, 0, 64);
+        boolean hair = false;
+        for (int px : fb) {
+            hair |= px == 0xff333333;
+        }
+        assertTrue(hair);
+
+        FaceModel model = new FaceModel();
+        model.setHairStyle(last);
+        assertEquals(last, model.getHairStyle());
+        Random rnd = new Random(5);
+        boolean beyondBuiltIns = false;
+        for (int i = 0; i < 100; i++) {
+            model.randomize(rnd);
+            beyondBuiltIns |= model.getHairStyle() >= BUILT_IN.size();
+        }
+        assertTrue(beyondBuiltIns);
+    }
+}
@@ -0,0 +1,174 @@
+package com.example.junkinsfacemaker.core;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for Lab conversion, delta E, palettes and skin tones
+ */
+public class LabColorsTest {
+    private static final float EPSILON = 0.02f;
+
+    //Lab by the exact formulas, in doubles
+    private static double[] exactLab(int color){
+        double r = LabColors.toLinear(((color >> 16) & 0xFF) / 255.0);
+        double g = LabColors.toLinear(((color >> 8) & 0xFF) / 255.0);
+        double b = LabColors.toLinear((color & 0xFF) / 255.0);
+        double x = (0.4124564 * r + 0.3575761 * g + 0.1804375 * b) / 0.95047;
+        double y = 0.2126729 * r + 0.7151522 * g + 0.0721750 * b;
+        double z = (0.0193339 * r + 0.1191920 * g + 0.9503041 * b) / 1.08883;
+        double fx = LabColors.curve(x);
+        double fy = LabColors.curve(y);
+        double fz = LabColors.curve(z);
+        return new double[] {116 * fy - 16, 500 * (fx - fy), 200 * (fy - fz)};
+    }
+
+    @Test
+    public void tables_matchExactMath() {
+        Random rnd = new Random(16);
+        float[] lab = new float[3];
+        for (int i = 0; i < 100_000; i++){
+            int color = rnd.nextInt();
+            double[] exact = exactLab(color);
+            LabColors.toLab(color, lab);
+            for (int c = 0; c < 3; c++){
+                assertEquals(exact[c], lab[c], EPSILON);
+            }
+        }
+    }
+
+    @Test
+    public void knownColors() {
+        float[] lab = new float[3];
+        LabColors.toLab(0xffffffff, lab);
+        assertEquals(100, lab[0], EPSILON);
+        assertEquals(0, lab[1], EPSILON);
+        assertEquals(0, lab[2], EPSILON);
+        LabColors.toLab(0xff000000, lab);
+        assertEquals(0, lab[0], EPSILON);
+        //sRGB red is about (53.24, 80.09, 67.20)
+        LabColors.toLab(0xffff0000, lab);
+        assertEquals(53.24, lab[0], 0.05);
+        assertEquals(80.09, lab[1], 0.05);
+        assertEquals(67.20, lab[2], 0.05);
+    }
+
+    @Test
+    public void batch_matchesSingle() {
+        int[] colors = new FaceBatchGenerator().generate(4, 1000).skinColors();
+        float[] l = new float[1000], a = new float[1000], b = new float[1000];
+        LabColors.toLab(colors, 0, 1000, l, a, b);
+        float[] lab = new float[3];
+        float[] d = new float[1000];
+        LabColors.deltaESquared(l, a, b, 0, 1000, l[7], a[7], b[7], d);
+        for (int i = 0; i < 1000; i++){
+            LabColors.toLab(colors[i], lab);
+            assertEquals(lab[0], l[i], 0f);
+            assertEquals(lab[1], a[i], 0f);
+            assertEquals(lab[2], b[i], 0f);
+            float e = LabColors.deltaE(colors[i], colors[7]);
+            assertEquals(e * e, d[i], 0.01f * Math.max(1, d[i]));
+        }
+    }
+
+    @Test
+    public void fromLab_roundTrips() {
+        Random rnd = new Random(17);
+        float[] lab = new float[3];
+        for (int i = 0; i < 10_000; i++){
+            int color = rnd.nextInt() | FaceModel.OPAQUE;
+            LabColors.toLab(color, lab);
+            int back = LabColors.fromLab(lab[0], lab[1], lab[2]);
+            for (int shift = 0; shift <= 16; shift += 8){
+                assertEquals(color >> shift & 0xFF, back >> shift & 0xFF, 1);
+            }
+        }
+    }
+
+    @Test
+    public void deltaE_isZeroForSame_andSymmetric() {
+        assertEquals(0, LabColors.deltaE(0xff123456, 0xff123456), 0f);
+        assertEquals(LabColors.deltaE(0xff123456, 0xff654321),
+                LabColors.deltaE(0xff654321, 0xff123456), 0f);
+        assertEquals(100, LabColors.deltaE(0xff000000, 0xffffffff), 0.05f);
+    }
+
+    @Test
+    public void lab8_distanceIsAboutDeltaESquared() {
+        Random rnd = new Random(18);
+        for (int i = 0; i < 10_000; i++){
+            int x = rnd.nextInt(), y = rnd.nextInt();
+            int px = LabColors.toLab8(x), py = LabColors.toLab8(y);
+            double d8 = Math.sqrt(FaceSimilarityIndex.distance(px, 0, 0,
+                    py, 0, 0));
+            //rounding each channel moves a color at most sqrt(3)/2
+            assertEquals(LabColors.deltaE(x, y), d8, 1.8);
+        }
+    }
+
+    @Test
+    public void palette_snapsToClosestLookingColor() {
+        ColorPalette palette =
+                new ColorPalette(0xff000000, 0xffffffff, 0xffff0000);
+        assertEquals(0xff000000, palette.snap(0xff202020));
+        assertEquals(0xffffffff, palette.snap(0xffe0e0e0));
+        assertEquals(0xffff0000, palette.snap(0xffd02010));
+        int[] colors = {0xff202020, 0xffe0e0e0, 0xffd02010};
+        palette.snap(colors, 1, 3);
+        assertArrayEquals(new int[] {0xff202020, 0xffffffff, 0xffff0000},
+                colors);
+    }
+
+    @Test
+    public void fit_findsClusters_deterministically() {
+        int[] centers = {0xff102080, 0xffe0c040, 0xff40a040};
+        Random rnd = new Random(19);
+        int[] colors = new int[30_000];
+        for (int i = 0; i < colors.length; i++){
+            int c = centers[i % 3];
+            int jitter = (rnd.nextInt(9) - 4) * 0x010101;
+            colors[i] = c + jitter;
+        }
+        ColorPalette palette = ColorPalette.fit(colors, 0, colors.length, 3, 5);
+        assertEquals(3, palette.size());
+        for (int c : centers){
+            assertTrue(LabColors.deltaE(c, palette.snap(c)) < 2);
+        }
+        ColorPalette again = ColorPalette.fit(colors, 0, colors.length, 3, 5);
+        for (int i = 0; i < 3; i++){
+            assertEquals(palette.getColor(i), again.getColor(i));
+        }
+    }
+
+    @Test
+    public void fit_fewerColorsThanAsked() {
+        int[] colors = {0xff112233, 0xff112233, 0xff445566};
+        assertEquals(2, ColorPalette.fit(colors, 0, 3, 8, 1).size());
+    }
+
+    @Test
+    public void skinTones_stayNearTheScale() {
+        Random rnd = new Random(20);
+        for (int i = 0; i < 10_000; i++){
+            int skin = SkinTones.sample(rnd);
+            assertEquals(0xff, skin >>> 24);
+            //a blend of two neighbouring tones plus jitter
+            assertTrue(LabColors.deltaE(skin, SkinTones.PALETTE.snap(skin))
+                    < 25);
+        }
+    }
+
+    @Test
+    public void randomizeRealistic_onlyChangesTheSkinRule() {
+        FaceModel uniform = new FaceModel();
+        FaceModel realistic = new FaceModel();
+        uniform.randomize(new Random(21));
+        realistic.randomizeRealistic(new Random(21));
+        assertEquals(uniform.getEyeColor(), realistic.getEyeColor());
+        assertEquals(uniform.getHairColor(), realistic.getHairColor());
+        assertEquals(uniform.getHairStyle(), realistic.getHairStyle());
+    }
+}
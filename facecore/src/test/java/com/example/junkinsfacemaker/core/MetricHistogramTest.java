@@ -0,0 +1,102 @@
+package com.example.junkinsfacemaker.core;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the log-linear histogram
+ */
+public class MetricHistogramTest {
+    private boolean wasEnabled;
+
+    @Before
+    public void setUp() {
+        wasEnabled = FaceMetrics.isEnabled();
+        FaceMetrics.setEnabled(true);
+    }
+
+    @After
+    public void tearDown() {
+        FaceMetrics.setEnabled(wasEnabled);
+    }
+
+    @Test
+    public void buckets_coverEveryValueInOrder() {
+        assertEquals(0, MetricHistogram.bucketOf(0));
+        assertEquals(MetricHistogram.NUM_BUCKETS - 1,
+                MetricHistogram.bucketOf(Long.MAX_VALUE));
+        for (int b = 0; b < MetricHistogram.NUM_BUCKETS - 1; b++){
+            long low = MetricHistogram.lowerBound(b);
+            long high = MetricHistogram.upperBound(b);
+            assertEquals(b, MetricHistogram.bucketOf(low));
+            assertEquals(b, MetricHistogram.bucketOf(high));
+            assertEquals(high + 1, MetricHistogram.lowerBound(b + 1));
+            //no bucket is wider than a sixteenth of its values
+            assertTrue(high - low <= Math.max(0, low / 16));
+        }
+    }
+
+    @Test
+    public void percentiles_areWithinTheBucketWidth() {
+        MetricHistogram histogram = new MetricHistogram("test");
+        Random rnd = new Random(24);
+        long[] values = new long[10000];
+        for (int i = 0; i < values.length; i++){
+            //log-uniform from 1us to 100ms
+            values[i] = (long)Math.pow(10, 3 + 5 * rnd.nextDouble());
+            histogram.record(values[i]);
+        }
+        java.util.Arrays.sort(values);
+        for (double fraction : new double[] {.5, .9, .99}){
+            long exact = values[(int)Math.ceil(fraction * values.length) - 1];
+            long estimate = histogram.getPercentile(fraction);
+            assertTrue(fraction + ": " + estimate + " vs " + exact,
+                    estimate >= exact && estimate <= exact + exact / 16 + 1);
+        }
+        assertEquals(values[values.length - 1], histogram.getMax());
+        assertEquals(values[values.length - 1], histogram.getPercentile(1));
+        assertEquals(values.length, histogram.getCount());
+    }
+
+    @Test
+    public void concurrentRecords_areAllCounted() throws Exception {
+        MetricHistogram histogram = new MetricHistogram("test");
+        MetricCounter counter = new MetricCounter("test");
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++){
+            final long value = 1000L * (t + 1);
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 100000; i++){
+                    histogram.record(value);
+                    counter.increment();
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads){
+            thread.join();
+        }
+        assertEquals(400000, histogram.getCount());
+        assertEquals(400000, counter.get());
+        assertEquals(4000, histogram.getMax());
+        assertEquals(2500, histogram.getMean());
+    }
+
+    @Test
+    public void reset_forgetsEverything() {
+        MetricHistogram histogram = new MetricHistogram("test");
+        histogram.record(-5);
+        histogram.record(12345);
+        assertEquals(2, histogram.getCount());
+        assertEquals(0, histogram.getPercentile(.5));
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMax());
+        assertEquals(0, histogram.getPercentile(.99));
+    }
+}
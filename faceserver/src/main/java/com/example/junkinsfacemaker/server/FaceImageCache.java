@@ -0,0 +1,168 @@
+/**
+ * FaceMaker FaceImageCache Class
+ * keeps encoded face PNGs, keyed by packed traits and size, and drops the
+ * least recently used ones once they go over a byte budget
+ * a hit hands back the stored bytes, so a repeated request costs no
+ * rendering and no encoding; the bytes must not be modified
+ * thread-safe
+ *
+ * @version Oct 18 2026
+ * @author Alex Junkins
+ */
+package com.example.junkinsfacemaker.server;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class FaceImageCache {
+    //room for a few thousand typical faces
+    public static final long DEFAULT_BYTES = 64L << 20;
+
+    private final long maxBytes;
+    //access order, so iteration starts at the least recently used
+    private final LinkedHashMap<Key, byte[]> images =
+            new LinkedHashMap<>(256, .75f, true);
+    private long bytes;
+
+    //reused for lookups, under the lock
+    private final Key probe = new Key();
+
+    //counters for tests and tuning
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * Main constructor
+     * @param maxBytes  the budget for encoded bytes; 0 caches nothing
+     */
+    public FaceImageCache(long maxBytes) {
+        if (maxBytes < 0){
+            throw new IllegalArgumentException("bad budget: " + maxBytes);
+        }
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Looks up an encoded face
+     *
+     * @param low   the low part of the face's FaceCodec encoding
+     * @param high  the high part of the face's FaceCodec encoding
+     * @param size  the image's edge in pixels
+     * @return  the PNG bytes, or null on a miss
+     */
+    public synchronized byte[] get(long low, short high, int size){
+        probe.set(low, high, size);
+        byte[] png = images.get(probe);
+        if (png == null){
+            misses++;
+        }
+        else {
+            hits++;
+        }
+        return png;
+    }
+
+    /**
+     * Stores an encoded face, evicting old ones to stay in budget
+     * an image bigger than the whole budget is not kept
+     *
+     * @param low   the low part of the face's FaceCodec encoding
+     * @param high  the high part of the face's FaceCodec encoding
+     * @param size  the image's edge in pixels
+     * @param png   the PNG bytes
+     */
+    public synchronized void put(long low, short high, int size, byte[] png){
+        if (png.length > maxBytes){
+            return;
+        }
+        Key key = new Key();
+        key.set(low, high, size);
+        byte[] old = images.put(key, png);
+        if (old != null){
+            bytes -= old.length;
+        }
+        bytes += png.length;
+        Iterator<Map.Entry<Key, byte[]>> eldest =
+                images.entrySet().iterator();
+        while (bytes > maxBytes){
+            bytes -= eldest.next().getValue().length;
+            eldest.remove();
+            evictions++;
+        }
+    }
+
+    /**
+     * A getter for the number of bytes held
+     * @return bytes
+     */
+    public synchronized long size() {
+        return bytes;
+    }
+
+    /**
+     * A getter for the number of images held
+     * @return images
+     */
+    public synchronized int count() {
+        return images.size();
+    }
+
+    /**
+     * A getter for the number of lookups that found an image
+     * @return hits
+     */
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    /**
+     * A getter for the number of lookups that found nothing
+     * @return misses
+     */
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    /**
+     * A getter for the number of images dropped to stay in budget
+     * @return evictions
+     */
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * A cache key: packed traits plus image size
+     */
+    static final class Key {
+        private long low;
+        private short high;
+        private int size;
+
+        /**
+         * A helper method to fill in the key
+         */
+        void set(long traitsLow, short traitsHigh, int edge){
+            low = traitsLow;
+            high = traitsHigh;
+            size = edge;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)){
+                return false;
+            }
+            Key other = (Key)o;
+            return low == other.low && high == other.high
+                    && size == other.size;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * (31 * Long.hashCode(low) + high) + size;
+        }
+    }//class Key
+}//class FaceImageCache
@@ -0,0 +1,249 @@
+/**
+ * FaceMaker FaceLoadTest Class
+ * a load test for the FaceServer: starts one on the loopback address,
+ * then has a number of client threads fetch faces as fast as they can
+ * for a while, and reports requests per second and latency percentiles
+ *
+ * clients cycle through a fixed set of generated faces, so the run
+ * starts cold and turns into mostly cache hits once every face has been
+ * seen; the first fifth of the run is a warm-up and is not counted
+ * a client opens its next request as soon as the last one is answered,
+ * so the latencies are those of a closed loop at that concurrency
+ *
+ * usage: FaceLoadTest [clients] [seconds] [faces] [size]
+ *
+ * @version Oct 18 2026
+ * @author Alex Junkins
+ */
+package com.example.junkinsfacemaker.server;
+
+import com.example.junkinsfacemaker.core.FaceBatchGenerator;
+import com.example.junkinsfacemaker.core.FaceCodec;
+import com.example.junkinsfacemaker.core.FaceTraitStore;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.Arrays;
+
+public class FaceLoadTest {
+    private final int clients;
+    private final long runNanos;
+    private final String[] urls;
+
+    /**
+     * Main constructor
+     *
+     * @param port      the server's port on the loopback address
+     * @param clients   concurrent client threads
+     * @param seconds   length of the run, warm-up included
+     * @param faces     distinct faces requested
+     * @param size      image size requested
+     */
+    public FaceLoadTest(int port, int clients, int seconds, int faces,
+                        int size) {
+        this.clients = clients;
+        this.runNanos = seconds * 1000000000L;
+        FaceTraitStore store = new FaceBatchGenerator().generate(22, faces);
+        urls = new String[faces];
+        for (int i = 0; i < faces; i++){
+            urls[i] = "http://127.0.0.1:" + port + FaceServer.PATH
+                    + FaceCodec.toHex(FaceCodec.packLow(store.getSkinColor(i),
+                            store.getEyeColor(i), store.getHairColor(i)),
+                    FaceCodec.packHigh(store.getHairColor(i),
+                            store.getHairStyle(i)))
+                    + "?size=" + size;
+        }
+    }
+
+    /**
+     * Runs the load and waits for every client
+     * @return  what was measured
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public Result run() throws InterruptedException {
+        long start = System.nanoTime();
+        long measureFrom = start + runNanos / 5;
+        long end = start + runNanos;
+        Client[] workers = new Client[clients];
+        for (int c = 0; c < clients; c++){
+            workers[c] = new Client(c, measureFrom, end);
+            workers[c].start();
+        }
+        long[] all = new long[0];
+        long errors = 0;
+        for (Client worker : workers){
+            worker.join();
+            long[] mine = Arrays.copyOf(worker.latencies, worker.count);
+            long[] merged = Arrays.copyOf(all, all.length + mine.length);
+            System.arraycopy(mine, 0, merged, all.length, mine.length);
+            all = merged;
+            errors += worker.errors;
+        }
+        Arrays.sort(all);
+        return new Result(all, errors, end - measureFrom);
+    }
+
+    /**
+     * One client: fetches faces back to back, timing each
+     */
+    private class Client extends Thread {
+        private final long measureFrom;
+        private final long end;
+        private int next;
+        //latencies of the measured requests, grown as needed
+        private long[] latencies = new long[1 << 14];
+        private int count;
+        private long errors;
+
+        Client(int index, long measureFrom, long end) {
+            super("load-client-" + index);
+            //start each client at a different face
+            this.next = (int)((long)index * urls.length / clients);
+            this.measureFrom = measureFrom;
+            this.end = end;
+        }
+
+        @Override
+        public void run() {
+            byte[] buf = new byte[8192];
+            long now = System.nanoTime();
+            while (now < end){
+                String url = urls[next];
+                next = (next + 1) % urls.length;
+                boolean ok = fetch(url, buf);
+                long done = System.nanoTime();
+                if (now >= measureFrom){
+                    if (!ok){
+                        errors++;
+                    }
+                    if (count == latencies.length){
+                        latencies = Arrays.copyOf(latencies, count * 2);
+                    }
+                    latencies[count++] = done - now;
+                }
+                now = done;
+            }
+        }
+
+        /**
+         * A helper method to fetch one face and read all of it, so the
+         * connection goes back to the keep-alive pool
+         */
+        private boolean fetch(String url, byte[] buf){
+            try {
+                HttpURLConnection conn =
+                        (HttpURLConnection)new URL(url).openConnection();
+                int status = conn.getResponseCode();
+                InputStream in = status < 400 ? conn.getInputStream()
+                        : conn.getErrorStream();
+                if (in != null){
+                    while (in.read(buf) >= 0){
+                        //drain
+                    }
+                    in.close();
+                }
+                return status == 200;
+            }
+            catch (IOException e){
+                return false;
+            }
+        }
+    }//class Client
+
+    /**
+     * The measured part of a run
+     */
+    public static final class Result {
+        private final long[] sortedNanos;
+        private final long errors;
+        private final long measuredNanos;
+
+        Result(long[] sortedNanos, long errors, long measuredNanos) {
+            this.sortedNanos = sortedNanos;
+            this.errors = errors;
+            this.measuredNanos = measuredNanos;
+        }
+
+        /**
+         * A getter for the number of measured requests
+         * @return requests
+         */
+        public int getRequests() {
+            return sortedNanos.length;
+        }
+
+        /**
+         * A getter for the number of failed requests
+         * @return errors
+         */
+        public long getErrors() {
+            return errors;
+        }
+
+        /**
+         * A getter for the throughput
+         * @return  measured requests per second
+         */
+        public double getRequestsPerSecond() {
+            return sortedNanos.length * 1e9 / measuredNanos;
+        }
+
+        /**
+         * A getter for a latency percentile
+         * @param fraction  e.g. .99 for the 99th percentile
+         * @return  the latency in milliseconds, 0 if nothing was measured
+         */
+        public double getPercentileMillis(double fraction){
+            if (sortedNanos.length == 0){
+                return 0;
+            }
+            int at = (int)Math.min(sortedNanos.length - 1,
+                    Math.ceil(fraction * sortedNanos.length) - 1);
+            return sortedNanos[Math.max(0, at)] / 1e6;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d requests, %d errors, %.0f req/s, "
+                            + "p50 %.3f ms, p99 %.3f ms, max %.3f ms",
+                    getRequests(), errors, getRequestsPerSecond(),
+                    getPercentileMillis(.5), getPercentileMillis(.99),
+                    getPercentileMillis(1));
+        }
+    }//class Result
+
+    /**
+     * Starts a server and runs a load test against it
+     * @param args  optional clients, seconds, faces and size
+     * @throws Exception    if the server can't start or the run is
+     *                      interrupted
+     */
+    public static void main(String[] args) throws Exception {
+        int clients = args.length > 0 ? Integer.parseInt(args[0]) : 16;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        int faces = args.length > 2 ? Integer.parseInt(args[2]) : 2000;
+        int size = args.length > 3 ? Integer.parseInt(args[3]) : 128;
+
+        FaceServer server = new FaceServer(0,
+                Runtime.getRuntime().availableProcessors(),
+                new FaceImageCache(FaceImageCache.DEFAULT_BYTES));
+        server.start();
+        //keep-alive connections for every client
+        System.setProperty("http.maxConnections", String.valueOf(clients));
+        try {
+            Result result = new FaceLoadTest(server.getPort(), clients,
+                    seconds, faces, size).run();
+            FaceImageCache cache = server.getCache();
+            System.out.println(clients + " clients, " + faces + " faces at "
+                    + size + "px: " + result);
+            System.out.println("rendered " + server.getRenderedCount()
+                    + ", cache hits " + cache.getHits() + ", misses "
+                    + cache.getMisses() + ", " + cache.size() + " bytes held");
+        }
+        finally {
+            server.stop(0);
+        }
+    }
+}//class FaceLoadTest
@@ -0,0 +1,329 @@
+/**
+ * FaceMaker FaceServer Class
+ * serves face images over HTTP, for tools that want a face by id without
+ * the Android app:
+ *   GET /face/{packed}?size=N
+ * where packed is the 20 hex digits of FaceCodec.toHex; the answer is a
+ * size x size PNG with an ETag of the traits and size, so clients can
+ * revalidate with If-None-Match and get a bodiless 304
+ *
+ * faces are drawn by a FaceRasterizer and encoded by a PngEncoder, then
+ * kept in a FaceImageCache, so a popular face is rendered once
+ * requests run on a fixed pool of one thread per core; the work is all
+ * CPU, so more threads would only queue for the same cores
+ * binds to the loopback address only
+ *
+ * @version Oct 18 2026
+ * @author Alex Junkins
+ */
+package com.example.junkinsfacemaker.server;
+
+import com.example.junkinsfacemaker.core.FaceCodec;
+import com.example.junkinsfacemaker.core.FaceModel;
+import com.example.junkinsfacemaker.core.FaceRasterizer;
+import com.example.junkinsfacemaker.core.PngEncoder;
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class FaceServer implements HttpHandler {
+    public static final String PATH = "/face/";
+    public static final int DEFAULT_PORT = 8080;
+    public static final int DEFAULT_SIZE = 256;
+    public static final int MIN_SIZE = 16;
+    public static final int MAX_SIZE = 1024;
+    //the color behind the face
+    public static final int BACKGROUND = 0xffffffff;
+
+    //the same id always draws the same image, so it can be kept forever
+    private static final String CACHE_CONTROL =
+            "public, max-age=31536000, immutable";
+
+    static {
+        //the JDK server writes the headers and the body separately, so
+        //with Nagle on a keep-alive client waits out a delayed ACK, about
+        //40ms, for every response; read once, when the server class loads
+        if (System.getProperty("sun.net.httpserver.nodelay") == null){
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+
+    private final HttpServer server;
+    private final ExecutorService pool;
+    private final FaceImageCache cache;
+
+    //each pool thread draws with its own rasterizer and framebuffer
+    private final ThreadLocal<Renderer> renderers =
+            new ThreadLocal<Renderer>() {
+                @Override
+                protected Renderer initialValue() {
+                    return new Renderer();
+                }
+            };
+
+    //counters for tests and tuning
+    private final AtomicLong rendered = new AtomicLong();
+    private final AtomicLong notModified = new AtomicLong();
+
+    /**
+     * Main constructor
+     * binds right away but only answers once started
+     *
+     * @param port      the port on the loopback address; 0 picks a free one
+     * @param threads   request threads
+     * @param cache     where encoded faces are kept
+     * @throws IOException  if the port can't be bound
+     */
+    public FaceServer(int port, int threads, FaceImageCache cache)
+            throws IOException {
+        if (threads <= 0){
+            throw new IllegalArgumentException("bad thread count: "
+                    + threads);
+        }
+        this.cache = cache;
+        server = HttpServer.create(new InetSocketAddress(
+                InetAddress.getLoopbackAddress(), port), 0);
+        server.createContext(PATH, this);
+        pool = Executors.newFixedThreadPool(threads, new ThreadFactory() {
+            private final AtomicInteger count = new AtomicInteger();
+
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread t = new Thread(r, "face-server-"
+                        + count.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            }
+        });
+        server.setExecutor(pool);
+    }
+
+    /**
+     * Starts answering requests
+     */
+    public void start(){
+        server.start();
+    }
+
+    /**
+     * Stops the server, giving requests under way a moment to finish
+     * @param delaySeconds  the most to wait for them
+     */
+    public void stop(int delaySeconds){
+        server.stop(delaySeconds);
+        pool.shutdown();
+    }
+
+    /**
+     * A getter for the port, e.g. after binding port 0
+     * @return  the bound port
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * A getter for the cache of encoded faces
+     * @return  the cache
+     */
+    public FaceImageCache getCache() {
+        return cache;
+    }
+
+    /**
+     * A getter for the number of faces rendered and encoded
+     * @return  cache misses that were drawn
+     */
+    public long getRenderedCount() {
+        return rendered.get();
+    }
+
+    /**
+     * A getter for the number of 304 answers
+     * @return  requests answered from the client's own copy
+     */
+    public long getNotModifiedCount() {
+        return notModified.get();
+    }
+
+    /**
+     * Answers one request
+     * @param exchange  the request and its response
+     * @throws IOException  if the client goes away
+     */
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+        try {
+            String method = exchange.getRequestMethod();
+            boolean head = "HEAD".equals(method);
+            if (!head && !"GET".equals(method)){
+                exchange.getResponseHeaders().set("Allow", "GET, HEAD");
+                sendError(exchange, 405, "only GET and HEAD");
+                return;
+            }
+
+            //the id, then the size
+            String id = exchange.getRequestURI().getPath()
+                    .substring(PATH.length());
+            long low;
+            short high;
+            try {
+                low = FaceCodec.parseLow(id);
+                high = FaceCodec.parseHigh(id);
+            }
+            catch (IllegalArgumentException e){
+                sendError(exchange, 400, "expected " + FaceCodec.HEX_CHARS
+                        + " hex digits of packed traits");
+                return;
+            }
+            if (!FaceModel.isValidHairStyle(FaceCodec.hairStyle(high))){
+                sendError(exchange, 404, "no such hairstyle");
+                return;
+            }
+            int size = parseSize(exchange.getRequestURI().getRawQuery());
+            if (size < MIN_SIZE || size > MAX_SIZE){
+                sendError(exchange, 400, "size must be " + MIN_SIZE + "-"
+                        + MAX_SIZE);
+                return;
+            }
+
+            Headers headers = exchange.getResponseHeaders();
+            String etag = "\"" + FaceCodec.toHex(low, high) + "-" + size
+                    + "\"";
+            headers.set("ETag", etag);
+            headers.set("Cache-Control", CACHE_CONTROL);
+            if (etag.equals(exchange.getRequestHeaders()
+                    .getFirst("If-None-Match"))){
+                notModified.incrementAndGet();
+                exchange.sendResponseHeaders(304, -1);
+                return;
+            }
+
+            byte[] png = cache.get(low, high, size);
+            if (png == null){
+                png = renderers.get().render(low, high, size);
+                rendered.incrementAndGet();
+                cache.put(low, high, size, png);
+            }
+            headers.set("Content-Type", "image/png");
+            if (head){
+                exchange.sendResponseHeaders(200, -1);
+                return;
+            }
+            exchange.sendResponseHeaders(200, png.length);
+            OutputStream body = exchange.getResponseBody();
+            body.write(png);
+            body.close();
+        }
+        finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * A helper method to read the size parameter
+     *
+     * @param query the raw query string, or null
+     * @return  the size, DEFAULT_SIZE if missing, -1 if not a number
+     */
+    static int parseSize(String query){
+        if (query == null){
+            return DEFAULT_SIZE;
+        }
+        for (String param : query.split("&")){
+            if (param.startsWith("size=")){
+                try {
+                    return Integer.parseInt(param.substring(5));
+                }
+                catch (NumberFormatException e){
+                    return -1;
+                }
+            }
+        }
+        return DEFAULT_SIZE;
+    }
+
+    /**
+     * A helper method to answer with a plain text error
+     *
+     * @param exchange  the request and its response
+     * @param status    HTTP status code
+     * @param message   what went wrong
+     * @throws IOException  if the client goes away
+     */
+    private static void sendError(HttpExchange exchange, int status,
+                                  String message) throws IOException {
+        byte[] text = (message + "\n").getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type",
+                "text/plain; charset=utf-8");
+        exchange.sendResponseHeaders(status, text.length);
+        OutputStream body = exchange.getResponseBody();
+        body.write(text);
+        body.close();
+    }
+
+    /**
+     * One thread's drawing state, rebuilt only when the size changes
+     */
+    private static final class Renderer {
+        private FaceRasterizer rasterizer;
+        private int[] fb;
+
+        /**
+         * Draws and encodes a face
+         *
+         * @param low   the low part of the face's FaceCodec encoding
+         * @param high  the high part of the face's FaceCodec encoding
+         * @param size  the image's edge in pixels
+         * @return  the PNG bytes
+         * @throws IOException  never, since it writes to memory
+         */
+        byte[] render(long low, short high, int size) throws IOException {
+            if (rasterizer == null || rasterizer.getWidth() != size){
+                rasterizer = new FaceRasterizer(size, size);
+                fb = new int[size * size];
+            }
+            rasterizer.render(FaceCodec.skinColor(low),
+                    FaceCodec.eyeColor(low), FaceCodec.hairColor(low, high),
+                    FaceCodec.hairStyle(high), BACKGROUND, fb, 0, size);
+            //flat colors deflate to a few kilobytes
+            ByteArrayOutputStream png = new ByteArrayOutputStream(4096);
+            try (PngEncoder encoder = new PngEncoder(png, size, size)){
+                for (int y = 0; y < size; y++){
+                    encoder.writeRow(fb, y * size);
+                }
+            }
+            return png.toByteArray();
+        }
+    }//class Renderer
+
+    /**
+     * Runs a server until the process is killed
+     * @param args  optional port, then optional cache budget in megabytes
+     * @throws IOException  if the port can't be bound
+     */
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        long cacheBytes = args.length > 1 ? Long.parseLong(args[1]) << 20
+                : FaceImageCache.DEFAULT_BYTES;
+        FaceServer server = new FaceServer(port,
+                Runtime.getRuntime().availableProcessors(),
+                new FaceImageCache(cacheBytes));
+        server.start();
+        System.out.println("serving faces on http://localhost:"
+                + server.getPort() + PATH);
+    }
+}//class FaceServer
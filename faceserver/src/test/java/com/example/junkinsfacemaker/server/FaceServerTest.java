@@ -0,0 +1,149 @@
+package com.example.junkinsfacemaker.server;
+
+import com.example.junkinsfacemaker.core.FaceCodec;
+import com.example.junkinsfacemaker.core.FaceModel;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+
+import javax.imageio.ImageIO;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the face server and its image cache
+ */
+public class FaceServerTest {
+    private static final int SKIN = 0xffe0b090;
+    private static final int EYE = 0xff2060a0;
+    private static final int HAIR = 0xff302010;
+
+    private FaceServer server;
+    private String id;
+
+    @Before
+    public void setUp() throws IOException {
+        server = new FaceServer(0, 2, new FaceImageCache(1 << 20));
+        server.start();
+        id = FaceCodec.toHex(FaceCodec.packLow(SKIN, EYE, HAIR),
+                FaceCodec.packHigh(HAIR, FaceModel.AFRO));
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    private HttpURLConnection open(String path) throws IOException {
+        return (HttpURLConnection)new URL("http://127.0.0.1:"
+                + server.getPort() + path).openConnection();
+    }
+
+    private static byte[] body(HttpURLConnection conn) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (InputStream in = conn.getInputStream()){
+            byte[] buf = new byte[4096];
+            for (int n; (n = in.read(buf)) >= 0; ){
+                out.write(buf, 0, n);
+            }
+        }
+        return out.toByteArray();
+    }
+
+    @Test
+    public void face_isServedAsPng() throws IOException {
+        HttpURLConnection conn = open(FaceServer.PATH + id + "?size=64");
+        assertEquals(200, conn.getResponseCode());
+        assertEquals("image/png", conn.getContentType());
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(
+                body(conn)));
+        assertEquals(64, image.getWidth());
+        assertEquals(64, image.getHeight());
+        //white around the face, and the face's own colors
+        assertEquals(0xffffffff, image.getRGB(0, 63));
+        boolean skin = false;
+        boolean eye = false;
+        for (int y = 0; y < 64; y++){
+            for (int x = 0; x < 64; x++){
+                skin |= image.getRGB(x, y) == SKIN;
+                eye |= image.getRGB(x, y) == EYE;
+            }
+        }
+        assertTrue(skin);
+        assertTrue(eye);
+    }
+
+    @Test
+    public void repeatedFace_comesFromTheCache() throws IOException {
+        byte[] first = body(open(FaceServer.PATH + id));
+        byte[] second = body(open(FaceServer.PATH + id));
+        assertArrayEquals(first, second);
+        assertEquals(1, server.getRenderedCount());
+        assertEquals(1, server.getCache().getHits());
+
+        //another size is another image
+        body(open(FaceServer.PATH + id + "?size=32"));
+        assertEquals(2, server.getRenderedCount());
+    }
+
+    @Test
+    public void matchingEtag_getsNotModified() throws IOException {
+        HttpURLConnection conn = open(FaceServer.PATH + id + "?size=64");
+        String etag = conn.getHeaderField("ETag");
+        body(conn);
+        assertEquals("\"" + id + "-64\"", etag);
+
+        conn = open(FaceServer.PATH + id + "?size=64");
+        conn.setRequestProperty("If-None-Match", etag);
+        assertEquals(304, conn.getResponseCode());
+        assertEquals(1, server.getNotModifiedCount());
+
+        //the same tag doesn't match another size
+        conn = open(FaceServer.PATH + id + "?size=65");
+        conn.setRequestProperty("If-None-Match", etag);
+        assertEquals(200, conn.getResponseCode());
+    }
+
+    @Test
+    public void badRequests_areRejected() throws IOException {
+        assertEquals(400, open(FaceServer.PATH + "xyz").getResponseCode());
+        assertEquals(400, open(FaceServer.PATH + id + "?size=4")
+                .getResponseCode());
+        assertEquals(400, open(FaceServer.PATH + id + "?size=big")
+                .getResponseCode());
+        String noStyle = FaceCodec.toHex(FaceCodec.packLow(SKIN, EYE, HAIR),
+                FaceCodec.packHigh(HAIR, 200));
+        assertEquals(404, open(FaceServer.PATH + noStyle).getResponseCode());
+        HttpURLConnection post = open(FaceServer.PATH + id);
+        post.setRequestMethod("POST");
+        assertEquals(405, post.getResponseCode());
+        assertEquals(0, server.getRenderedCount());
+    }
+
+    @Test
+    public void cache_evictsLeastRecentlyUsed() {
+        FaceImageCache cache = new FaceImageCache(100);
+        cache.put(1, (short)0, 64, new byte[40]);
+        cache.put(2, (short)0, 64, new byte[40]);
+        assertNotNull(cache.get(1, (short)0, 64));
+        cache.put(3, (short)0, 64, new byte[40]);
+        assertNull(cache.get(2, (short)0, 64));
+        assertNotNull(cache.get(1, (short)0, 64));
+        assertEquals(80, cache.size());
+        assertEquals(1, cache.getEvictions());
+
+        //too big to keep at all
+        cache.put(4, (short)0, 64, new byte[101]);
+        assertNull(cache.get(4, (short)0, 64));
+        assertEquals(2, cache.count());
+    }
+}